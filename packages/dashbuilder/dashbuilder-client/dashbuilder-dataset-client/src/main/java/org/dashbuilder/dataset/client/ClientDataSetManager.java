@@ -30,6 +30,7 @@ import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.DataSetManager;
 import org.dashbuilder.dataset.DataSetMetadata;
 import org.dashbuilder.dataset.def.DataSetPreprocessor;
+import org.dashbuilder.dataset.engine.DataSetLookupCache;
 import org.dashbuilder.dataset.engine.SharedDataSetOpEngine;
 import org.dashbuilder.dataset.engine.index.DataSetIndex;
 
@@ -42,6 +43,7 @@ public class ClientDataSetManager implements DataSetManager {
 
     SharedDataSetOpEngine dataSetOpEngine;
     Map<String,List<DataSetPreprocessor>> preprocessorMap = new HashMap<String, List<DataSetPreprocessor>>();
+    DataSetLookupCache lookupCache = new DataSetLookupCache();
 
     public ClientDataSetManager() {
         this.dataSetOpEngine = ClientDataSetCore.get().getSharedDataSetOpEngine();
@@ -54,6 +56,13 @@ public class ClientDataSetManager implements DataSetManager {
         return dataSet;
     }
 
+    /**
+     * Cache of the lookup results. Identical lookups over the same data set are calculated only once.
+     */
+    public DataSetLookupCache getLookupCache() {
+        return lookupCache;
+    }
+
     @Override
     public DataSet getDataSet(String uuid) {
         DataSetIndex index = dataSetOpEngine.getIndexRegistry().get(uuid);
@@ -67,6 +76,7 @@ public class ClientDataSetManager implements DataSetManager {
     public void registerDataSet(DataSet dataSet) {
         if (dataSet != null) {
             dataSetOpEngine.getIndexRegistry().put(dataSet);
+            lookupCache.invalidate(dataSet.getUUID());
         }
     }
 
@@ -74,6 +84,7 @@ public class ClientDataSetManager implements DataSetManager {
     public void registerDataSet(DataSet dataSet, List<DataSetPreprocessor> preprocessors) {
         if (dataSet != null) {
             dataSetOpEngine.getIndexRegistry().put(dataSet);
+            lookupCache.invalidate(dataSet.getUUID());
 
             for (DataSetPreprocessor preprocessor : preprocessors) {
                 registerDataSetPreprocessor(dataSet.getUUID(), preprocessor);
@@ -81,8 +92,35 @@ public class ClientDataSetManager implements DataSetManager {
         }
     }
 
+    /**
+     * Notify that some rows have been added in front of a registered data set, so its indexes are updated
+     * instead of rebuilt from scratch.
+     * @param uuid The data set uuid
+     * @param rows The number of rows added
+     * @param keptRows The number of previous rows kept after the ones added
+     */
+    public void prependDataSet(String uuid, int rows, int keptRows) {
+        DataSetIndex index = dataSetOpEngine.getIndexRegistry().get(uuid);
+        if (index != null) {
+            index.prepend(rows, keptRows);
+            lookupCache.invalidate(uuid);
+        }
+    }
+
+    /**
+     * Notify that some rows have been added at the end of a registered data set, so its indexes are updated
+     * incrementally.
+     * @param uuid The data set uuid
+     * @param rows The rows appended, in ascending order
+     */
+    public void appendDataSet(String uuid, List<Integer> rows) {
+        dataSetOpEngine.append(uuid, rows);
+        lookupCache.invalidate(uuid);
+    }
+
     @Override
     public DataSet removeDataSet(String uuid) {
+        lookupCache.invalidate(uuid);
         DataSetIndex index = dataSetOpEngine.getIndexRegistry().remove(uuid);
         if (index == null) {
             return null;
@@ -110,13 +148,17 @@ public class ClientDataSetManager implements DataSetManager {
         }
         DataSet dataSet = dataSetIndex.getDataSet();
 
-        // Apply the list of operations specified (if any).
+        // Apply the list of operations specified (if any) and trim the data set as requested.
         if (!lookup.getOperationList().isEmpty()) {
-            dataSet = dataSetOpEngine.execute(uuid, lookup.getOperationList());
+            DataSet result = lookupCache.get(lookup, dataSetIndex);
+            if (result == null) {
+                result = dataSetOpEngine.execute(uuid, lookup.getOperationList(), lookup.getRowOffset(), lookup.getNumberOfRows());
+                lookupCache.put(lookup, dataSetIndex, result);
+            }
+            dataSet = result;
+        } else {
+            dataSet = dataSet.trim(lookup.getRowOffset(), lookup.getNumberOfRows());
         }
-
-        // Trim the data set as requested.
-        dataSet = dataSet.trim(lookup.getRowOffset(), lookup.getNumberOfRows());
         return dataSet;
     }
 
@@ -13,71 +13,278 @@
  */
 package org.dashbuilder.client.external;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+import java.util.function.Function;
 import java.util.function.UnaryOperator;
 
 import javax.enterprise.context.ApplicationScoped;
 
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetBuilder;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.def.DataColumnDef;
+import org.dashbuilder.json.JsonUtil;
+
 /**
- * Beta CSV parser which need to be improved according to the rfc4180 specification.
- *
+ * CSV parser (rfc4180). The first record is the header, and is skipped.
+ * <p>The CSV content can be either read straight into a data set (see {@link #parseDataSet(String)}) or
+ * transformed into a JSON array of rows (see {@link #toJsonArray(String)}).</p>
  */
 @ApplicationScoped
 public class CSVParser implements UnaryOperator<String> {
 
-    private static final char SEPARATOR = ',';
-    private static final char QUOTE = '\"';
+    private static final String COLUMN_PREFIX = "Column ";
+
+    /**
+     * Number of records read to find out the column types.
+     */
+    static final int SAMPLE_SIZE = 100;
+
+    /**
+     * Number of records read between progress notifications.
+     */
+    static final int PROGRESS_RECORDS = 10000;
+
+    private Function<String, Date> dateParser;
+
+    public CSVParser() {
+        this(null);
+    }
+
+    /**
+     * @param dateParser Function used to detect and parse date columns. If <tt>null</tt> no date columns are created.
+     */
+    public CSVParser(Function<String, Date> dateParser) {
+        this.dateParser = dateParser;
+    }
 
     public String toJsonArray(String csvContent) {
+        var reader = new CSVReader(csvContent);
+        var fields = new ArrayList<String>();
         var jsonArray = new StringBuilder("[");
-        var lines = csvContent.split("\n");
-        Arrays.stream(lines).skip(1).forEach(line -> buildRow(jsonArray, line));
-        String finalJsonArray = jsonArray.toString();
-        finalJsonArray = finalJsonArray.substring(0, jsonArray.length() - 1);
-        finalJsonArray += "]";
-        finalJsonArray = finalJsonArray.replace("True", "true");
-        finalJsonArray = finalJsonArray.replace("False", "false");
-        return finalJsonArray;
-    }
-
-    private void buildRow(StringBuilder jsonArray, String line) {
-        var row = new StringBuilder("[\"");
-        int i = 0;
-        var len = line.length();
-        while (i < len) {
-            if (line.charAt(i) != SEPARATOR && line.charAt(i) != QUOTE) {
-                row.append(line.charAt(i));
-            } else if (i < len - 2 && line.charAt(i) == QUOTE) {
-                i++;
-                i = retrieveQuotedField(line, row, i);
-            } else if (line.charAt(i) == SEPARATOR) {
-                row.append("\",\"");
+
+        // Skip the header
+        reader.readRecord(fields);
+        while (reader.readRecord(fields)) {
+            if (isEmptyRecord(fields)) {
+                continue;
+            }
+            if (jsonArray.length() > 1) {
+                jsonArray.append(",");
+            }
+            jsonArray.append("[");
+            for (int i = 0; i < fields.size(); i++) {
+                if (i > 0) {
+                    jsonArray.append(",");
+                }
+                jsonArray.append(JsonUtil.quote(toLabel(fields.get(i))));
             }
-            i++;
+            jsonArray.append("]");
         }
-        row.append("\"]");
-        jsonArray.append(row);
-        jsonArray.append(",");
+        return jsonArray.append("]").toString();
+    }
+
+    public DataSet parseDataSet(String csvContent) {
+        return parseDataSet(csvContent, null, null);
+    }
+
+    public DataSet parseDataSet(String csvContent, DoubleConsumer progress) {
+        return parseDataSet(csvContent, null, progress);
     }
 
-    private int retrieveQuotedField(String line, StringBuilder row, int i) {
-        // quoted field
-        boolean isEscapedQuote = false;
-        while (i < line.length() - 1 && (line.charAt(i) != QUOTE || (isEscapedQuote = isEscapedQuote(line, i)))) {
-            if (isEscapedQuote) {
-                row.append("\\\"");
-                i += 2;
-                isEscapedQuote = false;
+    /**
+     * Read the CSV content into a data set.
+     * @param columns The columns declared, if any. Every value is converted to the type of its column, and any
+     * value beyond the declared columns is read as a label. If no columns are declared their types are inferred
+     * from the first records.
+     * @param progress Optional callback notified with the fraction (0 to 1) of the content read so far.
+     * @throws IllegalArgumentException If the content is not valid CSV or a value does not match its column type.
+     */
+    public DataSet parseDataSet(String csvContent, List<DataColumnDef> columns, DoubleConsumer progress) {
+        var reader = new CSVReader(csvContent);
+        var fields = new ArrayList<String>();
+
+        // Skip the header
+        reader.readRecord(fields);
+
+        // Read a sample to find out the columns
+        var sample = new ArrayList<List<String>>();
+        while (sample.size() < SAMPLE_SIZE && reader.readRecord(fields)) {
+            if (!isEmptyRecord(fields)) {
+                sample.add(new ArrayList<>(fields));
+            }
+        }
+        var builder = DataSetFactory.newDataSetBuilder();
+        var declared = columns == null ? 0 : columns.size();
+        var types = declared == 0 ? inferColumnTypes(sample) : new ColumnType[Math.max(declared, countColumns(sample))];
+        var ids = new String[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (i < declared) {
+                ids[i] = columns.get(i).getId();
+                types[i] = columns.get(i).getColumnType();
+            } else {
+                ids[i] = COLUMN_PREFIX + i;
+                types[i] = types[i] == null ? ColumnType.LABEL : types[i];
+            }
+            builder.column(ids[i], types[i]);
+        }
+        for (var record : sample) {
+            addRow(builder, ids, types, record);
+        }
+        // And the rest of records
+        var records = sample.size();
+        while (reader.readRecord(fields)) {
+            if (isEmptyRecord(fields)) {
+                continue;
+            }
+            addRow(builder, ids, types, fields);
+            if (progress != null && ++records % PROGRESS_RECORDS == 0) {
+                progress.accept((double) reader.getPosition() / reader.getLength());
+            }
+        }
+        if (progress != null) {
+            progress.accept(1d);
+        }
+        return builder.buildDataSet();
+    }
+
+    protected ColumnType[] inferColumnTypes(List<List<String>> sample) {
+        var columns = countColumns(sample);
+        var types = new ColumnType[columns];
+        for (int i = 0; i < columns; i++) {
+            var isNumber = true;
+            var isDate = dateParser != null;
+            var isEmpty = true;
+            for (var record : sample) {
+                var value = i < record.size() ? record.get(i) : "";
+                if (value.isEmpty()) {
+                    continue;
+                }
+                isEmpty = false;
+                isNumber = isNumber && parseNumber(value) != null;
+                isDate = isDate && parseDate(value) != null;
+            }
+            if (isEmpty) {
+                types[i] = ColumnType.LABEL;
             } else {
-                row.append(line.charAt(i));
-                i++;
+                types[i] = isNumber ? ColumnType.NUMBER : isDate ? ColumnType.DATE : ColumnType.LABEL;
             }
         }
-        return i;
+        return types;
+    }
+
+    private int countColumns(List<List<String>> sample) {
+        var columns = 0;
+        for (var record : sample) {
+            columns = Math.max(columns, record.size());
+        }
+        return columns;
+    }
+
+    private void addRow(DataSetBuilder builder, String[] ids, ColumnType[] types, List<String> record) {
+        if (record.size() > types.length) {
+            throw new IllegalArgumentException("Too many values (" + record.size() + "), expected " + types.length);
+        }
+        var row = new Object[types.length];
+        for (int i = 0; i < record.size(); i++) {
+            row[i] = convert(record.get(i), types[i], ids[i]);
+        }
+        builder.row(row);
+    }
+
+    private Object convert(String value, ColumnType type, String columnId) {
+        switch (type) {
+            case NUMBER:
+            case DATE:
+                if (value.isEmpty()) {
+                    return null;
+                }
+                var result = type == ColumnType.NUMBER ? parseNumber(value) : parseDate(value);
+                if (result == null) {
+                    throw new IllegalArgumentException("Incompatible value " + value + " for column " + columnId);
+                }
+                return result;
+            default:
+                return toLabel(value);
+        }
+    }
+
+    /**
+     * Only plain decimal numbers are read, i.e. <tt>-12</tt>, <tt>3.5</tt> or <tt>1e-3</tt>. Unlike
+     * <tt>Double.parseDouble</tt>, surrounding spaces, type suffixes such as <tt>1f</tt> or <tt>2d</tt>,
+     * <tt>NaN</tt> and <tt>Infinity</tt> are rejected.
+     */
+    private Double parseNumber(String value) {
+        var length = value.length();
+        var i = skipSign(value, 0);
+        var digits = countDigits(value, i);
+        i += digits;
+        if (i < length && value.charAt(i) == '.') {
+            var decimals = countDigits(value, ++i);
+            i += decimals;
+            digits += decimals;
+        }
+        if (digits == 0) {
+            return null;
+        }
+        if (i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i = skipSign(value, i + 1);
+            var exponent = countDigits(value, i);
+            if (exponent == 0) {
+                return null;
+            }
+            i += exponent;
+        }
+        if (i < length) {
+            return null;
+        }
+        var result = Double.parseDouble(value);
+        return Double.isInfinite(result) ? null : result;
+    }
+
+    private int skipSign(String value, int i) {
+        return i < value.length() && (value.charAt(i) == '-' || value.charAt(i) == '+') ? i + 1 : i;
+    }
+
+    private int countDigits(String value, int i) {
+        var count = 0;
+        while (i + count < value.length() && value.charAt(i + count) >= '0' && value.charAt(i + count) <= '9') {
+            count++;
+        }
+        return count;
+    }
+
+    private Date parseDate(String value) {
+        try {
+            return dateParser.apply(value);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Boolean values are written in lower case.
+     */
+    private String toLabel(String value) {
+        if ("True".equals(value)) {
+            return "true";
+        }
+        if ("False".equals(value)) {
+            return "false";
+        }
+        return value;
+    }
+
+    private boolean isEmptyRecord(List<String> fields) {
+        return fields.size() == 1 && fields.get(0).isEmpty();
     }
 
     boolean isEscapedQuote(String line, int i) {
-        return line.charAt(i) == QUOTE && i < line.length() - 1 && line.charAt(i + 1) == QUOTE;
+        return CSVReader.isEscapedQuote(line, i);
     }
 
     @Override
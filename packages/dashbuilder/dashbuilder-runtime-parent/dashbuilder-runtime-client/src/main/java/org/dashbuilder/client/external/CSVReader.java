@@ -0,0 +1,146 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.dashbuilder.client.external;
+
+import java.util.List;
+
+/**
+ * A single pass CSV reader following the RFC 4180 specification. It reads one record at a time straight from the
+ * content, so no intermediate copies (lines, splits) of the whole content are created.
+ * <ul>
+ * <li>Fields are separated by commas and records by line breaks (CRLF, LF or CR).</li>
+ * <li>Fields might be enclosed in double quotes. Quoted fields can contain commas, line breaks and double quotes
+ * (escaped by preceding it with another double quote).</li>
+ * </ul>
+ */
+public class CSVReader {
+
+    static final char SEPARATOR = ',';
+    static final char QUOTE = '\"';
+    static final char LF = '\n';
+    static final char CR = '\r';
+
+    private final CharSequence content;
+    private final int length;
+    private int position = 0;
+    private int line = 1;
+
+    public CSVReader(CharSequence content) {
+        this.content = content;
+        this.length = content.length();
+    }
+
+    /**
+     * The number of characters read so far.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * The total number of characters to read.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    public boolean hasNext() {
+        return position < length;
+    }
+
+    /**
+     * Read the next record.
+     * @param fields The list where to put the record fields (it is cleared first).
+     * @return <tt>false</tt> if there are no more records to read.
+     * @throws IllegalArgumentException If a quoted field is not closed.
+     */
+    public boolean readRecord(List<String> fields) {
+        fields.clear();
+        if (position >= length) {
+            return false;
+        }
+        while (true) {
+            fields.add(position < length && content.charAt(position) == QUOTE ? readQuotedField() : readField());
+            if (position >= length) {
+                return true;
+            }
+            char ch = content.charAt(position++);
+            if (ch == CR) {
+                if (position < length && content.charAt(position) == LF) {
+                    position++;
+                }
+                line++;
+                return true;
+            }
+            if (ch == LF) {
+                line++;
+                return true;
+            }
+            // Separator => next field
+        }
+    }
+
+    private String readField() {
+        int start = position;
+        while (position < length) {
+            char ch = content.charAt(position);
+            if (ch == SEPARATOR || ch == LF || ch == CR) {
+                break;
+            }
+            position++;
+        }
+        return content.subSequence(start, position).toString();
+    }
+
+    private String readQuotedField() {
+        int startLine = line;
+        int start = ++position;
+        StringBuilder value = null;
+        while (position < length) {
+            char ch = content.charAt(position);
+            if (ch == QUOTE) {
+                if (isEscapedQuote(content, position)) {
+                    // Escaped quote => copy up to the first quote and skip the second one
+                    if (value == null) {
+                        value = new StringBuilder();
+                    }
+                    value.append(content, start, position + 1);
+                    position += 2;
+                    start = position;
+                    continue;
+                }
+                String result = value == null ? content.subSequence(start, position).toString()
+                        : value.append(content, start, position).toString();
+                position++;
+
+                // Anything between the closing quote and the separator is kept as well (not RFC compliant)
+                return position < length && content.charAt(position) != SEPARATOR
+                        && content.charAt(position) != LF && content.charAt(position) != CR
+                        ? result + readField() : result;
+            }
+            if (ch == LF) {
+                line++;
+            }
+            position++;
+        }
+        throw new IllegalArgumentException("Quoted field not closed. Line " + startLine);
+    }
+
+    /**
+     * Check if the character at the given position is a double quote escaped by another double quote.
+     */
+    static boolean isEscapedQuote(CharSequence content, int i) {
+        return content.charAt(i) == QUOTE && i < content.length() - 1 && content.charAt(i + 1) == QUOTE;
+    }
+}
@@ -41,6 +41,7 @@ import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.client.ClientDataSetManager;
 import org.dashbuilder.dataset.client.DataSetReadyCallback;
 import org.dashbuilder.dataset.def.ExternalDataSetDef;
+import org.dashbuilder.dataset.impl.DataSetRingBuffer;
 import org.dashbuilder.dataset.json.ExternalDataSetJSONParser;
 import org.jboss.resteasy.util.HttpResponseCodes;
 
@@ -55,10 +56,14 @@ public class ExternalDataSetClientProvider {
 
     ExternalDataSetJSONParser externalParser;
 
+    CSVParser csvParser;
+
     private Map<String, ExternalDataSetDef> externalDataSets;
 
     private Map<String, Double> scheduledTimeouts;
 
+    private Map<String, DataSetRingBuffer> ringBuffers = new HashMap<>();
+
     private static final SupportedMimeType DEFAULT_TYPE = SupportedMimeType.JSON;
 
     @PostConstruct
@@ -68,6 +73,7 @@ public class ExternalDataSetClientProvider {
 
         var format = DateTimeFormat.getFormat(PredefinedFormat.ISO_8601);
         externalParser = new ExternalDataSetJSONParser(format::parse);
+        csvParser = new CSVParser(format::parse);
     }
 
     public void fetchAndRegister(String uuid, DataSetLookup lookup, DataSetReadyCallback listener) {
@@ -125,6 +131,7 @@ public class ExternalDataSetClientProvider {
         var existingDef = externalDataSets.get(def.getUUID());
         if (existingDef == null || !def.equals(existingDef)) {
             clientDataSetManager.removeDataSet(def.getUUID());
+            ringBuffers.remove(def.getUUID());
             externalDataSets.put(def.getUUID(), def);
         }
     }
@@ -186,25 +193,38 @@ public class ExternalDataSetClientProvider {
                                        final DataSetReadyCallback callback,
                                        final String responseText,
                                        final SupportedMimeType contentType) {
-        var content = contentType.tranformer.apply(responseText);
+        var hasExpression = def.getExpression() != null && !def.getExpression().trim().isEmpty();
+        var dataSet = DataSetFactory.newEmptyDataSet();
 
-        if (def.getExpression() != null && !def.getExpression().trim().isEmpty()) {
+        // CSV content with no expression to apply is read straight into the data set, using the columns declared
+        var csv = contentType == SupportedMimeType.CSV && !hasExpression;
+        if (csv) {
             try {
-                content = applyExpression(def.getExpression(), content);
+                dataSet = csvParser.parseDataSet(responseText, def.getColumns(), null);
             } catch (Exception e) {
-                callback.onError(new ClientRuntimeError("Error evaluating dataset expression", e));
+                callback.onError(new ClientRuntimeError("Error parsing dataset: " + e.getMessage(), e));
+                return null;
+            }
+        } else {
+            var content = contentType.tranformer.apply(responseText);
+
+            if (hasExpression) {
+                try {
+                    content = applyExpression(def.getExpression(), content);
+                } catch (Exception e) {
+                    callback.onError(new ClientRuntimeError("Error evaluating dataset expression", e));
+                    return null;
+                }
+            }
+            try {
+                dataSet = externalParser.parseDataSet(content);
+            } catch (Exception e) {
+                callback.onError(new ClientRuntimeError("Error parsing dataset: " + e.getMessage(), e));
                 return null;
             }
-        }
-        var dataSet = DataSetFactory.newEmptyDataSet();
-        try {
-            dataSet = externalParser.parseDataSet(content);
-        } catch (Exception e) {
-            callback.onError(new ClientRuntimeError("Error parsing dataset: " + e.getMessage(), e));
-            return null;
         }
 
-        if (def != null && !def.getColumns().isEmpty()) {
+        if (!csv && !def.getColumns().isEmpty()) {
             for (int i = 0; i < def.getColumns().size(); i++) {
                 var defColumn = def.getColumns().get(i);
                 var dsColumn = dataSet.getColumnByIndex(i);
@@ -215,12 +235,20 @@ public class ExternalDataSetClientProvider {
 
         var existingDs = clientDataSetManager.getDataSet(def.getUUID());
         if (def.isAccumulate() && existingDs != null) {
-            // no new data, so keep existing data set
-            if (dataSet.getRowCount() == 0) {
-                dataSet = existingDs;
-            } else {
-                accumulateDataSet(dataSet, existingDs);
+            // new rows are written in place, so the registered data set and its indexes are kept
+            if (dataSet.getRowCount() > 0) {
+                var rows = accumulateDataSet(dataSet, existingDs);
+                clientDataSetManager.prependDataSet(def.getUUID(), rows, existingDs.getRowCount() - rows);
             }
+            existingDs.setDefinition(def);
+            callback.callback(existingDs);
+            return null;
+        }
+        if (def.isAccumulate()) {
+            var ringBuffer = new DataSetRingBuffer(dataSet.cloneEmpty(), def.getCacheMaxRows());
+            ringBuffer.addRows(dataSet);
+            ringBuffers.put(def.getUUID(), ringBuffer);
+            dataSet = ringBuffer.getDataSet();
         }
         dataSet.setDefinition(def);
         dataSet.setUUID(def.getUUID());
@@ -229,19 +257,21 @@ public class ExternalDataSetClientProvider {
         return null;
     }
 
-    void accumulateDataSet(DataSet dataSet, DataSet existingDs) {
+    /**
+     * Writes the rows of the new data set in front of the existing ones, evicting the oldest rows once the cache
+     * max rows is reached.
+     * @return The number of rows added to the existing data set.
+     */
+    int accumulateDataSet(DataSet dataSet, DataSet existingDs) {
         if (dataSet.getRowCount() > 0 && !existingDs.getColumns().equals(dataSet.getColumns())) {
             throw new RuntimeException("New data is not compatible with existing data.");
         }
-        for (int i = dataSet.getRowCount(), j = 0; i < existingDs.getDefinition().getCacheMaxRows() && j < existingDs
-                .getRowCount(); i++, j++) {
-            final int row = j;
-            var values = existingDs.getColumns()
-                    .stream()
-                    .map(cl -> existingDs.getValueAt(row, cl.getId()))
-                    .toArray(Object[]::new);
-            dataSet.addValues(values);
+        var ringBuffer = ringBuffers.get(existingDs.getUUID());
+        if (ringBuffer == null || ringBuffer.getDataSet() != existingDs) {
+            ringBuffer = new DataSetRingBuffer(existingDs, existingDs.getDefinition().getCacheMaxRows());
+            ringBuffers.put(existingDs.getUUID(), ringBuffer);
         }
+        return ringBuffer.addRows(dataSet);
     }
 
     private void doLookup(DataSetLookup lookup, DataSetReadyCallback listener) {
@@ -299,5 +329,6 @@ public class ExternalDataSetClientProvider {
 
     private void clearRegisteredDataSets() {
         externalDataSets.keySet().forEach(d -> clientDataSetManager.removeDataSet(d));
+        ringBuffers.clear();
     }
 }
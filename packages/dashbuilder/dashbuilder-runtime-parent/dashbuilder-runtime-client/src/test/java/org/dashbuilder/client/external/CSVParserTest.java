@@ -13,12 +13,20 @@
  */
 package org.dashbuilder.client.external;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.def.DataColumnDef;
 import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class CSVParserTest {
 
@@ -128,4 +136,139 @@ public class CSVParserTest {
         assertTrue(parser.isEscapedQuote("\"\"", 0));
         assertFalse(parser.isEscapedQuote("\"a\",\"\"", 2));
     }
+
+    @Test
+    public void testParseQuotedLineBreaks() {
+        var array = parser.toJsonArray(HEADER + "\"x\ny\",\"a\r\nb\",z\r\n1,2,3\r\n");
+        assertEquals("[[\"x\\ny\",\"a\\r\\nb\",\"z\"],[\"1\",\"2\",\"3\"]]", array);
+    }
+
+    @Test
+    public void testParseNoRows() {
+        assertEquals("[]", parser.toJsonArray(HEADER));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseQuoteNotClosed() {
+        parser.toJsonArray(HEADER + "x,\"y,z\n");
+    }
+
+    @Test
+    public void testParseDataSet() {
+        var dataSet = parser.parseDataSet(SAMPLE_TEST);
+        assertEquals(4, dataSet.getRowCount());
+        assertEquals(5, dataSet.getColumns().size());
+        assertEquals(ColumnType.NUMBER, dataSet.getColumnByIndex(0).getColumnType());
+        assertEquals(ColumnType.LABEL, dataSet.getColumnByIndex(1).getColumnType());
+        assertEquals(ColumnType.LABEL, dataSet.getColumnByIndex(3).getColumnType());
+        assertEquals(ColumnType.NUMBER, dataSet.getColumnByIndex(4).getColumnType());
+        assertEquals("Column 2", dataSet.getColumnByIndex(2).getId());
+        assertEquals(1997d, dataSet.getValueAt(0, 0));
+        assertEquals("Venture \"Extended Edition, Very Large\"", dataSet.getValueAt(2, 2));
+        assertEquals(4799d, dataSet.getValueAt(3, 4));
+    }
+
+    @Test
+    public void testParseDataSetEmptyNumbers() {
+        var dataSet = parser.parseDataSet(HEADER + "1,x,\n,y,True\n3,,False");
+        assertEquals(3, dataSet.getRowCount());
+        assertEquals(ColumnType.NUMBER, dataSet.getColumnByIndex(0).getColumnType());
+        assertNull(dataSet.getValueAt(1, 0));
+        assertEquals("true", dataSet.getValueAt(1, 2));
+    }
+
+    @Test
+    public void testParseDataSetDates() {
+        var dates = new CSVParser(s -> {
+            if (!s.startsWith("20")) {
+                throw new IllegalArgumentException(s);
+            }
+            return new Date(0);
+        });
+        var dataSet = dates.parseDataSet(HEADER + "2020-01-01,x,1\n2021-01-01,y,2");
+        assertEquals(ColumnType.DATE, dataSet.getColumnByIndex(0).getColumnType());
+        assertEquals(ColumnType.LABEL, dataSet.getColumnByIndex(1).getColumnType());
+        assertEquals(ColumnType.NUMBER, dataSet.getColumnByIndex(2).getColumnType());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseDataSetIncompatibleValue() {
+        var csv = new StringBuilder(HEADER);
+        for (int i = 0; i < CSVParser.SAMPLE_SIZE; i++) {
+            csv.append(i).append(",x,y\n");
+        }
+        csv.append("NaN?,x,y\n");
+        parser.parseDataSet(csv.toString());
+    }
+
+    @Test
+    public void testParseDataSetDeclaredColumns() {
+        var columns = Arrays.asList(new DataColumnDef("code", ColumnType.LABEL),
+                                    new DataColumnDef("amount", ColumnType.NUMBER));
+        var dataSet = parser.parseDataSet(HEADER + "007,1,x\n010,2,y", columns, null);
+        assertEquals(3, dataSet.getColumns().size());
+        assertEquals("code", dataSet.getColumnByIndex(0).getId());
+        assertEquals(ColumnType.LABEL, dataSet.getColumnByIndex(0).getColumnType());
+        assertEquals(ColumnType.NUMBER, dataSet.getColumnByIndex(1).getColumnType());
+        assertEquals("Column 2", dataSet.getColumnByIndex(2).getId());
+        assertEquals(ColumnType.LABEL, dataSet.getColumnByIndex(2).getColumnType());
+
+        // Numeric looking labels are kept as they are
+        assertEquals("007", dataSet.getValueAt(0, 0));
+        assertEquals("010", dataSet.getValueAt(1, 0));
+        assertEquals(2d, dataSet.getValueAt(1, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseDataSetDeclaredColumnsIncompatibleValue() {
+        var columns = Arrays.asList(new DataColumnDef("amount", ColumnType.NUMBER));
+        parser.parseDataSet(HEADER + "1\nx", columns, null);
+    }
+
+    @Test
+    public void testParseDataSetNumbers() {
+        var dataSet = parser.parseDataSet(HEADER + "-1,1.5,1e3\n+2,.5,2E-2\n3,4.,-1e+2");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(ColumnType.NUMBER, dataSet.getColumnByIndex(i).getColumnType());
+        }
+        assertEquals(-1d, dataSet.getValueAt(0, 0));
+        assertEquals(0.5d, dataSet.getValueAt(1, 1));
+        assertEquals(-100d, dataSet.getValueAt(2, 2));
+    }
+
+    @Test
+    public void testParseDataSetNotNumbers() {
+        for (var value : Arrays.asList("1f", "2d", " 12 ", "NaN", "Infinity", "-Infinity", "0x1p3", "1e", ".", "-", "1e400")) {
+            var dataSet = parser.parseDataSet(HEADER + "1,x,y\n" + value + ",x,y");
+            assertEquals(value, ColumnType.LABEL, dataSet.getColumnByIndex(0).getColumnType());
+            assertEquals(value, dataSet.getValueAt(1, 0));
+        }
+    }
+
+    @Test
+    public void testParseDataSetDeclaredNumberRejectsNaN() {
+        var columns = Arrays.asList(new DataColumnDef("amount", ColumnType.NUMBER));
+        for (var value : Arrays.asList("1f", "2d", " 12 ", "NaN", "Infinity")) {
+            try {
+                parser.parseDataSet(HEADER + "1\n" + value, columns, null);
+                fail(value);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testParseDataSetProgress() {
+        var csv = new StringBuilder(HEADER);
+        for (int i = 0; i < CSVParser.PROGRESS_RECORDS * 2; i++) {
+            csv.append(i).append(",x,y\n");
+        }
+        var progress = new ArrayList<Double>();
+        var dataSet = parser.parseDataSet(csv.toString(), progress::add);
+        assertEquals(CSVParser.PROGRESS_RECORDS * 2, dataSet.getRowCount());
+        assertEquals(3, progress.size());
+        assertTrue(progress.get(0) > 0.4 && progress.get(0) < 0.6);
+        assertEquals(1d, progress.get(2), 0d);
+    }
 }
@@ -15,6 +15,7 @@
  */
 package org.dashbuilder.client.external;
 
+import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.def.ExternalDataSetDef;
 import org.dashbuilder.dataset.json.ExternalDataSetJSONParser;
 import org.junit.Before;
@@ -46,9 +47,13 @@ public class ExternalDataSetClientProviderTest {
 
         existingDs.setDefinition(def);
         ds.setDefinition(def);
-        provider.accumulateDataSet(ds, existingDs);
+        var rows = provider.accumulateDataSet(ds, existingDs);
 
-        assertEquals(3, ds.getRowCount());
+        assertEquals(1, rows);
+        assertEquals(3, existingDs.getRowCount());
+        assertEquals(3.0, existingDs.getValueAt(0, 0));
+        assertEquals(2.0, existingDs.getValueAt(1, 0));
+        assertEquals(1.0, existingDs.getValueAt(2, 0));
     }
 
     @Test
@@ -62,11 +67,39 @@ public class ExternalDataSetClientProviderTest {
 
         existingDs.setDefinition(def);
         ds.setDefinition(def);
-        provider.accumulateDataSet(ds, existingDs);
+        var rows = provider.accumulateDataSet(ds, existingDs);
+
+        assertEquals(1, rows);
+        assertEquals(2, existingDs.getRowCount());
+        assertEquals(3.0, existingDs.getValueAt(0, 0));
+        assertEquals(2.0, existingDs.getValueAt(1, 0));
+
+        rows = provider.accumulateDataSet(externalParser.parseDataSet("[[4]]"), existingDs);
 
-        assertEquals(2, ds.getRowCount());
-        assertEquals(3.0, ds.getValueAt(0, 0));
-        assertEquals(2.0, ds.getValueAt(1, 0));
+        assertEquals(1, rows);
+        assertEquals(2, existingDs.getRowCount());
+        assertEquals(4.0, existingDs.getValueAt(0, 0));
+        assertEquals(3.0, existingDs.getValueAt(1, 0));
+    }
+
+    @Test
+    public void accumulateDataSetWrapTest() {
+        var def = new ExternalDataSetDef();
+        def.setAccumulate(true);
+        def.setCacheMaxRows(3);
+
+        var existingDs = externalParser.parseDataSet("[[1]]");
+        existingDs.setDefinition(def);
+
+        // the newest rows come first, even once the oldest ones are overwritten
+        provider.accumulateDataSet(externalParser.parseDataSet("[[3], [2]]"), existingDs);
+        assertValues(existingDs, 3.0, 2.0, 1.0);
+        provider.accumulateDataSet(externalParser.parseDataSet("[[5], [4]]"), existingDs);
+        assertValues(existingDs, 5.0, 4.0, 3.0);
+        provider.accumulateDataSet(externalParser.parseDataSet("[[6]]"), existingDs);
+        assertValues(existingDs, 6.0, 5.0, 4.0);
+        provider.accumulateDataSet(externalParser.parseDataSet("[[9], [8], [7]]"), existingDs);
+        assertValues(existingDs, 9.0, 8.0, 7.0);
     }
 
     @Test(expected = RuntimeException.class)
@@ -84,4 +117,11 @@ public class ExternalDataSetClientProviderTest {
         provider.accumulateDataSet(ds, existingDs);
     }
 
+    private void assertValues(DataSet dataSet, Object... values) {
+        assertEquals(values.length, dataSet.getRowCount());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], dataSet.getValueAt(i, 0));
+        }
+    }
+
 }
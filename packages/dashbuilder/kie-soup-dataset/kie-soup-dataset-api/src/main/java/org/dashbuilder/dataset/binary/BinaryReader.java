@@ -0,0 +1,123 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.binary;
+
+/**
+ * Reads the primitives written by a {@link BinaryWriter}.
+ */
+class BinaryReader {
+
+    private byte[] buffer;
+    private int position;
+    private int limit;
+
+    BinaryReader(byte[] buffer) {
+        this.buffer = buffer;
+        this.position = 0;
+        this.limit = buffer.length;
+    }
+
+    int position() {
+        return position;
+    }
+
+    boolean hasRemaining() {
+        return position < limit;
+    }
+
+    int readByte() {
+        check(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    int readVarInt() {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed integer at byte " + position);
+    }
+
+    long readVarLong() {
+        long zigzag = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IllegalArgumentException("Malformed integer at byte " + position);
+    }
+
+    double readDouble() {
+        check(8);
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | (buffer[position++] & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    byte[] readBytes(int length) {
+        check(length);
+        byte[] result = new byte[length];
+        System.arraycopy(buffer, position, result, 0, length);
+        position += length;
+        return result;
+    }
+
+    String readString() {
+        int length = readVarInt();
+        check(length);
+        char[] chars = new char[length];
+        int count = 0;
+        int end = position + length;
+        while (position < end) {
+            int b = buffer[position++] & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if (b < 0xE0) {
+                chars[count++] = (char) (((b & 0x1F) << 6) | (next(end) & 0x3F));
+            } else if (b < 0xF0) {
+                chars[count++] = (char) (((b & 0x0F) << 12) | ((next(end) & 0x3F) << 6) | (next(end) & 0x3F));
+            } else {
+                int codePoint = ((b & 0x07) << 18) | ((next(end) & 0x3F) << 12) | ((next(end) & 0x3F) << 6) | (next(end) & 0x3F);
+                codePoint -= 0x10000;
+                chars[count++] = (char) (0xD800 + (codePoint >> 10));
+                chars[count++] = (char) (0xDC00 + (codePoint & 0x3FF));
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    private int next(int end) {
+        if (position >= end) {
+            throw new IllegalArgumentException("Malformed string at byte " + position);
+        }
+        return buffer[position++];
+    }
+
+    private void check(int length) {
+        if (length < 0 || position + length > limit) {
+            throw new IllegalArgumentException("Unexpected end of data set content at byte " + position);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.binary;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.impl.ColumnValues;
+import org.dashbuilder.dataset.impl.DateColumnValues;
+import org.dashbuilder.dataset.impl.LabelColumnValues;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
+
+/**
+ * Compact columnar encoding of data sets, intended to replace the JSON format when transferring large data sets
+ * to the client. Every column is written as a single block:
+ * <ul>
+ * <li>A null bitmap (only if the column contains nulls). The values of the null rows are not written.</li>
+ * <li>LABEL columns: a dictionary with the distinct labels followed by the code of every row.</li>
+ * <li>DATE columns: the difference (in millis) between every date and the previous one.</li>
+ * <li>NUMBER columns: variable length integers if all the values are integers, 8 byte doubles otherwise.</li>
+ * <li>TEXT columns: every value as UTF-8.</li>
+ * </ul>
+ * <p>The encoder and the decoder only use core language classes, so they can run on both client and server.</p>
+ */
+public class DataSetBinaryMarshaller {
+
+    /**
+     * Content type of the encoded data sets (to be negotiated through the HTTP <tt>Accept</tt> header).
+     */
+    public static final String MEDIA_TYPE = "application/x-dashbuilder-dataset";
+
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = {'D', 'S', 'B'};
+
+    private static final int LABEL = 0;
+    private static final int TEXT = 1;
+    private static final int NUMBER = 2;
+    private static final int DATE = 3;
+
+    private static final int HAS_NULLS = 1;
+    private static final int INTEGER_VALUES = 2;
+
+    // Doubles beyond this value can not be represented exactly as longs
+    private static final double MAX_INTEGER = 9007199254740992d;
+
+    private static DataSetBinaryMarshaller SINGLETON = new DataSetBinaryMarshaller();
+
+    public static DataSetBinaryMarshaller get() {
+        return SINGLETON;
+    }
+
+    /**
+     * Check if the given content starts as an encoded data set.
+     */
+    public boolean isBinaryDataSet(byte[] bytes) {
+        if (bytes == null || bytes.length < MAGIC.length + 1) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public byte[] toBytes(DataSet dataSet) {
+        List<DataColumn> columns = dataSet == null ? new ArrayList<DataColumn>() : dataSet.getColumns();
+        int rowCount = dataSet == null ? 0 : dataSet.getRowCount();
+        BinaryWriter writer = new BinaryWriter(64 + rowCount * columns.size() * 2);
+        writer.writeBytes(MAGIC);
+        writer.writeByte(VERSION);
+        writer.writeVarInt(rowCount);
+        writer.writeVarInt(dataSet == null ? 0 : dataSet.getRowCountNonTrimmed());
+        writer.writeVarInt(columns.size());
+        for (DataColumn column : columns) {
+            writeColumn(writer, column, rowCount);
+        }
+        return writer.toByteArray();
+    }
+
+    private void writeColumn(BinaryWriter writer, DataColumn column, int rowCount) {
+        ColumnType type = column.getColumnType();
+        List values = column.getValues();
+        writer.writeString(column.getId());
+        writer.writeByte(getTypeCode(type));
+
+        byte[] nullBits = getNullBits(values, rowCount);
+        boolean integers = ColumnType.NUMBER.equals(type) && areIntegers(values, rowCount);
+        writer.writeByte((nullBits != null ? HAS_NULLS : 0) | (integers ? INTEGER_VALUES : 0));
+        if (nullBits != null) {
+            writer.writeBytes(nullBits);
+        }
+        switch (type) {
+            case LABEL:
+                writeLabels(writer, values, rowCount);
+                break;
+            case NUMBER:
+                writeNumbers(writer, values, rowCount, integers);
+                break;
+            case DATE:
+                writeDates(writer, values, rowCount);
+                break;
+            default:
+                for (int row = 0; row < rowCount; row++) {
+                    Object value = values.get(row);
+                    if (value != null) {
+                        writer.writeString(value.toString());
+                    }
+                }
+                break;
+        }
+    }
+
+    private byte[] getNullBits(List values, int rowCount) {
+        byte[] nullBits = null;
+        for (int row = 0; row < rowCount; row++) {
+            if (isNull(values, row)) {
+                if (nullBits == null) {
+                    nullBits = new byte[(rowCount + 7) / 8];
+                }
+                nullBits[row >> 3] |= 1 << (row & 7);
+            }
+        }
+        return nullBits;
+    }
+
+    private boolean isNull(List values, int row) {
+        if (values instanceof ColumnValues) {
+            return ((ColumnValues) values).isNull(row);
+        }
+        return values.get(row) == null;
+    }
+
+    private boolean areIntegers(List values, int rowCount) {
+        for (int row = 0; row < rowCount; row++) {
+            if (!isNull(values, row)) {
+                double d = getDouble(values, row);
+                if (d != Math.rint(d) || Math.abs(d) > MAX_INTEGER || (d == 0 && 1 / d < 0)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private double getDouble(List values, int row) {
+        if (values instanceof NumberColumnValues) {
+            return ((NumberColumnValues) values).getDouble(row);
+        }
+        Object value = values.get(row);
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString());
+    }
+
+    private void writeNumbers(BinaryWriter writer, List values, int rowCount, boolean integers) {
+        for (int row = 0; row < rowCount; row++) {
+            if (!isNull(values, row)) {
+                double d = getDouble(values, row);
+                if (integers) {
+                    writer.writeVarLong((long) d);
+                } else {
+                    writer.writeDouble(d);
+                }
+            }
+        }
+    }
+
+    private void writeDates(BinaryWriter writer, List values, int rowCount) {
+        DateColumnValues dates = values instanceof DateColumnValues ? (DateColumnValues) values : null;
+        long last = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (!isNull(values, row)) {
+                long millis = dates != null ? dates.getMillis(row) : ((Date) values.get(row)).getTime();
+                writer.writeVarLong(millis - last);
+                last = millis;
+            }
+        }
+    }
+
+    private void writeLabels(BinaryWriter writer, List values, int rowCount) {
+        if (values instanceof LabelColumnValues) {
+            // Reuse the dictionary of the columnar storage
+            LabelColumnValues labels = (LabelColumnValues) values;
+            List<String> dictionary = labels.getDictionary();
+            writer.writeVarInt(dictionary.size());
+            for (String label : dictionary) {
+                writer.writeString(label);
+            }
+            for (int row = 0; row < rowCount; row++) {
+                if (!labels.isNull(row)) {
+                    writer.writeVarInt(labels.getCode(row));
+                }
+            }
+            return;
+        }
+        Map<String, Integer> codeMap = new HashMap<String, Integer>();
+        List<String> dictionary = new ArrayList<String>();
+        int[] codes = new int[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            Object value = values.get(row);
+            if (value != null) {
+                String label = value.toString();
+                Integer code = codeMap.get(label);
+                if (code == null) {
+                    code = dictionary.size();
+                    codeMap.put(label, code);
+                    dictionary.add(label);
+                }
+                codes[row] = code;
+            }
+        }
+        writer.writeVarInt(dictionary.size());
+        for (String label : dictionary) {
+            writer.writeString(label);
+        }
+        for (int row = 0; row < rowCount; row++) {
+            if (values.get(row) != null) {
+                writer.writeVarInt(codes[row]);
+            }
+        }
+    }
+
+    public DataSet fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (!isBinaryDataSet(bytes)) {
+            throw new IllegalArgumentException("Not a binary data set");
+        }
+        BinaryReader reader = new BinaryReader(bytes);
+        reader.readBytes(MAGIC.length);
+        int version = reader.readByte();
+        if (version > VERSION) {
+            throw new IllegalArgumentException("Binary data set version not supported: " + version);
+        }
+        int rowCount = reader.readVarInt();
+        int rowCountNonTrimmed = reader.readVarInt();
+        int columnCount = reader.readVarInt();
+
+        DataSet dataSet = DataSetFactory.newEmptyDataSet();
+        for (int i = 0; i < columnCount; i++) {
+            readColumn(reader, dataSet, rowCount);
+        }
+        if (rowCountNonTrimmed != rowCount) {
+            dataSet.setRowCountNonTrimmed(rowCountNonTrimmed);
+        }
+        return dataSet;
+    }
+
+    private void readColumn(BinaryReader reader, DataSet dataSet, int rowCount) {
+        String columnId = reader.readString();
+        int typeCode = reader.readByte();
+        int flags = reader.readByte();
+        byte[] nullBits = (flags & HAS_NULLS) != 0 ? reader.readBytes((rowCount + 7) / 8) : null;
+
+        switch (typeCode) {
+            case LABEL: {
+                int dictionarySize = reader.readVarInt();
+                String[] dictionary = new String[dictionarySize];
+                for (int i = 0; i < dictionarySize; i++) {
+                    dictionary[i] = reader.readString();
+                }
+                LabelColumnValues values = new LabelColumnValues(rowCount);
+                for (int row = 0; row < rowCount; row++) {
+                    if (isNull(nullBits, row)) {
+                        values.add(null);
+                    } else {
+                        int code = reader.readVarInt();
+                        if (code < 0 || code >= dictionarySize) {
+                            throw new IllegalArgumentException("Label code out of range: " + code);
+                        }
+                        values.add(dictionary[code]);
+                    }
+                }
+                dataSet.addColumn(columnId, ColumnType.LABEL, values);
+                break;
+            }
+            case NUMBER: {
+                boolean integers = (flags & INTEGER_VALUES) != 0;
+                NumberColumnValues values = new NumberColumnValues(rowCount);
+                for (int row = 0; row < rowCount; row++) {
+                    if (isNull(nullBits, row)) {
+                        values.add(null);
+                    } else {
+                        values.addDouble(integers ? (double) reader.readVarLong() : reader.readDouble());
+                    }
+                }
+                dataSet.addColumn(columnId, ColumnType.NUMBER, values);
+                break;
+            }
+            case DATE: {
+                DateColumnValues values = new DateColumnValues(rowCount);
+                long last = 0;
+                for (int row = 0; row < rowCount; row++) {
+                    if (isNull(nullBits, row)) {
+                        values.add(null);
+                    } else {
+                        last += reader.readVarLong();
+                        values.addMillis(last);
+                    }
+                }
+                dataSet.addColumn(columnId, ColumnType.DATE, values);
+                break;
+            }
+            case TEXT: {
+                List<String> values = new ArrayList<String>(rowCount);
+                for (int row = 0; row < rowCount; row++) {
+                    values.add(isNull(nullBits, row) ? null : reader.readString());
+                }
+                dataSet.addColumn(columnId, ColumnType.TEXT, values);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Column type not supported: " + typeCode);
+        }
+    }
+
+    private boolean isNull(byte[] nullBits, int row) {
+        return nullBits != null && (nullBits[row >> 3] & (1 << (row & 7))) != 0;
+    }
+
+    private int getTypeCode(ColumnType type) {
+        switch (type) {
+            case LABEL: return LABEL;
+            case NUMBER: return NUMBER;
+            case DATE: return DATE;
+            default: return TEXT;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.dashbuilder.dataset.filter;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * A core filter function definition
@@ -179,4 +180,9 @@ public class CoreFunctionFilter extends ColumnFilter {
             return false;
         }
     }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), type, parameters);
+    }
 }
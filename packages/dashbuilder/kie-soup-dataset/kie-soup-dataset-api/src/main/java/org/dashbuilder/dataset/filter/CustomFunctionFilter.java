@@ -55,4 +55,9 @@ public class CustomFunctionFilter extends ColumnFilter {
             return false;
         }
     }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
 }
@@ -75,6 +75,11 @@ public class DataSetFilter extends AbstractDataSetOp {
         }
     }
 
+    @Override
+    public int hashCode() {
+        return columnFilterList.hashCode();
+    }
+
     public String toString() {
         StringBuilder out = new StringBuilder();
         for (ColumnFilter columnFilter : columnFilterList) {
@@ -17,6 +17,7 @@ package org.dashbuilder.dataset.filter;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * A logical expression based filter definition.
@@ -116,6 +117,16 @@ public class LogicalExprFilter extends ColumnFilter {
         }
     }
 
+    @Override
+    public int hashCode() {
+        // The terms are compared regardless of their order
+        int termsHash = 0;
+        for (ColumnFilter term : logicalTerms) {
+            termsHash += term.hashCode();
+        }
+        return Objects.hash(super.hashCode(), logicalOperator, termsHash);
+    }
+
     public String toString() {
         StringBuilder out = new StringBuilder();
         out.append("(");
@@ -34,10 +34,18 @@ public enum AggregateFunctionType {
     MEDIAN,
     JOIN,
     JOIN_COMMA,
-    JOIN_HYPHEN;
+    JOIN_HYPHEN,
+
+    // Approximate functions: calculated in constant memory, with a small error
+    DISTINCT_APPROX,
+    MEDIAN_APPROX,
+    PERCENTILE_90,
+    PERCENTILE_95,
+    PERCENTILE_99;
 
     private static AggregateFunctionType[] _typeArray = values();
-    private static List<AggregateFunctionType> _numericOnly = Arrays.asList(AVERAGE, MEDIAN, SUM, MAX, MIN);
+    private static List<AggregateFunctionType> _numericOnly = Arrays.asList(AVERAGE, MEDIAN, SUM, MAX, MIN,
+            MEDIAN_APPROX, PERCENTILE_90, PERCENTILE_95, PERCENTILE_99);
 
     public int getIndex() {
         for (int i = 0; i < _typeArray.length; i++) {
@@ -15,6 +15,8 @@
  */
 package org.dashbuilder.dataset.group;
 
+import java.util.Objects;
+
 import org.dashbuilder.dataset.date.DayOfWeek;
 import org.dashbuilder.dataset.date.Month;
 
@@ -157,6 +159,11 @@ public class ColumnGroup {
         }
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(sourceId, columnId, strategy, intervalSize, emptyIntervals, maxIntervals);
+    }
+
     public String toString() {
         StringBuilder out = new StringBuilder();
         out.append("column=").append(sourceId).append(" ");
@@ -17,6 +17,7 @@ package org.dashbuilder.dataset.group;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import org.dashbuilder.dataset.DataSetOpType;
 import org.dashbuilder.dataset.impl.AbstractDataSetOp;
@@ -175,6 +176,20 @@ public class DataSetGroup extends AbstractDataSetOp {
         }
     }
 
+    @Override
+    public int hashCode() {
+        // The functions and intervals are compared regardless of their order
+        int functionsHash = 0;
+        for (GroupFunction groupFunction : groupFunctionList) {
+            functionsHash += groupFunction.hashCode();
+        }
+        int intervalsHash = 0;
+        for (Interval interval : selectedIntervalList) {
+            intervalsHash += interval.hashCode();
+        }
+        return Objects.hash(join, columnGroup, functionsHash, intervalsHash);
+    }
+
     public String toString() {
         StringBuilder out = new StringBuilder();
         if (columnGroup != null) {
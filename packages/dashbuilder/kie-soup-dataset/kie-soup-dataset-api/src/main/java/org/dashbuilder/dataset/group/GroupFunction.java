@@ -15,6 +15,8 @@
  */
 package org.dashbuilder.dataset.group;
 
+import java.util.Objects;
+
 /**
  * A function definition.
  */
@@ -77,6 +79,11 @@ public class GroupFunction {
         }
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(sourceId, columnId, function);
+    }
+
     public String toString() {
         StringBuilder out = new StringBuilder();
         if (sourceId != null) out.append(" column=").append(sourceId);
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.impl;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dashbuilder.dataset.ColumnType;
+
+/**
+ * Base class for the columnar storage of a data column's values.
+ * <p>Implementations keep the values into primitive arrays (plus a null bitmap when required) and expose them
+ * as a regular <tt>List</tt>, so any code relying on <tt>DataColumn.getValues()</tt> keeps working. Boxed
+ * instances are only created on read.</p>
+ * <p>Values are read back as the type the column is stored as (<tt>Double</tt>, <tt>Date</tt> or
+ * <tt>String</tt>), whatever the class of the value stored.</p>
+ */
+public abstract class ColumnValues extends AbstractList<Object> {
+
+    protected static final int DEFAULT_CAPACITY = 16;
+
+    protected int size = 0;
+    protected int[] nullBits = null;
+
+    /**
+     * Creates the value storage best suited for the given column type.
+     * @return A columnar list for NUMBER, DATE and LABEL columns or a plain <tt>ArrayList</tt> otherwise.
+     */
+    public static List newColumnValues(ColumnType columnType) {
+        if (ColumnType.NUMBER.equals(columnType)) {
+            return new NumberColumnValues();
+        }
+        if (ColumnType.DATE.equals(columnType)) {
+            return new DateColumnValues();
+        }
+        if (ColumnType.LABEL.equals(columnType)) {
+            return new LabelColumnValues();
+        }
+        return new ArrayList();
+    }
+
+    /**
+     * The type of the column this storage is intended for.
+     */
+    public abstract ColumnType getColumnType();
+
+    /**
+     * Build an empty storage of the same type.
+     */
+    public abstract ColumnValues cloneEmpty();
+
+    /**
+     * Build a storage of the same type containing the same values.
+     */
+    public abstract ColumnValues cloneInstance();
+
+    /**
+     * Return the estimated memory (in bytes) consumed by the storage.
+     */
+    public abstract long getEstimatedSize();
+
+    /**
+     * Store the value at the given position. The position is always within the current capacity.
+     */
+    protected abstract void setValue(int row, Object value);
+
+    /**
+     * Make sure the storage can hold at least the given number of values.
+     */
+    protected abstract void ensureCapacity(int capacity);
+
+    /**
+     * Move a block of values within the storage arrays.
+     */
+    protected abstract void moveValues(int from, int to, int length);
+
+    public boolean isNull(int row) {
+        checkIndex(row);
+        return isNullBit(row);
+    }
+
+    /**
+     * Append the value of another list at the given row. Subclasses override it in order to avoid boxing
+     * when both lists share the same storage type.
+     */
+    public void addValue(List source, int row) {
+        add(source.get(row));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Object set(int row, Object value) {
+        checkIndex(row);
+        Object old = get(row);
+        setValue(row, value);
+        return old;
+    }
+
+    @Override
+    public void add(int row, Object value) {
+        if (row < 0 || row > size) {
+            throw new IndexOutOfBoundsException("Index: " + row + ", Size: " + size);
+        }
+        ensureCapacity(size + 1);
+        if (row < size) {
+            moveValues(row, row + 1, size - row);
+            moveNullBits(row, row + 1, size - row);
+        }
+        size++;
+        modCount++;
+        setValue(row, value);
+    }
+
+    @Override
+    public Object remove(int row) {
+        checkIndex(row);
+        Object old = get(row);
+        int tail = size - row - 1;
+        if (tail > 0) {
+            moveValues(row + 1, row, tail);
+            moveNullBits(row + 1, row, tail);
+        }
+        size--;
+        modCount++;
+        setNullBit(size, false);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        nullBits = null;
+        modCount++;
+    }
+
+    protected void checkIndex(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Index: " + row + ", Size: " + size);
+        }
+    }
+
+    protected int grow(int currentCapacity, int minCapacity) {
+        int newCapacity = currentCapacity + (currentCapacity >> 1) + 1;
+        return Math.max(newCapacity, minCapacity);
+    }
+
+    // Null bitmap
+
+    protected boolean isNullBit(int row) {
+        int word = row >> 5;
+        return nullBits != null && word < nullBits.length && (nullBits[word] & (1 << (row & 31))) != 0;
+    }
+
+    protected void setNullBit(int row, boolean isNull) {
+        int word = row >> 5;
+        if (isNull) {
+            if (nullBits == null || word >= nullBits.length) {
+                int[] bits = new int[Math.max(word + 1, (size >> 5) + 1)];
+                if (nullBits != null) {
+                    System.arraycopy(nullBits, 0, bits, 0, nullBits.length);
+                }
+                nullBits = bits;
+            }
+            nullBits[word] |= 1 << (row & 31);
+        }
+        else if (nullBits != null && word < nullBits.length) {
+            nullBits[word] &= ~(1 << (row & 31));
+        }
+    }
+
+    protected void moveNullBits(int from, int to, int length) {
+        if (nullBits == null) {
+            return;
+        }
+        if (to > from) {
+            for (int i = length - 1; i >= 0; i--) {
+                setNullBit(to + i, isNullBit(from + i));
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                setNullBit(to + i, isNullBit(from + i));
+            }
+        }
+    }
+
+    protected void copyNullBits(ColumnValues other) {
+        if (nullBits != null) {
+            other.nullBits = new int[nullBits.length];
+            System.arraycopy(nullBits, 0, other.nullBits, 0, nullBits.length);
+        }
+    }
+
+    protected long getNullBitsSize() {
+        return nullBits == null ? 0 : MemSizeEstimator.sizeOfIntArray(nullBits.length);
+    }
+}
@@ -16,6 +16,7 @@
 package org.dashbuilder.dataset.impl;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 import org.dashbuilder.dataset.ColumnType;
@@ -28,6 +29,8 @@ public class DataColumnImpl implements DataColumn {
     protected DataSetImpl dataSet = null;
     protected String id = null;
     protected ColumnType columnType = ColumnType.LABEL;
+    // Either a plain list or a columnar one. Columnar lists are not portable types so they always go through
+    // the wire as a plain list.
     protected List values = new ArrayList();
     protected ColumnGroup columnGroup;
     protected String intervalType;
@@ -65,6 +68,40 @@ public class DataColumnImpl implements DataColumn {
 
     public void setColumnType(ColumnType columnType) {
         this.columnType = columnType;
+
+        // Columnar storage is bound to a specific column type
+        if (values instanceof ColumnValues && !((ColumnValues) values).getColumnType().equals(columnType)) {
+            values = convertValues(values, columnType);
+        }
+    }
+
+    /**
+     * Convert the values to the given type, the same way <tt>DataSetImpl</tt> does when setting values.
+     * If any of the values can't be converted (i.e: non numeric labels) the values are kept as they are.
+     */
+    protected List convertValues(List values, ColumnType columnType) {
+        List other = ColumnValues.newColumnValues(columnType);
+        try {
+            for (Object value : values) {
+                other.add(convertValue(value, columnType));
+            }
+            return other;
+        } catch (IllegalArgumentException e) {
+            return new ArrayList(values);
+        }
+    }
+
+    protected Object convertValue(Object value, ColumnType columnType) {
+        if (value == null || value instanceof Number || value instanceof Date) {
+            return value;
+        }
+        if (ColumnType.NUMBER.equals(columnType)) {
+            return Double.parseDouble(value.toString());
+        }
+        if (ColumnType.DATE.equals(columnType)) {
+            throw new IllegalArgumentException("Not a java.util.Date: " + value);
+        }
+        return value;
     }
 
     public List getValues() {
@@ -124,12 +161,14 @@ public class DataColumnImpl implements DataColumn {
         otherCol.setMinValue(getMinValue());
         otherCol.setMaxValue(getMaxValue());
         if (groupFunction != null) otherCol.setGroupFunction(groupFunction.cloneInstance());
+        if (values instanceof ColumnValues) otherCol.setValues(((ColumnValues) values).cloneEmpty());
         return otherCol;
     }
 
     public DataColumn cloneInstance() {
         DataColumnImpl otherCol = (DataColumnImpl) cloneEmpty();
-        otherCol.setValues(new ArrayList(values));
+        if (values instanceof ColumnValues) otherCol.setValues(((ColumnValues) values).cloneInstance());
+        else otherCol.setValues(new ArrayList(values));
         return otherCol;
     }
 
@@ -117,7 +117,7 @@ public class DataSetImpl implements DataSet {
         c.setDataSet(this);
         c.setId(id);
         c.setColumnType(type);
-        if (values != null) c.setValues(values);
+        c.setValues(values != null ? values : ColumnValues.newColumnValues(type));
         columns.add(c);
         return this;
     }
@@ -300,8 +300,7 @@ public class DataSetImpl implements DataSet {
             List values = column.getValues();
             List valOther = colOther.getValues();
             for (int j=offset; j<values.size() && j<( offset+rows ); j++) {
-                Object value = values.get(j);
-                valOther.add(value);
+                copyValue(values, j, valOther);
             }
         }
         return other;
@@ -322,13 +321,20 @@ public class DataSetImpl implements DataSet {
                 if (row >= values.size()) {
                     throw new IllegalArgumentException("Row number is out of bounds: " + row);
                 }
-                Object value = values.get(row);
-                valOther.add(value);
+                copyValue(values, row, valOther);
             }
         }
         return other;
     }
 
+    protected void copyValue(List source, int row, List target) {
+        if (target instanceof ColumnValues) {
+            ((ColumnValues) target).addValue(source, row);
+        } else {
+            target.add(source.get(row));
+        }
+    }
+
     public DataSetImpl cloneEmpty() {
         DataSetImpl other = new DataSetImpl();
         for (int i=0; i<columns.size(); i++) {
@@ -355,7 +361,7 @@ public class DataSetImpl implements DataSet {
             if (other == null) {
                 return false;
             }
-            if (getEstimatedSize() != other.getEstimatedSize()) {
+            if (getBoxedSize() != other.getBoxedSize()) {
                 return false;
             }
             if (columns.size() != other.columns.size()) {
@@ -376,20 +382,44 @@ public class DataSetImpl implements DataSet {
         int nrows = getRowCount();
         if (nrows == 0) return 0;
 
-        List<DataColumn> columns = getColumns();
-        int ncells = nrows * columns.size();
-        int result = ncells * 4;
+        long result = 0;
         for (int i = 0; i < columns.size(); i++) {
-            Object firstRowValue = getValueAt(0, i);
-            if (firstRowValue instanceof String) {
-                for (int j = 0; j < nrows; j++) {
-                    String stringValue = (String) getValueAt(j, i);
-                    result += MemSizeEstimator.sizeOfString(stringValue);
-                }
+            List values = columns.get(i).getValues();
+            if (values instanceof ColumnValues) {
+                result += ((ColumnValues) values).getEstimatedSize();
             } else {
-                int singleValueSize = MemSizeEstimator.sizeOf(firstRowValue);
-                result += nrows * singleValueSize;
+                result += getBoxedSize(i, nrows);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Estimate the size of the data set as if all its values were stored as boxed instances.
+     * <p>Unlike {@link #getEstimatedSize()} the result does not depend on how the values are stored.</p>
+     */
+    protected long getBoxedSize() {
+        int nrows = getRowCount();
+        if (nrows == 0) return 0;
+
+        long result = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            result += getBoxedSize(i, nrows);
+        }
+        return result;
+    }
+
+    protected long getBoxedSize(int column, int nrows) {
+        long result = nrows * 4;
+        Object firstRowValue = getValueAt(0, column);
+        if (firstRowValue instanceof String) {
+            for (int j = 0; j < nrows; j++) {
+                String stringValue = (String) getValueAt(j, column);
+                result += MemSizeEstimator.sizeOfString(stringValue);
             }
+        } else {
+            int singleValueSize = MemSizeEstimator.sizeOf(firstRowValue);
+            result += nrows * singleValueSize;
         }
         return result;
     }
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.impl;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.DataSet;
+
+/**
+ * Keeps the last rows added to a data set, up to a fixed capacity. Once the capacity is reached every new row
+ * overwrites the oldest one in place, so the column storage is reused instead of being copied on every addition.
+ * <p>The data set columns are replaced by views over the storage, which expose the rows in logical order: the
+ * rows of the last addition first (in their original order), followed by the rows of the previous ones.</p>
+ */
+public class DataSetRingBuffer {
+
+    private DataSet dataSet;
+    private int capacity;
+    private List[] storage;
+
+    // The storage position of the newest row. The rows are stored from the oldest to the newest one, wrapping
+    // around the capacity, so the logical row i is stored at (head - i).
+    private int head;
+
+    /**
+     * @param dataSet The data set holding the rows, in logical order. Its columns are replaced by views over
+     * the buffer storage.
+     * @param capacity The max. number of rows to keep. It can not be lower than the current rows of the data set.
+     */
+    public DataSetRingBuffer(DataSet dataSet, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        if (dataSet.getRowCount() > capacity) {
+            throw new IllegalArgumentException("The data set rows " + dataSet.getRowCount() + " exceed the capacity: " + capacity);
+        }
+        this.dataSet = dataSet;
+        this.capacity = capacity;
+
+        int columnCount = dataSet.getColumns().size();
+        storage = new List[columnCount];
+        for (int j = 0; j < columnCount; j++) {
+            DataColumn column = dataSet.getColumnByIndex(j);
+            List values = column.getValues();
+            storage[j] = values instanceof ColumnValues ? ColumnValues.newColumnValues(column.getColumnType()) : new ArrayList(values.size());
+            for (int i = values.size() - 1; i >= 0; i--) {
+                storage[j].add(values.get(i));
+            }
+            column.setValues(new LogicalValues(storage[j]));
+        }
+        head = dataSet.getRowCount() - 1;
+    }
+
+    public DataSet getDataSet() {
+        return dataSet;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Add the rows of the given data set, which must have the same columns, in front of the existing ones.
+     * If there are more rows than the buffer capacity only the first ones are kept.
+     * <p>Notice every existing row is shifted by the number of rows added, and the oldest ones beyond the
+     * capacity are evicted.</p>
+     * @return The number of rows added.
+     */
+    public int addRows(DataSet rows) {
+        int columnCount = storage.length;
+        List[] sourceValues = new List[columnCount];
+        for (int j = 0; j < columnCount; j++) {
+            sourceValues[j] = rows.getColumnByIndex(j).getValues();
+        }
+
+        // Stored backwards, so the first row ends up being the newest one
+        int rowCount = Math.min(rows.getRowCount(), capacity);
+        for (int i = rowCount - 1; i >= 0; i--) {
+            int target = (head + 1) % capacity;
+            for (int j = 0; j < columnCount; j++) {
+                Object value = sourceValues[j].get(i);
+                if (target == storage[j].size()) {
+                    storage[j].add(value);
+                } else {
+                    storage[j].set(target, value);
+                }
+            }
+            head = target;
+        }
+        return rowCount;
+    }
+
+    /**
+     * The values of a column in logical order.
+     */
+    private class LogicalValues extends AbstractList {
+
+        private List values;
+
+        LogicalValues(List values) {
+            this.values = values;
+        }
+
+        private int position(int row) {
+            if (row < 0 || row >= values.size()) {
+                throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + values.size());
+            }
+            int position = head - row;
+            return position < 0 ? position + values.size() : position;
+        }
+
+        @Override
+        public Object get(int row) {
+            return values.get(position(row));
+        }
+
+        @Override
+        public Object set(int row, Object value) {
+            return values.set(position(row), value);
+        }
+
+        @Override
+        public int size() {
+            return values.size();
+        }
+    }
+}
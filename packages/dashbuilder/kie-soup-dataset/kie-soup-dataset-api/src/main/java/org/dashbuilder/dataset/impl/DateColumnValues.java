@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.impl;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.dashbuilder.dataset.ColumnType;
+
+/**
+ * Columnar storage for DATE columns backed by a <tt>long[]</tt> of epoch millis and a null bitmap.
+ * <p>Every read returns a brand new <tt>Date</tt> instance. Only the millis of <tt>Date</tt> subclasses
+ * (i.e. <tt>java.sql.Timestamp</tt>) are kept.</p>
+ */
+public class DateColumnValues extends ColumnValues {
+
+    protected long[] values;
+
+    public DateColumnValues() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DateColumnValues(int capacity) {
+        values = new long[capacity];
+    }
+
+    public ColumnType getColumnType() {
+        return ColumnType.DATE;
+    }
+
+    /**
+     * Get the epoch millis at the given row.
+     * @return The millis or <tt>0</tt> if the row contains a null value (see {@link #isNull(int)}).
+     */
+    public long getMillis(int row) {
+        checkIndex(row);
+        return values[row];
+    }
+
+    public void addMillis(long millis) {
+        ensureCapacity(size + 1);
+        values[size] = millis;
+        setNullBit(size, false);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Object get(int row) {
+        checkIndex(row);
+        return isNullBit(row) ? null : new Date(values[row]);
+    }
+
+    @Override
+    public void addValue(List source, int row) {
+        if (source instanceof DateColumnValues) {
+            DateColumnValues other = (DateColumnValues) source;
+            if (other.isNull(row)) {
+                add(null);
+            } else {
+                addMillis(other.values[row]);
+            }
+        } else {
+            super.addValue(source, row);
+        }
+    }
+
+    protected void setValue(int row, Object value) {
+        if (value == null) {
+            values[row] = 0L;
+            setNullBit(row, true);
+        } else {
+            values[row] = toMillis(value);
+            setNullBit(row, false);
+        }
+    }
+
+    protected long toMillis(Object value) {
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        throw new IllegalArgumentException("Not a java.util.Date: " + value + " (" + value.getClass().getName() + ")");
+    }
+
+    protected void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, grow(values.length, capacity));
+        }
+    }
+
+    protected void moveValues(int from, int to, int length) {
+        System.arraycopy(values, from, values, to, length);
+    }
+
+    public DateColumnValues cloneEmpty() {
+        return new DateColumnValues();
+    }
+
+    public DateColumnValues cloneInstance() {
+        DateColumnValues other = new DateColumnValues(Math.max(size, DEFAULT_CAPACITY));
+        System.arraycopy(values, 0, other.values, 0, size);
+        other.size = size;
+        copyNullBits(other);
+        return other;
+    }
+
+    public long getEstimatedSize() {
+        return MemSizeEstimator.sizeOfLongArray(values.length) + getNullBitsSize();
+    }
+}
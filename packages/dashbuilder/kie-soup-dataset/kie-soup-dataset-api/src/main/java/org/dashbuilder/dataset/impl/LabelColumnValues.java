@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dashbuilder.dataset.ColumnType;
+
+/**
+ * Columnar storage for LABEL columns. Every distinct label is stored once into a dictionary and rows
+ * just keep an <tt>int</tt> code pointing to it (<tt>-1</tt> for null values).
+ * <p>Non <tt>String</tt> values are encoded (and read back) by their <tt>toString()</tt>.</p>
+ */
+public class LabelColumnValues extends ColumnValues {
+
+    public static final int NULL_CODE = -1;
+
+    protected int[] codes;
+    protected List<String> dictionary = new ArrayList<String>();
+    protected Map<String, Integer> codeMap = new HashMap<String, Integer>();
+
+    public LabelColumnValues() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LabelColumnValues(int capacity) {
+        codes = new int[capacity];
+    }
+
+    public ColumnType getColumnType() {
+        return ColumnType.LABEL;
+    }
+
+    /**
+     * Get the dictionary code of the label at the given row.
+     * @return The position of the label within the dictionary or {@link #NULL_CODE} for null values.
+     */
+    public int getCode(int row) {
+        checkIndex(row);
+        return codes[row];
+    }
+
+    /**
+     * Get the code assigned to the given label.
+     * @return The label code or {@link #NULL_CODE} if the label is null or not present in the dictionary.
+     */
+    public int getCode(String label) {
+        if (label == null) {
+            return NULL_CODE;
+        }
+        Integer code = codeMap.get(label);
+        return code == null ? NULL_CODE : code;
+    }
+
+    /**
+     * The list of distinct labels. The position of every label is its code.
+     */
+    public List<String> getDictionary() {
+        return Collections.unmodifiableList(dictionary);
+    }
+
+    public int getDictionarySize() {
+        return dictionary.size();
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        return getCode(row) == NULL_CODE;
+    }
+
+    @Override
+    public Object get(int row) {
+        int code = getCode(row);
+        return code == NULL_CODE ? null : dictionary.get(code);
+    }
+
+    protected void setValue(int row, Object value) {
+        codes[row] = encode(value == null ? null : value.toString());
+    }
+
+    protected int encode(String label) {
+        if (label == null) {
+            return NULL_CODE;
+        }
+        Integer code = codeMap.get(label);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(label);
+            codeMap.put(label, code);
+        }
+        return code;
+    }
+
+    protected void ensureCapacity(int capacity) {
+        if (capacity > codes.length) {
+            codes = Arrays.copyOf(codes, grow(codes.length, capacity));
+        }
+    }
+
+    protected void moveValues(int from, int to, int length) {
+        System.arraycopy(codes, from, codes, to, length);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        dictionary.clear();
+        codeMap.clear();
+    }
+
+    public LabelColumnValues cloneEmpty() {
+        return new LabelColumnValues();
+    }
+
+    public LabelColumnValues cloneInstance() {
+        LabelColumnValues other = new LabelColumnValues(Math.max(size, DEFAULT_CAPACITY));
+        System.arraycopy(codes, 0, other.codes, 0, size);
+        other.size = size;
+        other.dictionary.addAll(dictionary);
+        other.codeMap.putAll(codeMap);
+        return other;
+    }
+
+    public long getEstimatedSize() {
+        long result = MemSizeEstimator.sizeOfIntArray(codes.length);
+        for (String label : dictionary) {
+            // Every label is referenced from both the dictionary and the code map
+            result += MemSizeEstimator.sizeOfString(label) + MemSizeEstimator.sizeOfMapEntry;
+        }
+        return result;
+    }
+}
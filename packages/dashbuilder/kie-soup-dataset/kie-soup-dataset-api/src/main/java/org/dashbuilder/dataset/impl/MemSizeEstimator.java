@@ -33,6 +33,8 @@ public class MemSizeEstimator {
     public static int sizeOfFloat = 12;
     public static int sizeOfDouble = 16;
     public static int sizeOfBigDecimal = 32;
+    public static int sizeOfArrayHeader = 16;
+    public static int sizeOfMapEntry = 32;
 
     static Map<Class,Integer> sizeOfMap = new HashMap<Class, Integer>();
 
@@ -65,4 +67,16 @@ public class MemSizeEstimator {
 
         return 40 + s.length()*2;
     }
+
+    public static long sizeOfIntArray(int length) {
+        return sizeOfArrayHeader + 4L * length;
+    }
+
+    public static long sizeOfLongArray(int length) {
+        return sizeOfArrayHeader + 8L * length;
+    }
+
+    public static long sizeOfDoubleArray(int length) {
+        return sizeOfArrayHeader + 8L * length;
+    }
 }
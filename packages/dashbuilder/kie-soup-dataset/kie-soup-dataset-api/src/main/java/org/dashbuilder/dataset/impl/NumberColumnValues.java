@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.impl;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.dashbuilder.dataset.ColumnType;
+
+/**
+ * Columnar storage for NUMBER columns backed by a <tt>double[]</tt> and a null bitmap.
+ * <p>Only <tt>Number</tt> values are accepted.</p>
+ */
+public class NumberColumnValues extends ColumnValues {
+
+    protected double[] values;
+
+    public NumberColumnValues() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public NumberColumnValues(int capacity) {
+        values = new double[capacity];
+    }
+
+    public ColumnType getColumnType() {
+        return ColumnType.NUMBER;
+    }
+
+    /**
+     * Get the primitive value at the given row.
+     * @return The value or <tt>0</tt> if the row contains a null value (see {@link #isNull(int)}).
+     */
+    public double getDouble(int row) {
+        checkIndex(row);
+        return values[row];
+    }
+
+    public void addDouble(double value) {
+        ensureCapacity(size + 1);
+        values[size] = value;
+        setNullBit(size, false);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Object get(int row) {
+        checkIndex(row);
+        return isNullBit(row) ? null : values[row];
+    }
+
+    @Override
+    public void addValue(List source, int row) {
+        if (source instanceof NumberColumnValues) {
+            NumberColumnValues other = (NumberColumnValues) source;
+            if (other.isNull(row)) {
+                add(null);
+            } else {
+                addDouble(other.values[row]);
+            }
+        } else {
+            super.addValue(source, row);
+        }
+    }
+
+    protected void setValue(int row, Object value) {
+        if (value == null) {
+            values[row] = 0d;
+            setNullBit(row, true);
+        } else {
+            values[row] = toDouble(value);
+            setNullBit(row, false);
+        }
+    }
+
+    protected double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        throw new IllegalArgumentException("Not a java.lang.Number: " + value + " (" + value.getClass().getName() + ")");
+    }
+
+    protected void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, grow(values.length, capacity));
+        }
+    }
+
+    protected void moveValues(int from, int to, int length) {
+        System.arraycopy(values, from, values, to, length);
+    }
+
+    public NumberColumnValues cloneEmpty() {
+        return new NumberColumnValues();
+    }
+
+    public NumberColumnValues cloneInstance() {
+        NumberColumnValues other = new NumberColumnValues(Math.max(size, DEFAULT_CAPACITY));
+        System.arraycopy(values, 0, other.values, 0, size);
+        other.size = size;
+        copyNullBits(other);
+        return other;
+    }
+
+    public long getEstimatedSize() {
+        return MemSizeEstimator.sizeOfDoubleArray(values.length) + getNullBitsSize();
+    }
+}
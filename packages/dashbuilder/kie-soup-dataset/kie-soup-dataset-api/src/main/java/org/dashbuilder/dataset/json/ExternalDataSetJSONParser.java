@@ -15,6 +15,7 @@
  */
 package org.dashbuilder.dataset.json;
 
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Optional;
@@ -25,18 +26,18 @@ import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetFactory;
 import org.dashbuilder.dataset.DataSetMetadata;
 import org.dashbuilder.dataset.impl.DataSetMetadataImpl;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
 import org.dashbuilder.json.Json;
 import org.dashbuilder.json.JsonArray;
+import org.dashbuilder.json.JsonException;
 import org.dashbuilder.json.JsonObject;
+import org.dashbuilder.json.JsonReader;
+import org.dashbuilder.json.JsonToken;
 import org.dashbuilder.json.JsonType;
 import org.dashbuilder.json.JsonValue;
 
 public class ExternalDataSetJSONParser {
 
-    private static final String ARRAY_START_TOKEN = "[";
-
-    private static final String OBJECT_START_TOKEN = "{";
-
     private static final String DEFAULT_COLUMN_ID = "";
     private static final String NUMBER_OF_ROWS = "numberOfRows";
     private static final String COLUMNS = "columns";
@@ -90,51 +91,198 @@ public class ExternalDataSetJSONParser {
     }
 
     public DataSet parseDataSet(String json) {
+        if (json == null) {
+            return DataSetFactory.newEmptyDataSet();
+        }
+        return parseDataSet(new JsonReader(json));
+    }
+
+    /**
+     * Parse a data set reading the JSON straight from the given reader. The values are written into the data set
+     * columns as they are read, so the JSON tree of the whole data set is never held in memory.
+     */
+    public DataSet readDataSet(Reader reader) {
+        if (reader == null) {
+            return DataSetFactory.newEmptyDataSet();
+        }
+        return parseDataSet(new JsonReader(reader));
+    }
+
+    private DataSet parseDataSet(JsonReader json) {
         var dataSet = DataSetFactory.newEmptyDataSet();
+        JsonToken token;
+        try {
+            token = json.next();
+        } catch (JsonException e) {
+            // Neither an object nor an array
+            return dataSet;
+        }
 
-        if (json != null) {
-            var trimedJson = json.trim();
-            if (trimedJson.startsWith(OBJECT_START_TOKEN)) {
-                try {
-                    JsonObject dataSetObject = Json.instance().parse(json);
-                    var values = dataSetObject.getArray(VALUES);
-                    addColumns(dataSet, dataSetObject);
-                    addValues(dataSet, values);
-                } catch (ClassCastException e) {
-                    throw new IllegalArgumentException("DataSet JSON is invalid. Expected an array of data columns", e);
-                }
+        if (token == JsonToken.BEGIN_OBJECT) {
+            try {
+                readDataSetObject(json, dataSet);
+            } catch (ClassCastException e) {
+                throw new IllegalArgumentException("DataSet JSON is invalid. Expected an array of data columns", e);
+            }
 
-            } else if (trimedJson.startsWith(ARRAY_START_TOKEN)) {
-                try {
-                    JsonArray dataSetArray = Json.instance().parse(json);
-                    fillDataSetColumns(dataSet, dataSetArray);
-                    addValues(dataSet, dataSetArray);
-                } catch (Exception e) {
-                    throw new IllegalArgumentException("DataSet JSON is invalid. Please check that the data is in correct format.", e);
-                }
+        } else if (token == JsonToken.BEGIN_ARRAY) {
+            try {
+                readDataSetArray(json, dataSet);
+            } catch (Exception e) {
+                throw new IllegalArgumentException("DataSet JSON is invalid. Please check that the data is in correct format.", e);
             }
         }
         return dataSet;
     }
 
-    private void fillDataSetColumns(DataSet dataSet, JsonArray dataSetArray) {
-        if (dataSetArray != null && dataSetArray.length() > 0) {
-            var row = dataSetArray;
-            var isMatrix = dataSetArray.get(0).getType() == JsonType.ARRAY;
-            if (isMatrix) {
-                row = dataSetArray.getArray(0);
+    private void readDataSetObject(JsonReader json, DataSet dataSet) {
+        JsonArray pendingValues = null;
+        var hasColumns = false;
+        while (json.next() == JsonToken.NAME) {
+            if (json.isString(COLUMNS)) {
+                json.next();
+                addColumns(dataSet, toArray(json.readValue()));
+                hasColumns = true;
+            } else if (json.isString(VALUES) && hasColumns) {
+                readValues(json, dataSet);
+            } else if (json.isString(VALUES)) {
+                // The values can not be converted until the columns are read
+                json.next();
+                pendingValues = toArray(json.readValue());
+            } else {
+                json.skipValue();
             }
-            for (int i = 0; i < row.length(); i++) {
-                var columnId = COLUMN_PREFIX + i;
-                var value = row.get(i).asString();
-                var type = findValueType(value);
-                dataSet.addColumn(columnId, type);
+        }
+        addValues(dataSet, pendingValues);
+    }
+
+    private void readDataSetArray(JsonReader json, DataSet dataSet) {
+        var token = json.next();
+        if (token == JsonToken.END_ARRAY) {
+            return;
+        }
+
+        if (token != JsonToken.BEGIN_ARRAY) {
+            // A single row
+            var row = Json.createArray();
+            for (; token != JsonToken.END_ARRAY; token = json.next()) {
+                row.set(row.length(), (JsonValue) json.readValue());
             }
+            addInferredColumns(dataSet, row);
+            addValues(dataSet, row);
+            return;
+        }
+
+        // The column types are inferred from the first row
+        JsonArray firstRow = json.readValue();
+        addInferredColumns(dataSet, firstRow);
+        checkColumns(dataSet);
+        fillRow(dataSet, 0, firstRow);
+        readRows(json, dataSet, 1);
+    }
+
+    private void readValues(JsonReader json, DataSet dataSet) {
+        var token = json.next();
+        if (token == JsonToken.NULL) {
+            return;
+        }
+        if (token != JsonToken.BEGIN_ARRAY) {
+            throw new ClassCastException("Values is not an array: " + token);
+        }
+
+        token = json.next();
+        if (token == JsonToken.END_ARRAY) {
+            return;
+        }
+        checkColumns(dataSet);
+        if (token == JsonToken.BEGIN_ARRAY) {
+            readRow(json, dataSet, 0);
+            readRows(json, dataSet, 1);
+        } else {
+            readRow(json, dataSet, 0, token);
+        }
+    }
+
+    private void readRows(JsonReader json, DataSet dataSet, int firstRow) {
+        var row = firstRow;
+        var token = json.next();
+        for (; token == JsonToken.BEGIN_ARRAY; token = json.next()) {
+            readRow(json, dataSet, row++);
+        }
+        if (token != JsonToken.END_ARRAY) {
+            throw new ClassCastException("Row " + row + " is not an array: " + token);
+        }
+    }
+
+    private void readRow(JsonReader json, DataSet dataSet, int row) {
+        readRow(json, dataSet, row, json.next());
+    }
+
+    private void readRow(JsonReader json, DataSet dataSet, int row, JsonToken firstToken) {
+        var token = firstToken;
+        for (int j = 0; token != JsonToken.END_ARRAY; j++, token = json.next()) {
+            if (token == JsonToken.BEGIN_ARRAY || token == JsonToken.BEGIN_OBJECT) {
+                setValue(dataSet, row, j, json.readValue());
+            } else {
+                setValue(dataSet, row, j, json, token);
+            }
+        }
+    }
+
+    private void setValue(DataSet dataSet, int row, int columnIndex, JsonReader json, JsonToken token) {
+        var column = dataSet.getColumnByIndex(columnIndex);
+        try {
+            var values = column.getValues();
+            if (token == JsonToken.NUMBER && values instanceof NumberColumnValues && row == values.size()) {
+                ((NumberColumnValues) values).addDouble(json.getNumber());
+            } else {
+                var objectValue = convertToken(json, token, column.getColumnType());
+                dataSet.setValueAt(row, columnIndex, objectValue);
+            }
+        } catch (Exception e) {
+            JsonValue value = json.readValue();
+            throw new IllegalArgumentException("Incompatible value " + value.asString() + " for column " + column
+                    .getId(), e);
+        }
+    }
+
+    private Object convertToken(JsonReader json, JsonToken token, ColumnType type) {
+        if (token == JsonToken.NUMBER && type == ColumnType.NUMBER) {
+            return json.getNumber();
+        }
+        if (token == JsonToken.STRING && type != ColumnType.NUMBER) {
+            return convertString(json.getString(), type);
+        }
+        return convertJsonValue(json.readValue(), type);
+    }
+
+    private JsonArray toArray(JsonValue value) {
+        if (value == null || value.getType() == JsonType.NULL) {
+            return null;
+        }
+        return (JsonArray) value;
+    }
+
+    private void checkColumns(DataSet dataSet) {
+        if (dataSet.getColumns().size() == 0) {
+            throw new IllegalArgumentException("DataSet is missing columns.");
+        }
+    }
+
+    private void addInferredColumns(DataSet dataSet, JsonArray row) {
+        for (int i = 0; i < row.length(); i++) {
+            var columnId = COLUMN_PREFIX + i;
+            var value = row.get(i).asString();
+            var type = findValueType(value);
+            dataSet.addColumn(columnId, type);
         }
     }
 
     public void addColumns(DataSet dataSet, JsonObject dataSetObject) {
-        var columnsArray = dataSetObject.getArray(COLUMNS);
+        addColumns(dataSet, dataSetObject.getArray(COLUMNS));
+    }
+
+    private void addColumns(DataSet dataSet, JsonArray columnsArray) {
         if (columnsArray != null) {
             for (int i = 0; i < columnsArray.length(); i++) {
                 var dataColumn = columnsArray.getObject(i);
@@ -147,9 +295,7 @@ public class ExternalDataSetJSONParser {
 
     public void addValues(DataSet dataSet, JsonArray valuesArray) {
         if (valuesArray != null && valuesArray.length() > 0) {
-            if (dataSet.getColumns().size() == 0 && valuesArray.length() != 0) {
-                throw new IllegalArgumentException("DataSet is missing columns.");
-            }
+            checkColumns(dataSet);
 
             if (valuesArray.get(0).getType() == JsonType.ARRAY) {
                 for (int i = 0; i < valuesArray.length(); i++) {
@@ -165,15 +311,18 @@ public class ExternalDataSetJSONParser {
 
     private void fillRow(DataSet dataSet, int rowIndex, JsonArray row) {
         for (int j = 0; j < row.length(); j++) {
-            var column = dataSet.getColumnByIndex(j);
-            var value = row.get(j);
-            try {
-                var objectValue = convertJsonValue(value, column.getColumnType());
-                dataSet.setValueAt(rowIndex, j, objectValue);
-            } catch (Exception e) {
-                throw new IllegalArgumentException("Incompatible value " + value.asString() + " for column " + column
-                        .getId(), e);
-            }
+            setValue(dataSet, rowIndex, j, row.get(j));
+        }
+    }
+
+    private void setValue(DataSet dataSet, int rowIndex, int columnIndex, JsonValue value) {
+        var column = dataSet.getColumnByIndex(columnIndex);
+        try {
+            var objectValue = convertJsonValue(value, column.getColumnType());
+            dataSet.setValueAt(rowIndex, columnIndex, objectValue);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Incompatible value " + value.asString() + " for column " + column
+                    .getId(), e);
         }
     }
 
@@ -191,11 +340,7 @@ public class ExternalDataSetJSONParser {
     private Object convertJsonValue(JsonValue value, ColumnType type) {
         switch (type) {
             case DATE:
-                var valueStr = value.asString();
-                if (valueStr != null && valueStr.trim().isEmpty()) {
-                    return "";
-                }
-                return convertToDate(value.asString());
+                return convertString(value.asString(), type);
             case NUMBER:
                 var number = value.asNumber();
                 if (Double.isNaN(number)) {
@@ -209,6 +354,16 @@ public class ExternalDataSetJSONParser {
         }
     }
 
+    private Object convertString(String value, ColumnType type) {
+        if (type == ColumnType.DATE) {
+            if (value != null && value.trim().isEmpty()) {
+                return "";
+            }
+            return convertToDate(value);
+        }
+        return value;
+    }
+
     private ColumnType findValueType(String value) {
         try {
             Double.parseDouble(value);
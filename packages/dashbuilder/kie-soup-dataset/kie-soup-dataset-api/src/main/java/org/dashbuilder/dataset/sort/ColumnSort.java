@@ -15,6 +15,8 @@
  */
 package org.dashbuilder.dataset.sort;
 
+import java.util.Objects;
+
 /**
  * A column sort criteria
  */
@@ -64,4 +66,9 @@ public class ColumnSort {
             return false;
         }
     }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(columnId, order);
+    }
 }
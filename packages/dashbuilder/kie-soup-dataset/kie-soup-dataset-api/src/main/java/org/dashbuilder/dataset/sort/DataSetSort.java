@@ -79,4 +79,9 @@ public class DataSetSort extends AbstractDataSetOp {
             return false;
         }
     }
+
+    @Override
+    public int hashCode() {
+        return columnSortList.hashCode();
+    }
 }
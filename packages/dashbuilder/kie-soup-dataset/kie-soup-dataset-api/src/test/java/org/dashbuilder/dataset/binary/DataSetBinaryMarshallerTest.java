@@ -0,0 +1,149 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.binary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetBuilder;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.ExpenseReportsData;
+import org.dashbuilder.dataset.impl.DateColumnValues;
+import org.dashbuilder.dataset.impl.LabelColumnValues;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
+import org.dashbuilder.dataset.json.DataSetJSONMarshaller;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DataSetBinaryMarshallerTest {
+
+    DataSetBinaryMarshaller marshaller = DataSetBinaryMarshaller.get();
+
+    @Test
+    public void testExpenseReports() throws Exception {
+        DataSet original = ExpenseReportsData.INSTANCE.toDataSet();
+        byte[] bytes = marshaller.toBytes(original);
+        assertTrue(marshaller.isBinaryDataSet(bytes));
+        assertSameDataSet(original, marshaller.fromBytes(bytes));
+    }
+
+    @Test
+    public void testNullsAndSpecialValues() {
+        DataSet original = DataSetFactory.newDataSetBuilder()
+                .label("label")
+                .text("text")
+                .number("number")
+                .date("date")
+                .row("a", "Barcelona", 1d, new Date(-1000))
+                .row(null, null, null, null)
+                .row("b", "M\u00e1laga \u20ac \ud83d\ude00", -0.5d, new Date(0))
+                .row("a", "", Double.NaN, new Date(Long.MAX_VALUE / 2))
+                .row("c", "text", -0d, new Date(10))
+                .buildDataSet();
+
+        DataSet result = marshaller.fromBytes(marshaller.toBytes(original));
+        assertSameDataSet(original, result);
+        assertTrue(result.getColumnById("label").getValues() instanceof LabelColumnValues);
+        assertTrue(result.getColumnById("number").getValues() instanceof NumberColumnValues);
+        assertTrue(result.getColumnById("date").getValues() instanceof DateColumnValues);
+        assertEquals(ColumnType.TEXT, result.getColumnById("text").getColumnType());
+    }
+
+    @Test
+    public void testListValues() {
+        DataSet original = DataSetFactory.newEmptyDataSet();
+        original.addColumn("label", ColumnType.LABEL, new ArrayList(Arrays.asList("x", null, "y", "x")));
+        original.addColumn("number", ColumnType.NUMBER, new ArrayList(Arrays.asList(1, 2.5d, null, 3L)));
+        original.addColumn("date", ColumnType.DATE, new ArrayList(Arrays.asList(new Date(5), null, new Date(1), new Date(3))));
+
+        DataSet result = marshaller.fromBytes(marshaller.toBytes(original));
+        assertEquals(Arrays.asList("x", null, "y", "x"), result.getColumnById("label").getValues());
+        assertEquals(Arrays.asList(1d, 2.5d, null, 3d), result.getColumnById("number").getValues());
+        assertEquals(Arrays.asList(new Date(5), null, new Date(1), new Date(3)), result.getColumnById("date").getValues());
+    }
+
+    @Test
+    public void testRowCountNonTrimmed() throws Exception {
+        DataSet original = ExpenseReportsData.INSTANCE.toDataSet().trim(0, 10);
+        DataSet result = marshaller.fromBytes(marshaller.toBytes(original));
+        assertEquals(10, result.getRowCount());
+        assertEquals(original.getRowCountNonTrimmed(), result.getRowCountNonTrimmed());
+    }
+
+    @Test
+    public void testEmpty() {
+        DataSet result = marshaller.fromBytes(marshaller.toBytes(DataSetFactory.newEmptyDataSet()));
+        assertEquals(0, result.getColumns().size());
+        assertNull(marshaller.fromBytes(new byte[0]));
+        assertFalse(marshaller.isBinaryDataSet("{}".getBytes()));
+    }
+
+    @Test
+    public void testPayloadSize() {
+        DataSet original = buildDataSet(10000);
+        byte[] bytes = marshaller.toBytes(original);
+        String json = DataSetJSONMarshaller.get().toJson(original).toJson();
+        assertTrue(bytes.length * 4 < json.length());
+        assertSameDataSet(original, marshaller.fromBytes(bytes));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncated() throws Exception {
+        byte[] bytes = marshaller.toBytes(ExpenseReportsData.INSTANCE.toDataSet());
+        marshaller.fromBytes(Arrays.copyOf(bytes, bytes.length - 3));
+    }
+
+    private DataSet buildDataSet(int rows) {
+        Random random = new Random(0);
+        DataSetBuilder builder = DataSetFactory.newDataSetBuilder()
+                .label("city")
+                .number("amount")
+                .number("quantity")
+                .date("date");
+        long date = 1500000000000L;
+        for (int i = 0; i < rows; i++) {
+            date += random.nextInt(3600000);
+            builder.row("City " + random.nextInt(100),
+                        Math.round(random.nextDouble() * 100000) / 100d,
+                        (double) random.nextInt(100),
+                        new Date(date));
+        }
+        return builder.buildDataSet();
+    }
+
+    private void assertSameDataSet(DataSet expected, DataSet result) {
+        assertEquals(expected.getColumns().size(), result.getColumns().size());
+        assertEquals(expected.getRowCount(), result.getRowCount());
+        for (int col = 0; col < expected.getColumns().size(); col++) {
+            assertEquals(expected.getColumnByIndex(col).getId(), result.getColumnByIndex(col).getId());
+            assertEquals(expected.getColumnByIndex(col).getColumnType(), result.getColumnByIndex(col).getColumnType());
+            List expectedValues = expected.getColumnByIndex(col).getValues();
+            List values = result.getColumnByIndex(col).getValues();
+            for (int row = 0; row < expected.getRowCount(); row++) {
+                assertEquals(expectedValues.get(row), values.get(row));
+            }
+        }
+    }
+}
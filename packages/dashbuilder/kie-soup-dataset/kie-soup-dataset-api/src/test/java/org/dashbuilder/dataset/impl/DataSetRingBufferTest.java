@@ -0,0 +1,96 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.impl;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class DataSetRingBufferTest {
+
+    @Test
+    public void testAddUntilFull() {
+        var ringBuffer = new DataSetRingBuffer(dataSet(1, 2), 4);
+
+        assertEquals(2, ringBuffer.addRows(dataSet(3, 4)));
+        assertArrayEquals(new Object[]{3d, 4d, 1d, 2d}, values(ringBuffer.getDataSet(), "amount"));
+        assertArrayEquals(new Object[]{"3", "4", "1", "2"}, values(ringBuffer.getDataSet(), "label"));
+    }
+
+    @Test
+    public void testOverwriteOldest() {
+        var dataSet = dataSet(1, 2, 3);
+        var ringBuffer = new DataSetRingBuffer(dataSet, 3);
+
+        assertEquals(2, ringBuffer.addRows(dataSet(4, 5)));
+        assertArrayEquals(new Object[]{4d, 5d, 1d}, values(dataSet, "amount"));
+        assertEquals(2, ringBuffer.addRows(dataSet(6, 7)));
+        assertEquals(3, dataSet.getRowCount());
+        assertArrayEquals(new Object[]{6d, 7d, 4d}, values(dataSet, "amount"));
+        assertArrayEquals(new Object[]{"6", "7", "4"}, values(dataSet, "label"));
+    }
+
+    @Test
+    public void testWrapAround() {
+        var dataSet = dataSet();
+        var ringBuffer = new DataSetRingBuffer(dataSet, 3);
+
+        // Newest first, whatever the storage position the rows are written to
+        for (int i = 1; i <= 8; i++) {
+            ringBuffer.addRows(dataSet(i));
+            assertEquals(Math.min(i, 3), dataSet.getRowCount());
+            for (int row = 0; row < dataSet.getRowCount(); row++) {
+                assertEquals((double) i - row, dataSet.getValueAt(row, 0));
+                assertEquals(String.valueOf(i - row), dataSet.getValueAt(row, 1));
+            }
+        }
+
+        // Values are set in logical order too
+        dataSet.setValueAt(1, 0, 0d);
+        assertArrayEquals(new Object[]{8d, 0d, 6d}, values(dataSet, "amount"));
+    }
+
+    @Test
+    public void testMoreRowsThanCapacity() {
+        var ringBuffer = new DataSetRingBuffer(dataSet(1), 2);
+
+        assertEquals(2, ringBuffer.addRows(dataSet(2, 3, 4)));
+        assertArrayEquals(new Object[]{2d, 3d}, values(ringBuffer.getDataSet(), "amount"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDataSetExceedsCapacity() {
+        new DataSetRingBuffer(dataSet(1, 2, 3), 2);
+    }
+
+    private DataSet dataSet(int... values) {
+        var dataSet = DataSetFactory.newEmptyDataSet();
+        dataSet.addColumn("amount", ColumnType.NUMBER);
+        dataSet.addColumn("label", ColumnType.LABEL);
+        for (int value : values) {
+            dataSet.addValues((double) value, String.valueOf(value));
+        }
+        return dataSet;
+    }
+
+    private Object[] values(DataSet dataSet, String columnId) {
+        return dataSet.getColumnById(columnId).getValues().toArray();
+    }
+}
@@ -15,17 +15,20 @@
  */
 package org.dashbuilder.dataset.json;
 
+import java.io.StringReader;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
 
 import org.dashbuilder.dataset.ColumnType;
 import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.DataSet;
 import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class ExternalDataSetParserTest {
 
@@ -128,6 +131,32 @@ public class ExternalDataSetParserTest {
             "   ]\n" +
             "}";
 
+    final static String DATASET_VALUES_FIRST = "{\n" +
+            "   \"values\":[\n" +
+            "      [ 1.5, \"L1\" ],\n" +
+            "      [ -2e3, \"L2\" ]\n" +
+            "   ],\n" +
+            "   \"extra\": { \"a\": [1, 2, {\"b\": null}] },\n" +
+            "   \"columns\":[\n" +
+            "      { \"id\":\"CL1\", \"type\":\"NUMBER\" },\n" +
+            "      { \"id\":\"CL2\", \"type\":\"LABEL\" }\n" +
+            "   ]\n" +
+            "}";
+
+    final static String DATASET_MIXED_VALUES = "{\n" +
+            "   \"columns\":[\n" +
+            "      { \"id\":\"CL1\", \"type\":\"NUMBER\" },\n" +
+            "      { \"id\":\"CL2\", \"type\":\"TEXT\" }\n" +
+            "   ],\n" +
+            "   \"values\":[\n" +
+            "      [ 0.1, \"a \\\"quoted\\\" \\u00e9\\n\" ],\n" +
+            "      [ \"12.25\", 3 ],\n" +
+            "      [ 123456789012345678, true ],\n" +
+            "      [ null, null ],\n" +
+            "      [ 1.7976931348623157E308, 'single' ]\n" +
+            "   ]\n" +
+            "}";
+
     private ExternalDataSetJSONParser parser;
 
     @Before
@@ -284,4 +313,94 @@ public class ExternalDataSetParserTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testReadDataSet() {
+        assertSameDataSet(parser.parseDataSet(DATASET), parser.readDataSet(new StringReader(DATASET)));
+        assertSameDataSet(parser.parseDataSet(DATASET_MATRIX), parser.readDataSet(new StringReader(DATASET_MATRIX)));
+        assertSameDataSet(parser.parseDataSet(DATASET_ARRAY), parser.readDataSet(new StringReader(DATASET_ARRAY)));
+        assertSameDataSet(parser.parseDataSet(DATASET_NO_ROWS), parser.readDataSet(new StringReader(DATASET_NO_ROWS)));
+    }
+
+    @Test
+    public void testReadDataSetSmallChunks() {
+        // Tokens split across several reads
+        assertSameDataSet(parser.parseDataSet(DATASET), parser.readDataSet(new OneCharReader(DATASET)));
+        assertSameDataSet(parser.parseDataSet(DATASET_MIXED_VALUES), parser.readDataSet(new OneCharReader(DATASET_MIXED_VALUES)));
+    }
+
+    @Test
+    public void testParseDataSetValuesBeforeColumns() {
+        var dataset = parser.parseDataSet(DATASET_VALUES_FIRST);
+
+        assertArrayEquals(new String[]{"CL1", "CL2"},
+                dataset.getColumns().stream().map(DataColumn::getId).toArray());
+        assertArrayEquals(new Object[]{1.5, -2000.0},
+                dataset.getColumnById("CL1").getValues().toArray());
+        assertArrayEquals(new Object[]{"L1", "L2"},
+                dataset.getColumnById("CL2").getValues().toArray());
+    }
+
+    @Test
+    public void testParseDataSetMixedValues() {
+        var dataset = parser.parseDataSet(DATASET_MIXED_VALUES);
+
+        assertEquals(5, dataset.getRowCount());
+        assertEquals(0.1, dataset.getValueAt(0, "CL1"));
+        assertEquals("a \"quoted\" \u00e9\n", dataset.getValueAt(0, "CL2"));
+        assertEquals(12.25, dataset.getValueAt(1, "CL1"));
+        assertEquals("3", dataset.getValueAt(1, "CL2"));
+        assertEquals(1.23456789012345678E17, dataset.getValueAt(2, "CL1"));
+        assertEquals("true", dataset.getValueAt(2, "CL2"));
+        assertEquals(0.0, dataset.getValueAt(3, "CL1"));
+        assertEquals("null", dataset.getValueAt(3, "CL2"));
+        assertEquals(Double.MAX_VALUE, dataset.getValueAt(4, "CL1"));
+        assertEquals("single", dataset.getValueAt(4, "CL2"));
+    }
+
+    @Test
+    public void testReadNullDataSet() {
+        var dataset = parser.readDataSet(null);
+        assertEquals(0, dataset.getColumns().size());
+    }
+
+    @Test
+    public void testParseInvalidDataSet() {
+        var dataset = parser.parseDataSet("not a data set");
+        assertEquals(0, dataset.getColumns().size());
+        assertNull(dataset.getColumnById("Column 0"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadIncompatibleColumnDataSet() {
+        parser.readDataSet(new StringReader(DATASET_WITH_INCOMPATIBLE_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadTruncatedDataSetArray() {
+        parser.readDataSet(new StringReader("[[1, 2], [3, "));
+    }
+
+    private void assertSameDataSet(DataSet expected, DataSet actual) {
+        assertEquals(expected.getColumns().size(), actual.getColumns().size());
+        assertEquals(expected.getRowCount(), actual.getRowCount());
+        for (int i = 0; i < expected.getColumns().size(); i++) {
+            var expectedColumn = expected.getColumnByIndex(i);
+            var actualColumn = actual.getColumnByIndex(i);
+            assertEquals(expectedColumn.getId(), actualColumn.getId());
+            assertEquals(expectedColumn.getColumnType(), actualColumn.getColumnType());
+            assertArrayEquals(expectedColumn.getValues().toArray(), actualColumn.getValues().toArray());
+        }
+    }
+
+    private static class OneCharReader extends StringReader {
+
+        OneCharReader(String s) {
+            super(s);
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws java.io.IOException {
+            return super.read(cbuf, off, Math.min(len, 1));
+        }
+    }
+}
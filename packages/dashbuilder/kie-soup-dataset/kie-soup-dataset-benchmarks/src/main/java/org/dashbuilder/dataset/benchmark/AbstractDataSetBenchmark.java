@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.engine.SharedDataSetOpEngine;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Base class of the data set engine benchmarks. Every scenario runs over a synthetic data set
+ * (see {@link BenchmarkDataSets}) and reports the number of operations per second.
+ * <p>The lookups are executed through {@link SharedDataSetOpEngine#execute(DataSet, java.util.List)} which builds a
+ * fresh index on every call, so what gets measured is the actual computation and not the reuse of the indexes
+ * built by previous calls.</p>
+ * <p>The 10M rows scenarios are not run by default as they require a larger heap,
+ * i.e: <tt>-p rows=10000000 -jvmArgs -Xmx8g</tt></p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public abstract class AbstractDataSetBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    protected DataSet dataSet;
+    protected SharedDataSetOpEngine engine;
+
+    @Setup
+    public void setUpDataSet() {
+        dataSet = BenchmarkDataSets.create(rows);
+        engine = DataSetCore.get().getSharedDataSetOpEngine();
+    }
+
+    protected DataSet lookup(DataSetLookup lookup) {
+        return engine.execute(dataSet, lookup.getOperationList());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.benchmark;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.dashbuilder.dataset.DataSetLookupFactory.newDataSetLookupBuilder;
+import static org.dashbuilder.dataset.benchmark.BenchmarkDataSets.*;
+
+/**
+ * Every {@link AggregateFunctionType} applied both to the whole data set and to every group. The functions are
+ * applied over a NUMBER column, except the JOIN ones which are applied over a LABEL column.
+ * <p>Run it from the IDE or through the <tt>main</tt> method.</p>
+ */
+public class AggregateBenchmark extends AbstractDataSetBenchmark {
+
+    /**
+     * Runs with all of the functions unless a subset is given, i.e: <tt>-p function=SUM,MEDIAN</tt>
+     */
+    @Param
+    public AggregateFunctionType function;
+
+    private DataSetLookup aggregate;
+    private DataSetLookup aggregateByGroup;
+
+    @Setup
+    public void setUp() {
+        String column = ColumnType.TEXT.equals(function.getResultType(ColumnType.LABEL)) ? DEPARTMENT : AMOUNT;
+
+        aggregate = newDataSetLookupBuilder()
+                .column(column, function)
+                .buildLookup();
+
+        aggregateByGroup = newDataSetLookupBuilder()
+                .group(CITY)
+                .column(CITY)
+                .column(column, function)
+                .buildLookup();
+    }
+
+    @Benchmark
+    public DataSet aggregate() {
+        return lookup(aggregate);
+    }
+
+    @Benchmark
+    public DataSet aggregateByGroup() {
+        return lookup(aggregateByGroup);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(AggregateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
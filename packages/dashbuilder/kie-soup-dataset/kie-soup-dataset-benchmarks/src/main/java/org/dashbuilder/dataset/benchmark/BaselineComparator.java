@@ -0,0 +1,161 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.dashbuilder.json.Json;
+import org.dashbuilder.json.JsonArray;
+import org.dashbuilder.json.JsonObject;
+
+/**
+ * Compares the JMH results of a run (<tt>-rf json</tt>) against a recorded baseline. A benchmark is reported as
+ * a regression when its throughput drops, or its normalized allocation rate (bytes per operation) grows, more than
+ * the given tolerance. Scores are expected in throughput mode (the higher the better), as all of the benchmarks in
+ * this module are.
+ * <p>Usage: <tt>BaselineComparator &lt;baseline.json&gt; &lt;result.json&gt; [tolerance %]</tt>. It fails
+ * if any regression is found.</p>
+ */
+public class BaselineComparator {
+
+    public static final double DEFAULT_TOLERANCE = 10;
+
+    static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    public static class Score {
+
+        private double score;
+        private double allocation = -1;
+        private String unit;
+
+        public double getScore() {
+            return score;
+        }
+
+        /**
+         * Bytes allocated per operation or <tt>-1</tt> if the run had no GC profiler.
+         */
+        public double getAllocation() {
+            return allocation;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+    }
+
+    private double tolerance;
+
+    public BaselineComparator(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Parse a JMH JSON result file.
+     * @return The score of every benchmark, by benchmark name plus parameters.
+     */
+    public static Map<String, Score> parse(String json) {
+        Map<String, Score> result = new LinkedHashMap<>();
+        JsonArray array = Json.instance().parse(json);
+        for (int i = 0; i < array.length(); i++) {
+            JsonObject run = array.getObject(i);
+            JsonObject primary = run.getObject("primaryMetric");
+            Score score = new Score();
+            score.score = primary.getNumber("score").doubleValue();
+            score.unit = primary.getString("scoreUnit");
+
+            JsonObject secondary = run.getObject("secondaryMetrics");
+            if (secondary != null) {
+                for (String metric : secondary.keys()) {
+                    if (metric.endsWith(ALLOCATION_METRIC)) {
+                        score.allocation = secondary.getObject(metric).getNumber("score").doubleValue();
+                    }
+                }
+            }
+            result.put(getKey(run), score);
+        }
+        return result;
+    }
+
+    static String getKey(JsonObject run) {
+        StringBuilder key = new StringBuilder(run.getString("benchmark"));
+        JsonObject params = run.getObject("params");
+        if (params != null) {
+            String[] names = params.keys();
+            Arrays.sort(names);
+            for (String name : names) {
+                key.append(key.indexOf(":") == -1 ? ":" : ",").append(name).append("=").append(params.getString(name));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Compare the scores and print a line for every benchmark present in both of them.
+     * @return The number of regressions found.
+     */
+    public int compare(Map<String, Score> baseline, Map<String, Score> current) {
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.println("NEW        " + entry.getKey());
+                continue;
+            }
+            Score after = entry.getValue();
+            double scoreChange = change(before.score, after.score);
+            double allocationChange = before.allocation < 0 || after.allocation < 0 ? 0 : change(before.allocation, after.allocation);
+            boolean regression = scoreChange < -tolerance || allocationChange > tolerance;
+            if (regression) regressions++;
+
+            System.out.println(String.format("%-10s %s  %.3f -> %.3f %s (%+.1f%%)%s",
+                    regression ? "REGRESSION" : "OK",
+                    entry.getKey(),
+                    before.score, after.score, after.unit, scoreChange,
+                    after.allocation < 0 ? "" : String.format(", %.0f -> %.0f B/op (%+.1f%%)",
+                            before.allocation, after.allocation, allocationChange)));
+        }
+        return regressions;
+    }
+
+    static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100 / before;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: BaselineComparator <baseline.json> <result.json> [tolerance %]");
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE;
+        Map<String, Score> baseline = parse(read(args[0]));
+        Map<String, Score> current = parse(read(args[1]));
+        int regressions = new BaselineComparator(tolerance).compare(baseline, current);
+        System.out.println(regressions + " regression(s) found (tolerance " + tolerance + "%)");
+        if (regressions > 0) {
+            throw new IllegalStateException(regressions + " benchmark(s) below the baseline");
+        }
+    }
+
+    private static String read(String file) throws IOException {
+        return new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8);
+    }
+}
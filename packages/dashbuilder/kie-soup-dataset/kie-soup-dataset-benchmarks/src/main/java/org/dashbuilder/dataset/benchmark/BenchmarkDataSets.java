@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.benchmark;
+
+import java.util.Random;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.impl.DateColumnValues;
+import org.dashbuilder.dataset.impl.LabelColumnValues;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
+
+/**
+ * Synthetic data sets used by the benchmarks. The values are random but always the same for a given number of
+ * rows, so results from different runs can be compared.
+ * <ul>
+ *     <li><tt>department</tt>: LABEL column with {@link #DEPARTMENTS} distinct values.</li>
+ *     <li><tt>city</tt>: LABEL column with {@link #CITIES} distinct values.</li>
+ *     <li><tt>quantity</tt>: NUMBER column with integer values from 1 to {@link #QUANTITIES}.</li>
+ *     <li><tt>amount</tt>: NUMBER column with decimal values from 0 to {@link #MAX_AMOUNT}.</li>
+ *     <li><tt>date</tt>: DATE column with values spread over {@link #YEARS} years.</li>
+ * </ul>
+ */
+public class BenchmarkDataSets {
+
+    public static final String DEPARTMENT = "department";
+    public static final String CITY = "city";
+    public static final String QUANTITY = "quantity";
+    public static final String AMOUNT = "amount";
+    public static final String DATE = "date";
+
+    public static final int DEPARTMENTS = 10;
+    public static final int CITIES = 1000;
+    public static final int QUANTITIES = 100;
+    public static final double MAX_AMOUNT = 10000;
+    public static final int YEARS = 5;
+
+    /**
+     * 2018-01-01T00:00:00Z
+     */
+    public static final long START_DATE = 1514764800000L;
+    public static final long END_DATE = START_DATE + YEARS * 365L * 24 * 60 * 60 * 1000;
+
+    private static final long SEED = 0;
+
+    private BenchmarkDataSets() {
+    }
+
+    public static DataSet create(int rows) {
+        Random random = new Random(SEED);
+        LabelColumnValues departments = new LabelColumnValues(rows);
+        LabelColumnValues cities = new LabelColumnValues(rows);
+        NumberColumnValues quantities = new NumberColumnValues(rows);
+        NumberColumnValues amounts = new NumberColumnValues(rows);
+        DateColumnValues dates = new DateColumnValues(rows);
+        for (int i = 0; i < rows; i++) {
+            departments.add(department(random.nextInt(DEPARTMENTS)));
+            cities.add(city(random.nextInt(CITIES)));
+            quantities.addDouble(1 + random.nextInt(QUANTITIES));
+            amounts.addDouble(random.nextDouble() * MAX_AMOUNT);
+            dates.addMillis(START_DATE + (long) (random.nextDouble() * (END_DATE - START_DATE)));
+        }
+        DataSet dataSet = DataSetFactory.newEmptyDataSet();
+        dataSet.setUUID("benchmark-" + rows);
+        dataSet.addColumn(DEPARTMENT, ColumnType.LABEL, departments);
+        dataSet.addColumn(CITY, ColumnType.LABEL, cities);
+        dataSet.addColumn(QUANTITY, ColumnType.NUMBER, quantities);
+        dataSet.addColumn(AMOUNT, ColumnType.NUMBER, amounts);
+        dataSet.addColumn(DATE, ColumnType.DATE, dates);
+        return dataSet;
+    }
+
+    public static String department(int i) {
+        return "department" + i;
+    }
+
+    public static String city(int i) {
+        return "city" + i;
+    }
+}
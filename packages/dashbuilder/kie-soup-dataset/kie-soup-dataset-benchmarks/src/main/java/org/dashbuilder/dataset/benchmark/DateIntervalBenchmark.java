@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.benchmark;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.group.DateIntervalType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.dashbuilder.dataset.DataSetLookupFactory.newDataSetLookupBuilder;
+import static org.dashbuilder.dataset.benchmark.BenchmarkDataSets.*;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.SUM;
+
+/**
+ * Date groups built by both the fixed (<tt>IntervalBuilderFixedDate</tt>) and the dynamic
+ * (<tt>IntervalBuilderDynamicDate</tt>) interval builders.
+ * <p>Run it from the IDE or through the <tt>main</tt> method.</p>
+ */
+public class DateIntervalBenchmark extends AbstractDataSetBenchmark {
+
+    /**
+     * Enough intervals to get one per day, otherwise the dynamic builder switches to a bigger interval size.
+     */
+    private static final int MAX_INTERVALS = YEARS * 366;
+
+    private DataSetLookup fixedMonth;
+    private DataSetLookup fixedDayOfWeek;
+    private DataSetLookup dynamicDay;
+    private DataSetLookup dynamicMonth;
+    private DataSetLookup dynamicYear;
+    private DataSetLookup dynamicMaxIntervals;
+
+    @Setup
+    public void setUp() {
+        fixedMonth = fixed(DateIntervalType.MONTH);
+        fixedDayOfWeek = fixed(DateIntervalType.DAY_OF_WEEK);
+        dynamicDay = dynamic(DateIntervalType.DAY);
+        dynamicMonth = dynamic(DateIntervalType.MONTH);
+        dynamicYear = dynamic(DateIntervalType.YEAR);
+
+        // Let the builder choose the interval size
+        dynamicMaxIntervals = newDataSetLookupBuilder()
+                .group(DATE).dynamic(50, true)
+                .column(DATE)
+                .column(AMOUNT, SUM)
+                .buildLookup();
+    }
+
+    private DataSetLookup fixed(DateIntervalType type) {
+        return newDataSetLookupBuilder()
+                .group(DATE).fixed(type, true)
+                .column(DATE)
+                .column(AMOUNT, SUM)
+                .buildLookup();
+    }
+
+    private DataSetLookup dynamic(DateIntervalType type) {
+        return newDataSetLookupBuilder()
+                .group(DATE).dynamic(MAX_INTERVALS, type, true)
+                .column(DATE)
+                .column(AMOUNT, SUM)
+                .buildLookup();
+    }
+
+    @Benchmark
+    public DataSet fixedMonth() {
+        return lookup(fixedMonth);
+    }
+
+    @Benchmark
+    public DataSet fixedDayOfWeek() {
+        return lookup(fixedDayOfWeek);
+    }
+
+    @Benchmark
+    public DataSet dynamicDay() {
+        return lookup(dynamicDay);
+    }
+
+    @Benchmark
+    public DataSet dynamicMonth() {
+        return lookup(dynamicMonth);
+    }
+
+    @Benchmark
+    public DataSet dynamicYear() {
+        return lookup(dynamicYear);
+    }
+
+    @Benchmark
+    public DataSet dynamicMaxIntervals() {
+        return lookup(dynamicMaxIntervals);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(DateIntervalBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
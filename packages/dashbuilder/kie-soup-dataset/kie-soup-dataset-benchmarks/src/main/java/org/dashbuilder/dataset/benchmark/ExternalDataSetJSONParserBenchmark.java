@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.benchmark;
+
+import java.io.StringReader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.json.ExternalDataSetJSONParser;
+import org.dashbuilder.json.Json;
+import org.dashbuilder.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the streaming data set parsing with the parsing through a {@link JsonObject} tree.
+ * <p>Run it from the IDE or through the <tt>main</tt> method (it is not part of the unit test suite). Add the
+ * <tt>-prof gc</tt> option to compare the memory allocated by each approach.</p>
+ */
+/**
+ * External data sets parsed by {@link ExternalDataSetJSONParser}, either from the JSON tree, from the whole
+ * JSON string or streamed from a reader.
+ * <p>Run it from the IDE or through the <tt>main</tt> method.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ExternalDataSetJSONParserBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    private ExternalDataSetJSONParser parser = new ExternalDataSetJSONParser();
+    private String json;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(0);
+        StringBuilder out = new StringBuilder("{\"columns\": [" +
+                "{\"id\": \"amount\", \"type\": \"NUMBER\"}, " +
+                "{\"id\": \"department\", \"type\": \"LABEL\"}, " +
+                "{\"id\": \"description\", \"type\": \"TEXT\"}], \"values\": [");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                out.append(",\n");
+            }
+            out.append("[").append(random.nextInt(1000000) / 100d)
+                    .append(", \"Department ").append(random.nextInt(20))
+                    .append("\", \"Expense report ").append(i).append("\"]");
+        }
+        json = out.append("]}").toString();
+    }
+
+    @Benchmark
+    public DataSet parseTree() {
+        JsonObject dataSetObject = Json.parse(json);
+        DataSet dataSet = DataSetFactory.newEmptyDataSet();
+        parser.addColumns(dataSet, dataSetObject);
+        parser.addValues(dataSet, dataSetObject.getArray("values"));
+        return dataSet;
+    }
+
+    @Benchmark
+    public DataSet parseString() {
+        return parser.parseDataSet(json);
+    }
+
+    @Benchmark
+    public DataSet readStream() {
+        return parser.readDataSet(new StringReader(json));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ExternalDataSetJSONParserBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
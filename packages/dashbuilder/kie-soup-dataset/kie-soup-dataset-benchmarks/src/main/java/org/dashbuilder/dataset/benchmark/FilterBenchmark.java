@@ -0,0 +1,106 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.benchmark;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.dashbuilder.dataset.DataSetLookupFactory.newDataSetLookupBuilder;
+import static org.dashbuilder.dataset.benchmark.BenchmarkDataSets.*;
+import static org.dashbuilder.dataset.filter.FilterFactory.AND;
+import static org.dashbuilder.dataset.filter.FilterFactory.between;
+import static org.dashbuilder.dataset.filter.FilterFactory.equalsTo;
+import static org.dashbuilder.dataset.filter.FilterFactory.greaterThan;
+import static org.dashbuilder.dataset.filter.FilterFactory.in;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.SUM;
+
+/**
+ * Filter operations, from a single column filter to several column filters stacked one after the other.
+ * <p>Run it from the IDE or through the <tt>main</tt> method.</p>
+ */
+public class FilterBenchmark extends AbstractDataSetBenchmark {
+
+    private DataSetLookup singleFilter;
+    private DataSetLookup stackedFilters;
+    private DataSetLookup combinedFilter;
+    private DataSetLookup stackedFiltersAndGroup;
+
+    @Setup
+    public void setUp() {
+        Date from = new Date(START_DATE + (END_DATE - START_DATE) / 4);
+        Date to = new Date(START_DATE + (END_DATE - START_DATE) * 3 / 4);
+
+        singleFilter = newDataSetLookupBuilder()
+                .filter(AMOUNT, greaterThan(MAX_AMOUNT / 2))
+                .buildLookup();
+
+        // Every column filter is applied over the rows left by the previous one
+        stackedFilters = newDataSetLookupBuilder()
+                .filter(DEPARTMENT, in(DEPARTMENT, Arrays.asList(department(0), department(1), department(2))))
+                .filter(AMOUNT, greaterThan(MAX_AMOUNT / 2))
+                .filter(DATE, between(from, to))
+                .buildLookup();
+
+        // The same conditions as a single column filter
+        combinedFilter = newDataSetLookupBuilder()
+                .filter(AND(
+                        in(DEPARTMENT, Arrays.asList(department(0), department(1), department(2))),
+                        greaterThan(AMOUNT, MAX_AMOUNT / 2),
+                        between(DATE, from, to)))
+                .buildLookup();
+
+        stackedFiltersAndGroup = newDataSetLookupBuilder()
+                .filter(DEPARTMENT, equalsTo(department(0)))
+                .filter(DATE, between(from, to))
+                .group(CITY)
+                .column(CITY)
+                .column(AMOUNT, SUM)
+                .buildLookup();
+    }
+
+    @Benchmark
+    public DataSet singleFilter() {
+        return lookup(singleFilter);
+    }
+
+    @Benchmark
+    public DataSet stackedFilters() {
+        return lookup(stackedFilters);
+    }
+
+    @Benchmark
+    public DataSet combinedFilter() {
+        return lookup(combinedFilter);
+    }
+
+    @Benchmark
+    public DataSet stackedFiltersAndGroup() {
+        return lookup(stackedFiltersAndGroup);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(FilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.benchmark;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.dashbuilder.dataset.DataSetLookupFactory.newDataSetLookupBuilder;
+import static org.dashbuilder.dataset.benchmark.BenchmarkDataSets.*;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.COUNT;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.SUM;
+import static org.dashbuilder.dataset.group.DateIntervalType.MONTH;
+
+/**
+ * Single and nested group operations over LABEL, NUMBER and DATE columns.
+ * <p>Run it from the IDE or through the <tt>main</tt> method.</p>
+ */
+public class GroupBenchmark extends AbstractDataSetBenchmark {
+
+    private DataSetLookup groupByLabel;
+    private DataSetLookup groupByLabelHighCardinality;
+    private DataSetLookup groupByNumber;
+    private DataSetLookup groupByDate;
+    private DataSetLookup drillDownByLabel;
+    private DataSetLookup drillDownByDate;
+
+    @Setup
+    public void setUp() {
+        groupByLabel = newDataSetLookupBuilder()
+                .group(DEPARTMENT)
+                .column(DEPARTMENT)
+                .column(COUNT, "occurrences")
+                .column(AMOUNT, SUM)
+                .buildLookup();
+
+        groupByLabelHighCardinality = newDataSetLookupBuilder()
+                .group(CITY)
+                .column(CITY)
+                .column(COUNT, "occurrences")
+                .column(AMOUNT, SUM)
+                .buildLookup();
+
+        groupByNumber = newDataSetLookupBuilder()
+                .group(QUANTITY)
+                .column(QUANTITY)
+                .column(AMOUNT, SUM)
+                .buildLookup();
+
+        groupByDate = newDataSetLookupBuilder()
+                .group(DATE).dynamic(YEARS * 12, MONTH, true)
+                .column(DATE)
+                .column(AMOUNT, SUM)
+                .buildLookup();
+
+        // Nested group: the cities of a single department
+        drillDownByLabel = newDataSetLookupBuilder()
+                .group(DEPARTMENT).select(department(0))
+                .group(CITY)
+                .column(CITY)
+                .column(AMOUNT, SUM)
+                .buildLookup();
+
+        // Nested group: the monthly evolution of a single department
+        drillDownByDate = newDataSetLookupBuilder()
+                .group(DEPARTMENT).select(department(0))
+                .group(DATE).dynamic(YEARS * 12, MONTH, true)
+                .column(DATE)
+                .column(AMOUNT, SUM)
+                .buildLookup();
+    }
+
+    @Benchmark
+    public DataSet groupByLabel() {
+        return lookup(groupByLabel);
+    }
+
+    @Benchmark
+    public DataSet groupByLabelHighCardinality() {
+        return lookup(groupByLabelHighCardinality);
+    }
+
+    @Benchmark
+    public DataSet groupByNumber() {
+        return lookup(groupByNumber);
+    }
+
+    @Benchmark
+    public DataSet groupByDate() {
+        return lookup(groupByDate);
+    }
+
+    @Benchmark
+    public DataSet drillDownByLabel() {
+        return lookup(drillDownByLabel);
+    }
+
+    @Benchmark
+    public DataSet drillDownByDate() {
+        return lookup(drillDownByDate);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(GroupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.engine.group.IntervalBuilderDynamicLabel;
+import org.dashbuilder.dataset.engine.group.IntervalList;
+import org.dashbuilder.dataset.group.ColumnGroup;
+import org.dashbuilder.dataset.group.GroupStrategy;
+import org.dashbuilder.dataset.impl.DataColumnImpl;
+import org.dashbuilder.dataset.impl.LabelColumnValues;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the grouping of a label column for different cardinalities, both for dictionary encoded columns
+ * and for plain lists of strings.
+ * <p>Run it from the IDE or through the <tt>main</tt> method (it is not part of the unit test suite).</p>
+ */
+/**
+ * Dynamic label groups built by {@link IntervalBuilderDynamicLabel} over a dictionary encoded column and over a plain
+ * list of labels.
+ * <p>Run it from the IDE or through the <tt>main</tt> method.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntervalBuilderDynamicLabelBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"10", "1000", "50000"})
+    public int distinctValues;
+
+    private IntervalBuilderDynamicLabel intervalBuilder = new IntervalBuilderDynamicLabel();
+    private DataColumnImpl dictionaryColumn;
+    private DataColumnImpl listColumn;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(0);
+        LabelColumnValues dictionaryValues = new LabelColumnValues(rows);
+        List listValues = new ArrayList(rows);
+        for (int i = 0; i < rows; i++) {
+            String label = "label" + random.nextInt(distinctValues);
+            dictionaryValues.add(label);
+            listValues.add(label);
+        }
+        dictionaryColumn = createColumn(dictionaryValues);
+        listColumn = createColumn(listValues);
+    }
+
+    private DataColumnImpl createColumn(List values) {
+        DataColumnImpl column = new DataColumnImpl("label", ColumnType.LABEL);
+        column.setColumnGroup(new ColumnGroup("label", "label", GroupStrategy.DYNAMIC));
+        column.setValues(values);
+        return column;
+    }
+
+    @Benchmark
+    public IntervalList groupDictionaryColumn() {
+        return intervalBuilder.build(dictionaryColumn);
+    }
+
+    @Benchmark
+    public IntervalList groupListColumn() {
+        return intervalBuilder.build(listColumn);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(IntervalBuilderDynamicLabelBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
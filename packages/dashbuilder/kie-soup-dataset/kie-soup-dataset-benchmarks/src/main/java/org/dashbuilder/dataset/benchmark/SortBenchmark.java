@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.engine.sort.CollectionsDataSetSort;
+import org.dashbuilder.dataset.sort.ColumnSort;
+import org.dashbuilder.dataset.sort.SortOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.dashbuilder.dataset.DataSetLookupFactory.newDataSetLookupBuilder;
+import static org.dashbuilder.dataset.benchmark.BenchmarkDataSets.*;
+
+/**
+ * Full and top-N sorts, both through the engine and directly over the {@link CollectionsDataSetSort} algorithm.
+ * <p>Run it from the IDE or through the <tt>main</tt> method.</p>
+ */
+public class SortBenchmark extends AbstractDataSetBenchmark {
+
+    @Param({"10"})
+    public int topN;
+
+    private CollectionsDataSetSort sortAlgorithm = new CollectionsDataSetSort();
+    private List<ColumnSort> sortByAmount;
+    private List<ColumnSort> sortByDepartmentAndAmount;
+    private DataSetLookup sortLookup;
+
+    @Setup
+    public void setUp() {
+        sortByAmount = Arrays.asList(new ColumnSort(AMOUNT, SortOrder.DESCENDING));
+        sortByDepartmentAndAmount = Arrays.asList(
+                new ColumnSort(DEPARTMENT, SortOrder.ASCENDING),
+                new ColumnSort(AMOUNT, SortOrder.DESCENDING));
+
+        sortLookup = newDataSetLookupBuilder()
+                .sort(AMOUNT, SortOrder.DESCENDING)
+                .buildLookup();
+    }
+
+    @Benchmark
+    public DataSet sortLookup() {
+        return lookup(sortLookup);
+    }
+
+    @Benchmark
+    public List<Integer> sortByNumber() {
+        return sortAlgorithm.sort(dataSet, null, sortByAmount, -1);
+    }
+
+    @Benchmark
+    public List<Integer> topNByNumber() {
+        return sortAlgorithm.sort(dataSet, null, sortByAmount, topN);
+    }
+
+    @Benchmark
+    public List<Integer> sortByLabelAndNumber() {
+        return sortAlgorithm.sort(dataSet, null, sortByDepartmentAndAmount, -1);
+    }
+
+    @Benchmark
+    public List<Integer> topNByLabelAndNumber() {
+        return sortAlgorithm.sort(dataSet, null, sortByDepartmentAndAmount, topN);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(SortBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.dashbuilder;
 
+import java.util.concurrent.ForkJoinPool;
+
 import org.dashbuilder.dataprovider.DataSetProviderRegistry;
 import org.dashbuilder.dataprovider.DataSetProviderRegistryImpl;
 import org.dashbuilder.dataprovider.StaticDataSetProvider;
@@ -23,13 +25,22 @@ import org.dashbuilder.dataset.DataSetDefDeployer;
 import org.dashbuilder.dataset.DataSetDefRegistryImpl;
 import org.dashbuilder.dataset.DataSetManager;
 import org.dashbuilder.dataset.DataSetManagerImpl;
+import org.dashbuilder.dataset.ForkJoinDataSetTaskExecutor;
 import org.dashbuilder.dataset.IntervalBuilderDynamicDate;
 import org.dashbuilder.dataset.IntervalBuilderLocatorImpl;
 import org.dashbuilder.dataset.UUIDGeneratorImpl;
 import org.dashbuilder.dataset.def.DataSetDefRegistry;
 import org.dashbuilder.dataset.engine.Chronometer;
+import org.dashbuilder.dataset.engine.DataSetLookupCache;
+import org.dashbuilder.dataset.engine.DataSetTaskExecutor;
+import org.dashbuilder.dataset.engine.SharedDataSetOpEngine;
 import org.dashbuilder.dataset.engine.group.IntervalBuilderLocator;
+import org.dashbuilder.dataset.engine.index.TransientDataSetIndexRegistry;
+import org.dashbuilder.dataset.engine.index.spi.DataSetIndexRegistry;
+import org.dashbuilder.dataset.engine.metrics.DataSetEngineMetrics;
 import org.dashbuilder.dataset.json.DataSetDefJSONMarshaller;
+import org.dashbuilder.dataset.metrics.PrometheusMetricsExporter;
+import org.dashbuilder.dataset.metrics.SlowLookupLogger;
 import org.dashbuilder.dataset.uuid.UUIDGenerator;
 import org.dashbuilder.scheduler.Scheduler;
 
@@ -37,6 +48,15 @@ public class DataSetCoreImpl extends DataSetCore {
 
     private static final String STATIC_DATA_SET_PROVIDER = "StaticDataSetProvider";
     private static final String DATA_SET_DEF_REGISTRY = "DataSetDefRegistry";
+    public static final String INDEX_MAX_SIZE = "org.dashbuilder.dataset.index.maxSize";
+    public static final String INDEX_MAX_ENTRIES = "org.dashbuilder.dataset.index.maxEntries";
+    public static final String INDEX_MAX_IDLE_TIME = "org.dashbuilder.dataset.index.maxIdleTime";
+    public static final String LOOKUP_CACHE_MAX_SIZE = "org.dashbuilder.dataset.lookup.cache.maxSize";
+    public static final String LOOKUP_SLOW_THRESHOLD = "org.dashbuilder.dataset.lookup.slowThreshold";
+    public static final String METRICS_ENABLED = "org.dashbuilder.dataset.metrics.enabled";
+    public static final String PARALLEL_THRESHOLD = "org.dashbuilder.dataset.parallel.threshold";
+    public static final String DATE_ROLLUP_ENABLED = "org.dashbuilder.dataset.date.rollup.enabled";
+    public static final String FILTER_PLANNING_ENABLED = "org.dashbuilder.dataset.filter.planning.enabled";
     private boolean dataSetPushEnabled = false;
     private int dataSetPushMaxSize = 1024;
     private Scheduler scheduler;
@@ -50,6 +70,8 @@ public class DataSetCoreImpl extends DataSetCore {
     private ChronometerImpl chronometerImpl;
     private UUIDGeneratorImpl uuidGeneratorImpl;
     private DataSetDefJSONMarshaller dataSetDefJSONMarshaller;
+    private DataSetEngineMetrics dataSetEngineMetrics;
+    private PrometheusMetricsExporter prometheusMetricsExporter;
 
     // Factory methods
 
@@ -73,6 +95,39 @@ public class DataSetCoreImpl extends DataSetCore {
         return getUUIDGeneratorImpl();
     }
 
+    @Override
+    public DataSetTaskExecutor newTaskExecutor() {
+        int threshold = Integer.getInteger(PARALLEL_THRESHOLD, ForkJoinDataSetTaskExecutor.DEFAULT_THRESHOLD);
+        return new ForkJoinDataSetTaskExecutor(ForkJoinPool.commonPool(), threshold);
+    }
+
+    @Override
+    protected SharedDataSetOpEngine newSharedDataSetOpEngine() {
+        SharedDataSetOpEngine engine = super.newSharedDataSetOpEngine();
+        long slowThreshold = Long.getLong(LOOKUP_SLOW_THRESHOLD, -1);
+        engine.setSlowLookupThreshold(slowThreshold);
+        engine.setDateRollupEnabled(Boolean.getBoolean(DATE_ROLLUP_ENABLED));
+        engine.setFilterPlanningEnabled(Boolean.getBoolean(FILTER_PLANNING_ENABLED));
+        if (slowThreshold >= 0) {
+            engine.addListener(new SlowLookupLogger());
+        }
+        if (Boolean.getBoolean(METRICS_ENABLED)) {
+            dataSetEngineMetrics = new DataSetEngineMetrics();
+            engine.addListener(dataSetEngineMetrics);
+        }
+        return engine;
+    }
+
+    @Override
+    public DataSetIndexRegistry newIndexRegistry() {
+        TransientDataSetIndexRegistry indexRegistry = new TransientDataSetIndexRegistry(
+                checkNotNull(getUuidGenerator(), "UUIDGenerator"));
+        indexRegistry.setMaxSize(Long.getLong(INDEX_MAX_SIZE, TransientDataSetIndexRegistry.NO_LIMIT));
+        indexRegistry.setMaxEntries(Long.getLong(INDEX_MAX_ENTRIES, TransientDataSetIndexRegistry.NO_LIMIT));
+        indexRegistry.setMaxIdleTime(Long.getLong(INDEX_MAX_IDLE_TIME, TransientDataSetIndexRegistry.NO_LIMIT));
+        return indexRegistry;
+    }
+
     // Getters
 
     public boolean isDataSetPushEnabled() {
@@ -132,6 +187,8 @@ public class DataSetCoreImpl extends DataSetCore {
         if (staticDataSetProvider == null) {
             staticDataSetProvider = new StaticDataSetProvider(
                     checkNotNull(getSharedDataSetOpEngine(), "SharedDataSetOpEngine"));
+            staticDataSetProvider.getLookupCache().setMaxSize(
+                    Long.getLong(LOOKUP_CACHE_MAX_SIZE, DataSetLookupCache.DEFAULT_MAX_SIZE));
         }
         return staticDataSetProvider;
     }
@@ -160,6 +217,30 @@ public class DataSetCoreImpl extends DataSetCore {
         return chronometerImpl;
     }
 
+    /**
+     * Get the engine metrics. They are collected since start up if enabled through {@link #METRICS_ENABLED} or
+     * else, since the first call to this method.
+     */
+    public DataSetEngineMetrics getDataSetEngineMetrics() {
+        SharedDataSetOpEngine engine = checkNotNull(getSharedDataSetOpEngine(), "SharedDataSetOpEngine");
+        if (dataSetEngineMetrics == null) {
+            dataSetEngineMetrics = new DataSetEngineMetrics();
+            engine.addListener(dataSetEngineMetrics);
+        }
+        return dataSetEngineMetrics;
+    }
+
+    public PrometheusMetricsExporter getPrometheusMetricsExporter() {
+        if (prometheusMetricsExporter == null) {
+            DataSetIndexRegistry indexRegistry = getIndexRegistry();
+            prometheusMetricsExporter = new PrometheusMetricsExporter(
+                    checkNotNull(getDataSetEngineMetrics(), "DataSetEngineMetrics"),
+                    indexRegistry instanceof TransientDataSetIndexRegistry ? (TransientDataSetIndexRegistry) indexRegistry : null,
+                    checkNotNull(getStaticDataSetProvider(), STATIC_DATA_SET_PROVIDER).getLookupCache());
+        }
+        return prometheusMetricsExporter;
+    }
+
     public UUIDGeneratorImpl getUUIDGeneratorImpl() {
         if (uuidGeneratorImpl == null) {
             uuidGeneratorImpl = new UUIDGeneratorImpl();
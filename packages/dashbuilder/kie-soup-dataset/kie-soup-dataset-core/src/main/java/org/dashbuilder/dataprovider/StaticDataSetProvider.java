@@ -15,11 +15,15 @@
  */
 package org.dashbuilder.dataprovider;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.commons.lang3.StringUtils;
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.DataSetMetadata;
 import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.engine.DataSetLookupCache;
 import org.dashbuilder.dataset.engine.SharedDataSetOpEngine;
 import org.dashbuilder.dataset.engine.index.DataSetIndex;
 import org.dashbuilder.dataset.filter.DataSetFilter;
@@ -37,6 +41,7 @@ import org.dashbuilder.dataset.filter.DataSetFilter;
 public class StaticDataSetProvider implements DataSetProvider {
 
     private SharedDataSetOpEngine dataSetOpEngine;
+    private DataSetLookupCache lookupCache = new DataSetLookupCache();
 
     public StaticDataSetProvider() {
     }
@@ -49,6 +54,13 @@ public class StaticDataSetProvider implements DataSetProvider {
         return DataSetProviderType.STATIC;
     }
 
+    /**
+     * Cache of the lookup results. Identical lookups over the same data set are calculated only once.
+     */
+    public DataSetLookupCache getLookupCache() {
+        return lookupCache;
+    }
+
     public DataSetMetadata getDataSetMetadata(DataSetDef def) {
         DataSet dataSet = lookupDataSet(def, null);
         if (dataSet == null) return null;
@@ -56,14 +68,43 @@ public class StaticDataSetProvider implements DataSetProvider {
     }
 
     public void registerDataSet(DataSet dataSet) {
-        dataSetOpEngine.getIndexRegistry().put(dataSet);
+        DataSetIndex index = dataSetOpEngine.getIndexRegistry().put(dataSet);
+        if (index != null) {
+            lookupCache.invalidate(dataSet.getUUID());
+        }
     }
 
     public DataSet removeDataSet(String uuid) {
+        lookupCache.invalidate(uuid);
         DataSetIndex index = dataSetOpEngine.getIndexRegistry().remove(uuid);
         return (index == null ? null : index.getDataSet());
     }
 
+    /**
+     * Add the rows of the given data set (with the same columns) at the end of a registered data set.
+     * The indexes of the registered data set are updated incrementally instead of being built again.
+     * @return The data set updated or null if not found.
+     */
+    public DataSet appendDataSet(String uuid, DataSet rows) {
+        DataSetIndex index = dataSetOpEngine.getIndexRegistry().get(uuid);
+        if (index == null) return null;
+
+        DataSet dataSet = index.getDataSet();
+        List<Integer> newRows = new ArrayList<>();
+        int columnCount = dataSet.getColumns().size();
+        for (int i = 0; i < rows.getRowCount(); i++) {
+            Object[] values = new Object[columnCount];
+            for (int j = 0; j < columnCount; j++) {
+                values[j] = rows.getValueAt(i, j);
+            }
+            newRows.add(dataSet.getRowCount());
+            dataSet.addValues(values);
+        }
+        dataSetOpEngine.append(uuid, newRows);
+        lookupCache.invalidate(uuid);
+        return dataSet;
+    }
+
     public DataSet lookupDataSet(DataSetDef def, DataSetLookup lookup) {
         String uuid = def.getUUID();
         if (StringUtils.isEmpty(uuid)) return null;
@@ -96,13 +137,17 @@ public class StaticDataSetProvider implements DataSetProvider {
         DataSet dataSet = dataSetIndex.getDataSet();
         if (lookup == null) return dataSet;
 
-        // Apply the list of operations specified (if any).
+        // Apply the list of operations specified (if any) and trim the data set as requested.
         if (!lookup.getOperationList().isEmpty()) {
-            dataSet = dataSetOpEngine.execute(uuid, lookup.getOperationList());
+            DataSet result = lookupCache.get(lookup, dataSetIndex);
+            if (result == null) {
+                result = dataSetOpEngine.execute(uuid, lookup.getOperationList(), lookup.getRowOffset(), lookup.getNumberOfRows());
+                lookupCache.put(lookup, dataSetIndex, result);
+            }
+            dataSet = result;
+        } else {
+            dataSet = dataSet.trim(lookup.getRowOffset(), lookup.getNumberOfRows());
         }
-
-        // Trim the data set as requested.
-        dataSet = dataSet.trim(lookup.getRowOffset(), lookup.getNumberOfRows());
         return dataSet;
     }
 
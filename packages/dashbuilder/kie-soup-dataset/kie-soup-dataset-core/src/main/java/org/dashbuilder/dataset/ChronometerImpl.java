@@ -23,14 +23,16 @@ public class ChronometerImpl implements Chronometer {
     protected Long stopTime;
 
     public long start() {
-        startTime = System.nanoTime();
+        long now = System.nanoTime();
+        startTime = now;
         stopTime = null;
-        return startTime;
+        return now;
     }
 
     public long stop() {
-        stopTime = System.nanoTime();
-        return stopTime;
+        long now = System.nanoTime();
+        stopTime = now;
+        return now;
     }
 
     public long elapsedTime() {
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.dashbuilder.dataset.engine.DataSetTaskExecutor;
+
+/**
+ * Runs the engine tasks on a fork/join pool. Only the row sets above the configured threshold are split into
+ * partitions, one per available core.
+ */
+public class ForkJoinDataSetTaskExecutor implements DataSetTaskExecutor {
+
+    public static final int DEFAULT_THRESHOLD = 500000;
+
+    protected ForkJoinPool pool;
+    protected int threshold;
+
+    public ForkJoinDataSetTaskExecutor() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    public ForkJoinDataSetTaskExecutor(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * @param threshold Min number of rows to process in parallel. Zero or negative to disable parallel execution.
+     */
+    public void setThreshold(int threshold) {
+        this.threshold = threshold;
+    }
+
+    public int getPartitions(int rows) {
+        if (threshold <= 0 || rows < threshold) {
+            return 1;
+        }
+        return Math.max(1, Math.min(pool.getParallelism(), rows));
+    }
+
+    public <T> List<T> invokeAll(List<Task<T>> tasks) {
+        List<ForkJoinTask<T>> forks = new ArrayList<>(tasks.size());
+        for (Task<T> task : tasks) {
+            forks.add(pool.submit(task::execute));
+        }
+        List<T> results = new ArrayList<>(forks.size());
+        for (ForkJoinTask<T> fork : forks) {
+            try {
+                results.add(fork.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the data set tasks", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+        return results;
+    }
+}
@@ -28,6 +28,7 @@ import org.dashbuilder.dataset.date.Quarter;
 import org.dashbuilder.dataset.engine.DataSetHandler;
 import org.dashbuilder.dataset.engine.group.IntervalBuilder;
 import org.dashbuilder.dataset.engine.group.IntervalList;
+import org.dashbuilder.dataset.engine.index.DataSetDateRollup;
 import org.dashbuilder.dataset.group.ColumnGroup;
 import org.dashbuilder.dataset.group.DateIntervalType;
 import org.dashbuilder.dataset.group.Interval;
@@ -68,6 +69,12 @@ public class IntervalBuilderDynamicDate implements IntervalBuilder {
             return results;
         }
 
+        // Get the intervals from the date rollup (if available)
+        DataSetDateRollup rollup = handler.getDateRollup(columnGroup.getSourceId());
+        if (rollup != null && rollup.getRowCount() > 0 && rollup.getMinDate().before(rollup.getMaxDate())) {
+            return build(rollup, columnGroup);
+        }
+
         // Sort the column dates.
         DataSetSort sortOp = new DataSetSort();
         sortOp.addSortColumn(new ColumnSort(columnGroup.getSourceId(), SortOrder.ASCENDING));
@@ -146,6 +153,42 @@ public class IntervalBuilderDynamicDate implements IntervalBuilder {
         return results;
     }
 
+    /**
+     * Build the intervals from a rollup of the column dates. The rows of every interval are picked from the
+     * rollup with no need to compare the dates one by one.
+     */
+    protected IntervalList build(DataSetDateRollup rollup, ColumnGroup columnGroup) {
+        IntervalDateRangeList results = new IntervalDateRangeList(columnGroup);
+        Date minDate = rollup.getMinDate();
+        Date maxDate = rollup.getMaxDate();
+        DateIntervalType intervalType = calculateIntervalSize(minDate, maxDate, columnGroup);
+
+        // Create the intervals according to the min/max dates.
+        Calendar c = firstIntervalDate(intervalType, minDate, columnGroup);
+        int counter = 0;
+        while (c.getTime().compareTo(maxDate) <= 0) {
+            Date intervalMinDate = c.getTime();
+
+            // Create the next interval
+            nextIntervalDate(c, intervalType, 1);
+            Date intervalMaxDate = c.getTime();
+            IntervalDateRange interval = new IntervalDateRange(counter++, intervalType, intervalMinDate, intervalMaxDate);
+            interval.setRows(rollup.getRows(intervalMinDate.getTime(), intervalMaxDate.getTime()));
+            results.add(interval);
+        }
+
+        // Reverse intervals if requested
+        boolean asc = columnGroup.isAscendingOrder();
+        if (!asc) Collections.reverse( results );
+
+        // Return the results
+        results.setIntervalType(intervalType.toString());
+        results.setMinValue(minDate);
+        results.setMaxValue(maxDate);
+        results.setDateRollup(rollup);
+        return results;
+    }
+
     public IntervalList build(DataColumn dataColumn) {
         ColumnGroup columnGroup = dataColumn.getColumnGroup();
         Date minDate = (Date) dataColumn.getMinValue();
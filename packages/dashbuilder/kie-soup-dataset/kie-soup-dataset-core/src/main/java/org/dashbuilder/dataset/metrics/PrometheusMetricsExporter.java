@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.metrics;
+
+import java.util.Locale;
+
+import org.dashbuilder.dataset.engine.DataSetLookupCache;
+import org.dashbuilder.dataset.engine.index.TransientDataSetIndexRegistry;
+import org.dashbuilder.dataset.engine.metrics.DataSetEngineMetrics;
+import org.dashbuilder.dataset.engine.metrics.DataSetEngineMetrics.OpStats;
+import org.dashbuilder.dataset.engine.metrics.DataSetEngineOp;
+
+/**
+ * Exports the data set engine metrics in the Prometheus text format, following the Micrometer naming conventions
+ * (base units, <tt>_total</tt> counters and <tt>_count/_sum/_max</tt> timers), so they can be scraped along
+ * with the metrics of any Micrometer registry.
+ */
+public class PrometheusMetricsExporter {
+
+    public static final String PREFIX = "dashbuilder_dataset_";
+
+    private DataSetEngineMetrics engineMetrics;
+    private TransientDataSetIndexRegistry indexRegistry;
+    private DataSetLookupCache lookupCache;
+
+    /**
+     * @param engineMetrics The engine metrics.
+     * @param indexRegistry The index registry (optional).
+     * @param lookupCache The lookup cache (optional).
+     */
+    public PrometheusMetricsExporter(DataSetEngineMetrics engineMetrics,
+                                     TransientDataSetIndexRegistry indexRegistry,
+                                     DataSetLookupCache lookupCache) {
+        this.engineMetrics = engineMetrics;
+        this.indexRegistry = indexRegistry;
+        this.lookupCache = lookupCache;
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder();
+
+        header(out, "op_seconds", "summary", "Time spent per operation type");
+        for (DataSetEngineOp op : DataSetEngineOp.values()) {
+            timer(out, "op_seconds", opTag(op), engineMetrics.getOpStats(op));
+        }
+        header(out, "op_rows_in_total", "counter", "Rows processed per operation type");
+        for (DataSetEngineOp op : DataSetEngineOp.values()) {
+            sample(out, "op_rows_in_total", opTag(op), engineMetrics.getOpStats(op).getRowsIn());
+        }
+        header(out, "op_rows_out_total", "counter", "Rows resulting per operation type");
+        for (DataSetEngineOp op : DataSetEngineOp.values()) {
+            sample(out, "op_rows_out_total", opTag(op), engineMetrics.getOpStats(op).getRowsOut());
+        }
+        header(out, "index_requests_total", "counter", "Operations resolved from (hit) or building (miss) an index");
+        for (DataSetEngineOp op : DataSetEngineOp.values()) {
+            OpStats stats = engineMetrics.getOpStats(op);
+            sample(out, "index_requests_total", opTag(op) + ",result=\"hit\"", stats.getIndexHits());
+            sample(out, "index_requests_total", opTag(op) + ",result=\"miss\"", stats.getIndexMisses());
+        }
+
+        header(out, "lookup_seconds", "summary", "Time spent per lookup");
+        timer(out, "lookup_seconds", null, engineMetrics.getLookupStats());
+        header(out, "lookup_slow_total", "counter", "Lookups exceeding the slow lookup threshold");
+        sample(out, "lookup_slow_total", null, engineMetrics.getSlowLookupCount());
+
+        if (indexRegistry != null) {
+            header(out, "index_bytes", "gauge", "Estimated memory consumed by the data sets and their indexes");
+            sample(out, "index_bytes", null, indexRegistry.getSize());
+            header(out, "index_data_sets", "gauge", "Data sets registered");
+            sample(out, "index_data_sets", null, indexRegistry.getEntryCount());
+            header(out, "index_evictions_total", "counter", "Indexes evicted from the index registry");
+            sample(out, "index_evictions_total", null, indexRegistry.getEvictionCount());
+        }
+        if (lookupCache != null) {
+            header(out, "lookup_cache_bytes", "gauge", "Estimated memory consumed by the cached lookup results");
+            sample(out, "lookup_cache_bytes", null, lookupCache.getSize());
+            header(out, "lookup_cache_requests_total", "counter", "Lookups served from (hit) or missing in the cache");
+            sample(out, "lookup_cache_requests_total", "result=\"hit\"", lookupCache.getHitCount());
+            sample(out, "lookup_cache_requests_total", "result=\"miss\"", lookupCache.getMissCount());
+            header(out, "lookup_cache_evictions_total", "counter", "Lookup results evicted from the cache");
+            sample(out, "lookup_cache_evictions_total", null, lookupCache.getEvictionCount());
+        }
+        return out.toString();
+    }
+
+    protected String opTag(DataSetEngineOp op) {
+        return "op=\"" + op.name().toLowerCase(Locale.ROOT) + "\"";
+    }
+
+    protected void timer(StringBuilder out, String name, String tags, OpStats stats) {
+        sample(out, name + "_count", tags, stats.getCount());
+        sample(out, name + "_sum", tags, seconds(stats.getTotalTime()));
+        sample(out, name + "_max", tags, seconds(stats.getMaxTime()));
+    }
+
+    protected double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    protected void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(PREFIX).append(name).append(" ").append(help).append("\n");
+        out.append("# TYPE ").append(PREFIX).append(name).append(" ").append(type).append("\n");
+    }
+
+    protected void sample(StringBuilder out, String name, String tags, Object value) {
+        out.append(PREFIX).append(name);
+        if (tags != null) {
+            out.append("{").append(tags).append("}");
+        }
+        out.append(" ").append(value).append("\n");
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.metrics;
+
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.engine.metrics.DataSetEngineListener;
+import org.dashbuilder.dataset.engine.metrics.DataSetEngineOp;
+import org.dashbuilder.dataset.json.DataSetLookupJSONMarshaller;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs the lookups exceeding the slow lookup threshold of the engine, along with the lookup in JSON format
+ * so it can be replayed.
+ */
+public class SlowLookupLogger implements DataSetEngineListener {
+
+    protected Logger log = LoggerFactory.getLogger(SlowLookupLogger.class);
+
+    @Override
+    public void onOperation(String uuid, DataSetEngineOp op, long time, int rowsIn, int rowsOut, boolean indexHit) {
+        // Only the whole lookups are logged
+    }
+
+    @Override
+    public void onLookup(DataSetLookup lookup, long time, int rowsIn, int rowsOut, boolean slow) {
+        if (slow && log.isWarnEnabled()) {
+            log.warn("Slow data set lookup ({} ms, {} rows in, {} rows out): {}",
+                    time / 1000000, rowsIn, rowsOut, toJson(lookup));
+        }
+    }
+
+    protected String toJson(DataSetLookup lookup) {
+        try {
+            return DataSetLookupJSONMarshaller.get().toJson(lookup).toJson();
+        } catch (Exception e) {
+            return lookup.getDataSetUUID();
+        }
+    }
+}
@@ -79,4 +79,16 @@ public class AggregateFunctionTest {
         Object result = sf.aggregate(listOfStrings);
         assertThat(result).isEqualTo(3d);
     }
+
+    @Test
+    public void testApproximateFunctions() throws Exception {
+        AggregateFunction sf = aggregateFunctionManager.getFunctionByType(AggregateFunctionType.DISTINCT_APPROX);
+        assertThat(sf.aggregate(listOfStrings)).isEqualTo(3d);
+
+        sf = aggregateFunctionManager.getFunctionByType(AggregateFunctionType.MEDIAN_APPROX);
+        assertThat(sf.aggregate(listOfNumbers)).isEqualTo(3d);
+
+        sf = aggregateFunctionManager.getFunctionByType(AggregateFunctionType.PERCENTILE_90);
+        assertThat(sf.getType()).isEqualTo(AggregateFunctionType.PERCENTILE_90);
+    }
 }
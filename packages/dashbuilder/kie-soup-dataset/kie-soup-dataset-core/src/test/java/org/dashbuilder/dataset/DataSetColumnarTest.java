@@ -0,0 +1,189 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.Date;
+import java.util.List;
+
+import org.dashbuilder.dataset.impl.DateColumnValues;
+import org.dashbuilder.dataset.impl.LabelColumnValues;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DataSetColumnarTest {
+
+    @Test
+    public void testColumnarStorage() throws Exception {
+        DataSet dataSet = DataSetFactory.newDataSetBuilder()
+                .label("city")
+                .number("amount")
+                .date("date")
+                .row("Barcelona", 10d, new Date(1000))
+                .row("London", null, null)
+                .row("Barcelona", 5, new Date(2000))
+                .buildDataSet();
+
+        List cities = dataSet.getColumnById("city").getValues();
+        List amounts = dataSet.getColumnById("amount").getValues();
+        List dates = dataSet.getColumnById("date").getValues();
+        assertThat(cities instanceof LabelColumnValues).isTrue();
+        assertThat(amounts instanceof NumberColumnValues).isTrue();
+        assertThat(dates instanceof DateColumnValues).isTrue();
+
+        assertThat(((LabelColumnValues) cities).getDictionarySize()).isEqualTo(2);
+        assertThat(cities.get(2)).isEqualTo("Barcelona");
+        assertThat(amounts.get(0)).isEqualTo(10d);
+        assertThat(amounts.get(1)).isNull();
+        assertThat(amounts.get(2)).isEqualTo(5d);
+        assertThat(dates.get(0)).isEqualTo(new Date(1000));
+        assertThat(dates.get(1)).isNull();
+    }
+
+    @Test
+    public void testInsertAndRemove() throws Exception {
+        DataSet dataSet = DataSetFactory.newDataSetBuilder()
+                .number("amount")
+                .row(1d)
+                .row(3d)
+                .buildDataSet();
+
+        dataSet.addValuesAt(1, (Object) null);
+        dataSet.addValuesAt(0, 0d);
+        List amounts = dataSet.getColumnByIndex(0).getValues();
+        assertThat(amounts.toString()).isEqualTo("[0.0, 1.0, null, 3.0]");
+
+        amounts.remove(1);
+        assertThat(amounts.toString()).isEqualTo("[0.0, null, 3.0]");
+        amounts.remove(1);
+        assertThat(amounts.toString()).isEqualTo("[0.0, 3.0]");
+    }
+
+    @Test
+    public void testTrimAndClone() throws Exception {
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        DataSet trimmed = dataSet.trim(10, 5);
+        DataSet cloned = dataSet.cloneInstance();
+
+        for (DataColumn column : dataSet.getColumns()) {
+            List values = column.getValues();
+            assertThat(trimmed.getColumnById(column.getId()).getValues()).isEqualTo(values.subList(10, 15));
+            assertThat(cloned.getColumnById(column.getId()).getValues()).isEqualTo(values);
+        }
+        assertThat(cloned).isEqualTo(dataSet);
+    }
+
+    @Test
+    public void testColumnTypeChange() throws Exception {
+        DataSet dataSet = DataSetFactory.newDataSetBuilder()
+                .label("id")
+                .row("1")
+                .buildDataSet();
+
+        DataColumn column = dataSet.getColumnByIndex(0);
+        column.setColumnType(ColumnType.TEXT);
+        assertThat(column.getValues() instanceof LabelColumnValues).isFalse();
+        assertThat(column.getValues().get(0)).isEqualTo("1");
+    }
+
+    @Test
+    public void testColumnTypeChangeToColumnar() throws Exception {
+        DataSet dataSet = DataSetFactory.newDataSetBuilder()
+                .number("id")
+                .row(1d)
+                .row(2d)
+                .buildDataSet();
+
+        DataColumn column = dataSet.getColumnByIndex(0);
+        column.setColumnType(ColumnType.LABEL);
+        assertThat(column.getValues() instanceof LabelColumnValues).isTrue();
+        assertThat(((LabelColumnValues) column.getValues()).getDictionarySize()).isEqualTo(2);
+        assertThat(column.getValues().get(1)).isEqualTo("2.0");
+    }
+
+    @Test
+    public void testColumnTypeChangeConvertsLabels() throws Exception {
+        DataSet dataSet = DataSetFactory.newDataSetBuilder()
+                .label("amount")
+                .row("10")
+                .row((Object) null)
+                .row("2.5")
+                .buildDataSet();
+
+        DataColumn column = dataSet.getColumnByIndex(0);
+        column.setColumnType(ColumnType.NUMBER);
+        assertThat(column.getValues() instanceof NumberColumnValues).isTrue();
+        assertThat(column.getValues().get(0)).isEqualTo(10d);
+        assertThat(column.getValues().get(1)).isNull();
+        assertThat(column.getValues().get(2)).isEqualTo(2.5d);
+    }
+
+    @Test
+    public void testColumnTypeChangeKeepsNonConvertibleValues() throws Exception {
+        DataSet dataSet = DataSetFactory.newDataSetBuilder()
+                .label("amount")
+                .row("10")
+                .row("n/a")
+                .buildDataSet();
+
+        DataColumn column = dataSet.getColumnByIndex(0);
+        column.setColumnType(ColumnType.NUMBER);
+        assertThat(column.getColumnType()).isEqualTo(ColumnType.NUMBER);
+        assertThat(column.getValues() instanceof NumberColumnValues).isFalse();
+        assertThat(column.getValues().get(1)).isEqualTo("n/a");
+
+        column.setColumnType(ColumnType.DATE);
+        assertThat(column.getValues().get(0)).isEqualTo("10");
+    }
+
+    @Test
+    public void testStoredValueTypes() throws Exception {
+        DataSet dataSet = DataSetFactory.newDataSetBuilder()
+                .label("code")
+                .number("amount")
+                .date("date")
+                .buildDataSet();
+
+        List codes = dataSet.getColumnByIndex(0).getValues();
+        List amounts = dataSet.getColumnByIndex(1).getValues();
+        List dates = dataSet.getColumnByIndex(2).getValues();
+        codes.add(7);
+        codes.add("7");
+        amounts.add(10);
+        amounts.add(10L);
+        dates.add(new java.sql.Timestamp(3000));
+
+        for (DataSet ds : new DataSet[] {dataSet, dataSet.cloneInstance(), dataSet.trim(0, 1)}) {
+            assertThat(ds.getValueAt(0, 0)).isEqualTo("7");
+            assertThat(ds.getValueAt(0, 1).getClass()).isEqualTo(Double.class);
+            assertThat(ds.getValueAt(0, 1)).isEqualTo(10d);
+            assertThat(ds.getValueAt(0, 2).getClass()).isEqualTo(Date.class);
+            assertThat(ds.getValueAt(0, 2)).isEqualTo(new Date(3000));
+        }
+        assertThat(((LabelColumnValues) codes).getCode(0)).isEqualTo(((LabelColumnValues) codes).getCode(1));
+        assertThat(amounts.get(1)).isEqualTo(10d);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNumberColumnRejectsNonNumbers() throws Exception {
+        DataSet dataSet = DataSetFactory.newDataSetBuilder()
+                .number("amount")
+                .buildDataSet();
+
+        dataSet.getColumnByIndex(0).getValues().add("10");
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Random;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataset.engine.SharedDataSetOpEngine;
+import org.dashbuilder.dataset.engine.index.DataSetDateRollup;
+import org.dashbuilder.dataset.engine.index.DataSetGroupIndex;
+import org.dashbuilder.dataset.engine.index.DataSetIndex;
+import org.dashbuilder.dataset.group.DateIntervalType;
+import org.dashbuilder.dataset.impl.DataSetLookupBuilderImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.dashbuilder.dataset.filter.FilterFactory.timeFrame;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.AVERAGE;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.COUNT;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.MAX;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.MEDIAN;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.MIN;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.SUM;
+import static org.dashbuilder.dataset.group.DateIntervalType.DAY;
+import static org.dashbuilder.dataset.group.DateIntervalType.MONTH;
+import static org.dashbuilder.dataset.group.DateIntervalType.YEAR;
+
+public class DataSetDateRollupGroupTest {
+
+    public static final String SALES_ROWS = "sales_rows";
+    public static final String SALES_ROLLUP = "sales_rollup";
+
+    DataSetManager dataSetManager = DataSetCore.get().getDataSetManager();
+    SharedDataSetOpEngine dataSetOpEngine = DataSetCore.get().getSharedDataSetOpEngine();
+    boolean defaultEnabled;
+
+    @Before
+    public void setUp() throws Exception {
+        defaultEnabled = dataSetOpEngine.isDateRollupEnabled();
+        for (String uuid : new String[] {SALES_ROWS, SALES_ROLLUP}) {
+            DataSet dataSet = buildDataSet(2000);
+            dataSet.setUUID(uuid);
+            dataSetManager.registerDataSet(dataSet);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        dataSetOpEngine.setDateRollupEnabled(defaultEnabled);
+        dataSetManager.removeDataSet(SALES_ROWS);
+        dataSetManager.removeDataSet(SALES_ROLLUP);
+    }
+
+    /**
+     * Sales over the last 400 days (starting at 8 AM) with some null dates.
+     */
+    private DataSet buildDataSet(int rows) {
+        Calendar start = new GregorianCalendar();
+        start.add(Calendar.DAY_OF_MONTH, -400);
+        start.set(Calendar.HOUR_OF_DAY, 8);
+        start.set(Calendar.MINUTE, 0);
+        start.set(Calendar.SECOND, 0);
+        start.set(Calendar.MILLISECOND, 0);
+
+        Random random = new Random(0);
+        DataSetBuilder builder = DataSetFactory.newDataSetBuilder()
+                .date("date")
+                .number("amount");
+        builder.row(start.getTime(), 10d);
+        for (int i = 1; i < rows; i++) {
+            Calendar c = (Calendar) start.clone();
+            c.add(Calendar.MINUTE, random.nextInt(400 * 24 * 60));
+            builder.row(i % 50 == 0 ? null : c.getTime(), (double) random.nextInt(1000));
+        }
+        return builder.buildDataSet();
+    }
+
+    @Test
+    public void testGroupByDay() {
+        assertSameResults(groupBy(DAY));
+    }
+
+    @Test
+    public void testGroupByMonth() {
+        assertSameResults(groupBy(MONTH));
+    }
+
+    @Test
+    public void testGroupByYear() {
+        assertSameResults(groupBy(YEAR));
+    }
+
+    @Test
+    public void testGroupByMonthDesc() {
+        assertSameResults(groupBy(MONTH).desc());
+    }
+
+    @Test
+    public void testDrillDown() {
+        assertSameResults(DataSetLookupFactory.newDataSetLookupBuilder()
+                .group("date").dynamic(500, MONTH, false)
+                .group("date").dynamic(500, DAY, true)
+                .column("date")
+                .column(COUNT, "#items")
+                .column("amount", SUM));
+    }
+
+    @Test
+    public void testTimeFrameFilter() {
+        // The first lookup builds the rollup, the second one filters with it
+        assertSameResults(groupBy(MONTH));
+        assertSameResults(DataSetLookupFactory.newDataSetLookupBuilder()
+                .filter("date", timeFrame("-3month"))
+                .column(COUNT, "#items")
+                .column("amount", SUM)
+                .column("date", MIN)
+                .column("date", MAX));
+    }
+
+    @Test
+    public void testRollupIndexed() {
+        dataSetOpEngine.setDateRollupEnabled(true);
+        dataSetManager.lookupDataSet(groupBy(MONTH).dataset(SALES_ROLLUP).buildLookup());
+
+        DataSetIndex index = dataSetOpEngine.getIndexRegistry().get(SALES_ROLLUP);
+        DataSetDateRollup rollup = index.getDateRollup("date");
+        assertThat(rollup).isNotNull();
+        assertThat(rollup.getRowCount()).isEqualTo(2000 - 39);
+        assertThat(rollup.getBaseType()).isEqualTo(DateIntervalType.DAY);
+
+        List<DataSetGroupIndex> groupIndexes = index.getGroupIndexes();
+        assertThat(groupIndexes).hasSize(1);
+        assertThat(groupIndexes.get(0).getDateRollup()).isSameAs(rollup);
+
+        // Appending rows discards the rollup
+        DataSet dataSet = index.getDataSet();
+        dataSet.addValues(new Date(), 1d);
+        dataSetOpEngine.append(SALES_ROLLUP, Collections.singletonList(dataSet.getRowCount() - 1));
+        assertThat(index.getDateRollup("date")).isNull();
+    }
+
+    @Test
+    public void testPagedGroup() {
+        // The sort required to build the intervals must not be limited to the page requested
+        List<DataSetOp> opList = groupBy(MONTH).buildLookup().getOperationList();
+        DataSet paged = dataSetOpEngine.execute(SALES_ROWS, opList, 0, 2);
+        DataSet expected = dataSetOpEngine.execute(SALES_ROLLUP, opList);
+        assertSameDataSet(paged, expected.trim(0, 2));
+
+        // Nor the group index reused by the next lookups
+        assertSameDataSet(dataSetOpEngine.execute(SALES_ROWS, opList), expected);
+    }
+
+    private DataSetLookupBuilder<DataSetLookupBuilderImpl> groupBy(DateIntervalType type) {
+        return DataSetLookupFactory.newDataSetLookupBuilder()
+                .group("date").dynamic(500, type, false)
+                .column("date")
+                .column(COUNT, "#items")
+                .column("amount", MIN)
+                .column("amount", MAX)
+                .column("amount", AVERAGE)
+                .column("amount", SUM)
+                .column("amount", MEDIAN);
+    }
+
+    private void assertSameResults(DataSetLookupBuilder<?> builder) {
+        DataSetLookup lookup = builder.buildLookup();
+        DataSetLookup rowsLookup = lookup.cloneInstance();
+        rowsLookup.setDataSetUUID(SALES_ROWS);
+        DataSetLookup rollupLookup = lookup.cloneInstance();
+        rollupLookup.setDataSetUUID(SALES_ROLLUP);
+
+        dataSetOpEngine.setDateRollupEnabled(false);
+        DataSet expected = dataSetManager.lookupDataSet(rowsLookup);
+
+        dataSetOpEngine.setDateRollupEnabled(true);
+        DataSet result = dataSetManager.lookupDataSet(rollupLookup);
+        assertSameDataSet(result, expected);
+    }
+
+    private void assertSameDataSet(DataSet result, DataSet expected) {
+        assertThat(result.getRowCount()).isEqualTo(expected.getRowCount());
+        assertThat(result.getColumns().size()).isEqualTo(expected.getColumns().size());
+        for (int row = 0; row < expected.getRowCount(); row++) {
+            for (int col = 0; col < expected.getColumns().size(); col++) {
+                assertThat(result.getValueAt(row, col)).isEqualTo(expected.getValueAt(row, col));
+            }
+        }
+    }
+}
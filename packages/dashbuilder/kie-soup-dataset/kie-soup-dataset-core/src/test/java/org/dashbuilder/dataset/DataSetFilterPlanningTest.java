@@ -0,0 +1,176 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataset.engine.SharedDataSetOpEngine;
+import org.dashbuilder.dataset.engine.filter.DataSetFilterPlanner;
+import org.dashbuilder.dataset.engine.index.DataSetFilterIndex;
+import org.dashbuilder.dataset.engine.index.DataSetIndex;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_AMOUNT;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_CITY;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_ID;
+import static org.dashbuilder.dataset.filter.FilterFactory.AND;
+import static org.dashbuilder.dataset.filter.FilterFactory.OR;
+import static org.dashbuilder.dataset.filter.FilterFactory.between;
+import static org.dashbuilder.dataset.filter.FilterFactory.equalsTo;
+import static org.dashbuilder.dataset.filter.FilterFactory.greaterThan;
+import static org.dashbuilder.dataset.filter.FilterFactory.notEqualsTo;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.MAX;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.MIN;
+import static org.junit.Assert.assertEquals;
+
+public class DataSetFilterPlanningTest {
+
+    public static final String EXPENSE_REPORTS = "expense_reports_planning";
+
+    DataSetManager dataSetManager = DataSetCore.get().getDataSetManager();
+    SharedDataSetOpEngine dataSetOpEngine = DataSetCore.get().getSharedDataSetOpEngine();
+    boolean defaultEnabled;
+
+    @Before
+    public void setUp() throws Exception {
+        defaultEnabled = dataSetOpEngine.isFilterPlanningEnabled();
+        dataSetOpEngine.setFilterPlanningEnabled(true);
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setUUID(EXPENSE_REPORTS);
+        dataSetManager.registerDataSet(dataSet);
+    }
+
+    @After
+    public void tearDown() {
+        dataSetOpEngine.setFilterPlanningEnabled(defaultEnabled);
+        dataSetManager.removeDataSet(EXPENSE_REPORTS);
+    }
+
+    private DataSet lookup(ColumnFilter first, ColumnFilter second) {
+        return dataSetManager.lookupDataSet(
+                DataSetLookupFactory.newDataSetLookupBuilder()
+                        .dataset(EXPENSE_REPORTS)
+                        .filter(first)
+                        .filter(second)
+                        .column(COLUMN_ID)
+                        .buildLookup());
+    }
+
+    private DataSetIndex getIndex() {
+        return dataSetOpEngine.getIndexRegistry().get(EXPENSE_REPORTS);
+    }
+
+    @Test
+    public void testMostSelectiveFirst() throws Exception {
+        ColumnFilter amount = greaterThan(COLUMN_AMOUNT, 100);
+        ColumnFilter city = equalsTo(COLUMN_CITY, "Barcelona");
+        DataSet result = lookup(amount, city);
+        assertThat(result.getRowCount()).isEqualTo(6);
+
+        // The city filter is applied first
+        DataSetIndex index = getIndex();
+        assertThat(index.getFilterIndexes()).hasSize(1);
+        DataSetFilterIndex cityIndex = index.getFilterIndexes().get(0);
+        assertThat(cityIndex.getColumnFilter()).isEqualTo(city);
+        assertThat(cityIndex.getFilterIndexes()).hasSize(1);
+        assertThat(cityIndex.getFilterIndexes().get(0).getColumnFilter()).isEqualTo(amount);
+    }
+
+    @Test
+    public void testSameFiltersAnyOrder() throws Exception {
+        ColumnFilter amount = between(COLUMN_AMOUNT, 200, 900);
+        ColumnFilter city = notEqualsTo(COLUMN_CITY, "Raleigh");
+        DataSet result1 = lookup(amount, city);
+        DataSet result2 = lookup(city, amount);
+        assertThat(result1.getRowCount()).isEqualTo(result2.getRowCount());
+        for (int i = 0; i < result1.getRowCount(); i++) {
+            assertThat(result1.getValueAt(i, 0)).isEqualTo(result2.getValueAt(i, 0));
+        }
+
+        // Both lookups share the same chain of filter indexes
+        DataSetIndex index = getIndex();
+        assertThat(index.getFilterIndexes()).hasSize(1);
+        assertThat(index.getFilterIndexes().get(0).getFilterIndexes()).hasSize(1);
+        assertThat(index.getFilterIndexes().get(0).getReuseHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void testIndexedFiltersFirst() throws Exception {
+        ColumnFilter amount = greaterThan(COLUMN_AMOUNT, 100);
+        ColumnFilter city = equalsTo(COLUMN_CITY, "Barcelona");
+        ColumnFilter id = greaterThan(COLUMN_ID, 1);
+        dataSetManager.lookupDataSet(
+                DataSetLookupFactory.newDataSetLookupBuilder()
+                        .dataset(EXPENSE_REPORTS)
+                        .filter(amount)
+                        .buildLookup());
+
+        // The amount filter is not the most selective but it is already indexed
+        DataSet result = lookup(city, amount);
+        assertThat(result.getRowCount()).isEqualTo(6);
+        DataSetIndex index = getIndex();
+        assertThat(index.getFilterIndexes()).hasSize(1);
+        assertThat(index.getFilterIndexes().get(0).getColumnFilter()).isEqualTo(amount);
+
+        // The city filter is the most selective of the filters not indexed yet
+        result = lookup(id, city);
+        assertThat(result.getRowCount()).isEqualTo(5);
+        assertThat(index.getFilterIndexes()).hasSize(2);
+        assertThat(index.getFilterIndexes().get(1).getColumnFilter()).isEqualTo(city);
+    }
+
+    @Test
+    public void testRequestOrderIfDisabled() throws Exception {
+        dataSetOpEngine.setFilterPlanningEnabled(false);
+        ColumnFilter amount = greaterThan(COLUMN_AMOUNT, 100);
+        ColumnFilter city = equalsTo(COLUMN_CITY, "Barcelona");
+        DataSet result = lookup(amount, city);
+        assertThat(result.getRowCount()).isEqualTo(6);
+        assertThat(getIndex().getFilterIndexes().get(0).getColumnFilter()).isEqualTo(amount);
+    }
+
+    @Test
+    public void testSelectivity() throws Exception {
+        DataSetFilterPlanner planner = dataSetOpEngine.getFilterPlanner();
+        DataSetIndex index = getIndex();
+        DataSet dataSet = index.getDataSet();
+
+        // Label dictionary
+        assertEquals(1d / 6, planner.getSelectivity(dataSet, index, equalsTo(COLUMN_CITY, "Barcelona")), 0.001);
+        assertEquals(5d / 6, planner.getSelectivity(dataSet, index, notEqualsTo(COLUMN_CITY, "Barcelona")), 0.001);
+        assertEquals(11d / 36, planner.getSelectivity(dataSet, index, OR(COLUMN_CITY, equalsTo("Barcelona"), equalsTo("Madrid"))), 0.001);
+
+        // Min. and max. values
+        assertThat(planner.getSelectivity(dataSet, index, between(COLUMN_AMOUNT, 0, 5000))).isEqualTo(1d);
+        assertThat(planner.getSelectivity(dataSet, index, greaterThan(COLUMN_AMOUNT, 5000))).isEqualTo(0d);
+        assertEquals(0.5, planner.getSelectivity(dataSet, index, between(COLUMN_AMOUNT, 1.1, 550.6)), 0.001);
+        assertEquals(1d / 6, planner.getSelectivity(dataSet, index, AND(COLUMN_AMOUNT, greaterThan(1.1), equalsTo(COLUMN_CITY, "Barcelona"))), 0.001);
+        assertThat(index.getAggValue(COLUMN_AMOUNT, MIN)).isEqualTo(1.1d);
+        assertThat(index.getAggValue(COLUMN_AMOUNT, MAX)).isEqualTo(1100.1d);
+
+        // Filter index
+        ColumnFilter amount = greaterThan(COLUMN_AMOUNT, 1000);
+        dataSetManager.lookupDataSet(
+                DataSetLookupFactory.newDataSetLookupBuilder()
+                        .dataset(EXPENSE_REPORTS)
+                        .filter(amount)
+                        .buildLookup());
+        assertEquals(2d / 50, planner.getSelectivity(dataSet, index, amount), 0.001);
+    }
+}
@@ -19,10 +19,15 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.GregorianCalendar;
 import java.util.List;
 
 import org.dashbuilder.DataSetCore;
 import org.dashbuilder.dataset.def.DataSetPreprocessor;
+import org.dashbuilder.dataset.engine.filter.DataSetFilterContext;
+import org.dashbuilder.dataset.engine.filter.DataSetFunction;
+import org.dashbuilder.dataset.engine.filter.DefaultFilterAlgorithm;
+import org.dashbuilder.dataset.engine.filter.FilterPredicate;
 import org.dashbuilder.dataset.filter.ColumnFilter;
 import org.dashbuilder.dataset.group.DateIntervalType;
 import org.dashbuilder.dataset.sort.SortOrder;
@@ -591,6 +596,51 @@ public class DataSetFilterTest {
                         .buildLookup()).getRowCount()).isEqualTo(51);
     }
 
+    @Test
+    public void testCompiledFilters() throws Exception {
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.addValuesAt(0, null, null, null, null, null, null);
+        Timestamp date = new Timestamp(new GregorianCalendar(2015, 0, 1).getTimeInMillis());
+
+        // The compiled filters must behave exactly as the (row by row) function tree
+        List<ColumnFilter> filters = Arrays.asList(
+                in(COLUMN_CITY, Arrays.asList("Barcelona", "London", null)),
+                notIn(COLUMN_ID, Arrays.asList(1d, "2.0", 3, "4")),
+                equalsTo(COLUMN_AMOUNT, (Comparable) null),
+                likeTo(COLUMN_EMPLOYEE, "%an_%", false),
+                likeTo(COLUMN_DEPARTMENT, "[SE]%"),
+                between(COLUMN_AMOUNT, 100d, null),
+                lowerOrEqualsTo(COLUMN_AMOUNT, null),
+                greaterThan(COLUMN_DATE, date),
+                timeFrame(COLUMN_DATE, "begin[year] till end[year]"),
+                OR(lowerThan(COLUMN_AMOUNT, 300d), NOT(equalsTo(COLUMN_CITY, "Madrid"))),
+                AND(notEqualsTo(COLUMN_DEPARTMENT, "Sales"), OR(greaterOrEqualsTo(COLUMN_ID, 30d), in(COLUMN_EMPLOYEE, Arrays.asList("Jerri Preble")))));
+
+        DefaultFilterAlgorithm filterAlgorithm = new DefaultFilterAlgorithm();
+        for (ColumnFilter filter : filters) {
+            DataSetFilterContext context = new DataSetFilterContext(dataSet);
+            DataSetFunction function = filterAlgorithm.buildFunction(context, filter);
+            FilterPredicate predicate = filterAlgorithm.compile(context, filter);
+
+            int[] rows = new int[dataSet.getRowCount()];
+            List<Integer> expected = new ArrayList<Integer>();
+            for (int row = 0; row < rows.length; row++) {
+                rows[row] = row;
+                context.setCurrentRow(row);
+                if (function.pass()) {
+                    expected.add(row);
+                }
+                assertThat(predicate.test(row)).isEqualTo(function.pass());
+            }
+            int selected = predicate.select(rows, rows.length, rows);
+            List<Integer> result = new ArrayList<Integer>();
+            for (int i = 0; i < selected; i++) {
+                result.add(rows[i]);
+            }
+            assertThat(result).isEqualTo(expected);
+        }
+    }
+
     private void printDataSet(DataSet dataSet) {
         System.out.print(dataSetFormatter.formatDataSet(dataSet, "{", "}", ",\n", "\"", "\"", ", ") + "\n\n");
     }
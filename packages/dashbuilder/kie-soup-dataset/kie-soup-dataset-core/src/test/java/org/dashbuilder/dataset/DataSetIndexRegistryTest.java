@@ -0,0 +1,178 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataset.engine.SharedDataSetOpEngine;
+import org.dashbuilder.dataset.engine.index.DataSetGroupIndex;
+import org.dashbuilder.dataset.engine.index.DataSetIndex;
+import org.dashbuilder.dataset.engine.index.DataSetIndexElement;
+import org.dashbuilder.dataset.engine.index.DataSetIndexNode;
+import org.dashbuilder.dataset.engine.index.DataSetIntervalIndex;
+import org.dashbuilder.dataset.engine.index.TransientDataSetIndexRegistry;
+import org.dashbuilder.dataset.engine.index.visitor.DataSetIndexVisitor;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_AMOUNT;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_CITY;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_DEPARTMENT;
+import static org.dashbuilder.dataset.filter.FilterFactory.equalsTo;
+
+public class DataSetIndexRegistryTest {
+
+    public static final String EXPENSE_REPORTS = "expense_reports_dataset";
+
+    DataSetLookup filterGroupAndSort = DataSetLookupFactory.newDataSetLookupBuilder()
+            .dataset(EXPENSE_REPORTS)
+            .filter(COLUMN_CITY, equalsTo("Barcelona"))
+            .group(COLUMN_DEPARTMENT)
+            .column(COLUMN_DEPARTMENT)
+            .column(COLUMN_AMOUNT)
+            .sort(COLUMN_DEPARTMENT, "asc")
+            .buildLookup();
+
+    TransientDataSetIndexRegistry indexRegistry;
+    SharedDataSetOpEngine dataSetOpEngine;
+    DataSet dataSet;
+
+    @Before
+    public void setUp() throws Exception {
+        DataSetCore dataSetCore = DataSetCore.get();
+        indexRegistry = new TransientDataSetIndexRegistry(dataSetCore.getUuidGenerator());
+        dataSetOpEngine = new SharedDataSetOpEngine(dataSetCore.getAggregateFunctionManager(),
+                dataSetCore.getIntervalBuilderLocator(),
+                indexRegistry,
+                dataSetCore.getSortAlgorithm(),
+                dataSetCore.getFilterAlgorithm(),
+                dataSetCore.getChronometer());
+
+        dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setUUID(EXPENSE_REPORTS);
+        indexRegistry.put(dataSet);
+    }
+
+    @Test
+    public void testUnboundedByDefault() {
+        dataSetOpEngine.execute(EXPENSE_REPORTS, filterGroupAndSort.getOperationList());
+        indexRegistry.evict();
+
+        assertThat(indexRegistry.isBounded()).isFalse();
+        assertThat(indexRegistry.getEvictionCount()).isZero();
+        assertThat(indexRegistry.get(EXPENSE_REPORTS).getChildIndexes()).isNotEmpty();
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        indexRegistry.get(EXPENSE_REPORTS);
+        indexRegistry.get(EXPENSE_REPORTS);
+        indexRegistry.get("unknown");
+
+        assertThat(indexRegistry.getHitCount()).isEqualTo(2);
+        assertThat(indexRegistry.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testMaxEntries() {
+        dataSetOpEngine.execute(EXPENSE_REPORTS, filterGroupAndSort.getOperationList());
+        DataSetIndex index = indexRegistry.get(EXPENSE_REPORTS);
+        assertThat(countIndexes(index)).isGreaterThan(1);
+
+        indexRegistry.setMaxEntries(1);
+        indexRegistry.evict();
+
+        assertThat(countIndexes(index) <= 1).isTrue();
+        assertThat(indexRegistry.getEvictionCount()).isGreaterThan(0);
+        assertThat(indexRegistry.get(EXPENSE_REPORTS)).isSameAs(index);
+    }
+
+    @Test
+    public void testMaxSizeEvictsIndexesOnly() {
+        dataSetOpEngine.execute(EXPENSE_REPORTS, filterGroupAndSort.getOperationList());
+        assertThat(indexRegistry.get(EXPENSE_REPORTS).getChildIndexes()).isNotEmpty();
+
+        // Room just for the data set
+        indexRegistry.setMaxSize(dataSet.getEstimatedSize() + 100);
+        indexRegistry.evict();
+
+        assertThat(indexRegistry.get(EXPENSE_REPORTS).getChildIndexes()).isEmpty();
+        assertThat(indexRegistry.getEvictionCount()).isGreaterThan(0);
+        assertThat(indexRegistry.getEvictedSize()).isGreaterThan(0);
+
+        // Indexes are rebuilt on demand
+        DataSet result = dataSetOpEngine.execute(EXPENSE_REPORTS, filterGroupAndSort.getOperationList());
+        assertThat(result.getRowCount()).isGreaterThan(0);
+
+        // No room for the data set, but it is never evicted
+        indexRegistry.setMaxSize(1);
+        indexRegistry.evict();
+        assertThat(indexRegistry.get(EXPENSE_REPORTS)).isNotNull();
+        assertThat(indexRegistry.get(EXPENSE_REPORTS).getDataSet()).isSameAs(dataSet);
+        assertThat(indexRegistry.get(EXPENSE_REPORTS).getChildIndexes()).isEmpty();
+    }
+
+    @Test
+    public void testMaxIdleTime() throws Exception {
+        dataSetOpEngine.execute(EXPENSE_REPORTS, filterGroupAndSort.getOperationList());
+        indexRegistry.setMaxIdleTime(10);
+        Thread.sleep(50);
+        indexRegistry.evict();
+
+        assertThat(indexRegistry.get(EXPENSE_REPORTS)).isNotNull();
+        assertThat(indexRegistry.get(EXPENSE_REPORTS).getChildIndexes()).isEmpty();
+        assertThat(indexRegistry.getEvictionCount()).isGreaterThan(0);
+    }
+
+    @Test
+    public void testTreeSize() {
+        DataSetIndex index = indexRegistry.get(EXPENSE_REPORTS);
+        assertThat(index.getTreeSize()).isEqualTo(walkTreeSize(index));
+
+        // Indexes added once the size is tracked
+        dataSetOpEngine.execute(EXPENSE_REPORTS, filterGroupAndSort.getOperationList());
+        assertThat(index.getTreeSize()).isEqualTo(walkTreeSize(index));
+        assertThat(indexRegistry.getSize()).isEqualTo(dataSet.getEstimatedSize() + walkTreeSize(index));
+
+        // Indexes removed
+        indexRegistry.setMaxEntries(1);
+        indexRegistry.evict();
+        assertThat(index.getTreeSize()).isEqualTo(walkTreeSize(index));
+    }
+
+    private static long walkTreeSize(DataSetIndexNode node) {
+        final long[] size = {0};
+        node.acceptVisitor(new DataSetIndexVisitor() {
+            public void visit(DataSetIndexElement element) {
+                size[0] += element.getEstimatedSize();
+            }
+        });
+        return size[0];
+    }
+
+    private static int countIndexes(DataSetIndexNode node) {
+        int count = 0;
+        for (DataSetIndexNode child : node.getChildIndexes()) {
+            count += 1 + countIndexes(child);
+        }
+        if (node instanceof DataSetGroupIndex) {
+            for (DataSetIntervalIndex interval : ((DataSetGroupIndex) node).getIntervalIndexes()) {
+                count += countIndexes(interval);
+            }
+        }
+        return count;
+    }
+}
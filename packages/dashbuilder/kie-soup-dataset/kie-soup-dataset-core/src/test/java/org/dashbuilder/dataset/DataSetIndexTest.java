@@ -15,11 +15,24 @@
  */
 package org.dashbuilder.dataset;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.dashbuilder.DataSetCore;
 import org.dashbuilder.dataset.engine.SharedDataSetOpEngine;
+import org.dashbuilder.dataset.engine.index.DataSetGroupIndex;
 import org.dashbuilder.dataset.engine.index.DataSetIndex;
+import org.dashbuilder.dataset.engine.index.DataSetIndexNode;
+import org.dashbuilder.dataset.engine.index.DataSetIntervalIndex;
 import org.dashbuilder.dataset.engine.index.stats.DataSetIndexStats;
 import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.dashbuilder.dataset.impl.DataSetRingBuffer;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -113,6 +126,10 @@ public class DataSetIndexTest {
         // The reuse rate must reflect the number of times the lookups are being reused.
         assertThat(stats.getReuseRate()).isGreaterThanOrEqualTo(lookupTimes - 1);
 
+        // The extremes must be properly ordered
+        assertThat(stats.getShortestBuild().getBuildTime()).isLessThanOrEqualTo(stats.getLongestBuild().getBuildTime());
+        assertThat(stats.getLessReused().getReuseHits()).isLessThanOrEqualTo(stats.getMostReused().getReuseHits());
+
         // The index size must not be greater than the 20% of the dataset's size
         assertThat(stats.getIndexSize()).isLessThan(dataSet.getEstimatedSize() / 5);
     }
@@ -178,4 +195,181 @@ public class DataSetIndexTest {
         // The index size must not be greater than the 20% of the dataset's size
         assertThat(stats.getIndexSize()).isLessThan(dataSet.getEstimatedSize() / 5);
     }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        List<DataSetLookup> lookups = Arrays.asList(groupByDeptAndCount, groupByDeptAndSum, filterByCityAndDept, sortByAmountAsc);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch startSignal = new CountDownLatch(1);
+            List<Future<List<DataSet>>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    startSignal.await();
+                    List<DataSet> dataSets = new ArrayList<>();
+                    for (DataSetLookup lookup : lookups) {
+                        dataSets.add(dataSetOpEngine.execute(EXPENSE_REPORTS, lookup.getOperationList()));
+                    }
+                    return dataSets;
+                }));
+            }
+            startSignal.countDown();
+
+            // All the threads must get the same results
+            DataSetFormatter formatter = new DataSetFormatter();
+            List<DataSet> expected = results.get(0).get(30, TimeUnit.SECONDS);
+            for (Future<List<DataSet>> result : results) {
+                List<DataSet> dataSets = result.get(30, TimeUnit.SECONDS);
+                for (int i = 0; i < lookups.size(); i++) {
+                    assertThat(formatter.formatDataSet(dataSets.get(i), "{", "}", ",", "", "", ","))
+                            .isEqualTo(formatter.formatDataSet(expected.get(i), "{", "}", ",", "", "", ","));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Every index must be built only once
+        DataSetIndexStats stats = dataSetOpEngine.getIndexRegistry().get(EXPENSE_REPORTS).getStats();
+        assertThat(stats.getNumberOfGroupOps()).isEqualTo(1);
+        assertThat(stats.getNumberOfFilterOps()).isEqualTo(2);
+        assertThat(stats.getNumberOfSortOps()).isEqualTo(2);
+    }
+
+    @Test
+    public void testUpdateRows() throws Exception {
+        dataSetOpEngine.execute(EXPENSE_REPORTS, groupByDeptAndCount.getOperationList());
+        dataSetOpEngine.execute(EXPENSE_REPORTS, filterByCityAndDept.getOperationList());
+        DataSetIndex dataSetIndex = dataSetOpEngine.getIndexRegistry().get(EXPENSE_REPORTS);
+        DataSetIndexNode groupIndex = dataSetIndex.getChildIndexes().get(0);
+        assertThat(dataSetIndex.getChildIndexes()).hasSize(2);
+        List<DataSetIntervalIndex> intervals = ((DataSetGroupIndex) groupIndex).getIntervalIndexes();
+        List<Integer> intervalSizes = new ArrayList<>();
+        for (DataSetIntervalIndex interval : intervals) {
+            intervalSizes.add(interval.getRows().size());
+        }
+
+        // Overwrite two rows (one with a brand new department) and append a new one
+        DataSet dataSet = dataSetIndex.getDataSet();
+        int lastRow = dataSet.getRowCount();
+        Object[] newRow = new Object[dataSet.getColumns().size()];
+        for (int i = 0; i < newRow.length; i++) {
+            newRow[i] = dataSet.getValueAt(5, i);
+        }
+        dataSet.addValues(newRow);
+        dataSet.getColumnById(COLUMN_DEPARTMENT).getValues().set(0, "Sales");
+        dataSet.getColumnById(COLUMN_DEPARTMENT).getValues().set(1, "Customer Care");
+        dataSetIndex.update(Arrays.asList(0, 1, lastRow));
+
+        // The group index is kept, the filter index is discarded
+        assertThat(dataSetIndex.getChildIndexes()).containsExactly(groupIndex);
+
+        // The results must match the ones of a brand new index
+        assertSameResults(groupByDeptAndCount, groupByDeptAndSum, filterByCityAndDept);
+        assertThat(((DataSetGroupIndex) groupIndex).getIntervalIndex("Customer Care")).isNotNull();
+
+        // The intervals are replaced, so any lookup still holding the old ones is not affected
+        assertThat(((DataSetGroupIndex) groupIndex).getIntervalIndexes() != intervals).isTrue();
+        assertThat(intervals).hasSize(intervalSizes.size());
+        for (int i = 0; i < intervals.size(); i++) {
+            assertThat(intervals.get(i).getRows().size()).isEqualTo(intervalSizes.get(i));
+        }
+    }
+
+    @Test
+    public void testGroupBuildTime() throws Exception {
+        dataSetOpEngine.execute(EXPENSE_REPORTS, groupByDeptAndCount.getOperationList());
+        DataSetIndex dataSetIndex = dataSetOpEngine.getIndexRegistry().get(EXPENSE_REPORTS);
+        DataSetIndexNode groupIndex = dataSetIndex.getChildIndexes().get(0);
+
+        // The group index keeps the time it took to build it, not the one of its parent
+        assertThat(dataSetIndex.getBuildTime()).isZero();
+        assertThat(groupIndex.getBuildTime()).isGreaterThan(0);
+    }
+
+    @Test
+    public void testAppendRows() throws Exception {
+        dataSetOpEngine.execute(EXPENSE_REPORTS, groupByDeptAndCount.getOperationList());
+        dataSetOpEngine.execute(EXPENSE_REPORTS, groupByDeptAndSum.getOperationList());
+        dataSetOpEngine.execute(EXPENSE_REPORTS, filterByCityAndDept.getOperationList());
+        dataSetOpEngine.execute(EXPENSE_REPORTS, sortByAmountAsc.getOperationList());
+        DataSetIndex dataSetIndex = dataSetOpEngine.getIndexRegistry().get(EXPENSE_REPORTS);
+        List<DataSetIndexNode> childIndexes = dataSetIndex.getChildIndexes();
+        assertThat(childIndexes).hasSize(4);
+
+        // Append a row passing the filters, a row with a brand new department and a regular one
+        DataSet dataSet = dataSetIndex.getDataSet();
+        int filteredRow = dataSetIndex.getFilterIndexes().get(0).getFilterIndexes().get(0).getRows().get(0);
+        List<Integer> newRows = new ArrayList<>();
+        for (int row : new int[] {filteredRow, 1, 2}) {
+            Object[] newRow = new Object[dataSet.getColumns().size()];
+            for (int i = 0; i < newRow.length; i++) {
+                newRow[i] = dataSet.getValueAt(row, i);
+            }
+            newRows.add(dataSet.getRowCount());
+            dataSet.addValues(newRow);
+        }
+        dataSet.getColumnById(COLUMN_DEPARTMENT).getValues().set(newRows.get(1), "Customer Care");
+        dataSetOpEngine.append(EXPENSE_REPORTS, newRows);
+
+        // The group and filter indexes are kept, the sort indexes are discarded
+        assertThat(dataSetIndex.getChildIndexes()).containsExactly(childIndexes.get(0), childIndexes.get(1));
+
+        // The results must match the ones of a brand new index
+        assertSameResults(groupByDeptAndCount, groupByDeptAndSum, filterByCityAndDept, sortByAmountAsc);
+        assertThat(((DataSetGroupIndex) childIndexes.get(0)).getIntervalIndex("Customer Care")).isNotNull();
+    }
+
+    private void assertSameResults(DataSetLookup... lookups) {
+        DataSet updatedDataSet = dataSetOpEngine.getIndexRegistry().get(EXPENSE_REPORTS).getDataSet().cloneInstance();
+        updatedDataSet.setUUID(EXPENSE_REPORTS + "_updated");
+        dataSetOpEngine.getIndexRegistry().put(updatedDataSet);
+        DataSetFormatter formatter = new DataSetFormatter();
+        for (DataSetLookup lookup : lookups) {
+            DataSet expected = dataSetOpEngine.execute(updatedDataSet.getUUID(), lookup.getOperationList());
+            DataSet actual = dataSetOpEngine.execute(EXPENSE_REPORTS, lookup.getOperationList());
+            assertThat(formatter.formatDataSet(actual, "{", "}", ",", "", "", ","))
+                    .isEqualTo(formatter.formatDataSet(expected, "{", "}", ",", "", "", ","));
+        }
+        dataSetOpEngine.getIndexRegistry().remove(updatedDataSet.getUUID());
+    }
+
+    @Test
+    public void testPrependRows() throws Exception {
+        DataSet dataSet = dataSetOpEngine.getIndexRegistry().get(EXPENSE_REPORTS).getDataSet();
+        DataSetRingBuffer ringBuffer = new DataSetRingBuffer(dataSet, dataSet.getRowCount());
+        dataSetOpEngine.execute(EXPENSE_REPORTS, groupByDeptAndCount.getOperationList());
+        dataSetOpEngine.execute(EXPENSE_REPORTS, filterByCityAndDept.getOperationList());
+        DataSetIndex dataSetIndex = dataSetOpEngine.getIndexRegistry().get(EXPENSE_REPORTS);
+        DataSetIndexNode groupIndex = dataSetIndex.getChildIndexes().get(0);
+
+        // Add two rows in front (one with a brand new department), so the two oldest get evicted
+        DataSet rows = dataSet.trim(5, 2);
+        rows.getColumnById(COLUMN_DEPARTMENT).getValues().set(1, "Customer Care");
+        int added = ringBuffer.addRows(rows);
+        dataSetIndex.prepend(added, dataSet.getRowCount() - added);
+
+        // The group index is kept, the filter index is discarded
+        assertThat(dataSetIndex.getChildIndexes()).containsExactly(groupIndex);
+
+        // The results must match the ones of a brand new index
+        DataSet updatedDataSet = dataSet.cloneInstance();
+        updatedDataSet.setUUID(EXPENSE_REPORTS + "_prepended");
+        dataSetOpEngine.getIndexRegistry().put(updatedDataSet);
+        DataSetFormatter formatter = new DataSetFormatter();
+        for (DataSetLookup lookup : Arrays.asList(groupByDeptAndCount, groupByDeptAndSum, filterByCityAndDept)) {
+            DataSetLookup updatedLookup = lookup.cloneInstance();
+            updatedLookup.setDataSetUUID(updatedDataSet.getUUID());
+            DataSet expected = dataSetOpEngine.execute(updatedDataSet.getUUID(), updatedLookup.getOperationList());
+            DataSet actual = dataSetOpEngine.execute(EXPENSE_REPORTS, lookup.getOperationList());
+            assertThat(formatter.formatDataSet(actual, "{", "}", ",", "", "", ","))
+                    .isEqualTo(formatter.formatDataSet(expected, "{", "}", ",", "", "", ","));
+        }
+        DataSet groups = dataSetOpEngine.execute(EXPENSE_REPORTS, groupByDeptAndCount.getOperationList());
+        // The brand new department is the second one to appear
+        assertThat(groups.getRowCount()).isEqualTo(6);
+        assertThat(groups.getValueAt(1, 0)).isEqualTo(1d);
+        dataSetOpEngine.getIndexRegistry().remove(updatedDataSet.getUUID());
+    }
 }
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataprovider.StaticDataSetProvider;
+import org.dashbuilder.dataset.def.DataSetDefRegistry;
+import org.dashbuilder.dataset.engine.DataSetLookupCache;
+import org.dashbuilder.dataset.filter.FilterFactory;
+import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.dashbuilder.dataset.sort.SortOrder;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_AMOUNT;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_DEPARTMENT;
+
+public class DataSetLookupCacheTest {
+
+    public static final String EXPENSE_REPORTS = "expense_reports_lookup_cache";
+
+    StaticDataSetProvider staticDataSetProvider;
+    DataSetLookupCache lookupCache;
+
+    @Before
+    public void setUp() throws Exception {
+        staticDataSetProvider = new StaticDataSetProvider(DataSetCore.get().getSharedDataSetOpEngine());
+        lookupCache = staticDataSetProvider.getLookupCache();
+        registerDataSet();
+    }
+
+    @Test
+    public void testSameLookupHitsCache() {
+        DataSet result1 = staticDataSetProvider.lookupDataSet(EXPENSE_REPORTS, groupByDeptAndSum());
+        DataSet result2 = staticDataSetProvider.lookupDataSet(EXPENSE_REPORTS, groupByDeptAndSum());
+
+        assertThat(result2).isNotSameAs(result1);
+        assertThat(result2.getUUID()).isEqualTo(result1.getUUID());
+        assertThat(result2.getRowCount()).isEqualTo(result1.getRowCount());
+        for (int i = 0; i < result1.getRowCount(); i++) {
+            assertThat(result2.getValueAt(i, 0)).isEqualTo(result1.getValueAt(i, 0));
+        }
+        assertThat(lookupCache.getHitCount()).isEqualTo(1);
+        assertThat(lookupCache.getMissCount()).isEqualTo(1);
+        assertThat(lookupCache.getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    public void testResultChangesDoNotAlterCache() {
+        DataSet result1 = staticDataSetProvider.lookupDataSet(EXPENSE_REPORTS, groupByDeptAndSum());
+        Object amount = result1.getValueAt(0, 0);
+        result1.setValueAt(0, 0, -1d);
+
+        DataSet result2 = staticDataSetProvider.lookupDataSet(EXPENSE_REPORTS, groupByDeptAndSum());
+        assertThat(result2.getValueAt(0, 0)).isEqualTo(amount);
+        result2.setValueAt(0, 0, -2d);
+
+        DataSet result3 = staticDataSetProvider.lookupDataSet(EXPENSE_REPORTS, groupByDeptAndSum());
+        assertThat(result3.getValueAt(0, 0)).isEqualTo(amount);
+        assertThat(lookupCache.getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testMutatingPostProcessor() throws Exception {
+        String uuid = EXPENSE_REPORTS + "_post";
+        DataSetManager dataSetManager = DataSetCore.get().getDataSetManager();
+        DataSetDefRegistry dataSetDefRegistry = DataSetCore.get().getDataSetDefRegistry();
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setUUID(uuid);
+        dataSetManager.registerDataSet(dataSet);
+        dataSetDefRegistry.registerPostProcessor(uuid, (lookup, result) -> {
+            double amount = ((Number) result.getValueAt(0, 0)).doubleValue();
+            result.setValueAt(0, 0, amount + 1);
+        });
+
+        DataSetLookupCache cache = DataSetCore.get().getStaticDataSetProvider().getLookupCache();
+        long hits = cache.getHitCount();
+        DataSetLookup lookup = groupByDeptAndSum();
+        lookup.setDataSetUUID(uuid);
+        DataSet result1 = dataSetManager.lookupDataSet(lookup.cloneInstance());
+        Object amount = result1.getValueAt(0, 0);
+        DataSet result2 = dataSetManager.lookupDataSet(lookup.cloneInstance());
+
+        // The post processor is applied just once on every result
+        assertThat(cache.getHitCount()).isEqualTo(hits + 1);
+        assertThat(result2).isNotSameAs(result1);
+        assertThat(result2.getValueAt(0, 0)).isEqualTo(amount);
+        assertThat(result1.getValueAt(0, 0)).isEqualTo(amount);
+        dataSetManager.removeDataSet(uuid);
+    }
+
+    @Test
+    public void testDifferentPage() {
+        DataSetLookup lookup = groupByDeptAndSum();
+        DataSet result1 = staticDataSetProvider.lookupDataSet(EXPENSE_REPORTS, lookup);
+        lookup.setNumberOfRows(2);
+        DataSet result2 = staticDataSetProvider.lookupDataSet(EXPENSE_REPORTS, lookup);
+
+        assertThat(result2).isNotSameAs(result1);
+        assertThat(result2.getRowCount()).isEqualTo(2);
+        assertThat(lookupCache.getHitCount()).isEqualTo(0);
+        assertThat(lookupCache.getEntryCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testLookupHashCode() {
+        DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .filter(COLUMN_AMOUNT, FilterFactory.greaterThan(100d))
+                .group(COLUMN_DEPARTMENT)
+                .column(COLUMN_DEPARTMENT)
+                .column(COLUMN_AMOUNT, AggregateFunctionType.SUM)
+                .sort(COLUMN_DEPARTMENT, SortOrder.ASCENDING)
+                .buildLookup();
+        assertThat(lookup.cloneInstance().hashCode()).isEqualTo(lookup.hashCode());
+
+        // Lookups of the same shape are told apart by their operation details
+        DataSetLookup otherFilter = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .filter(COLUMN_AMOUNT, FilterFactory.greaterThan(200d))
+                .group(COLUMN_DEPARTMENT)
+                .column(COLUMN_DEPARTMENT)
+                .column(COLUMN_AMOUNT, AggregateFunctionType.SUM)
+                .sort(COLUMN_DEPARTMENT, SortOrder.ASCENDING)
+                .buildLookup();
+        DataSetLookup otherSort = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .filter(COLUMN_AMOUNT, FilterFactory.greaterThan(100d))
+                .group(COLUMN_DEPARTMENT)
+                .column(COLUMN_DEPARTMENT)
+                .column(COLUMN_AMOUNT, AggregateFunctionType.SUM)
+                .sort(COLUMN_DEPARTMENT, SortOrder.DESCENDING)
+                .buildLookup();
+        assertThat(otherFilter).isNotEqualTo(lookup);
+        assertThat(otherFilter.hashCode()).isNotEqualTo(lookup.hashCode());
+        assertThat(otherSort).isNotEqualTo(lookup);
+        assertThat(otherSort.hashCode()).isNotEqualTo(lookup.hashCode());
+    }
+
+    @Test
+    public void testInvalidateOnRegister() throws Exception {
+        DataSet result1 = staticDataSetProvider.lookupDataSet(EXPENSE_REPORTS, groupByDeptAndSum());
+        registerDataSet();
+        assertThat(lookupCache.getEntryCount()).isEqualTo(0);
+
+        DataSet result2 = staticDataSetProvider.lookupDataSet(EXPENSE_REPORTS, groupByDeptAndSum());
+        assertThat(result2).isNotSameAs(result1);
+        assertThat(lookupCache.getHitCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testInvalidateOnAppend() throws Exception {
+        DataSet result1 = staticDataSetProvider.lookupDataSet(EXPENSE_REPORTS, groupByDeptAndSum());
+        DataSet rows = ExpenseReportsData.INSTANCE.toDataSet().trim(0, 1);
+        staticDataSetProvider.appendDataSet(EXPENSE_REPORTS, rows);
+
+        DataSet result2 = staticDataSetProvider.lookupDataSet(EXPENSE_REPORTS, groupByDeptAndSum());
+        assertThat(result2).isNotSameAs(result1);
+        assertThat(lookupCache.getHitCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testMaxSize() {
+        DataSet result = staticDataSetProvider.lookupDataSet(EXPENSE_REPORTS, groupByDeptAndSum());
+        long resultSize = result.getEstimatedSize();
+        lookupCache.setMaxSize(resultSize);
+
+        DataSetLookup firstPage = groupByDeptAndSum();
+        firstPage.setNumberOfRows(2);
+        staticDataSetProvider.lookupDataSet(EXPENSE_REPORTS, groupByDeptAndSum());
+        staticDataSetProvider.lookupDataSet(EXPENSE_REPORTS, firstPage);
+
+        assertThat(lookupCache.getEntryCount()).isEqualTo(1);
+        assertThat(lookupCache.getEvictionCount()).isEqualTo(1);
+        assertThat(lookupCache.getSize()).isLessThanOrEqualTo(resultSize);
+    }
+
+    @Test
+    public void testDisabled() {
+        lookupCache.setMaxSize(0);
+        DataSet result1 = staticDataSetProvider.lookupDataSet(EXPENSE_REPORTS, groupByDeptAndSum());
+        DataSet result2 = staticDataSetProvider.lookupDataSet(EXPENSE_REPORTS, groupByDeptAndSum());
+
+        assertThat(result2).isNotSameAs(result1);
+        assertThat(lookupCache.getEntryCount()).isEqualTo(0);
+    }
+
+    private void registerDataSet() throws Exception {
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setUUID(EXPENSE_REPORTS);
+        staticDataSetProvider.registerDataSet(dataSet);
+    }
+
+    private DataSetLookup groupByDeptAndSum() {
+        return DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .group(COLUMN_DEPARTMENT, "Department")
+                .column(COLUMN_AMOUNT, AggregateFunctionType.SUM)
+                .buildLookup();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataset.engine.DataSetTaskExecutor;
+import org.dashbuilder.dataset.engine.SharedDataSetOpEngine;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_AMOUNT;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_CITY;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_DATE;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_DEPARTMENT;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_EMPLOYEE;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.AVERAGE;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.COUNT;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.DISTINCT;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.MAX;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.MEDIAN;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.MIN;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.SUM;
+import static org.dashbuilder.dataset.group.DateIntervalType.MONTH;
+
+public class DataSetParallelGroupTest {
+
+    public static final String EXPENSE_REPORTS_SEQ = "expense_reports_sequential";
+    public static final String EXPENSE_REPORTS_PAR = "expense_reports_parallel";
+
+    DataSetManager dataSetManager = DataSetCore.get().getDataSetManager();
+    SharedDataSetOpEngine dataSetOpEngine = DataSetCore.get().getSharedDataSetOpEngine();
+    DataSetTaskExecutor defaultExecutor;
+    ForkJoinPool pool = new ForkJoinPool(4);
+
+    @Before
+    public void setUp() throws Exception {
+        defaultExecutor = dataSetOpEngine.getTaskExecutor();
+        for (String uuid : new String[] {EXPENSE_REPORTS_SEQ, EXPENSE_REPORTS_PAR}) {
+            DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+            dataSet.setUUID(uuid);
+            dataSetManager.registerDataSet(dataSet);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        dataSetOpEngine.setTaskExecutor(defaultExecutor);
+        pool.shutdown();
+    }
+
+    @Test
+    public void testPartitions() {
+        ForkJoinDataSetTaskExecutor executor = new ForkJoinDataSetTaskExecutor(pool, 100);
+        assertThat(executor.getPartitions(99)).isEqualTo(1);
+        assertThat(executor.getPartitions(100)).isEqualTo(4);
+
+        executor.setThreshold(0);
+        assertThat(executor.getPartitions(1000)).isEqualTo(1);
+    }
+
+    @Test
+    public void testDataSetFunctions() {
+        assertSameResults(DataSetLookupFactory.newDataSetLookupBuilder()
+                .column(COUNT, "#items")
+                .column(COLUMN_AMOUNT, MIN)
+                .column(COLUMN_AMOUNT, MAX)
+                .column(COLUMN_AMOUNT, AVERAGE)
+                .column(COLUMN_AMOUNT, SUM)
+                .column(COLUMN_AMOUNT, MEDIAN)
+                .column(COLUMN_CITY, DISTINCT)
+                .column(COLUMN_DATE, MIN)
+                .column(COLUMN_DATE, MAX));
+    }
+
+    @Test
+    public void testGroupByLabel() {
+        assertSameResults(DataSetLookupFactory.newDataSetLookupBuilder()
+                .group(COLUMN_EMPLOYEE)
+                .column(COLUMN_EMPLOYEE)
+                .column(COUNT, "occurrences")
+                .column(COLUMN_AMOUNT, AVERAGE)
+                .column(COLUMN_AMOUNT, SUM)
+                .column(COLUMN_AMOUNT, MEDIAN)
+                .column(COLUMN_DEPARTMENT, DISTINCT));
+    }
+
+    @Test
+    public void testGroupByFixedDate() {
+        assertSameResults(DataSetLookupFactory.newDataSetLookupBuilder()
+                .group(COLUMN_DATE).fixed(MONTH, true)
+                .column(COLUMN_DATE)
+                .column(COLUMN_AMOUNT, MIN)
+                .column(COLUMN_AMOUNT, MAX)
+                .column(COLUMN_AMOUNT, SUM));
+    }
+
+    private void assertSameResults(DataSetLookupBuilder<?> builder) {
+        DataSetLookup lookup = builder.buildLookup();
+        DataSetLookup sequentialLookup = lookup.cloneInstance();
+        sequentialLookup.setDataSetUUID(EXPENSE_REPORTS_SEQ);
+        DataSetLookup parallelLookup = lookup.cloneInstance();
+        parallelLookup.setDataSetUUID(EXPENSE_REPORTS_PAR);
+
+        dataSetOpEngine.setTaskExecutor(null);
+        DataSet expected = dataSetManager.lookupDataSet(sequentialLookup);
+
+        // Split every operation into 4 partitions
+        dataSetOpEngine.setTaskExecutor(new ForkJoinDataSetTaskExecutor(pool, 1));
+        DataSet result = dataSetManager.lookupDataSet(parallelLookup);
+
+        assertThat(result.getRowCount()).isEqualTo(expected.getRowCount());
+        assertThat(result.getColumns().size()).isEqualTo(expected.getColumns().size());
+        for (int row = 0; row < expected.getRowCount(); row++) {
+            for (int col = 0; col < expected.getColumns().size(); col++) {
+                assertThat(result.getValueAt(row, col)).isEqualTo(expected.getValueAt(row, col));
+            }
+        }
+    }
+}
@@ -15,11 +15,23 @@
  */
 package org.dashbuilder.dataset;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataset.engine.SharedDataSetOpEngine;
+import org.dashbuilder.dataset.engine.index.DataSetIndex;
+import org.dashbuilder.dataset.engine.index.DataSetSortIndex;
+import org.dashbuilder.dataset.engine.index.RowSet;
+import org.dashbuilder.dataset.engine.sort.CollectionsDataSetSort;
 import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.dashbuilder.dataset.sort.ColumnSort;
+import org.dashbuilder.dataset.sort.DataSetSort;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.dashbuilder.dataset.Assertions.assertDataSetValue;
 import static org.dashbuilder.dataset.Assertions.assertDataSetValues;
 import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_AMOUNT;
@@ -125,6 +137,90 @@ public class DataSetSortTest {
         }, 0);
     }
 
+    @Test
+    public void testSortPages() throws Exception {
+        DataSetLookup[] sorts = {
+                DataSetLookupFactory.newDataSetLookupBuilder()
+                        .dataset(EXPENSE_REPORTS)
+                        .sort(COLUMN_AMOUNT, ASCENDING)
+                        .buildLookup(),
+                DataSetLookupFactory.newDataSetLookupBuilder()
+                        .dataset(EXPENSE_REPORTS)
+                        .sort(COLUMN_DATE, DESCENDING)
+                        .buildLookup(),
+                DataSetLookupFactory.newDataSetLookupBuilder()
+                        .dataset(EXPENSE_REPORTS)
+                        .sort(COLUMN_CITY, ASCENDING)
+                        .sort(COLUMN_AMOUNT, DESCENDING)
+                        .buildLookup()};
+
+        for (DataSetLookup sort : sorts) {
+            DataSet expected = dataSetManager.lookupDataSet(sort);
+            for (int offset = 0; offset < 50; offset += 5) {
+                DataSetLookup page = sort.cloneInstance();
+                page.setRowOffset(offset);
+                page.setNumberOfRows(5);
+                DataSet result = dataSetManager.lookupDataSet(page);
+
+                assertThat(result.getRowCount()).isEqualTo(5);
+                assertThat(result.getRowCountNonTrimmed()).isEqualTo(50);
+                for (int row = 0; row < 5; row++) {
+                    for (int column = 0; column < expected.getColumns().size(); column++) {
+                        assertThat(result.getValueAt(row, column)).isEqualTo(expected.getValueAt(offset + row, column));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSortFirstRowsIndex() throws Exception {
+        DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .sort(COLUMN_AMOUNT, DESCENDING)
+                .buildLookup();
+        DataSetSort sortOp = (DataSetSort) lookup.getOperationList().get(0);
+        SharedDataSetOpEngine dataSetOpEngine = DataSetCore.get().getSharedDataSetOpEngine();
+        DataSetIndex index = dataSetOpEngine.getIndexRegistry().get(EXPENSE_REPORTS);
+
+        // Only the first page gets sorted
+        DataSet result = dataSetOpEngine.execute(EXPENSE_REPORTS, lookup.getOperationList(), 0, 5);
+        assertThat(result.getValueAt(0, COLUMN_AMOUNT)).isEqualTo(1100.1);
+        assertThat(result.getRowCountNonTrimmed()).isEqualTo(50);
+        DataSetSortIndex sortIndex = index.getSortIndex(sortOp);
+        assertThat(sortIndex.isComplete()).isFalse();
+        assertThat(sortIndex.getRows().size()).isEqualTo(5);
+
+        // The sorted rows are reused ...
+        dataSetOpEngine.execute(EXPENSE_REPORTS, lookup.getOperationList(), 2, 3);
+        assertThat(index.getSortIndex(sortOp)).isSameAs(sortIndex);
+
+        // ... or extended when paging forward
+        dataSetOpEngine.execute(EXPENSE_REPORTS, lookup.getOperationList(), 5, 5);
+        sortIndex = index.getSortIndex(sortOp);
+        assertThat(sortIndex.getRows().size()).isEqualTo(10);
+
+        // Until a full sort is cheaper
+        dataSetOpEngine.execute(EXPENSE_REPORTS, lookup.getOperationList(), 10, 5);
+        sortIndex = index.getSortIndex(sortOp);
+        assertThat(sortIndex.isComplete()).isTrue();
+        assertThat(sortIndex.getRows().size()).isEqualTo(50);
+    }
+
+    @Test
+    public void testSortRowSet() throws Exception {
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < dataSet.getRowCount(); i += 3) {
+            rows.add(i);
+        }
+        List<ColumnSort> sortList = Collections.singletonList(new ColumnSort(COLUMN_AMOUNT, ASCENDING));
+        CollectionsDataSetSort sortAlgorithm = new CollectionsDataSetSort();
+
+        List<Integer> expected = sortAlgorithm.sort(dataSet, rows, sortList);
+        assertThat(sortAlgorithm.sort(dataSet, RowSet.valueOf(rows), sortList)).isEqualTo(expected);
+        assertThat(sortAlgorithm.sort(dataSet, RowSet.valueOf(rows), sortList, 3)).isEqualTo(expected.subList(0, 3));
+    }
+
     private void printDataSet(DataSet dataSet) {
         System.out.print(dataSetFormatter.formatDataSet(dataSet, "{", "}", ",\n", "\"", "\"", ", ") + "\n\n");
     }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.metrics;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.DataSetLookupFactory;
+import org.dashbuilder.dataset.ExpenseReportsData;
+import org.dashbuilder.dataset.engine.SharedDataSetOpEngine;
+import org.dashbuilder.dataset.engine.metrics.DataSetEngineMetrics;
+import org.dashbuilder.dataset.engine.metrics.DataSetEngineMetrics.OpStats;
+import org.dashbuilder.dataset.engine.metrics.DataSetEngineMetrics.SlowLookup;
+import org.dashbuilder.dataset.engine.metrics.DataSetEngineOp;
+import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_AMOUNT;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_CITY;
+import static org.dashbuilder.dataset.ExpenseReportsData.COLUMN_DEPARTMENT;
+import static org.dashbuilder.dataset.filter.FilterFactory.equalsTo;
+
+public class DataSetEngineMetricsTest {
+
+    public static final String EXPENSE_REPORTS = "expense_reports_metrics";
+
+    SharedDataSetOpEngine dataSetOpEngine = DataSetCore.get().getSharedDataSetOpEngine();
+    DataSetEngineMetrics metrics = new DataSetEngineMetrics();
+
+    @Before
+    public void setUp() throws Exception {
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setUUID(EXPENSE_REPORTS);
+        dataSetOpEngine.getIndexRegistry().put(dataSet);
+        dataSetOpEngine.addListener(metrics);
+    }
+
+    @After
+    public void tearDown() {
+        dataSetOpEngine.removeListener(metrics);
+        dataSetOpEngine.setSlowLookupThreshold(-1);
+        dataSetOpEngine.getIndexRegistry().remove(EXPENSE_REPORTS);
+    }
+
+    @Test
+    public void testGroupMetrics() {
+        DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .group(COLUMN_DEPARTMENT)
+                .column(COLUMN_DEPARTMENT)
+                .column(COLUMN_AMOUNT, AggregateFunctionType.SUM)
+                .buildLookup();
+        dataSetOpEngine.execute(EXPENSE_REPORTS, lookup.getOperationList());
+        dataSetOpEngine.execute(EXPENSE_REPORTS, lookup.getOperationList());
+
+        OpStats group = metrics.getOpStats(DataSetEngineOp.GROUP);
+        assertThat(group.getCount()).isEqualTo(2);
+        assertThat(group.getIndexHits()).isEqualTo(1);
+        assertThat(group.getIndexMisses()).isEqualTo(1);
+        assertThat(group.getRowsIn()).isEqualTo(100);
+        assertThat(group.getRowsOut()).isEqualTo(10);
+
+        OpStats aggregate = metrics.getOpStats(DataSetEngineOp.AGGREGATE);
+        assertThat(aggregate.getCount()).isEqualTo(2);
+        assertThat(aggregate.getIndexHits()).isEqualTo(1);
+        assertThat(aggregate.getRowsOut()).isEqualTo(10);
+
+        OpStats build = metrics.getOpStats(DataSetEngineOp.BUILD);
+        assertThat(build.getCount()).isEqualTo(2);
+        assertThat(build.getRowsOut()).isEqualTo(10);
+
+        OpStats lookups = metrics.getLookupStats();
+        assertThat(lookups.getCount()).isEqualTo(2);
+        assertThat(lookups.getRowsIn()).isEqualTo(100);
+        assertThat(lookups.getRowsOut()).isEqualTo(10);
+        assertThat(lookups.getMaxTime()).isGreaterThan(0);
+    }
+
+    @Test
+    public void testFilterAndSortMetrics() {
+        DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .filter(COLUMN_CITY, equalsTo("Barcelona"))
+                .sort(COLUMN_AMOUNT, "asc")
+                .buildLookup();
+        DataSet result = dataSetOpEngine.execute(EXPENSE_REPORTS, lookup.getOperationList());
+
+        OpStats filter = metrics.getOpStats(DataSetEngineOp.FILTER);
+        assertThat(filter.getCount()).isEqualTo(1);
+        assertThat(filter.getIndexMisses()).isEqualTo(1);
+        assertThat(filter.getRowsIn()).isEqualTo(50);
+        assertThat(filter.getRowsOut()).isEqualTo(result.getRowCount());
+
+        OpStats sort = metrics.getOpStats(DataSetEngineOp.SORT);
+        assertThat(sort.getCount()).isEqualTo(1);
+        assertThat(sort.getRowsIn()).isEqualTo(result.getRowCount());
+    }
+
+    @Test
+    public void testSlowLookups() {
+        dataSetOpEngine.setSlowLookupThreshold(0);
+        DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .filter(COLUMN_CITY, equalsTo("Barcelona"))
+                .rowNumber(5)
+                .buildLookup();
+        dataSetOpEngine.execute(EXPENSE_REPORTS, lookup.getOperationList(), lookup.getRowOffset(), lookup.getNumberOfRows());
+
+        assertThat(metrics.getSlowLookupCount()).isEqualTo(1);
+        SlowLookup slowLookup = metrics.getSlowLookups().get(0);
+        assertThat(slowLookup.getLookup()).isEqualTo(lookup);
+        assertThat(slowLookup.getRowsOut()).isEqualTo(5);
+    }
+
+    @Test
+    public void testPrometheusExport() {
+        DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .filter(COLUMN_CITY, equalsTo("Barcelona"))
+                .buildLookup();
+        dataSetOpEngine.execute(EXPENSE_REPORTS, lookup.getOperationList());
+
+        String out = new PrometheusMetricsExporter(metrics, null, null).scrape();
+        assertThat(out).contains("dashbuilder_dataset_op_seconds_count{op=\"filter\"} 1\n",
+                "dashbuilder_dataset_op_rows_in_total{op=\"filter\"} 50\n",
+                "dashbuilder_dataset_index_requests_total{op=\"filter\",result=\"miss\"} 1\n",
+                "dashbuilder_dataset_lookup_seconds_count 1\n");
+    }
+}
@@ -16,6 +16,8 @@
 package org.dashbuilder.dataprovider.external;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URL;
@@ -24,6 +26,12 @@ import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import org.apache.commons.codec.binary.Base64;
 import org.dashbuilder.dataprovider.external.ExternalDataSetSecurityStore.SecurityInfo;
@@ -33,6 +41,15 @@ import org.dashbuilder.dataset.DataSetMetadata;
 import org.dashbuilder.dataset.def.ExternalDataSetDef;
 import org.dashbuilder.dataset.json.ExternalDataSetJSONParser;
 
+/**
+ * Retrieves the content of external data sets.
+ * <ul>
+ * <li>Concurrent retrievals of the same data set share a single request.</li>
+ * <li>The responses of data sets with cache enabled are revalidated through their ETag or Last-Modified headers,
+ * so the data set already parsed is returned if the content has not been modified.</li>
+ * <li>Responses compressed with gzip or deflate are supported.</li>
+ * </ul>
+ */
 public class ExternalDataSetCaller {
 
     private static final String BEARER = "Bearer";
@@ -43,8 +60,14 @@ public class ExternalDataSetCaller {
 
     private static final String METADATA_URI = "metadata";
 
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
+
     private ExternalDataSetJSONParser parser;
 
+    private Map<String, CompletableFuture<DataSet>> inFlightRequests = new ConcurrentHashMap<>();
+
+    private Map<String, CachedResponse> cachedResponses = new ConcurrentHashMap<>();
+
     public ExternalDataSetCaller() {
         // Empty
     }
@@ -86,11 +109,81 @@ public class ExternalDataSetCaller {
             throw new IllegalArgumentException("Invalid definition URL " + defUrl, e);
         }
 
-        var json = getUrlContent(def, url);
-        return parser.parseDataSet(json);
+        // Join the request in flight (if any)
+        var key = def.getUUID() + "@" + defUrl;
+        var request = new CompletableFuture<DataSet>();
+        var inFlightRequest = inFlightRequests.putIfAbsent(key, request);
+        if (inFlightRequest != null) {
+            try {
+                return inFlightRequest.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        // Waiters must be released whatever the outcome, errors included
+        try {
+            var dataSet = fetchDataSet(def, url, key);
+            request.complete(dataSet);
+            return dataSet;
+        } catch (Throwable e) {
+            request.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRequests.remove(key, request);
+        }
+    }
+
+    /**
+     * Forget the last response of the given data set, so the next retrieval downloads and parses it again.
+     */
+    public void evict(ExternalDataSetDef def) {
+        var prefix = def.getUUID() + "@";
+        cachedResponses.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private DataSet fetchDataSet(ExternalDataSetDef def, URL url, String key) {
+        var cachedResponse = def.isCacheEnabled() ? cachedResponses.get(key) : null;
+        var conn = openConnection(def, url);
+        try {
+            if (cachedResponse != null && conn instanceof HttpURLConnection) {
+                cachedResponse.addValidators(conn);
+                if (getResponseCode(def, (HttpURLConnection) conn) == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                    return cachedResponse.dataSet;
+                }
+            }
+
+            try (var reader = new InputStreamReader(openStream(def, conn), StandardCharsets.UTF_8)) {
+                var dataSet = parser.readDataSet(reader);
+                var newResponse = def.isCacheEnabled() ? CachedResponse.of(conn, dataSet) : null;
+                if (newResponse != null) {
+                    cachedResponses.put(key, newResponse);
+                } else {
+                    cachedResponses.remove(key);
+                }
+                return dataSet;
+            } catch (IOException e) {
+                throw new RuntimeException("Not able to access external data set", e);
+            }
+        } finally {
+            // Release the connection whatever the response, not modified ones included
+            if (conn instanceof HttpURLConnection) {
+                ((HttpURLConnection) conn).disconnect();
+            }
+        }
     }
 
     private String getUrlContent(ExternalDataSetDef def, URL url) {
+        try (var in = openStream(def, openConnection(def, url))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Not able to access external data set", e);
+        }
+    }
+
+    private URLConnection openConnection(ExternalDataSetDef def, URL url) {
         URLConnection conn;
         try {
             conn = url.openConnection();
@@ -101,13 +194,24 @@ public class ExternalDataSetCaller {
 
         if (conn instanceof HttpURLConnection) {
             var httpConn = (HttpURLConnection) conn;
+            httpConn.setRequestProperty("Accept-Encoding", ACCEPT_ENCODING);
             ExternalDataSetSecurityStore.get(def).ifPresent(secInfo -> addSecurity(httpConn, secInfo));
         }
+        return conn;
+    }
 
+    private InputStream openStream(ExternalDataSetDef def, URLConnection conn) {
         try {
-            var response = new String(conn.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            var in = conn.getInputStream();
             checkResponse(def, conn);
-            return response;
+            var encoding = conn.getContentEncoding();
+            if ("gzip".equalsIgnoreCase(encoding)) {
+                return new GZIPInputStream(in);
+            }
+            if ("deflate".equalsIgnoreCase(encoding)) {
+                return new InflaterInputStream(in);
+            }
+            return in;
         } catch (Exception e) {
             throw new RuntimeException("Not able to access external data set", e);
         }
@@ -115,19 +219,22 @@ public class ExternalDataSetCaller {
 
     private void checkResponse(ExternalDataSetDef def, URLConnection conn) {
         if (conn instanceof HttpURLConnection) {
-            var httpConn = (HttpURLConnection) conn;
-            try {
-                if (httpConn.getResponseCode() != 200) {
-                    throw new RuntimeException("Invalid response when acessing external dataSet " + def.getName() +
-                            ": " +
-                            httpConn.getResponseCode());
-                }
-            } catch (IOException e) {
-                throw new RuntimeException("Error reading response code: " + e.getMessage(), e);
+            var responseCode = getResponseCode(def, (HttpURLConnection) conn);
+            if (responseCode != 200) {
+                throw new RuntimeException("Invalid response when acessing external dataSet " + def.getName() +
+                        ": " + responseCode);
             }
         }
     }
 
+    private int getResponseCode(ExternalDataSetDef def, HttpURLConnection conn) {
+        try {
+            return conn.getResponseCode();
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading response code: " + e.getMessage(), e);
+        }
+    }
+
     protected void addSecurity(HttpURLConnection conn, SecurityInfo secInfo) {
         if (secInfo.getType() == SecurityType.BASIC) {
             var auth = secInfo.getUsername() + ":" + secInfo.getPassword();
@@ -140,4 +247,35 @@ public class ExternalDataSetCaller {
         }
     }
 
+    /**
+     * The validators of the last response of a data set along with the data set parsed.
+     */
+    private static class CachedResponse {
+
+        String etag;
+        String lastModified;
+        DataSet dataSet;
+
+        static CachedResponse of(URLConnection conn, DataSet dataSet) {
+            var etag = conn.getHeaderField("ETag");
+            var lastModified = conn.getHeaderField("Last-Modified");
+            if (etag == null && lastModified == null) {
+                return null;
+            }
+            var response = new CachedResponse();
+            response.etag = etag;
+            response.lastModified = lastModified;
+            response.dataSet = dataSet;
+            return response;
+        }
+
+        void addValidators(URLConnection conn) {
+            if (etag != null) {
+                conn.setRequestProperty("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                conn.setRequestProperty("If-Modified-Since", lastModified);
+            }
+        }
+    }
 }
@@ -15,6 +15,9 @@
  */
 package org.dashbuilder.dataprovider.external;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.dashbuilder.dataprovider.DataSetProvider;
 import org.dashbuilder.dataprovider.DataSetProviderType;
 import org.dashbuilder.dataprovider.StaticDataSetProvider;
@@ -28,6 +31,7 @@ import org.dashbuilder.dataset.impl.DataSetImpl;
 import org.dashbuilder.dataset.impl.DataSetMetadataImpl;
 import org.dashbuilder.scheduler.DataSetInvalidationTask;
 import org.dashbuilder.scheduler.Scheduler;
+import org.dashbuilder.scheduler.SchedulerTask;
 
 public class ExternalDataSetProvider implements DataSetProvider {
 
@@ -36,6 +40,8 @@ public class ExternalDataSetProvider implements DataSetProvider {
     protected StaticDataSetProvider staticDataSetProvider;
 
     private Scheduler scheduler;
+
+    private Set<String> servedDataSets = ConcurrentHashMap.newKeySet();
     
 
     public ExternalDataSetProvider() {
@@ -80,6 +86,8 @@ public class ExternalDataSetProvider implements DataSetProvider {
         if (resultDataSet == null || isTest) {
             registerDataSet(def);
             resultDataSet = staticDataSetProvider.lookupDataSet(def, lookup);
+        } else {
+            servedDataSets.add(uuid);
         }
         
         // do not keep test dataSets, but need static because it handles lookup
@@ -103,11 +111,7 @@ public class ExternalDataSetProvider implements DataSetProvider {
     }
     
     private void registerDataSet(DataSetDef def) {
-        var externalDef = (ExternalDataSetDef) def;
-        var newDataSet = caller.retrieveDataSet(externalDef);
-        newDataSet.setDefinition(def);
-        newDataSet.setUUID(def.getUUID());
-        staticDataSetProvider.registerDataSet(newDataSet);
+        retrieveDataSet(def);
         
         var taskKey = DataSetInvalidationTask.key(def);
         scheduler.unschedule(taskKey);
@@ -115,8 +119,80 @@ public class ExternalDataSetProvider implements DataSetProvider {
             if (def.getRefreshTime() != null && def.getRefreshTime().trim().length() > 0) {
                 var tf = TimeAmount.parse(def.getRefreshTime());
                 var seconds = tf.toMillis() / 1000;
-                scheduler.schedule(new DataSetInvalidationTask(def, staticDataSetProvider::removeDataSet), seconds);
+                // fixed delay, so the data set keeps being refreshed until it gets removed
+                scheduler.schedule(new DataSetRefreshTask(def), seconds);
             }
         }
     }
+
+    private void retrieveDataSet(DataSetDef def) {
+        var uuid = def.getUUID();
+        var newDataSet = caller.retrieveDataSet((ExternalDataSetDef) def);
+        servedDataSets.remove(uuid);
+        // the content was not modified, so the data set and its indexes are kept
+        if (newDataSet == staticDataSetProvider.lookupDataSet(uuid, null)) {
+            return;
+        }
+        newDataSet.setDefinition(def);
+        newDataSet.setUUID(uuid);
+        staticDataSetProvider.registerDataSet(newDataSet);
+    }
+
+    /**
+     * Data sets looked up since the last refresh are retrieved again in the background, so they keep being served
+     * without waiting for the external service. The rest are just removed.
+     */
+    private void refreshDataSet(DataSetDef def, SchedulerTask task) {
+        var uuid = def.getUUID();
+        if (!servedDataSets.contains(uuid) || staticDataSetProvider.lookupDataSet(uuid, null) == null) {
+            removeDataSet(def, task);
+            return;
+        }
+        try {
+            retrieveDataSet(def);
+        } catch (Exception e) {
+            removeDataSet(def, task);
+        }
+    }
+
+    private void removeDataSet(DataSetDef def, SchedulerTask task) {
+        servedDataSets.remove(def.getUUID());
+        staticDataSetProvider.removeDataSet(def.getUUID());
+        caller.evict((ExternalDataSetDef) def);
+
+        // the scheduler does not cancel running tasks, and this one is running
+        task.cancel();
+        synchronized (scheduler) {
+            if (scheduler.getTaskByKey(task.getKey()) == task) {
+                scheduler.unschedule(task.getKey());
+            }
+        }
+    }
+
+    /**
+     * Refreshes an external data set every refresh time, until the data set gets removed.
+     */
+    private class DataSetRefreshTask extends SchedulerTask {
+
+        private DataSetDef def;
+
+        DataSetRefreshTask(DataSetDef def) {
+            this.def = def;
+        }
+
+        @Override
+        public String getKey() {
+            return DataSetInvalidationTask.key(def);
+        }
+
+        @Override
+        public String getDescription() {
+            return "Cache Refresh for DataSet Definition " + def.getName();
+        }
+
+        @Override
+        public void execute() {
+            refreshDataSet(def, this);
+        }
+    }
 }
\ No newline at end of file
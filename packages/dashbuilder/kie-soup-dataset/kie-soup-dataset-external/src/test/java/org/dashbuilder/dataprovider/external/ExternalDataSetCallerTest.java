@@ -0,0 +1,189 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.external;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.def.DataSetDefFactory;
+import org.dashbuilder.dataset.def.ExternalDataSetDef;
+import org.dashbuilder.dataset.json.ExternalDataSetJSONParser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ExternalDataSetCallerTest {
+
+    private static final String ETAG = "\"v1\"";
+    private static final String CONTENT = "[[\"G1\", 1], [\"G2\", 2]]";
+
+    private HttpServer server;
+    private AtomicInteger requests;
+    private AtomicInteger notModified;
+    private ExternalDataSetCaller caller;
+    private ExternalDataSetDef def;
+
+    @Before
+    public void setup() throws IOException {
+        requests = new AtomicInteger();
+        notModified = new AtomicInteger();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/dataset", this::handle);
+        server.start();
+
+        caller = ExternalDataSetCaller.get();
+        def = (ExternalDataSetDef) DataSetDefFactory.newExternalDataSetDef()
+                .uuid("ds1")
+                .url("http://localhost:" + server.getAddress().getPort() + "/dataset")
+                .buildDef();
+    }
+
+    @After
+    public void shutdown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testGzipResponse() {
+        var dataSet = caller.retrieveDataSet(def);
+
+        assertEquals(2, dataSet.getRowCount());
+        assertEquals("G1", dataSet.getValueAt(0, 0));
+        assertEquals(2.0, dataSet.getValueAt(1, 1));
+    }
+
+    @Test
+    public void testNotModifiedKeepsDataSet() {
+        def.setCacheEnabled(true);
+        var dataSet = caller.retrieveDataSet(def);
+        var sameDataSet = caller.retrieveDataSet(def);
+
+        assertSame(dataSet, sameDataSet);
+        assertEquals(2, requests.get());
+        assertEquals(1, notModified.get());
+    }
+
+    @Test
+    public void testNoCacheNoRevalidation() {
+        var dataSet = caller.retrieveDataSet(def);
+        var otherDataSet = caller.retrieveDataSet(def);
+
+        assertNotSame(dataSet, otherDataSet);
+        assertEquals(0, notModified.get());
+    }
+
+    @Test
+    public void testEvict() {
+        def.setCacheEnabled(true);
+        var dataSet = caller.retrieveDataSet(def);
+        caller.evict(def);
+        var otherDataSet = caller.retrieveDataSet(def);
+
+        assertNotSame(dataSet, otherDataSet);
+        assertEquals(0, notModified.get());
+    }
+
+    @Test
+    public void testErrorReleasesWaiters() throws Exception {
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var calls = new AtomicInteger();
+        caller = new ExternalDataSetCaller(new ExternalDataSetJSONParser() {
+
+            @Override
+            public DataSet readDataSet(Reader reader) {
+                if (calls.getAndIncrement() > 0) {
+                    return super.readDataSet(reader);
+                }
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new StackOverflowError("Parser failure");
+            }
+        });
+
+        var firstError = new AtomicReference<Throwable>();
+        var waiterError = new AtomicReference<Throwable>();
+        var first = new Thread(() -> retrieve(firstError));
+        first.start();
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+        var waiter = new Thread(() -> retrieve(waiterError));
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING && waiter.isAlive()) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        first.join(10000);
+        waiter.join(10000);
+        assertFalse(first.isAlive());
+        assertFalse(waiter.isAlive());
+        assertTrue(firstError.get() instanceof StackOverflowError);
+        assertSame(firstError.get(), waiterError.get());
+
+        // The failed request is no longer in flight
+        assertEquals(2, caller.retrieveDataSet(def).getRowCount());
+    }
+
+    private void retrieve(AtomicReference<Throwable> error) {
+        try {
+            caller.retrieveDataSet(def);
+        } catch (Throwable e) {
+            error.set(e);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModified.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        var bytes = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+        exchange.getResponseHeaders().add("ETag", ETAG);
+        exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        exchange.sendResponseHeaders(200, bytes.size());
+        try (var out = exchange.getResponseBody()) {
+            bytes.writeTo(out);
+        }
+    }
+}
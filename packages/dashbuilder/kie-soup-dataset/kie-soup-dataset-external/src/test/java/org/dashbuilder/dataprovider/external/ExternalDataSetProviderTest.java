@@ -15,6 +15,8 @@
  */
 package org.dashbuilder.dataprovider.external;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.dashbuilder.DataSetCore;
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetLookupFactory;
@@ -167,6 +169,48 @@ public class ExternalDataSetProviderTest {
         assertNull(ds);
     }
 
+    @Test
+    public void testCacheSchedulerRefreshesServedDataSet() throws Exception {
+        var retrievals = new AtomicInteger();
+        var delegate = ExternalDataSetCaller.get();
+        var manualScheduler = new ManualScheduler();
+        provider = new ExternalDataSetProvider(new ExternalDataSetCaller() {
+
+            @Override
+            public DataSet retrieveDataSet(ExternalDataSetDef def) {
+                retrievals.incrementAndGet();
+                return delegate.retrieveDataSet(def);
+            }
+
+            @Override
+            public void evict(ExternalDataSetDef def) {
+                delegate.evict(def);
+            }
+        }, DataSetCore.get().getStaticDataSetProvider(), manualScheduler);
+        provider.staticDataSetProvider.removeDataSet(def.getUUID());
+        def.setCacheEnabled(true);
+        def.setRefreshTime("1 second");
+        var taskKey = DataSetInvalidationTask.key(def);
+
+        provider.lookupDataSet(def, null);
+        assertEquals(1, retrievals.get());
+        assertNotNull(manualScheduler.getTaskByKey(taskKey));
+
+        // Every refresh retrieves again the data set served since the last one
+        for (int i = 2; i <= 3; i++) {
+            provider.lookupDataSet(def, null);
+            manualScheduler.runTask(taskKey);
+            assertEquals(i, retrievals.get());
+            dataSet1Check(provider.staticDataSetProvider.lookupDataSet(def, null));
+        }
+
+        // Not served since, so both the data set and its refresh task are removed
+        manualScheduler.runTask(taskKey);
+        assertEquals(3, retrievals.get());
+        assertNull(provider.staticDataSetProvider.lookupDataSet(def, null));
+        assertNull(manualScheduler.getTaskByKey(taskKey));
+    }
+
     @Test
     public void testNoCache() throws Exception {
         provider.lookupDataSet(def, null);
@@ -202,6 +246,26 @@ public class ExternalDataSetProviderTest {
         provider.lookupDataSet(def, null);
     }
 
+    /**
+     * Runs the tasks on demand, as if their delay had just expired.
+     */
+    private static class ManualScheduler extends Scheduler {
+
+        @Override
+        public synchronized void schedule(SchedulerTask task, long seconds) {
+            scheduledTasks.put(task.getKey(), task);
+        }
+
+        @Override
+        public synchronized void unschedule(String key) {
+            scheduledTasks.remove(key);
+        }
+
+        void runTask(String key) {
+            scheduledTasks.get(key).run();
+        }
+    }
+
     private void dataSet1Check(DataSet dataset) {
         assertEquals(5, dataset.getRowCount());
         assertEquals("G1", dataset.getValueAt(0, 0));
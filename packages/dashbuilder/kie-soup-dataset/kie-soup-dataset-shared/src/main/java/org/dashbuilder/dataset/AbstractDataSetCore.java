@@ -16,6 +16,7 @@
 package org.dashbuilder.dataset;
 
 import org.dashbuilder.dataset.engine.Chronometer;
+import org.dashbuilder.dataset.engine.DataSetTaskExecutor;
 import org.dashbuilder.dataset.engine.SharedDataSetOpEngine;
 import org.dashbuilder.dataset.engine.filter.DataSetFilterAlgorithm;
 import org.dashbuilder.dataset.engine.filter.DefaultFilterAlgorithm;
@@ -36,6 +37,7 @@ public abstract class AbstractDataSetCore {
     private SharedDataSetOpEngine sharedDataSetOpEngine;
     private IntervalBuilderLocator intervalBuilderLocator;
     private Chronometer chronometer;
+    private DataSetTaskExecutor taskExecutor;
     private UUIDGenerator uuidGenerator;
     private AggregateFunctionManager aggregateFunctionManager;
     private DataSetIndexRegistry indexRegistry;
@@ -122,6 +124,13 @@ public abstract class AbstractDataSetCore {
         return chronometer;
     }
 
+    public DataSetTaskExecutor getTaskExecutor() {
+        if (taskExecutor == null) {
+            taskExecutor = newTaskExecutor();
+        }
+        return taskExecutor;
+    }
+
     public UUIDGenerator getUuidGenerator() {
         if (uuidGenerator  == null) {
             uuidGenerator = newUuidGenerator();
@@ -167,6 +176,10 @@ public abstract class AbstractDataSetCore {
         this.chronometer = chronometer;
     }
 
+    public void setTaskExecutor(DataSetTaskExecutor taskExecutor) {
+        this.taskExecutor = taskExecutor;
+    }
+
     public void setUuidGenerator(UUIDGenerator uuidGenerator) {
         this.uuidGenerator = uuidGenerator;
     }
@@ -174,13 +187,15 @@ public abstract class AbstractDataSetCore {
     // Factory methods for default known implementations
 
     protected SharedDataSetOpEngine newSharedDataSetOpEngine() {
-        return new SharedDataSetOpEngine(
+        SharedDataSetOpEngine engine = new SharedDataSetOpEngine(
                 checkNotNull(getAggregateFunctionManager(), "AggregateFunctionManager"),
                 checkNotNull(getIntervalBuilderLocator(), "IntervalBuilderLocator"),
                 checkNotNull(getIndexRegistry(), "DataSetIndexRegistry"),
                 checkNotNull(getSortAlgorithm(), "DataSetSortAlgorithm"),
                 checkNotNull(getFilterAlgorithm(), "DataSetFilterAlgorithm"),
                 checkNotNull(getChronometer(), "Chronometer"));
+        engine.setTaskExecutor(getTaskExecutor());
+        return engine;
     }
 
     protected AggregateFunctionManager newAggregateFunctionManager() {
@@ -192,6 +207,13 @@ public abstract class AbstractDataSetCore {
                 checkNotNull(getUuidGenerator(), "UUIDGenerator"));
     }
 
+    /**
+     * No parallel execution by default.
+     */
+    protected DataSetTaskExecutor newTaskExecutor() {
+        return null;
+    }
+
     protected DataSetSortAlgorithm newSortAlgorithm() {
         return new CollectionsDataSetSort();
     }
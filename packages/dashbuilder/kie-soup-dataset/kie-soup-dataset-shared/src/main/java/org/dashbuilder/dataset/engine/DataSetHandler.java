@@ -15,6 +15,7 @@
  */
 package org.dashbuilder.dataset.engine;
 
+import org.dashbuilder.dataset.engine.index.DataSetDateRollup;
 import org.dashbuilder.dataset.filter.DataSetFilter;
 import org.dashbuilder.dataset.group.DataSetGroup;
 import org.dashbuilder.dataset.sort.DataSetSort;
@@ -28,4 +29,11 @@ public interface DataSetHandler extends DataSetRowSet {
     DataSetHandler filter(DataSetFilter op);
     DataSetHandler sort(DataSetSort op);
 
+    /**
+     * Get the date rollup of the given DATE column over the rows of this handler.
+     * @return The rollup or <tt>null</tt> if rollups are not available.
+     */
+    default DataSetDateRollup getDateRollup(String columnId) {
+        return null;
+    }
 }
\ No newline at end of file
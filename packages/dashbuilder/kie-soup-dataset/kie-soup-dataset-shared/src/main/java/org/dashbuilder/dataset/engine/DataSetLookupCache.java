@@ -0,0 +1,200 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.engine.index.DataSetIndex;
+
+/**
+ * Cache of data set lookup results.
+ *
+ * <p>Identical lookups (same data set, operations and page) are calculated only once. Every lookup gets its own
+ * copy of the result, so callers (data set post processors for instance) are free to modify it without altering
+ * the cached one. Results are bound to the index of the data set they were calculated from
+ * and they are discarded as soon as the data set is registered again. The cache is bounded by the estimated
+ * size of the results and the least recently used ones are evicted first.</p>
+ */
+public class DataSetLookupCache {
+
+    public static final long NO_LIMIT = -1;
+    public static final long DEFAULT_MAX_SIZE = 10 * 1024 * 1024;
+
+    protected Map<DataSetLookup, Entry> entryMap = new LinkedHashMap<DataSetLookup, Entry>(16, 0.75f, true);
+    protected long maxSize = DEFAULT_MAX_SIZE;
+    protected long size = 0;
+
+    protected long hitCount = 0;
+    protected long missCount = 0;
+    protected long evictionCount = 0;
+
+    /**
+     * Get the result of a lookup.
+     * @param lookup The lookup (once preprocessed).
+     * @param index The current index of the data set looked up.
+     * @return A copy of the cached result or null if the lookup has not been cached for the given index.
+     */
+    public synchronized DataSet get(DataSetLookup lookup, DataSetIndex index) {
+        Entry entry = entryMap.get(lookup);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        if (entry.index != index) {
+            removeEntry(lookup);
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return copyOf(entry.result);
+    }
+
+    /**
+     * Cache the result of a lookup.
+     * @param lookup The lookup (once preprocessed). A copy is kept, so it can be modified afterwards.
+     * @param index The index of the data set the result has been calculated from.
+     * @param result The lookup result. A copy is kept, so it can be modified afterwards.
+     */
+    public synchronized void put(DataSetLookup lookup, DataSetIndex index, DataSet result) {
+        if (maxSize == 0 || result == null) {
+            return;
+        }
+        long resultSize = result.getEstimatedSize();
+        if (maxSize > 0 && resultSize > maxSize) {
+            return;
+        }
+        DataSetLookup key = lookup.cloneInstance();
+        removeEntry(key);
+        entryMap.put(key, new Entry(index, copyOf(result), resultSize));
+        size += resultSize;
+
+        // Evict the least recently used results
+        Iterator<Entry> it = entryMap.values().iterator();
+        while (maxSize > 0 && size > maxSize && it.hasNext()) {
+            size -= it.next().size;
+            it.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Discard the results of the lookups on the given data set.
+     */
+    public synchronized void invalidate(String uuid) {
+        List<DataSetLookup> keys = new ArrayList<DataSetLookup>();
+        for (DataSetLookup key : entryMap.keySet()) {
+            if (key.getDataSetUUID().equals(uuid)) {
+                keys.add(key);
+            }
+        }
+        for (DataSetLookup key : keys) {
+            removeEntry(key);
+        }
+    }
+
+    public synchronized void clear() {
+        entryMap.clear();
+        size = 0;
+    }
+
+    protected DataSet copyOf(DataSet result) {
+        DataSet copy = result.cloneInstance();
+        copy.setUUID(result.getUUID());
+        copy.setDefinition(result.getDefinition());
+        copy.setCreationDate(result.getCreationDate());
+        copy.setRowCountNonTrimmed(result.getRowCountNonTrimmed());
+        return copy;
+    }
+
+    protected void removeEntry(DataSetLookup key) {
+        Entry entry = entryMap.remove(key);
+        if (entry != null) {
+            size -= entry.size;
+        }
+    }
+
+    protected static class Entry {
+
+        DataSetIndex index;
+        DataSet result;
+        long size;
+
+        Entry(DataSetIndex index, DataSet result, long size) {
+            this.index = index;
+            this.result = result;
+            this.size = size;
+        }
+    }
+
+    // Settings
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @param maxSize Max memory (in bytes) consumed by the cached results or {@link #NO_LIMIT}. Zero disables the
+     * cache.
+     */
+    public synchronized void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+        if (maxSize >= 0) {
+            clear();
+        }
+    }
+
+    // Metrics
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Ratio of lookups served from the cache.
+     */
+    public double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Number of results evicted because the cache exceeded its max size.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Estimated memory (in bytes) consumed by the cached results.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    public int getEntryCount() {
+        return entryMap.size();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine;
+
+import java.util.List;
+
+/**
+ * Runs the engine tasks that can be processed in parallel, like the grouping or the aggregation of large row sets.
+ * <p>Operations are split in as many row partitions as indicated by {@link #getPartitions(int)}, one task per
+ * partition, and the partial results are merged afterwards.</p>
+ */
+public interface DataSetTaskExecutor {
+
+    /**
+     * Get the number of partitions the given number of rows should be split into.
+     * @param rows The number of rows to process.
+     * @return The number of partitions, 1 if the rows should be processed sequentially.
+     */
+    int getPartitions(int rows);
+
+    /**
+     * Run all the tasks and wait for their completion.
+     * @return The results of every task in the same order as the tasks were given.
+     */
+    <T> List<T> invokeAll(List<Task<T>> tasks);
+
+    /**
+     * A task to run
+     */
+    interface Task<T> {
+
+        T execute();
+    }
+}
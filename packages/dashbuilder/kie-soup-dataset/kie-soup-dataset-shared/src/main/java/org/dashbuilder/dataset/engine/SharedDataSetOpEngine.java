@@ -15,21 +15,35 @@
  */
 package org.dashbuilder.dataset.engine;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.dashbuilder.dataset.ColumnType;
 import org.dashbuilder.dataset.DataColumn;
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.DataSetOp;
 import org.dashbuilder.dataset.DataSetOpEngine;
 import org.dashbuilder.dataset.DataSetOpType;
+import org.dashbuilder.dataset.date.TimeFrame;
 import org.dashbuilder.dataset.engine.filter.DataSetFilterAlgorithm;
+import org.dashbuilder.dataset.engine.filter.DataSetFilterPlanner;
+import org.dashbuilder.dataset.engine.function.MergeableAggregateFunction;
 import org.dashbuilder.dataset.engine.group.IntervalBuilder;
+import org.dashbuilder.dataset.engine.group.IntervalBuilderDynamicLabel;
 import org.dashbuilder.dataset.engine.group.IntervalBuilderLocator;
 import org.dashbuilder.dataset.engine.group.IntervalList;
+import org.dashbuilder.dataset.engine.group.MergeableIntervalBuilder;
+import org.dashbuilder.dataset.engine.index.DataSetDateRollup;
 import org.dashbuilder.dataset.engine.index.DataSetFilterIndex;
+import org.dashbuilder.dataset.engine.index.DataSetFunctionIndex;
 import org.dashbuilder.dataset.engine.index.DataSetGroupIndex;
 import org.dashbuilder.dataset.engine.index.DataSetIndex;
 import org.dashbuilder.dataset.engine.index.DataSetIndexNode;
@@ -37,9 +51,14 @@ import org.dashbuilder.dataset.engine.index.DataSetIntervalIndex;
 import org.dashbuilder.dataset.engine.index.DataSetIntervalSetIndex;
 import org.dashbuilder.dataset.engine.index.DataSetSortIndex;
 import org.dashbuilder.dataset.engine.index.DataSetStaticIndex;
+import org.dashbuilder.dataset.engine.index.RowSet;
 import org.dashbuilder.dataset.engine.index.spi.DataSetIndexRegistry;
+import org.dashbuilder.dataset.engine.metrics.DataSetEngineListener;
+import org.dashbuilder.dataset.engine.metrics.DataSetEngineOp;
 import org.dashbuilder.dataset.engine.sort.DataSetSortAlgorithm;
 import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.dashbuilder.dataset.filter.CoreFunctionFilter;
+import org.dashbuilder.dataset.filter.CoreFunctionType;
 import org.dashbuilder.dataset.filter.DataSetFilter;
 import org.dashbuilder.dataset.group.AggregateFunction;
 import org.dashbuilder.dataset.group.AggregateFunctionManager;
@@ -52,6 +71,7 @@ import org.dashbuilder.dataset.group.Interval;
 import org.dashbuilder.dataset.impl.DataColumnImpl;
 import org.dashbuilder.dataset.sort.ColumnSort;
 import org.dashbuilder.dataset.sort.DataSetSort;
+import org.dashbuilder.dataset.sort.SortOrder;
 import org.dashbuilder.dataset.sort.SortedList;
 
 /**
@@ -65,6 +85,27 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
     protected DataSetSortAlgorithm sortAlgorithm;
     protected DataSetFilterAlgorithm filterAlgorithm;
     protected Chronometer chronometer;
+    protected DataSetTaskExecutor taskExecutor;
+    protected List<DataSetEngineListener> listeners = new ArrayList<DataSetEngineListener>();
+    protected long slowLookupThreshold = -1;
+    protected boolean dateRollupEnabled = false;
+    protected boolean filterPlanningEnabled = false;
+    protected DataSetFilterPlanner filterPlanner;
+
+    /**
+     * Only the first rows are sorted if they are less than 1/TOP_K_RATIO of the rows to sort.
+     */
+    public static final int TOP_K_RATIO = 4;
+
+    /**
+     * Aggregate functions whose indexed values are updated, instead of discarded, when new rows are appended.
+     */
+    protected static final Set<AggregateFunctionType> INCREMENTAL_FUNCTIONS = EnumSet.of(
+            AggregateFunctionType.COUNT,
+            AggregateFunctionType.SUM,
+            AggregateFunctionType.MIN,
+            AggregateFunctionType.MAX,
+            AggregateFunctionType.AVERAGE);
 
     public SharedDataSetOpEngine(AggregateFunctionManager aggregateFunctionManager,
                                  IntervalBuilderLocator intervalBuilderLocator,
@@ -79,12 +120,165 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
         this.sortAlgorithm = sortAlgorithm;
         this.filterAlgorithm = filterAlgorithm;
         this.chronometer = chronometer;
+        this.filterPlanner = new DataSetFilterPlanner(aggregateFunctionManager);
     }
 
     public DataSetIndexRegistry getIndexRegistry() {
         return indexRegistry;
     }
 
+    public DataSetTaskExecutor getTaskExecutor() {
+        return taskExecutor;
+    }
+
+    /**
+     * Set the executor used to group and aggregate large row sets in parallel.
+     * If <tt>null</tt> (the default) all the operations are executed sequentially.
+     */
+    public void setTaskExecutor(DataSetTaskExecutor taskExecutor) {
+        this.taskExecutor = taskExecutor;
+    }
+
+    public List<DataSetEngineListener> getListeners() {
+        return listeners;
+    }
+
+    /**
+     * Register a listener to receive the measures taken on every lookup (time, rows and index hits per operation).
+     * No measures are taken while there are no listeners.
+     */
+    public synchronized void addListener(DataSetEngineListener listener) {
+        List<DataSetEngineListener> newListeners = new ArrayList<DataSetEngineListener>(listeners);
+        newListeners.add(listener);
+        listeners = newListeners;
+    }
+
+    public synchronized void removeListener(DataSetEngineListener listener) {
+        List<DataSetEngineListener> newListeners = new ArrayList<DataSetEngineListener>(listeners);
+        newListeners.remove(listener);
+        listeners = newListeners;
+    }
+
+    public long getSlowLookupThreshold() {
+        return slowLookupThreshold;
+    }
+
+    /**
+     * @param slowLookupThreshold Time (in milliseconds) from which a lookup is notified to the listeners as slow
+     * or <tt>-1</tt> to not flag any lookup as slow.
+     */
+    public void setSlowLookupThreshold(long slowLookupThreshold) {
+        this.slowLookupThreshold = slowLookupThreshold;
+    }
+
+    public boolean isDateRollupEnabled() {
+        return dateRollupEnabled;
+    }
+
+    /**
+     * Enable the date rollups (disabled by default). Dynamic date groups get their intervals from a rollup of the
+     * date column, built once per index node, instead of comparing the dates row by row. The COUNT, SUM, MIN, MAX
+     * and AVERAGE values of such intervals are got by merging the partial states of the rollup buckets, and the
+     * TIME_FRAME filters over a column already rolled up just pick the rows within the time frame.
+     */
+    public void setDateRollupEnabled(boolean dateRollupEnabled) {
+        this.dateRollupEnabled = dateRollupEnabled;
+    }
+
+    public boolean isFilterPlanningEnabled() {
+        return filterPlanningEnabled;
+    }
+
+    /**
+     * Enable the filter planning (disabled by default). The filters of a filter operation are applied in the order
+     * decided by the {@link DataSetFilterPlanner} instead of in the order requested: filters already indexed first
+     * and then the most selective ones, so the same filters requested in any order share their filter indexes.
+     */
+    public void setFilterPlanningEnabled(boolean filterPlanningEnabled) {
+        this.filterPlanningEnabled = filterPlanningEnabled;
+    }
+
+    public DataSetFilterPlanner getFilterPlanner() {
+        return filterPlanner;
+    }
+
+    public void setFilterPlanner(DataSetFilterPlanner filterPlanner) {
+        this.filterPlanner = filterPlanner;
+    }
+
+    /**
+     * Get the number of partitions to split the given number of rows into.
+     */
+    protected int getPartitions(int rows) {
+        return taskExecutor == null ? 1 : taskExecutor.getPartitions(rows);
+    }
+
+    /**
+     * Split the given rows into consecutive partitions.
+     * @param rows The rows to split or <tt>null</tt> for all the data set rows.
+     * @param total The number of rows.
+     */
+    protected List<List<Integer>> partition(List<Integer> rows, int total, int partitions) {
+        List<List<Integer>> result = new ArrayList<List<Integer>>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            final int from = (int) ((long) total * i / partitions);
+            final int to = (int) ((long) total * (i + 1) / partitions);
+            if (rows instanceof RowSet) {
+                // Positional access on a row set is not constant time
+                result.add(((RowSet) rows).slice(from, to));
+            } else if (rows != null) {
+                result.add(rows.subList(from, to));
+            } else {
+                result.add(new AbstractList<Integer>() {
+                    public Integer get(int index) {
+                        return from + index;
+                    }
+                    public int size() {
+                        return to - from;
+                    }
+                });
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calculate the aggregate value of the given rows. Large row sets are aggregated in parallel if the function
+     * supports partial (mergeable) calculations.
+     */
+    protected Object aggregate(AggregateFunction function, final List values, List<Integer> rows) {
+        int total = rows == null ? values.size() : rows.size();
+        int partitions = function instanceof MergeableAggregateFunction ? getPartitions(total) : 1;
+        if (partitions <= 1) {
+            return function.aggregate(values, rows);
+        }
+        MergeableAggregateFunction mergeable = (MergeableAggregateFunction) function;
+        return mergeable.getResult(accumulate(mergeable, values, rows));
+    }
+
+    /**
+     * Calculate the partial state of a mergeable function for the given rows (in parallel if they are large).
+     * @param rows The rows to aggregate or <tt>null</tt> for all the values.
+     */
+    protected Object accumulate(final MergeableAggregateFunction function, final List values, List<Integer> rows) {
+        int total = rows == null ? values.size() : rows.size();
+        int partitions = Math.max(1, getPartitions(total));
+        List<List<Integer>> partitionList = partition(rows, total, partitions);
+        if (partitions == 1) {
+            return function.accumulate(values, partitionList.get(0));
+        }
+        List<DataSetTaskExecutor.Task<Object>> tasks = new ArrayList<DataSetTaskExecutor.Task<Object>>();
+        for (final List<Integer> partition : partitionList) {
+            tasks.add(() -> function.accumulate(values, partition));
+        }
+        List<Object> states = taskExecutor.invokeAll(tasks);
+        Object state = states.get(0);
+        for (int i = 1; i < states.size(); i++) {
+            state = function.merge(state, states.get(i));
+        }
+        return state;
+    }
+
     public DataSet execute(DataSet dataSet, List<DataSetOp> opList) {
         DataSetOpListProcessor processor = new DataSetOpListProcessor();
         DataSetStaticIndex index = new DataSetStaticIndex(dataSet);
@@ -102,19 +296,97 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
         return processor.getDataSet();
     }
 
+    /**
+     * Apply the operations and get only the requested page of the resulting data set. It is equivalent to
+     * <tt>execute(uuid, opList).trim(rowOffset, numberOfRows)</tt> but, when the last operation is a sort,
+     * only the rows up to the requested page get sorted.
+     * @param rowOffset The first row to get
+     * @param numberOfRows The number of rows to get or <tt>-1</tt> to get all of them
+     */
+    public DataSet execute(String uuid, List<DataSetOp> opList, int rowOffset, int numberOfRows) {
+        DataSetOpListProcessor processor = new DataSetOpListProcessor();
+        processor.setDataSetIndex(indexRegistry.get(uuid));
+        processor.setOperationList(opList);
+        processor.setPage(rowOffset, numberOfRows);
+        processor.run();
+        return processor.getDataSet();
+    }
+
+    /**
+     * Update the indexes of a data set after adding new rows at its end, so they do not need to be built again.
+     * <ul>
+     * <li>Filter indexes get the new rows passing the filter.</li>
+     * <li>Label group indexes get the new rows into their intervals (or into new ones).</li>
+     * <li>The COUNT, SUM, MIN, MAX and AVERAGE values get merged with the ones of the new rows.</li>
+     * </ul>
+     * <p>Any other index (sorts, non label groups, median, ...) is discarded, so it gets built again by the
+     * next lookup requiring it.</p>
+     * @param uuid The data set uuid
+     * @param rows The rows appended to the data set, in ascending order
+     */
+    public void append(String uuid, List<Integer> rows) {
+        DataSetIndex index = indexRegistry.get(uuid);
+        if (index == null || rows == null || rows.isEmpty()) {
+            return;
+        }
+        RowSet newRows = RowSet.valueOf(rows);
+        if (newRows == null) {
+            throw new IllegalArgumentException("The rows appended must be in ascending order");
+        }
+        DataSetOpListProcessor processor = new DataSetOpListProcessor();
+        processor.setDataSetIndex(index);
+        synchronized (index) {
+            processor.append(index, newRows);
+        }
+    }
+
+    /**
+     * Get the number of sorted rows required to get the given page. A sort of just the first rows is only worth
+     * if they are a small part of the rows to sort.
+     * @return The number of rows or <tt>-1</tt> if all the rows should be sorted.
+     */
+    protected int getSortLimit(int rowOffset, int numberOfRows, int totalRows) {
+        if (numberOfRows <= 0) {
+            return -1;
+        }
+        long limit = (long) rowOffset + numberOfRows;
+        return limit * TOP_K_RATIO > totalRows ? -1 : (int) limit;
+    }
+
     private class DataSetOpListProcessor implements Runnable {
 
         List<DataSetOp> operationList;
         InternalContext context;
+        String uuid;
+        int rowOffset = 0;
+        int numberOfRows = -1;
+        boolean paged = false;
+        boolean trimmed = false;
+
+        // Measures (only taken if there are listeners)
+        List<DataSetEngineListener> listeners;
+        boolean measured = false;
+        int builds = 0;
+        long aggTime = 0;
+        int aggRows = 0;
+        int aggValues = 0;
+        int aggBuilds = 0;
 
         public void setDataSetIndex(DataSetIndex index) {
             context = new InternalContext(index);
+            uuid = index.getDataSet().getUUID();
         }
 
         public void setOperationList(List<DataSetOp> opList) {
             operationList = new ArrayList<DataSetOp>(opList);
         }
 
+        public void setPage(int rowOffset, int numberOfRows) {
+            this.rowOffset = rowOffset;
+            this.numberOfRows = numberOfRows;
+            this.paged = true;
+        }
+
         /**
          * Ensure the sequence of operations to apply match the following pattern:
          * <ul>
@@ -145,7 +417,43 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
             if (context == null) {
                 throw new IllegalStateException("Data set missing");
             }
+            listeners = SharedDataSetOpEngine.this.listeners;
+            measured = !listeners.isEmpty();
+            if (!measured) {
+                apply();
+                return;
+            }
+            int rowsIn = getRowCount(context);
+            long start = chronometer.start();
+            apply();
+            long time = chronometer.stop() - start;
+
+            DataSetLookup lookup = new DataSetLookup(uuid);
+            for (DataSetOp op : operationList) {
+                lookup.addOperation(op.cloneInstance());
+            }
+            if (paged) {
+                lookup.setRowOffset(rowOffset);
+                lookup.setNumberOfRows(numberOfRows);
+            }
+            boolean slow = slowLookupThreshold >= 0 && time >= slowLookupThreshold * 1000000;
+            for (DataSetEngineListener listener : listeners) {
+                listener.onLookup(lookup, time, rowsIn, context.dataSet.getRowCount(), slow);
+            }
+        }
+
+        protected void fireOperation(DataSetEngineOp op, long time, int rowsIn, int rowsOut, boolean indexHit) {
+            for (DataSetEngineListener listener : listeners) {
+                listener.onOperation(uuid, op, time, rowsIn, rowsOut, indexHit);
+            }
+        }
 
+        protected int getRowCount(InternalContext context) {
+            List<Integer> rows = context.getRows();
+            return rows == null ? context.dataSet.getRowCount() : rows.size();
+        }
+
+        protected void apply() {
             checkOpList(operationList);
 
             boolean group = false;
@@ -164,19 +472,34 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
                         group = true;
                         context.lastOperation = op;
                     } else {
+                        int rowsIn = measured ? getRowCount(context) : 0;
+                        int lastBuilds = builds;
+                        long start = measured ? chronometer.start() : 0;
                         if (group(gOp, context)) {
                             // The group will be required if is not an interval selection
                             group = !context.getLastGroupOp().isSelect();
                             context.lastOperation = op;
                         }
+                        if (measured) {
+                            long time = chronometer.stop() - start;
+                            int intervals = context.lastGroupIndex == null ? 0 : context.lastGroupIndex.getIntervalIndexes().size();
+                            fireOperation(DataSetEngineOp.GROUP, time, rowsIn, intervals, builds == lastBuilds);
+                        }
                     }
                 }
                 else if (DataSetOpType.FILTER.equals(op.getType())) {
                     if (group) throw new IllegalStateException("Filter operations must be applied ALWAYS BEFORE GROUP.");
                     if (sort) throw new IllegalStateException("Sort operations must be applied ALWAYS AFTER FILTER.");
 
+                    int rowsIn = measured ? getRowCount(context) : 0;
+                    int lastBuilds = builds;
+                    long start = measured ? chronometer.start() : 0;
                     filter((DataSetFilter) op, context);
                     context.lastOperation = op;
+                    if (measured) {
+                        long time = chronometer.stop() - start;
+                        fireOperation(DataSetEngineOp.FILTER, time, rowsIn, getRowCount(context), builds == lastBuilds);
+                    }
                 }
                 else if (DataSetOpType.SORT.equals(op.getType())) {
                     if (sort) throw new IllegalStateException("Sort can only be executed once.");
@@ -186,8 +509,15 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
                     }
 
                     sort = true;
+                    int rowsIn = measured ? getRowCount(context) : 0;
+                    int lastBuilds = builds;
+                    long start = measured ? chronometer.start() : 0;
                     sort((DataSetSort) op, context);
                     context.lastOperation = op;
+                    if (measured) {
+                        long time = chronometer.stop() - start;
+                        fireOperation(DataSetEngineOp.SORT, time, rowsIn, context.getRows().size(), builds == lastBuilds);
+                    }
                 }
                 else {
                     throw new IllegalArgumentException("Unsupported operation: " + op.getClass().getName());
@@ -196,6 +526,11 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
 
             // Build the resulting data set
             buildDataSet(context);
+
+            // Get the page requested (if not already done by the sort)
+            if (paged && !trimmed) {
+                context.dataSet = context.dataSet.trim(rowOffset, numberOfRows);
+            }
         }
 
         // GROUP OPERATION
@@ -249,7 +584,8 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
 
             // No index => Build required
             if (context.index == null) {
-                IntervalList intervalList = intervalBuilder.build(new InternalHandler(context), columnGroup);
+                builds++;
+                IntervalList intervalList = buildIntervals(intervalBuilder, context, columnGroup);
                 return new DataSetGroupIndex(columnGroup, intervalList);
             }
             // Index match => Reuse it
@@ -257,15 +593,47 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
             if (groupIndex != null) {
                 return groupIndex;
             }
-            // No index match => Build required
-            chronometer.start();
-            IntervalList intervalList = intervalBuilder.build(new InternalHandler(context), columnGroup);
-            chronometer.stop();
+            // No index match => Build required (unless a concurrent lookup is already building it)
+            DataSetIndexNode node = context.index;
+            Object buildLock = node.acquireBuildLock(node.getGroupKey(columnGroup));
+            try {
+                synchronized (buildLock) {
+                    groupIndex = node.getGroupIndex(columnGroup);
+                    if (groupIndex != null) {
+                        return groupIndex;
+                    }
+                    builds++;
+                    long start = chronometer.start();
+                    IntervalList intervalList = buildIntervals(intervalBuilder, context, columnGroup);
+                    long buildTime = chronometer.stop() - start;
+
+                    // Index before return.
+                    DataSetGroupIndex index = new DataSetGroupIndex(columnGroup, intervalList);
+                    index.setBuildTime(buildTime);
+                    return node.indexGroup(index);
+                }
+            } finally {
+                node.releaseBuildLock(buildLock);
+            }
+        }
 
-            // Index before return.
-            DataSetGroupIndex index = new DataSetGroupIndex(columnGroup, intervalList);
-            index.setBuildTime(chronometer.elapsedTime());
-            return context.index.indexGroup(index);
+        /**
+         * Build the group intervals. Large row sets are split into partitions that are grouped in parallel
+         * if the interval builder is able to merge the partial results.
+         */
+        protected IntervalList buildIntervals(IntervalBuilder intervalBuilder, InternalContext context, ColumnGroup columnGroup) {
+            List<Integer> rows = context.getRows();
+            int total = rows == null ? context.dataSet.getRowCount() : rows.size();
+            int partitions = intervalBuilder instanceof MergeableIntervalBuilder ? getPartitions(total) : 1;
+            if (partitions <= 1) {
+                return intervalBuilder.build(new InternalHandler(context), columnGroup);
+            }
+            List<DataSetTaskExecutor.Task<IntervalList>> tasks = new ArrayList<DataSetTaskExecutor.Task<IntervalList>>();
+            for (List<Integer> partition : partition(rows, total, partitions)) {
+                final InternalHandler handler = new InternalHandler(context, partition);
+                tasks.add(() -> intervalBuilder.build(handler, columnGroup));
+            }
+            return ((MergeableIntervalBuilder) intervalBuilder).merge(taskExecutor.invokeAll(tasks));
         }
 
         protected DataSetGroupIndex nestedGroup(DataSetGroup op, DataSetGroupIndex lastGroupIndex, InternalContext context) {
@@ -274,8 +642,25 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
             DataSetGroupIndex nestedGroupIndex = lastGroupIndex.getGroupIndex(op.getColumnGroup());
             if (nestedGroupIndex != null) return nestedGroupIndex;
 
-            // No index match => Create a brand new group index
-            nestedGroupIndex = new DataSetGroupIndex(op.getColumnGroup());
+            // No index match => Build required (unless a concurrent lookup is already building it)
+            Object buildLock = lastGroupIndex.acquireBuildLock(lastGroupIndex.getGroupKey(op.getColumnGroup()));
+            try {
+                synchronized (buildLock) {
+                    nestedGroupIndex = lastGroupIndex.getGroupIndex(op.getColumnGroup());
+                    if (nestedGroupIndex != null) return nestedGroupIndex;
+                    return buildNestedGroup(op, lastGroupIndex, context);
+                }
+            } finally {
+                lastGroupIndex.releaseBuildLock(buildLock);
+            }
+        }
+
+        protected DataSetGroupIndex buildNestedGroup(DataSetGroup op, DataSetGroupIndex lastGroupIndex, InternalContext context) {
+
+            // Create a brand new group index
+            builds++;
+            long start = chronometer.start();
+            DataSetGroupIndex nestedGroupIndex = new DataSetGroupIndex(op.getColumnGroup());
 
             // Apply the nested group operation on each parent group interval.
             InternalContext nestedContext = new InternalContext(context.dataSet, null);
@@ -298,6 +683,7 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
                     nestedGroupIndex.indexIntervals(sg.getIntervalIndexes());
                 }
             }
+            nestedGroupIndex.setBuildTime(chronometer.stop() - start);
             context.index.indexGroup(nestedGroupIndex);
             return nestedGroupIndex;
         }
@@ -326,6 +712,46 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
             return groupIndex;
         }
 
+        // DATE ROLLUPS
+
+        /**
+         * Get the rollup of a date column over the rows of the given node (built and indexed if not done yet).
+         * @return The rollup or null if the column is not a date or there is no index node.
+         */
+        protected DataSetDateRollup getDateRollup(String columnId, InternalContext context) {
+            DataSetIndexNode node = context.index;
+            DataColumn column = context.dataSet.getColumnById(columnId);
+            if (node == null || column == null || !ColumnType.DATE.equals(column.getColumnType())) {
+                return null;
+            }
+            // Index match => Reuse it
+            DataSetDateRollup rollup = node.getDateRollup(columnId);
+            if (rollup != null) {
+                return rollup;
+            }
+            // No index match => Build required (unless a concurrent lookup is already building it)
+            Object buildLock = node.acquireBuildLock("dateRollup_" + columnId);
+            try {
+                synchronized (buildLock) {
+                    rollup = node.getDateRollup(columnId);
+                    if (rollup == null) {
+                        builds++;
+                        long start = chronometer.start();
+                        DataSetSort sortOp = new DataSetSort();
+                        sortOp.addSortColumn(new ColumnSort(columnId, SortOrder.ASCENDING));
+                        InternalContext sortContext = new InternalContext(context.dataSet, node);
+                        sort(sortOp, sortContext, -1);
+                        rollup = new DataSetDateRollup(columnId, column.getValues(), sortContext.getRows(), 0);
+                        rollup.setBuildTime(chronometer.stop() - start);
+                        node.indexDateRollup(rollup);
+                    }
+                }
+            } finally {
+                node.releaseBuildLock(buildLock);
+            }
+            return rollup;
+        }
+
         // FILTER OPERATION
 
         protected void checkFilterOp(DataSet dataSet, DataSetFilter op) {
@@ -344,28 +770,194 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
                 return;
             }
 
-            // Process the filter requests.
-            for (ColumnFilter filter : op.getColumnFilterList()) {
+            // Process the filter requests (in the order decided by the planner, if enabled).
+            List<ColumnFilter> filterList = op.getColumnFilterList();
+            if (!filterPlanningEnabled || filterPlanner == null || filterList.size() < 2 || context.index == null) {
+                for (ColumnFilter filter : filterList) {
+                    filter(op, filter, context);
+                }
+                return;
+            }
+            List<ColumnFilter> pending = new ArrayList<ColumnFilter>(filterList);
+            while (!pending.isEmpty()) {
+                ColumnFilter filter = filterPlanner.next(context.dataSet, context.index, pending);
+                pending.remove(filter);
+                filter(op, filter, context);
+            }
+        }
 
-                // No index => Filter required
-                if (context.index == null) {
-                    List<Integer> rows = filterAlgorithm.filter(new InternalHandler(context), filter);
-                    context.index(op, new DataSetFilterIndex(filter, rows));
-                    continue;
+        protected void filter(DataSetFilter op, ColumnFilter filter, InternalContext context) {
+            // No index => Filter required
+            if (context.index == null) {
+                builds++;
+                List<Integer> rows = filterAlgorithm.filter(new InternalHandler(context), filter);
+                context.index(op, new DataSetFilterIndex(filter, rows));
+                return;
+            }
+            // Index match => Reuse it
+            DataSetFilterIndex index = context.index.getFilterIndex(filter);
+            if (index != null) {
+                context.index(op, index);
+                return;
+            }
+            // No index match => Filter required (unless a concurrent lookup is already applying it)
+            DataSetIndexNode node = context.index;
+            Object buildLock = node.acquireBuildLock(filter);
+            try {
+                synchronized (buildLock) {
+                    index = node.getFilterIndex(filter);
+                    if (index == null) {
+                        builds++;
+                        long start = chronometer.start();
+                        List<Integer> rows = intersectFilterIndex(node, filter);
+                        if (rows == null) {
+                            rows = filterTimeFrame(node, filter);
+                        }
+                        if (rows == null) {
+                            rows = filterAlgorithm.filter(new InternalHandler(context), filter);
+                        }
+                        long buildTime = chronometer.stop() - start;
+                        index = node.indexFilter(filter, rows, buildTime);
+                    }
                 }
-                // Index match => Reuse it
-                DataSetFilterIndex index = context.index.getFilterIndex(filter);
-                if (index != null) {
-                    context.index(op, index);
+            } finally {
+                node.releaseBuildLock(buildLock);
+            }
+            // Index before continue.
+            context.index(op, index);
+        }
+
+        /**
+         * If the filter has already been applied to the whole data set then the rows of the current node are
+         * just intersected with the rows of such filter (bitmap AND).
+         * @return The filtered rows or null if the intersection is not possible.
+         */
+        protected List<Integer> intersectFilterIndex(DataSetIndexNode node, ColumnFilter filter) {
+            if (!(node.getRows() instanceof RowSet)) {
+                return null;
+            }
+            DataSetIndexNode root = node;
+            while (root.getParent() != null) {
+                root = root.getParent();
+            }
+            DataSetFilterIndex rootIndex = root != node ? root.getFilterIndex(filter) : null;
+            if (rootIndex == null || !(rootIndex.getRows() instanceof RowSet)) {
+                return null;
+            }
+            return ((RowSet) node.getRows()).and((RowSet) rootIndex.getRows());
+        }
+
+        /**
+         * If the filter is a time frame over a date column already rolled up then the rows within the time frame
+         * are picked from the rollup.
+         * @return The filtered rows or null if no rollup is available.
+         */
+        protected List<Integer> filterTimeFrame(DataSetIndexNode node, ColumnFilter filter) {
+            if (!dateRollupEnabled || !(filter instanceof CoreFunctionFilter)) {
+                return null;
+            }
+            CoreFunctionFilter coreFilter = (CoreFunctionFilter) filter;
+            if (!CoreFunctionType.TIME_FRAME.equals(coreFilter.getType()) || coreFilter.getParameters().isEmpty()) {
+                return null;
+            }
+            // Filter results must be in ascending order
+            if (node.getRows() != null && !(node.getRows() instanceof RowSet)) {
+                return null;
+            }
+            DataSetDateRollup rollup = node.getDateRollup(coreFilter.getColumnId());
+            Object expr = coreFilter.getParameters().get(0);
+            TimeFrame timeFrame = rollup == null || expr == null ? null : TimeFrame.parse(expr.toString());
+            if (timeFrame == null) {
+                return null;
+            }
+            // Both limits are inclusive
+            long from = timeFrame.getFrom().getTimeInstant().getTime();
+            long to = timeFrame.getTo().getTimeInstant().getTime();
+            return rollup.getRowSet(from, to + 1);
+        }
+
+        // APPEND OPERATION
+
+        protected void append(DataSetIndexNode node, RowSet newRows) {
+            if (newRows.isEmpty()) {
+                return;
+            }
+            node.removeSortIndexes();
+            node.removeDateRollups();
+            appendAggValues(node, newRows);
+
+            for (DataSetFilterIndex filterIndex : node.getFilterIndexes()) {
+                List<Integer> rows = filterAlgorithm.filter(new InternalHandler(context, newRows), filterIndex.getColumnFilter());
+                RowSet filterRows = RowSet.valueOf(rows);
+                if (filterRows == null || !filterIndex.appendRows(filterRows)) {
+                    node.removeIndex(filterIndex);
+                } else {
+                    append(filterIndex, filterRows);
+                }
+            }
+            for (DataSetGroupIndex groupIndex : node.getGroupIndexes()) {
+                if (!appendIntervals(groupIndex, newRows)) {
+                    node.removeIndex(groupIndex);
+                }
+            }
+        }
+
+        /**
+         * Classify the new rows into the intervals of a group. Only label groups can be updated as the intervals
+         * of any other group depend on the values of the whole data set.
+         * @return <tt>false</tt> if the group can not be updated.
+         */
+        protected boolean appendIntervals(DataSetGroupIndex groupIndex, RowSet newRows) {
+            ColumnGroup columnGroup = groupIndex.getColumnGroup();
+            DataColumn column = columnGroup == null ? null : context.dataSet.getColumnById(columnGroup.getSourceId());
+            if (column == null) {
+                return false;
+            }
+            IntervalBuilder intervalBuilder = intervalBuilderLocator.lookup(column.getColumnType(), columnGroup.getStrategy());
+            if (!(intervalBuilder instanceof IntervalBuilderDynamicLabel)) {
+                return false;
+            }
+            // Nested groups and selections are built from the intervals
+            groupIndex.removeIndexes();
+
+            Map<String, DataSetIntervalIndex> intervalMap = new HashMap<String, DataSetIntervalIndex>();
+            for (DataSetIntervalIndex intervalIndex : groupIndex.getIntervalIndexes()) {
+                intervalMap.put(intervalIndex.getName(), intervalIndex);
+            }
+            // New labels come after the existing ones, so the intervals are still sorted by first appearance
+            IntervalList intervalList = intervalBuilder.build(new InternalHandler(context, newRows), columnGroup);
+            for (Interval interval : intervalList) {
+                DataSetIntervalIndex intervalIndex = intervalMap.get(interval.getName());
+                if (intervalIndex == null) {
+                    groupIndex.appendIntervalIndex(new DataSetIntervalIndex(groupIndex, interval));
                     continue;
                 }
-                // No index match => Filter required
-                chronometer.start();
-                List<Integer> rows = filterAlgorithm.filter(new InternalHandler(context), filter);
-                chronometer.stop();
+                RowSet intervalRows = RowSet.valueOf(interval.getRows());
+                if (intervalRows == null || !intervalIndex.appendRows(intervalRows)) {
+                    return false;
+                }
+                append(intervalIndex, intervalRows);
+            }
+            return true;
+        }
 
-                // Index before continue.
-                context.index(op, context.index.indexFilter(filter, rows, chronometer.elapsedTime()));
+        protected void appendAggValues(DataSetIndexNode node, RowSet newRows) {
+            Map<String, Map<AggregateFunctionType, DataSetFunctionIndex>> functionIndexes = node.getFunctionIndexes();
+            for (Map.Entry<String, Map<AggregateFunctionType, DataSetFunctionIndex>> columnEntry : functionIndexes.entrySet()) {
+                String columnId = columnEntry.getKey();
+                DataColumn column = context.dataSet.getColumnById(columnId);
+                for (Map.Entry<AggregateFunctionType, DataSetFunctionIndex> entry : columnEntry.getValue().entrySet()) {
+                    DataSetFunctionIndex functionIndex = entry.getValue();
+                    AggregateFunction function = aggregateFunctionManager.getFunctionByType(entry.getKey());
+                    if (column == null || functionIndex.getState() == null || !(function instanceof MergeableAggregateFunction)) {
+                        node.removeAggValue(columnId, entry.getKey());
+                        continue;
+                    }
+                    MergeableAggregateFunction mergeable = (MergeableAggregateFunction) function;
+                    Object state = mergeable.merge(functionIndex.getState(), mergeable.accumulate(column.getValues(), newRows));
+                    functionIndex.setState(state);
+                    functionIndex.setValue(mergeable.getResult(state));
+                }
             }
         }
 
@@ -381,28 +973,57 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
         }
 
         protected void sort(DataSetSort op, InternalContext context) {
+            List<Integer> rows = context.getRows();
+            int totalRows = rows == null ? context.dataSet.getRowCount() : rows.size();
+            sort(op, context, paged ? getSortLimit(rowOffset, numberOfRows, totalRows) : -1);
+        }
+
+        /**
+         * @param limit The number of rows to sort or <tt>-1</tt> to sort all of them.
+         */
+        protected void sort(DataSetSort op, InternalContext context, int limit) {
             checkSortOp(context.dataSet, op);
 
+            List<Integer> rows = context.getRows();
+            int totalRows = rows == null ? context.dataSet.getRowCount() : rows.size();
+
             // No index => Sort required
             if (context.index == null) {
-                List<Integer> orderedRows = sortAlgorithm.sort(context.getDataSet(), context.getRows(), op.getColumnSortList());
-                context.index(op, new DataSetSortIndex(op, orderedRows));
+                builds++;
+                List<Integer> orderedRows = sortAlgorithm.sort(context.getDataSet(), rows, op.getColumnSortList(), limit);
+                context.index(op, new DataSetSortIndex(op, orderedRows, totalRows));
                 return;
 
             }
             // Index match => Reuse it
             DataSetSortIndex sortIndex = context.index.getSortIndex(op);
-            if (sortIndex != null) {
+            if (sortIndex != null && sortIndex.containsFirstRows(limit)) {
                 context.index(op, sortIndex);
                 return;
             }
-            // No index match => Sort required
-            chronometer.start();
-            List<Integer> orderedRows = sortAlgorithm.sort(context.getDataSet(), context.getRows(), op.getColumnSortList());
-            chronometer.stop();
-
+            // No index match => Sort required (unless a concurrent lookup is already sorting)
+            DataSetIndexNode node = context.index;
+            Object buildLock = node.acquireBuildLock(op);
+            try {
+                synchronized (buildLock) {
+                    sortIndex = node.getSortIndex(op);
+                    if (sortIndex == null || !sortIndex.containsFirstRows(limit)) {
+                        // Paging forward => Sort at least twice the rows sorted last time
+                        if (limit >= 0 && sortIndex != null) {
+                            limit = getSortLimit(0, Math.max(limit, 2 * sortIndex.getRows().size()), totalRows);
+                        }
+                        builds++;
+                        long start = chronometer.start();
+                        List<Integer> orderedRows = sortAlgorithm.sort(context.getDataSet(), rows, op.getColumnSortList(), limit);
+                        long buildTime = chronometer.stop() - start;
+                        sortIndex = node.indexSort(op, orderedRows, totalRows, buildTime);
+                    }
+                }
+            } finally {
+                node.releaseBuildLock(buildLock);
+            }
             // Index before return.
-            context.index(op, context.index.indexSort(op, orderedRows, chronometer.elapsedTime()));
+            context.index(op, sortIndex);
         }
 
         // DATASET BUILD
@@ -418,9 +1039,25 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
                 // If no index exists then just return the data set from context
                 return context.dataSet;
             }
+            if (!measured) {
+                DataSet result = _buildDataSet(context);
+                context.dataSet = result;
+                context.index = null;
+                return result;
+            }
+            int rowsIn = getRowCount(context);
+            aggTime = aggRows = aggValues = aggBuilds = 0;
+            long start = chronometer.start();
             DataSet result = _buildDataSet(context);
+            long time = chronometer.stop() - start;
             context.dataSet = result;
             context.index = null;
+
+            // The aggregations are measured apart
+            if (aggValues > 0) {
+                fireOperation(DataSetEngineOp.AGGREGATE, aggTime, aggRows, aggValues, aggBuilds == 0);
+            }
+            fireOperation(DataSetEngineOp.BUILD, time - aggTime, rowsIn, result.getRowCount(), false);
             return result;
         }
 
@@ -447,11 +1084,30 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
                 return dataSet.trim(index.getRows());
             }
             if (lastOp instanceof DataSetSort) {
+                if (paged) {
+                    return _filterDataSet(dataSet, (DataSetSortIndex) index);
+                }
                 return _filterDataSet(dataSet, index.getRows());
             }
             return dataSet;
         }
 
+        /**
+         * Get the requested page from the sorted rows.
+         */
+        private DataSet _filterDataSet(DataSet dataSet, DataSetSortIndex sortIndex) {
+            int totalRows = sortIndex.getRowCount();
+            if (rowOffset > totalRows) {
+                throw new IllegalArgumentException("Offset can't be greater than the number of rows: " + rowOffset);
+            }
+            List<Integer> rows = sortIndex.getRows();
+            int to = numberOfRows <= 0 ? rows.size() : (int) Math.min((long) rowOffset + numberOfRows, rows.size());
+            DataSet result = _filterDataSet(dataSet, rows.subList(Math.min(rowOffset, to), to));
+            result.setRowCountNonTrimmed(totalRows);
+            trimmed = true;
+            return result;
+        }
+
         private DataSet _filterDataSet(DataSet dataSet, List<Integer> rows) {
             DataSet result = DataSetFactory.newEmptyDataSet();
             for (DataColumn column : dataSet.getColumns()) {
@@ -600,25 +1256,71 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
                 throw new IllegalArgumentException("No aggregation function specified for the column: " + column.getId());
             }
             // Look into the index first
+            long start = chronometer.start();
+            if (measured) {
+                aggValues++;
+                aggRows += index == null || index.getRows() == null ? column.getValues().size() : index.getRows().size();
+            }
             if (index != null) {
                 Object sv = index.getAggValue(column.getId(), type);
                 if (sv != null) {
+                    if (measured) {
+                        aggTime += chronometer.stop() - start;
+                    }
                     return sv;
                 }
             }
             // Do the aggregate calculations.
-            chronometer.start();
+            aggBuilds++;
             AggregateFunction function = aggregateFunctionManager.getFunctionByType(type);
-            Object aggValue = function.aggregate(column.getValues(), index.getRows());
-            chronometer.stop();
+            Object aggValue;
+            Object aggState = null;
+            if (INCREMENTAL_FUNCTIONS.contains(type) && function instanceof MergeableAggregateFunction) {
+                // Keep the partial state so the value can be updated when new rows are appended
+                MergeableAggregateFunction mergeable = (MergeableAggregateFunction) function;
+                aggState = accumulateDateInterval(mergeable, column, index);
+                if (aggState == null) {
+                    aggState = accumulate(mergeable, column.getValues(), index.getRows());
+                }
+                aggValue = mergeable.getResult(aggState);
+            } else {
+                aggValue = aggregate(function, column.getValues(), index.getRows());
+            }
+            long buildTime = chronometer.stop() - start;
+            if (measured) {
+                aggTime += buildTime;
+            }
 
             // Index the result
             if (index != null) {
-                index.indexAggValue(column.getId(), type, aggValue, chronometer.elapsedTime());
+                index.indexAggValue(column.getId(), type, aggValue, aggState, buildTime);
             }
             return aggValue;
         }
 
+        /**
+         * Get the partial state of a function for a date interval by merging the states of the rollup buckets
+         * the interval is made of.
+         * @return The state or null if the interval was not built from a rollup or is not made of whole buckets.
+         */
+        private Object accumulateDateInterval(MergeableAggregateFunction function, DataColumn column, DataSetIndexNode index) {
+            if (!(index instanceof DataSetIntervalIndex) || !(index.getParent() instanceof DataSetGroupIndex)) {
+                return null;
+            }
+            DataSetDateRollup rollup = ((DataSetGroupIndex) index.getParent()).getDateRollup();
+            DataSetIntervalIndex intervalIndex = (DataSetIntervalIndex) index;
+            if (rollup == null || !(intervalIndex.getMinValue() instanceof Date) || !(intervalIndex.getMaxValue() instanceof Date)) {
+                return null;
+            }
+            long from = ((Date) intervalIndex.getMinValue()).getTime();
+            long to = ((Date) intervalIndex.getMaxValue()).getTime();
+            List<Integer> rows = intervalIndex.getRows();
+            if (rows == null || rows.size() != rollup.getRows(from, to).size()) {
+                return null;
+            }
+            return rollup.accumulate(function, column.getId(), column.getValues(), from, to);
+        }
+
         class InternalContext implements DataSetRowSet {
 
             DataSet dataSet = null;
@@ -674,9 +1376,24 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
 
         class InternalHandler extends InternalContext implements DataSetHandler {
 
+            List<Integer> partition = null;
+
             InternalHandler(InternalContext context) {
                 super(context.dataSet, context.index);
             }
+
+            /**
+             * Handler restricted to a partition of the context rows.
+             */
+            InternalHandler(InternalContext context, List<Integer> partition) {
+                this(context);
+                this.partition = partition;
+            }
+
+            @Override
+            public List<Integer> getRows() {
+                return partition != null ? partition : super.getRows();
+            }
             public DataSetHandler group(DataSetGroup op) {
                 DataSetOpListProcessor.this.group(op, this);
                 return this;
@@ -686,9 +1403,17 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
                 return this;
             }
             public DataSetHandler sort(DataSetSort op) {
-                DataSetOpListProcessor.this.sort(op, this);
+                // The page requested only applies to the last sort of the lookup
+                DataSetOpListProcessor.this.sort(op, this, -1);
                 return this;
             }
+            @Override
+            public DataSetDateRollup getDateRollup(String columnId) {
+                if (!dateRollupEnabled || partition != null) {
+                    return null;
+                }
+                return DataSetOpListProcessor.this.getDateRollup(columnId, this);
+            }
         }
     }
 }
\ No newline at end of file
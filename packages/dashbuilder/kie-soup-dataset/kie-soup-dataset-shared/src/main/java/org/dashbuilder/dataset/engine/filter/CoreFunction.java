@@ -15,10 +15,13 @@
  */
 package org.dashbuilder.dataset.engine.filter;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.dashbuilder.dataset.date.TimeFrame;
 import org.dashbuilder.dataset.filter.CoreFunctionFilter;
@@ -33,6 +36,10 @@ public class CoreFunction extends DataSetFunction {
         this.coreFunctionFilter = coreFunctionFilter;
     }
 
+    public CoreFunctionFilter getCoreFunctionFilter() {
+        return coreFunctionFilter;
+    }
+
     public Comparable getCurrentValue() {
         return (Comparable) getDataColumn().getValues().get(getContext().getCurrentRow());
     }
@@ -49,48 +56,42 @@ public class CoreFunction extends DataSetFunction {
     }
 
     public boolean pass() {
-        CoreFunctionType type = coreFunctionFilter.getType();
+        return pass(getCurrentValue());
+    }
 
-        if (CoreFunctionType.IS_NULL.equals(type)) {
-            return isNull(getCurrentValue());
-        }
-        if (CoreFunctionType.NOT_NULL.equals(type)) {
-            return isNotNull(getCurrentValue());
-        }
-        if (CoreFunctionType.EQUALS_TO.equals(type)) {
-            return isEqualsTo(getCurrentValue());
-        }
-        if (CoreFunctionType.NOT_EQUALS_TO.equals(type)) {
-            return isNotEqualsTo(getCurrentValue());
-        }
-        if (CoreFunctionType.LIKE_TO.equals(type)) {
-            return isLikeTo(getCurrentValue());
-        }
-        if (CoreFunctionType.LOWER_THAN.equals(type)) {
-            return isLowerThan(getCurrentValue());
-        }
-        if (CoreFunctionType.LOWER_OR_EQUALS_TO.equals(type)) {
-            return isLowerThanOrEqualsTo(getCurrentValue());
-        }
-        if (CoreFunctionType.GREATER_THAN.equals(type)) {
-            return isGreaterThan(getCurrentValue());
-        }
-        if (CoreFunctionType.GREATER_OR_EQUALS_TO.equals(type)) {
-            return isGreaterThanOrEqualsTo(getCurrentValue());
-        }
-        if (CoreFunctionType.BETWEEN.equals(type)) {
-            return isBetween(getCurrentValue());
-        }
-        if (CoreFunctionType.TIME_FRAME.equals(type)) {
-            return timeFrame(getCurrentValue());
-        }
-        if (CoreFunctionType.IN.equals(type)) {
-            return isEqualsTo(getCurrentValue());
-        }
-        if (CoreFunctionType.NOT_IN.equals(type)) {
-            return isNotEqualsTo(getCurrentValue());
+    /**
+     * Evaluate the function against the given value.
+     */
+    public boolean pass(Comparable value) {
+        CoreFunctionType type = coreFunctionFilter.getType();
+        switch (type) {
+            case IS_NULL:
+                return isNull(value);
+            case NOT_NULL:
+                return isNotNull(value);
+            case EQUALS_TO:
+            case IN:
+                return isEqualsTo(value);
+            case NOT_EQUALS_TO:
+            case NOT_IN:
+                return isNotEqualsTo(value);
+            case LIKE_TO:
+                return isLikeTo(value);
+            case LOWER_THAN:
+                return isLowerThan(value);
+            case LOWER_OR_EQUALS_TO:
+                return isLowerThanOrEqualsTo(value);
+            case GREATER_THAN:
+                return isGreaterThan(value);
+            case GREATER_OR_EQUALS_TO:
+                return isGreaterThanOrEqualsTo(value);
+            case BETWEEN:
+                return isBetween(value);
+            case TIME_FRAME:
+                return timeFrame(value);
+            default:
+                throw new IllegalArgumentException("Core function type not supported: " + type);
         }
-        throw new IllegalArgumentException("Core function type not supported: " + type);
     }
 
     public boolean isNull(Comparable value) {
@@ -120,12 +121,51 @@ public class CoreFunction extends DataSetFunction {
             return true;
         }
         // At least one parameter match is required
+        if (_paramStrings == null) {
+            indexParameters();
+        }
+        if (value == null) {
+            return _nullParam;
+        }
+        if (value instanceof Number) {
+            double number = ((Number) value).doubleValue();
+            for (double param : _numberParams) {
+                if (param == number) {
+                    return true;
+                }
+            }
+            return _nonNumberParamStrings.contains(value.toString());
+        }
+        return _paramStrings.contains(value.toString());
+    }
+
+    // Parameters indexed for fast (hash based) equality checks, see compare(c1, c2).
+    private Set<String> _paramStrings = null;
+    private Set<String> _nonNumberParamStrings = null;
+    private double[] _numberParams = null;
+    private boolean _nullParam = false;
+
+    private void indexParameters() {
+        _paramStrings = new HashSet<String>();
+        _nonNumberParamStrings = new HashSet<String>();
+        List<Double> numbers = new ArrayList<Double>();
         for (Comparable param : getParameters()) {
-            if (compare(param, value)) {
-                return true;
+            if (param == null) {
+                _nullParam = true;
+                continue;
+            }
+            String str = param.toString();
+            _paramStrings.add(str);
+            if (param instanceof Number) {
+                numbers.add(((Number) param).doubleValue());
+            } else {
+                _nonNumberParamStrings.add(str);
             }
         }
-        return false;
+        _numberParams = new double[numbers.size()];
+        for (int i = 0; i < _numberParams.length; i++) {
+            _numberParams[i] = numbers.get(i);
+        }
     }
 
     public boolean isNotEqualsTo(Comparable value) {
@@ -162,20 +202,16 @@ public class CoreFunction extends DataSetFunction {
         if (param0 == null) {
             return false;
         }
-        // Case sensitive parameter
-        final Boolean caseSensitive = getParameter(1) != null ? Boolean.parseBoolean(getParameter(1).toString()) : true;
-        String pattern = caseSensitive ? param0.toString() : param0.toString().toLowerCase();
-        String strValue = caseSensitive ? value.toString() : value.toString().toLowerCase();
+        // The pattern is compiled just once
+        if (_likePattern == null) {
+            final Boolean caseSensitive = getParameter(1) != null ? Boolean.parseBoolean(getParameter(1).toString()) : true;
+            _likePattern = new LikePattern(param0.toString(), caseSensitive);
+        }
+        return _likePattern.matches(value.toString());
+    }
 
-        // Replace the user's wilcards that come from the UI request for valid regular expression patterns.
-        pattern = pattern.replace(".", "\\."); // "\\" is escaped to "\"
-        pattern = pattern.replace("%", ".*");
-        pattern = pattern.replace("_", ".");
+    private LikePattern _likePattern = null;
 
-        // Perform the regexp match operation.
-        return strValue.matches(pattern);
-    }
-    
     public boolean isLowerThan(Comparable value) {
         return !isGreaterThanOrEqualsTo(value);
     }
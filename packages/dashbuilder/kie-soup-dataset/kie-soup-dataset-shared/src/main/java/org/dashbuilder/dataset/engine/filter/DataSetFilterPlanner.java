@@ -0,0 +1,295 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.filter;
+
+import java.util.Date;
+import java.util.List;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.date.TimeFrame;
+import org.dashbuilder.dataset.engine.function.MergeableAggregateFunction;
+import org.dashbuilder.dataset.engine.index.DataSetFilterIndex;
+import org.dashbuilder.dataset.engine.index.DataSetIndexNode;
+import org.dashbuilder.dataset.engine.index.RowSet;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.dashbuilder.dataset.filter.CoreFunctionFilter;
+import org.dashbuilder.dataset.filter.LogicalExprFilter;
+import org.dashbuilder.dataset.filter.LogicalExprType;
+import org.dashbuilder.dataset.group.AggregateFunction;
+import org.dashbuilder.dataset.group.AggregateFunctionManager;
+import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.dashbuilder.dataset.impl.LabelColumnValues;
+
+/**
+ * It decides the order in which the filters of a filter operation are applied. Since all of them must be satisfied
+ * the order does not change the result but it does change the cost of the lookup and the indexes built:
+ * <ul>
+ *     <li>Filters already applied to the current index node go first, so equivalent filter sets requested in
+ *     different order share the same chain of filter indexes.</li>
+ *     <li>Otherwise the most selective filter goes first, so the next filters have less rows to evaluate.</li>
+ * </ul>
+ * <p>The selectivity (fraction of rows that surpass a filter) is estimated from the statistics of the whole data set:
+ * the size of the filter index if the filter has already been applied to it, the number of distinct labels of a
+ * label column or the min. and max. values of a number or date column. Such min. and max. values are indexed as
+ * aggregate values of the data set, so they are calculated just once and updated when new rows are appended.</p>
+ */
+public class DataSetFilterPlanner {
+
+    /**
+     * Selectivity assumed when there are no statistics to estimate it.
+     */
+    public static final double DEFAULT_SELECTIVITY = 0.5;
+
+    /**
+     * Selectivity assumed for a range over a column with no min. and max. values.
+     */
+    public static final double DEFAULT_RANGE_SELECTIVITY = 1d / 3d;
+
+    /**
+     * Selectivity assumed for every value compared by equality on a non label column.
+     */
+    public static final double DEFAULT_EQUALS_SELECTIVITY = 0.1;
+
+    /**
+     * Selectivity assumed for the null values checks.
+     */
+    public static final double DEFAULT_NULL_SELECTIVITY = 0.1;
+
+    protected AggregateFunctionManager aggregateFunctionManager;
+
+    public DataSetFilterPlanner(AggregateFunctionManager aggregateFunctionManager) {
+        this.aggregateFunctionManager = aggregateFunctionManager;
+    }
+
+    /**
+     * Get the filter to apply next.
+     *
+     * @param dataSet The data set to filter
+     * @param node The index node the filter is applied to
+     * @param pending The filters not yet applied
+     * @return A filter from the pending list
+     */
+    public ColumnFilter next(DataSet dataSet, DataSetIndexNode node, List<ColumnFilter> pending) {
+        DataSetIndexNode root = node;
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        ColumnFilter next = null;
+        boolean nextIndexed = false;
+        double nextSelectivity = 0;
+        for (ColumnFilter filter : pending) {
+            boolean indexed = getFilterIndex(node, filter) != null;
+            if (nextIndexed && !indexed) {
+                continue;
+            }
+            double selectivity = indexed ? 0 : getSelectivity(dataSet, root, filter);
+            if (next == null || (indexed && !nextIndexed) || selectivity < nextSelectivity
+                    || (selectivity == nextSelectivity && filter.toString().compareTo(next.toString()) < 0)) {
+                next = filter;
+                nextIndexed = indexed;
+                nextSelectivity = selectivity;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Estimate the fraction of rows of the whole data set that surpass the given filter.
+     * @return A value between 0 (no rows) and 1 (all the rows). Custom filters get 1 so they are always applied last.
+     */
+    public double getSelectivity(DataSet dataSet, DataSetIndexNode root, ColumnFilter filter) {
+        int rowCount = dataSet.getRowCount();
+        DataSetFilterIndex filterIndex = getFilterIndex(root, filter);
+        if (filterIndex != null && rowCount > 0) {
+            return (double) filterIndex.getRows().size() / rowCount;
+        }
+        if (filter instanceof LogicalExprFilter) {
+            return getSelectivity(dataSet, root, (LogicalExprFilter) filter);
+        }
+        if (filter instanceof CoreFunctionFilter) {
+            return getSelectivity(dataSet, root, (CoreFunctionFilter) filter);
+        }
+        return 1;
+    }
+
+    protected double getSelectivity(DataSet dataSet, DataSetIndexNode root, LogicalExprFilter filter) {
+        LogicalExprType operator = filter.getLogicalOperator();
+        List<ColumnFilter> terms = filter.getLogicalTerms();
+        if (operator == null || terms == null || terms.isEmpty()) {
+            return 1;
+        }
+        switch (operator) {
+            case AND: {
+                double result = 1;
+                for (ColumnFilter term : terms) {
+                    result *= getSelectivity(dataSet, root, term);
+                }
+                return result;
+            }
+            case OR: {
+                double result = 1;
+                for (ColumnFilter term : terms) {
+                    result *= 1 - getSelectivity(dataSet, root, term);
+                }
+                return 1 - result;
+            }
+            case NOT: {
+                double result = 1;
+                for (ColumnFilter term : terms) {
+                    result *= getSelectivity(dataSet, root, term);
+                }
+                return 1 - result;
+            }
+            default:
+                return 1;
+        }
+    }
+
+    protected double getSelectivity(DataSet dataSet, DataSetIndexNode root, CoreFunctionFilter filter) {
+        DataColumn column = filter.getColumnId() == null ? null : dataSet.getColumnById(filter.getColumnId());
+        if (column == null || filter.getType() == null) {
+            return 1;
+        }
+        List params = filter.getParameters();
+        switch (filter.getType()) {
+            case IS_NULL:
+                return DEFAULT_NULL_SELECTIVITY;
+            case NOT_NULL:
+                return 1 - DEFAULT_NULL_SELECTIVITY;
+            case EQUALS_TO:
+            case IN:
+                return getEqualsSelectivity(column, params.size());
+            case NOT_EQUALS_TO:
+            case NOT_IN:
+                return 1 - getEqualsSelectivity(column, params.size());
+            case LOWER_THAN:
+            case LOWER_OR_EQUALS_TO:
+                return params.isEmpty() ? 1 : getRangeSelectivity(column, root, null, params.get(0));
+            case GREATER_THAN:
+            case GREATER_OR_EQUALS_TO:
+                return params.isEmpty() ? 1 : getRangeSelectivity(column, root, params.get(0), null);
+            case BETWEEN:
+                return params.size() < 2 ? 1 : getRangeSelectivity(column, root, params.get(0), params.get(1));
+            case TIME_FRAME: {
+                TimeFrame timeFrame = params.isEmpty() || params.get(0) == null ? null : TimeFrame.parse(params.get(0).toString());
+                if (timeFrame == null) {
+                    return 1;
+                }
+                return getRangeSelectivity(column, root, timeFrame.getFrom().getTimeInstant(), timeFrame.getTo().getTimeInstant());
+            }
+            default:
+                return DEFAULT_SELECTIVITY;
+        }
+    }
+
+    protected double getEqualsSelectivity(DataColumn column, int values) {
+        List columnValues = column.getValues();
+        if (columnValues instanceof LabelColumnValues) {
+            int distinct = ((LabelColumnValues) columnValues).getDictionarySize();
+            return distinct == 0 ? 0 : Math.min(1d, (double) values / distinct);
+        }
+        return Math.min(1d, values * DEFAULT_EQUALS_SELECTIVITY);
+    }
+
+    /**
+     * Estimate the fraction of rows within the given range assuming the values are evenly distributed between the
+     * min. and max. values of the column.
+     * @param from The lower limit or <tt>null</tt> if unbounded
+     * @param to The upper limit or <tt>null</tt> if unbounded
+     */
+    protected double getRangeSelectivity(DataColumn column, DataSetIndexNode root, Object from, Object to) {
+        if (!ColumnType.NUMBER.equals(column.getColumnType()) && !ColumnType.DATE.equals(column.getColumnType())) {
+            return DEFAULT_RANGE_SELECTIVITY;
+        }
+        double min = toDouble(column, getColumnValue(column, root, AggregateFunctionType.MIN));
+        double max = toDouble(column, getColumnValue(column, root, AggregateFunctionType.MAX));
+        double lower = from == null ? min : toDouble(column, from);
+        double upper = to == null ? max : toDouble(column, to);
+        if (Double.isNaN(min) || Double.isNaN(max) || Double.isNaN(lower) || Double.isNaN(upper)) {
+            return DEFAULT_RANGE_SELECTIVITY;
+        }
+        lower = Math.max(lower, min);
+        upper = Math.min(upper, max);
+        if (upper < lower) {
+            return 0;
+        }
+        if (max == min) {
+            return 1;
+        }
+        return (upper - lower) / (max - min);
+    }
+
+    /**
+     * Get the min. or max. value of a column from the data set index (calculated and indexed if not yet done).
+     */
+    protected Object getColumnValue(DataColumn column, DataSetIndexNode root, AggregateFunctionType type) {
+        Object value = root.getAggValue(column.getId(), type);
+        if (value != null) {
+            return value;
+        }
+        AggregateFunction function = aggregateFunctionManager.getFunctionByType(type);
+        if (!(function instanceof MergeableAggregateFunction)) {
+            return null;
+        }
+        // Keep the partial state so the value is updated when new rows are appended
+        MergeableAggregateFunction mergeable = (MergeableAggregateFunction) function;
+        List<Integer> rows = root.getRows();
+        if (rows == null) {
+            rows = RowSet.range(column.getValues().size());
+        }
+        Object state = mergeable.accumulate(column.getValues(), rows);
+        value = mergeable.getResult(state);
+        if (value != null) {
+            root.indexAggValue(column.getId(), type, value, state, 0);
+        }
+        return value;
+    }
+
+    protected double toDouble(DataColumn column, Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        if (value != null && ColumnType.NUMBER.equals(column.getColumnType())) {
+            try {
+                return Double.parseDouble(value.toString());
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Look for a filter index without counting it as a reuse hit.
+     */
+    protected DataSetFilterIndex getFilterIndex(DataSetIndexNode node, ColumnFilter filter) {
+        List<DataSetFilterIndex> filterIndexes = node.getFilterIndexes();
+        if (filterIndexes == null) {
+            return null;
+        }
+        for (DataSetFilterIndex index : filterIndexes) {
+            if (filter.equals(index.getColumnFilter())) {
+                return index;
+            }
+        }
+        return null;
+    }
+}
@@ -16,20 +16,29 @@
 package org.dashbuilder.dataset.engine.filter;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.engine.DataSetHandler;
+import org.dashbuilder.dataset.engine.index.RowList;
+import org.dashbuilder.dataset.engine.index.RowSet;
 import org.dashbuilder.dataset.filter.ColumnFilter;
 import org.dashbuilder.dataset.filter.CoreFunctionFilter;
 import org.dashbuilder.dataset.filter.CustomFunctionFilter;
 import org.dashbuilder.dataset.filter.LogicalExprFilter;
+import org.dashbuilder.dataset.impl.LabelColumnValues;
 
 /**
  * Default data set filter algorithm.
  */
 public class DefaultFilterAlgorithm implements DataSetFilterAlgorithm {
 
+    /**
+     * Number of rows evaluated at once by the compiled filters.
+     */
+    public static final int BLOCK_SIZE = 1024;
+
     /*
 
      LogicalFunction
@@ -74,32 +83,73 @@ public class DefaultFilterAlgorithm implements DataSetFilterAlgorithm {
      */
     public List<Integer> filter(DataSetHandler ctx, ColumnFilter columnFilter) {
 
-        // Build the data set filter function.
+        // Compile the filter for the target data set.
         DataSet dataSet = ctx.getDataSet();
         DataSetFilterContext dataSetFilterContext = new DataSetFilterContext(dataSet);
-        DataSetFunction filterFunction = buildFunction(dataSetFilterContext, columnFilter);
+        FilterPredicate predicate = compile(dataSetFilterContext, columnFilter);
+
+        // Apply the filter to the whole data set or only to the target rows specified, block by block.
+        // Rows are kept into a compressed row set unless the target rows are not in ascending order (sorted).
+        List<Integer> targetRows = ctx.getRows();
+        int total = targetRows == null ? dataSet.getRowCount() : targetRows.size();
+        RowSet rowSet = targetRows == null || targetRows instanceof RowSet ? new RowSet() : null;
+        RowList rowList = rowSet == null ? new RowList(Math.min(total, BLOCK_SIZE)) : null;
+        int[] block = new int[Math.min(total, BLOCK_SIZE)];
+        int start = 0;
+        Iterator<Integer> it = targetRows == null ? null : targetRows.iterator();
+        RowSet.RowIterator rowIt = it instanceof RowSet.RowIterator ? (RowSet.RowIterator) it : null;
+        while (start < total) {
+            int length = Math.min(BLOCK_SIZE, total - start);
+            for (int i = 0; i < length; i++) {
+                block[i] = it == null ? start + i : (rowIt != null ? rowIt.nextRow() : it.next());
+            }
+            int selected = predicate.select(block, length, block);
+            if (rowSet != null) {
+                rowSet.addRows(block, selected);
+            } else {
+                rowList.addRows(block, selected);
+            }
+            start += length;
+        }
+        return rowSet != null ? rowSet.trimToSize() : rowList.trimToSize();
+    }
 
-        List<Integer> result = new ArrayList<Integer>();
+    /**
+     * Compile the given filter into a predicate specialized for the target data set's columns.
+     */
+    public FilterPredicate compile(DataSetFilterContext filterContext, ColumnFilter columnFilter) {
 
-        // Apply the filter function to the whole data set.
-        if (ctx == null || ctx.getRows() == null) {
-            for (int i = 0; i < dataSet.getRowCount(); i++) {
-                dataSetFilterContext.setCurrentRow(i);
-                if (filterFunction.pass()) {
-                    result.add(i);
-                }
+        // Logical expression filter
+        if (columnFilter instanceof LogicalExprFilter) {
+            LogicalExprFilter filter = (LogicalExprFilter) columnFilter;
+            List<FilterPredicate> terms = new ArrayList<FilterPredicate>();
+            for (ColumnFilter filterTerm : filter.getLogicalTerms()) {
+                terms.add(compile(filterContext, filterTerm));
             }
+            return new LogicalPredicate(filter.getLogicalOperator(), terms);
         }
-        // Filter only the target rows specified.
-        else {
-            for (Integer targetRow : ctx.getRows()) {
-                dataSetFilterContext.setCurrentRow(targetRow);
-                if (filterFunction.pass()) {
-                    result.add(targetRow);
-                }
+        // Core function filter
+        if (columnFilter instanceof CoreFunctionFilter) {
+            CoreFunction function = new CoreFunction(filterContext, (CoreFunctionFilter) columnFilter);
+            List values = function.getDataColumn().getValues();
+            if (values instanceof LabelColumnValues) {
+                return new LabelPredicate((LabelColumnValues) values, function);
+            }
+            FilterPredicate predicate = RangePredicate.compile(function, values);
+            if (predicate == null) {
+                predicate = NumberSetPredicate.compile(function, values);
             }
+            return predicate != null ? predicate : new FunctionPredicate(values, function);
         }
-        return result;
+        // Fallback to the function tree (throws an error for unsupported filters)
+        final DataSetFunction function = buildFunction(filterContext, columnFilter);
+        final DataSetFilterContext context = filterContext;
+        return new FilterPredicate() {
+            public boolean test(int row) {
+                context.setCurrentRow(row);
+                return function.pass();
+            }
+        };
     }
 
     public DataSetFunction buildFunction(DataSetFilterContext filterContext, ColumnFilter columnFilter) {
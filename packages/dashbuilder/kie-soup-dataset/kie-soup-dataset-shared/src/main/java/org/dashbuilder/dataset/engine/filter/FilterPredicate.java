@@ -0,0 +1,47 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.filter;
+
+/**
+ * A filter compiled for a specific data set (see {@link DefaultFilterAlgorithm#compile(DataSetFilterContext, org.dashbuilder.dataset.filter.ColumnFilter)}).
+ * <p>Unlike {@link DataSetFunction}, predicates are evaluated over blocks of rows so implementations can run tight
+ * loops over the column's primitive storage.</p>
+ */
+public abstract class FilterPredicate {
+
+    /**
+     * Check if the given row passes the filter.
+     */
+    public abstract boolean test(int row);
+
+    /**
+     * Select the rows from the given block that pass the filter.
+     * @param rows The block of rows to check.
+     * @param length The number of rows in the block.
+     * @param out The array where to write the selected rows, in the same order (it can be the <tt>rows</tt> array).
+     * @return The number of selected rows.
+     */
+    public int select(int[] rows, int length, int[] out) {
+        int n = 0;
+        for (int i = 0; i < length; i++) {
+            int row = rows[i];
+            if (test(row)) {
+                out[n++] = row;
+            }
+        }
+        return n;
+    }
+}
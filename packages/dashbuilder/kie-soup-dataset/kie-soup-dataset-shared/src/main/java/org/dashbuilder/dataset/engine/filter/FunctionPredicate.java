@@ -0,0 +1,36 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.filter;
+
+import java.util.List;
+
+/**
+ * Generic compiled filter which evaluates a core function against every value of the column.
+ */
+public class FunctionPredicate extends FilterPredicate {
+
+    private List values;
+    private CoreFunction function;
+
+    public FunctionPredicate(List values, CoreFunction function) {
+        this.values = values;
+        this.function = function;
+    }
+
+    public boolean test(int row) {
+        return function.pass((Comparable) values.get(row));
+    }
+}
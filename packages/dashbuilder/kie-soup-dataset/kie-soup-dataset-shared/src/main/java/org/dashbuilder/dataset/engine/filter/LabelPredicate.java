@@ -0,0 +1,59 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.filter;
+
+import java.util.List;
+
+import org.dashbuilder.dataset.impl.LabelColumnValues;
+
+/**
+ * Compiled filter for dictionary encoded columns. The core function is evaluated once per distinct label
+ * and rows are then checked by just looking up their label code.
+ */
+public class LabelPredicate extends FilterPredicate {
+
+    private LabelColumnValues labels;
+    private boolean[] passByCode;
+    private boolean passNull;
+
+    public LabelPredicate(LabelColumnValues labels, CoreFunction function) {
+        this.labels = labels;
+        List<String> dictionary = labels.getDictionary();
+        passByCode = new boolean[dictionary.size()];
+        for (int i = 0; i < passByCode.length; i++) {
+            passByCode[i] = function.pass(dictionary.get(i));
+        }
+        passNull = function.pass(null);
+    }
+
+    public boolean test(int row) {
+        int code = labels.getCode(row);
+        return code == LabelColumnValues.NULL_CODE ? passNull : passByCode[code];
+    }
+
+    @Override
+    public int select(int[] rows, int length, int[] out) {
+        int n = 0;
+        for (int i = 0; i < length; i++) {
+            int row = rows[i];
+            int code = labels.getCode(row);
+            if (code == LabelColumnValues.NULL_CODE ? passNull : passByCode[code]) {
+                out[n++] = row;
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.filter;
+
+/**
+ * A compiled <code>LIKE_TO</code> pattern (see {@link CoreFunction#isLikeTo(Comparable)}).
+ * <p>Patterns using only the <code>%</code> and <code>_</code> wildcards are matched by a simple wildcard
+ * matcher. Any other pattern is translated into a regular expression just once.</p>
+ */
+public class LikePattern {
+
+    private static final String REGEXP_CHARS = "\\[](){}*+?^$|";
+
+    private boolean caseSensitive;
+    private String regexp;
+    private char[] wildcards;
+
+    public LikePattern(String pattern, boolean caseSensitive) {
+        this.caseSensitive = caseSensitive;
+        String _pattern = caseSensitive ? pattern : pattern.toLowerCase();
+
+        // Replace the user's wilcards that come from the UI request for valid regular expression patterns.
+        regexp = _pattern.replace(".", "\\."); // "\\" is escaped to "\"
+        regexp = regexp.replace("%", ".*");
+        regexp = regexp.replace("_", ".");
+
+        if (!containsAny(_pattern, REGEXP_CHARS)) {
+            wildcards = _pattern.toCharArray();
+        }
+    }
+
+    public boolean matches(String value) {
+        String strValue = caseSensitive ? value : value.toLowerCase();
+
+        // The regexp dot does not match line terminators and it matches surrogate pairs as a single char
+        if (wildcards == null || !isPlain(strValue)) {
+            return strValue.matches(regexp);
+        }
+        return matchWildcards(strValue);
+    }
+
+    private boolean matchWildcards(String value) {
+        int vi = 0;
+        int pi = 0;
+        int star = -1;
+        int mark = 0;
+        while (vi < value.length()) {
+            if (pi < wildcards.length && wildcards[pi] != '%' && (wildcards[pi] == '_' || wildcards[pi] == value.charAt(vi))) {
+                vi++;
+                pi++;
+            } else if (pi < wildcards.length && wildcards[pi] == '%') {
+                star = pi++;
+                mark = vi;
+            } else if (star != -1) {
+                pi = star + 1;
+                vi = ++mark;
+            } else {
+                return false;
+            }
+        }
+        while (pi < wildcards.length && wildcards[pi] == '%') {
+            pi++;
+        }
+        return pi == wildcards.length;
+    }
+
+    private static boolean isPlain(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029' || (c >= '\uD800' && c <= '\uDFFF')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsAny(String str, String chars) {
+        for (int i = 0; i < str.length(); i++) {
+            if (chars.indexOf(str.charAt(i)) != -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
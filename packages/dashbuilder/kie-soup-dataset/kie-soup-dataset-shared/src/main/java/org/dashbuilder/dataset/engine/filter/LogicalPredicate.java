@@ -0,0 +1,123 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.filter;
+
+import java.util.List;
+
+import org.dashbuilder.dataset.filter.LogicalExprType;
+
+/**
+ * Compiled AND/OR/NOT filter. Terms are evaluated block by block, every term only checks the rows
+ * not yet decided by the previous ones.
+ */
+public class LogicalPredicate extends FilterPredicate {
+
+    private LogicalExprType type;
+    private FilterPredicate[] terms;
+
+    public LogicalPredicate(LogicalExprType type, List<FilterPredicate> terms) {
+        if (!LogicalExprType.AND.equals(type) && !LogicalExprType.OR.equals(type) && !LogicalExprType.NOT.equals(type)) {
+            throw new IllegalArgumentException("Logical operator not supported: " + type);
+        }
+        this.type = type;
+        this.terms = terms.toArray(new FilterPredicate[terms.size()]);
+    }
+
+    public boolean test(int row) {
+        if (terms.length == 0) {
+            return true;
+        }
+        switch (type) {
+            case AND:
+                for (FilterPredicate term : terms) {
+                    if (!term.test(row)) return false;
+                }
+                return true;
+            case OR:
+                for (FilterPredicate term : terms) {
+                    if (term.test(row)) return true;
+                }
+                return false;
+            default:
+                for (FilterPredicate term : terms) {
+                    if (term.test(row)) return false;
+                }
+                return true;
+        }
+    }
+
+    @Override
+    public int select(int[] rows, int length, int[] out) {
+        if (terms.length == 0) {
+            System.arraycopy(rows, 0, out, 0, length);
+            return length;
+        }
+        switch (type) {
+            case AND:
+                return selectAll(rows, length, out);
+            case OR:
+                return selectAny(rows, length, out, false);
+            default:
+                return selectAny(rows, length, out, true);
+        }
+    }
+
+    private int selectAll(int[] rows, int length, int[] out) {
+        int n = terms[0].select(rows, length, out);
+        for (int i = 1; i < terms.length && n > 0; i++) {
+            n = terms[i].select(out, n, out);
+        }
+        return n;
+    }
+
+    /**
+     * Selected rows returned by every term are always a subsequence of the pending rows, so they are
+     * matched in a single pass.
+     */
+    private int selectAny(int[] rows, int length, int[] out, boolean negate) {
+        boolean[] matched = new boolean[length];
+        int[] pendingRows = new int[length];
+        int[] pendingPos = new int[length];
+        int[] selected = new int[length];
+        System.arraycopy(rows, 0, pendingRows, 0, length);
+        for (int i = 0; i < length; i++) {
+            pendingPos[i] = i;
+        }
+        int pending = length;
+        for (int t = 0; t < terms.length && pending > 0; t++) {
+            int k = terms[t].select(pendingRows, pending, selected);
+            int j = 0;
+            int w = 0;
+            for (int i = 0; i < pending; i++) {
+                if (j < k && selected[j] == pendingRows[i]) {
+                    matched[pendingPos[i]] = true;
+                    j++;
+                } else {
+                    pendingRows[w] = pendingRows[i];
+                    pendingPos[w++] = pendingPos[i];
+                }
+            }
+            pending = w;
+        }
+        int n = 0;
+        for (int i = 0; i < length; i++) {
+            if (matched[i] != negate) {
+                out[n++] = rows[i];
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.filter;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.dashbuilder.dataset.filter.CoreFunctionType;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
+
+/**
+ * Compiled EQUALS_TO/NOT_EQUALS_TO/IN/NOT_IN filter for NUMBER columns. The parameters are pre-sorted into a
+ * <tt>double[]</tt> so every value is checked through a binary search, with no boxing.
+ */
+public class NumberSetPredicate extends FilterPredicate {
+
+    private NumberColumnValues numbers;
+    private double[] keys;
+    private boolean nullMatch = false;
+    private boolean negate;
+    private boolean all;
+
+    /**
+     * @return The compiled predicate or null if the function is not an equality check over a NUMBER column.
+     */
+    public static NumberSetPredicate compile(CoreFunction function, List values) {
+        if (!(values instanceof NumberColumnValues)) {
+            return null;
+        }
+        CoreFunctionType type = function.getCoreFunctionFilter().getType();
+        switch (type) {
+            case EQUALS_TO:
+            case IN:
+                return new NumberSetPredicate((NumberColumnValues) values, function.getParameters(), false);
+            case NOT_EQUALS_TO:
+            case NOT_IN:
+                return new NumberSetPredicate((NumberColumnValues) values, function.getParameters(), true);
+            default:
+                return null;
+        }
+    }
+
+    public NumberSetPredicate(NumberColumnValues numbers, List<Comparable> params, boolean negate) {
+        this.numbers = numbers;
+        this.negate = negate;
+        this.all = params.isEmpty();
+
+        // Same matching rules as CoreFunction.compare: numbers are compared by value and any other
+        // parameter by its string representation
+        double[] _keys = new double[params.size()];
+        int n = 0;
+        for (Comparable param : params) {
+            if (param == null) {
+                nullMatch = true;
+            } else if (param instanceof Number) {
+                n = addKey(_keys, n, ((Number) param).doubleValue());
+            } else {
+                String str = param.toString();
+                try {
+                    double number = Double.parseDouble(str);
+                    if (Double.toString(number).equals(str)) {
+                        n = addKey(_keys, n, number);
+                    }
+                } catch (NumberFormatException e) {
+                    // Never equals to a number
+                }
+            }
+        }
+        keys = Arrays.copyOf(_keys, n);
+        Arrays.sort(keys);
+    }
+
+    private int addKey(double[] keys, int n, double key) {
+        // NaN is never equals to anything and -0.0 == 0.0
+        if (!Double.isNaN(key)) {
+            keys[n++] = key + 0d;
+        }
+        return n;
+    }
+
+    protected boolean contains(int row) {
+        if (numbers.isNull(row)) {
+            return nullMatch;
+        }
+        double value = numbers.getDouble(row);
+        return !Double.isNaN(value) && Arrays.binarySearch(keys, value + 0d) >= 0;
+    }
+
+    public boolean test(int row) {
+        return all || contains(row) != negate;
+    }
+
+    @Override
+    public int select(int[] rows, int length, int[] out) {
+        if (all) {
+            System.arraycopy(rows, 0, out, 0, length);
+            return length;
+        }
+        int n = 0;
+        for (int i = 0; i < length; i++) {
+            int row = rows[i];
+            if (contains(row) != negate) {
+                out[n++] = row;
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.filter;
+
+import java.util.Date;
+import java.util.List;
+
+import org.dashbuilder.dataset.date.TimeFrame;
+import org.dashbuilder.dataset.filter.CoreFunctionType;
+import org.dashbuilder.dataset.impl.DateColumnValues;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
+
+/**
+ * Compiled range filter (null checks, lower/greater than, between and time frames) over the primitive
+ * storage of NUMBER and DATE columns. Dates are compared by their epoch millis.
+ */
+public abstract class RangePredicate extends FilterPredicate {
+
+    protected boolean nullPass = false;
+    protected boolean valuePass = true;
+    protected boolean hasLow = false;
+    protected boolean lowInclusive = true;
+    protected double low;
+    protected boolean hasHigh = false;
+    protected boolean highInclusive = true;
+    protected double high;
+
+    /**
+     * Compile the given function for a NUMBER or DATE column.
+     * @return The compiled predicate or null if the function can not be compiled into a range.
+     */
+    public static RangePredicate compile(CoreFunction function, List values) {
+        RangePredicate predicate;
+        if (values instanceof NumberColumnValues) {
+            predicate = new NumberRangePredicate((NumberColumnValues) values);
+        } else if (values instanceof DateColumnValues) {
+            predicate = new DateRangePredicate((DateColumnValues) values);
+        } else {
+            return null;
+        }
+        return predicate.init(function) ? predicate : null;
+    }
+
+    protected boolean init(CoreFunction function) {
+        CoreFunctionType type = function.getCoreFunctionFilter().getType();
+        Comparable ref = function.getParameter(0);
+        switch (type) {
+            case IS_NULL:
+                return constant(true, false);
+            case NOT_NULL:
+                return constant(false, true);
+            case GREATER_THAN:
+                if (ref == null) {
+                    return constant(false, true);
+                }
+                lowInclusive = false;
+                return setLow(ref);
+            case GREATER_OR_EQUALS_TO:
+                if (ref == null) {
+                    return constant(true, true);
+                }
+                return setLow(ref);
+            case LOWER_THAN:
+                if (ref == null) {
+                    return constant(false, false);
+                }
+                nullPass = true;
+                highInclusive = false;
+                return setHigh(ref);
+            case LOWER_OR_EQUALS_TO:
+                if (ref == null) {
+                    return constant(true, false);
+                }
+                nullPass = true;
+                return setHigh(ref);
+            case BETWEEN:
+                Comparable high = function.getParameter(1);
+                nullPass = ref == null;
+                return (ref == null || setLow(ref)) && (high == null || setHigh(high));
+            case TIME_FRAME:
+                return initTimeFrame(ref);
+            default:
+                return false;
+        }
+    }
+
+    protected boolean initTimeFrame(Comparable expr) {
+        return false;
+    }
+
+    protected boolean constant(boolean nullPass, boolean valuePass) {
+        this.nullPass = nullPass;
+        this.valuePass = valuePass;
+        return true;
+    }
+
+    protected boolean setLow(Comparable ref) {
+        if (!isBound(ref)) {
+            return false;
+        }
+        hasLow = true;
+        low = toDouble(ref);
+        return true;
+    }
+
+    protected boolean setHigh(Comparable ref) {
+        if (!isBound(ref)) {
+            return false;
+        }
+        hasHigh = true;
+        high = toDouble(ref);
+        return true;
+    }
+
+    /**
+     * Check the parameter can be compared against the column values (the same as <tt>value.compareTo(ref)</tt>).
+     */
+    protected abstract boolean isBound(Comparable ref);
+
+    protected abstract double toDouble(Comparable ref);
+
+    protected abstract boolean isNull(int row);
+
+    protected abstract double value(int row);
+
+    protected boolean inRange(double value) {
+        if (!valuePass) {
+            return false;
+        }
+        if (hasLow) {
+            int comp = Double.compare(value, low);
+            if (comp < 0 || (comp == 0 && !lowInclusive)) {
+                return false;
+            }
+        }
+        if (hasHigh) {
+            int comp = Double.compare(value, high);
+            if (comp > 0 || (comp == 0 && !highInclusive)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean test(int row) {
+        return isNull(row) ? nullPass : inRange(value(row));
+    }
+
+    @Override
+    public int select(int[] rows, int length, int[] out) {
+        int n = 0;
+        for (int i = 0; i < length; i++) {
+            int row = rows[i];
+            if (isNull(row) ? nullPass : inRange(value(row))) {
+                out[n++] = row;
+            }
+        }
+        return n;
+    }
+
+    public static class NumberRangePredicate extends RangePredicate {
+
+        private NumberColumnValues numbers;
+
+        public NumberRangePredicate(NumberColumnValues numbers) {
+            this.numbers = numbers;
+        }
+
+        protected boolean isBound(Comparable ref) {
+            return ref instanceof Double;
+        }
+
+        protected double toDouble(Comparable ref) {
+            return (Double) ref;
+        }
+
+        protected boolean isNull(int row) {
+            return numbers.isNull(row);
+        }
+
+        protected double value(int row) {
+            return numbers.getDouble(row);
+        }
+    }
+
+    public static class DateRangePredicate extends RangePredicate {
+
+        private DateColumnValues dates;
+
+        public DateRangePredicate(DateColumnValues dates) {
+            this.dates = dates;
+        }
+
+        @Override
+        protected boolean initTimeFrame(Comparable expr) {
+            if (expr == null) {
+                return false;
+            }
+            TimeFrame timeFrame = TimeFrame.parse(expr.toString());
+            if (timeFrame == null) {
+                return false;
+            }
+            hasLow = hasHigh = true;
+            low = timeFrame.getFrom().getTimeInstant().getTime();
+            high = timeFrame.getTo().getTimeInstant().getTime();
+            return true;
+        }
+
+        protected boolean isBound(Comparable ref) {
+            return ref instanceof Date;
+        }
+
+        protected double toDouble(Comparable ref) {
+            return ((Date) ref).getTime();
+        }
+
+        protected boolean isNull(int row) {
+            return dates.isNull(row);
+        }
+
+        protected double value(int row) {
+            return dates.getMillis(row);
+        }
+    }
+}
@@ -42,6 +42,11 @@ public class AggregateFunctionManagerImpl implements AggregateFunctionManager {
         registerFunction(new JoinFunction());
         registerFunction(new JoinCommaFunction());
         registerFunction(new JoinHyphenFunction());
+        registerFunction(new DistinctApproxFunction());
+        registerFunction(new PercentileFunction(AggregateFunctionType.MEDIAN_APPROX, 0.5));
+        registerFunction(new PercentileFunction(AggregateFunctionType.PERCENTILE_90, 0.9));
+        registerFunction(new PercentileFunction(AggregateFunctionType.PERCENTILE_95, 0.95));
+        registerFunction(new PercentileFunction(AggregateFunctionType.PERCENTILE_99, 0.99));
     }
 
     public Collection<AggregateFunction> getAllFunctions() {
@@ -55,4 +55,12 @@ public class AverageFunction extends SumFunction {
         return round(average, precission);
     }
 
-}
\ No newline at end of file
+    @Override
+    public Object getResult(SumState state) {
+        if (state.count == 0) {
+            return 0d;
+        }
+        double average = (double) super.getResult(state) / state.count;
+        return round(average, precission);
+    }
+}
@@ -22,7 +22,7 @@ import org.dashbuilder.dataset.group.AggregateFunctionType;
 /**
  * It calculates the number of occurrences inside a given collection.
  */
-public class CountFunction extends AbstractFunction {
+public class CountFunction extends AbstractFunction implements MergeableAggregateFunction<Double> {
 
     public CountFunction() {
         super();
@@ -48,4 +48,16 @@ public class CountFunction extends AbstractFunction {
         }
         return (double) rows.size();
     }
-}
\ No newline at end of file
+
+    public Double accumulate(List values, List<Integer> rows) {
+        return (double) rows.size();
+    }
+
+    public Double merge(Double state1, Double state2) {
+        return state1 + state2;
+    }
+
+    public Object getResult(Double state) {
+        return state;
+    }
+}
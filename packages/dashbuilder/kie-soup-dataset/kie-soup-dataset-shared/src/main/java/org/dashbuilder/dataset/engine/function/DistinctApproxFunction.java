@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.function;
+
+import java.util.List;
+
+import org.dashbuilder.dataset.group.AggregateFunctionType;
+
+/**
+ * It estimates the number of distinct occurrences inside a given collection by means of a {@link HyperLogLog}
+ * sketch. Unlike the exact {@link DistinctFunction}, the memory required is constant no matter how many distinct
+ * values there are.
+ */
+public class DistinctApproxFunction extends AbstractFunction implements MergeableAggregateFunction<HyperLogLog> {
+
+    protected int hllPrecision;
+
+    public DistinctApproxFunction() {
+        this(HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    public DistinctApproxFunction(int hllPrecision) {
+        super();
+        this.hllPrecision = hllPrecision;
+    }
+
+    public AggregateFunctionType getType() {
+        return AggregateFunctionType.DISTINCT_APPROX;
+    }
+
+    public Object aggregate(List values) {
+        if (values == null || values.isEmpty()) {
+            return 0d;
+        }
+        HyperLogLog hll = new HyperLogLog(hllPrecision);
+        for (Object value : values) {
+            hll.add(value);
+        }
+        return getResult(hll);
+    }
+
+    public Object aggregate(List values, List<Integer> rows) {
+        if (rows == null) {
+            return aggregate(values);
+        }
+        if (rows.isEmpty()) {
+            return 0d;
+        }
+        if (values == null || values.isEmpty()) {
+            return 0d;
+        }
+        return getResult(accumulate(values, rows));
+    }
+
+    public HyperLogLog accumulate(List values, List<Integer> rows) {
+        HyperLogLog hll = new HyperLogLog(hllPrecision);
+        for (Integer row : rows) {
+            hll.add(values.get(row));
+        }
+        return hll;
+    }
+
+    public HyperLogLog merge(HyperLogLog state1, HyperLogLog state2) {
+        return state1.merge(state2);
+    }
+
+    public Object getResult(HyperLogLog state) {
+        return (double) state.cardinality();
+    }
+}
@@ -16,7 +16,6 @@
 package org.dashbuilder.dataset.engine.function;
 
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -25,7 +24,7 @@ import org.dashbuilder.dataset.group.AggregateFunctionType;
 /**
  * It calculates the number of distinct occurrences inside a given collection.
  */
-public class DistinctFunction extends AbstractFunction {
+public class DistinctFunction extends AbstractFunction implements MergeableAggregateFunction<Set> {
 
     public DistinctFunction() {
         super();
@@ -42,12 +41,7 @@ public class DistinctFunction extends AbstractFunction {
 
         // Return the number of distinct items in the collection.
         Set distincts = new HashSet();
-        Iterator it = values.iterator();
-        while (it.hasNext()) {
-            Object o = it.next();
-            if (distincts.contains(o)) {
-                continue;
-            }
+        for (Object o : values) {
             distincts.add(o);
         }
         return (double) distincts.size();
@@ -65,14 +59,24 @@ public class DistinctFunction extends AbstractFunction {
         }
 
         // Return the number of distinct items in the collection.
+        return getResult(accumulate(values, rows));
+    }
+
+    public Set accumulate(List values, List<Integer> rows) {
         Set distincts = new HashSet();
         for (Integer row : rows) {
-            Object o = values.get(row);
-            if (distincts.contains(o)) {
-                continue;
-            }
-            distincts.add(o);
+            distincts.add(values.get(row));
         }
-        return (double) distincts.size();
+        return distincts;
+    }
+
+    public Set merge(Set state1, Set state2) {
+        Set target = state1.size() >= state2.size() ? state1 : state2;
+        target.addAll(target == state1 ? state2 : state1);
+        return target;
+    }
+
+    public Object getResult(Set state) {
+        return (double) state.size();
     }
 }
@@ -15,15 +15,17 @@
  */
 package org.dashbuilder.dataset.engine.function;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import org.dashbuilder.dataset.engine.index.RowSet;
 import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
 
 /**
- * It calculates the average value of a set of numbers.
+ * It calculates the median value of a set of numbers.
  */
-public class MedianFunction extends AbstractFunction {
+public class MedianFunction extends AbstractFunction implements MergeableAggregateFunction<double[]> {
 
     public MedianFunction() {
         super();
@@ -37,23 +39,7 @@ public class MedianFunction extends AbstractFunction {
         if (values == null || values.isEmpty()) {
             return 0d;
         }
-
-        var n = values.size();
-
-        if (n == 1) {
-            return ((Number) values.get(0)).doubleValue();
-        }
-
-        var sortedValues = values.stream().mapToDouble(v -> ((Number) v).doubleValue()).sorted().toArray();
-
-        if (n % 2 == 1) {
-            return sortedValues[n / 2];
-        }
-        var middle = n / 2;
-        var ii = n == 2 ? 0 : middle - 1;
-        var is = n == 2 ? 1 : middle;
-        var v = (sortedValues[ii] + sortedValues[is]) / 2d;
-        return round(v, precission);
+        return getResult(accumulate(values, null));
     }
 
     public Object aggregate(List values, List<Integer> rows) {
@@ -66,10 +52,108 @@ public class MedianFunction extends AbstractFunction {
         if (values == null || values.isEmpty()) {
             return 0d;
         }
-        var _values = rows.stream()
-                .map(values::get)
-                .collect(Collectors.toList());
-        return this.aggregate(_values);
+        return getResult(accumulate(values, rows));
+    }
+
+    /**
+     * Copy the (non null) values of the given rows into a primitive array.
+     * @param rows The rows to copy or <tt>null</tt> to copy all of them.
+     */
+    public double[] accumulate(List values, List<Integer> rows) {
+        var n = rows == null ? values.size() : rows.size();
+        var result = new double[n];
+        var size = 0;
+        // Iterate the rows since positional access on a RowSet is not constant time
+        var it = rows == null ? null : rows.iterator();
+        var rowIt = it instanceof RowSet.RowIterator ? (RowSet.RowIterator) it : null;
+        if (values instanceof NumberColumnValues) {
+            var numbers = (NumberColumnValues) values;
+            for (int i = 0; i < n; i++) {
+                var row = it == null ? i : (rowIt != null ? rowIt.nextRow() : it.next());
+                if (!numbers.isNull(row)) result[size++] = numbers.getDouble(row);
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                var value = (Number) values.get(it == null ? i : (rowIt != null ? rowIt.nextRow() : it.next()));
+                if (value != null) result[size++] = value.doubleValue();
+            }
+        }
+        return size == n ? result : Arrays.copyOf(result, size);
     }
 
+    public double[] merge(double[] state1, double[] state2) {
+        var result = Arrays.copyOf(state1, state1.length + state2.length);
+        System.arraycopy(state2, 0, result, state1.length, state2.length);
+        return result;
+    }
+
+    /**
+     * Get the median of the given values. The array is partially reordered.
+     */
+    public Object getResult(double[] state) {
+        var n = state.length;
+        if (n == 0) {
+            return 0d;
+        }
+        if (n == 1) {
+            return state[0];
+        }
+        var middle = n / 2;
+        select(state, middle);
+        if (n % 2 == 1) {
+            return state[middle];
+        }
+        // After the selection, the lower middle value is the greatest of the left side
+        var lower = state[0];
+        for (int i = 1; i < middle; i++) {
+            lower = Math.max(lower, state[i]);
+        }
+        return round((lower + state[middle]) / 2d, precission);
+    }
+
+    /**
+     * Introselect: reorder the array so that the k-th smallest value is at position k, the smaller values before it
+     * and the greater ones after. It runs a quickselect in linear time and, if the partitions get unbalanced,
+     * falls back to sorting the remaining range.
+     */
+    static void select(double[] a, int k) {
+        var lo = 0;
+        var hi = a.length - 1;
+        var depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(a.length));
+        while (hi > lo) {
+            if (depthLimit-- == 0) {
+                Arrays.sort(a, lo, hi + 1);
+                return;
+            }
+            // Median of three pivot
+            var mid = (lo + hi) >>> 1;
+            if (a[mid] < a[lo]) swap(a, lo, mid);
+            if (a[hi] < a[lo]) swap(a, lo, hi);
+            if (a[hi] < a[mid]) swap(a, mid, hi);
+            var pivot = a[mid];
+
+            var i = lo;
+            var j = hi;
+            while (i <= j) {
+                while (a[i] < pivot) i++;
+                while (a[j] > pivot) j--;
+                if (i <= j) {
+                    swap(a, i++, j--);
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        var tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
 }
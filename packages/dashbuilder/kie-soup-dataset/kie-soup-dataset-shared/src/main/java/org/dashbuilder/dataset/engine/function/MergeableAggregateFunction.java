@@ -0,0 +1,45 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.function;
+
+import java.util.List;
+
+import org.dashbuilder.dataset.group.AggregateFunction;
+
+/**
+ * An aggregate function that can be calculated over several row partitions in parallel. Every partition gets a
+ * partial state which is merged with the others before getting the final result.
+ * @param <S> The partial state type
+ */
+public interface MergeableAggregateFunction<S> extends AggregateFunction {
+
+    /**
+     * Get the partial state of the given rows.
+     * @param values The column values
+     * @param rows The rows of the partition
+     */
+    S accumulate(List values, List<Integer> rows);
+
+    /**
+     * Merge two partial states. The first state belongs to the rows that come before.
+     */
+    S merge(S state1, S state2);
+
+    /**
+     * Get the aggregate value of a (merged) partial state.
+     */
+    Object getResult(S state);
+}
@@ -22,7 +22,7 @@ import org.dashbuilder.dataset.group.AggregateFunctionType;
 /**
  * It calculates the min. number of a set of values.
  */
-public class MinFunction extends AbstractFunction {
+public class MinFunction extends AbstractFunction implements MergeableAggregateFunction<Comparable> {
 
     public MinFunction() {
         super();
@@ -75,4 +75,25 @@ public class MinFunction extends AbstractFunction {
         // Adjust to the specified precision.
         return result instanceof Number ? round((Number) result, precission) : result;
     }
-}
\ No newline at end of file
+
+    public Comparable accumulate(List values, List<Integer> rows) {
+        Comparable result = null;
+        for (Integer row : rows) {
+            Comparable val = (Comparable) values.get(row);
+            if (val != null && (result == null || val.compareTo(result) < 0)) {
+                result = val;
+            }
+        }
+        return result;
+    }
+
+    public Comparable merge(Comparable state1, Comparable state2) {
+        if (state1 == null) return state2;
+        if (state2 == null) return state1;
+        return state2.compareTo(state1) < 0 ? state2 : state1;
+    }
+
+    public Object getResult(Comparable state) {
+        return state instanceof Number ? round((Number) state, precission) : state;
+    }
+}
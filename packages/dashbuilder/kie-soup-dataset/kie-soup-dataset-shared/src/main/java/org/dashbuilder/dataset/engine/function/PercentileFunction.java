@@ -0,0 +1,118 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.function;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.dashbuilder.dataset.engine.index.RowSet;
+import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
+
+/**
+ * It estimates a percentile (the median by default) of a set of numbers by means of a {@link TDigest}.
+ * Unlike the exact {@link MedianFunction}, the memory required is constant no matter how many values are aggregated.
+ */
+public class PercentileFunction extends AbstractFunction implements MergeableAggregateFunction<TDigest> {
+
+    protected AggregateFunctionType type;
+    protected double quantile;
+    protected double compression;
+
+    public PercentileFunction() {
+        this(AggregateFunctionType.MEDIAN_APPROX, 0.5);
+    }
+
+    /**
+     * @param type The function type
+     * @param quantile The percentile to calculate as a number between 0 and 1
+     */
+    public PercentileFunction(AggregateFunctionType type, double quantile) {
+        this(type, quantile, TDigest.DEFAULT_COMPRESSION);
+    }
+
+    public PercentileFunction(AggregateFunctionType type, double quantile, double compression) {
+        super();
+        this.type = type;
+        this.quantile = quantile;
+        this.compression = compression;
+    }
+
+    public AggregateFunctionType getType() {
+        return type;
+    }
+
+    public double getQuantile() {
+        return quantile;
+    }
+
+    public Object aggregate(List values) {
+        if (values == null || values.isEmpty()) {
+            return 0d;
+        }
+        return getResult(accumulate(values, null));
+    }
+
+    public Object aggregate(List values, List<Integer> rows) {
+        if (rows == null) {
+            return aggregate(values);
+        }
+        if (rows.isEmpty()) {
+            return 0d;
+        }
+        if (values == null || values.isEmpty()) {
+            return 0d;
+        }
+        return getResult(accumulate(values, rows));
+    }
+
+    /**
+     * Add the (non null) values of the given rows to a new digest.
+     * @param rows The rows to add or <tt>null</tt> to add all of them.
+     */
+    public TDigest accumulate(List values, List<Integer> rows) {
+        TDigest digest = new TDigest(compression);
+        int n = rows == null ? values.size() : rows.size();
+        // Iterate the rows since positional access on a RowSet is not constant time
+        Iterator<Integer> it = rows == null ? null : rows.iterator();
+        RowSet.RowIterator rowIt = it instanceof RowSet.RowIterator ? (RowSet.RowIterator) it : null;
+        if (values instanceof NumberColumnValues) {
+            NumberColumnValues numbers = (NumberColumnValues) values;
+            for (int i = 0; i < n; i++) {
+                int row = it == null ? i : (rowIt != null ? rowIt.nextRow() : it.next());
+                if (!numbers.isNull(row)) digest.add(numbers.getDouble(row));
+            }
+            return digest;
+        }
+        for (int i = 0; i < n; i++) {
+            Number value = (Number) values.get(it == null ? i : (rowIt != null ? rowIt.nextRow() : it.next()));
+            if (value != null) digest.add(value.doubleValue());
+        }
+        return digest;
+    }
+
+    public TDigest merge(TDigest state1, TDigest state2) {
+        state1.add(state2);
+        return state1;
+    }
+
+    public Object getResult(TDigest state) {
+        if (state.getTotalWeight() == 0) {
+            return 0d;
+        }
+        return round(state.quantile(quantile), precission);
+    }
+}
@@ -19,11 +19,12 @@ import java.util.Iterator;
 import java.util.List;
 
 import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
 
 /**
  * It calculates the sum value of a set of numbers.
  */
-public class SumFunction extends AbstractFunction {
+public class SumFunction extends AbstractFunction implements MergeableAggregateFunction<SumFunction.SumState> {
 
     public SumFunction() {
         super();
@@ -40,6 +41,13 @@ public class SumFunction extends AbstractFunction {
 
         // Sum the collection.
         double sum = 0d;
+        if (values instanceof NumberColumnValues) {
+            NumberColumnValues numbers = (NumberColumnValues) values;
+            for (int i = 0; i < numbers.size(); i++) {
+                if (!numbers.isNull(i)) sum += numbers.getDouble(i);
+            }
+            return round(sum, precission);
+        }
         Iterator it = values.iterator();
         while (it.hasNext()) {
             Number n = (Number) it.next();
@@ -62,6 +70,13 @@ public class SumFunction extends AbstractFunction {
 
         // Sum the collection.
         double sum = 0d;
+        if (values instanceof NumberColumnValues) {
+            NumberColumnValues numbers = (NumberColumnValues) values;
+            for (Integer row : rows) {
+                if (!numbers.isNull(row)) sum += numbers.getDouble(row);
+            }
+            return round(sum, precission);
+        }
         for (Integer row : rows) {
             Number n = (Number) values.get(row);
             if (n == null) continue;
@@ -69,4 +84,40 @@ public class SumFunction extends AbstractFunction {
         }
         return round(sum, precission);
     }
-}
\ No newline at end of file
+
+    public SumState accumulate(List values, List<Integer> rows) {
+        SumState state = new SumState();
+        state.count = rows.size();
+        if (values instanceof NumberColumnValues) {
+            NumberColumnValues numbers = (NumberColumnValues) values;
+            for (Integer row : rows) {
+                if (!numbers.isNull(row)) state.sum += numbers.getDouble(row);
+            }
+            return state;
+        }
+        for (Integer row : rows) {
+            Number n = (Number) values.get(row);
+            if (n != null) state.sum += n.doubleValue();
+        }
+        return state;
+    }
+
+    public SumState merge(SumState state1, SumState state2) {
+        state1.sum += state2.sum;
+        state1.count += state2.count;
+        return state1;
+    }
+
+    public Object getResult(SumState state) {
+        return round(state.sum, precission);
+    }
+
+    /**
+     * Partial sum of a set of rows
+     */
+    public static class SumState {
+
+        double sum = 0d;
+        int count = 0;
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.function;
+
+/**
+ * A merging t-digest: a compact sketch of a distribution of numbers that estimates its quantiles (median,
+ * percentiles). The values are grouped into weighted centroids which are smaller near the tails, so the extreme
+ * quantiles are more accurate than the central ones. Two digests can be merged, so the sketch can be calculated
+ * over several partitions.
+ *
+ * <p>See T. Dunning, O. Ertl: "Computing Extremely Accurate Quantiles Using t-Digests".</p>
+ */
+public class TDigest {
+
+    public static final double DEFAULT_COMPRESSION = 100;
+
+    private final double compression;
+
+    // Merged centroids, sorted by mean
+    private double[] means;
+    private double[] weights;
+    private int centroids = 0;
+
+    // Values (or centroids) added since the last merge
+    private double[] bufferMeans;
+    private double[] bufferWeights;
+    private int buffered = 0;
+
+    private double totalWeight = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param compression Max number of centroids (roughly). Higher values mean more accurate quantiles.
+     */
+    public TDigest(double compression) {
+        this.compression = compression;
+        int size = (int) Math.ceil(compression) + 1;
+        means = new double[size];
+        weights = new double[size];
+        bufferMeans = new double[size * 5];
+        bufferWeights = new double[size * 5];
+    }
+
+    public double getCompression() {
+        return compression;
+    }
+
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    public int getCentroidCount() {
+        compress();
+        return centroids;
+    }
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    public void add(double value, double weight) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (buffered == bufferMeans.length) {
+            compress();
+        }
+        bufferMeans[buffered] = value;
+        bufferWeights[buffered] = weight;
+        buffered++;
+        totalWeight += weight;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Add all the centroids of another digest into this one.
+     */
+    public void add(TDigest other) {
+        other.compress();
+        for (int i = 0; i < other.centroids; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Estimate the value at the given quantile.
+     * @param q A number between 0 and 1 (0.5 is the median)
+     * @return The estimated value or <tt>NaN</tt> if the digest is empty.
+     */
+    public double quantile(double q) {
+        compress();
+        if (centroids == 0) {
+            return Double.NaN;
+        }
+        if (centroids == 1 || q <= 0) {
+            return q <= 0 ? min : means[0];
+        }
+        if (q >= 1) {
+            return max;
+        }
+        double index = q * totalWeight;
+
+        // Before the center of the first centroid, interpolate from the min
+        if (index < weights[0] / 2) {
+            return min + 2 * index / weights[0] * (means[0] - min);
+        }
+        // Between the centers of two centroids
+        double weightSoFar = weights[0] / 2;
+        for (int i = 0; i < centroids - 1; i++) {
+            double delta = (weights[i] + weights[i + 1]) / 2;
+            if (weightSoFar + delta > index) {
+                double z = (index - weightSoFar) / delta;
+                return means[i] + z * (means[i + 1] - means[i]);
+            }
+            weightSoFar += delta;
+        }
+        // After the center of the last centroid, interpolate to the max
+        int last = centroids - 1;
+        double z = (index - weightSoFar) / (weights[last] / 2);
+        return means[last] + Math.min(1, z) * (max - means[last]);
+    }
+
+    /**
+     * Merge the buffered values into the centroids.
+     */
+    protected void compress() {
+        if (buffered == 0) {
+            return;
+        }
+        // Put all together and sort them by mean
+        int n = centroids + buffered;
+        double[] allMeans = new double[n];
+        double[] allWeights = new double[n];
+        System.arraycopy(means, 0, allMeans, 0, centroids);
+        System.arraycopy(weights, 0, allWeights, 0, centroids);
+        System.arraycopy(bufferMeans, 0, allMeans, centroids, buffered);
+        System.arraycopy(bufferWeights, 0, allWeights, centroids, buffered);
+        sort(allMeans, allWeights, 0, n - 1);
+        buffered = 0;
+
+        // Merge the adjacent centroids while the k-size of the result does not exceed 1
+        centroids = 0;
+        double weightSoFar = 0;
+        double mean = allMeans[0];
+        double weight = allWeights[0];
+        double kLimit = k(0) + 1;
+        for (int i = 1; i < n; i++) {
+            double proposed = weightSoFar + weight + allWeights[i];
+            if (k(proposed / totalWeight) <= kLimit) {
+                weight += allWeights[i];
+                mean += (allMeans[i] - mean) * allWeights[i] / weight;
+            } else {
+                weightSoFar += weight;
+                addCentroid(mean, weight);
+                kLimit = k(weightSoFar / totalWeight) + 1;
+                mean = allMeans[i];
+                weight = allWeights[i];
+            }
+        }
+        addCentroid(mean, weight);
+    }
+
+    private void addCentroid(double mean, double weight) {
+        if (centroids == means.length) {
+            int size = centroids * 2;
+            double[] newMeans = new double[size];
+            double[] newWeights = new double[size];
+            System.arraycopy(means, 0, newMeans, 0, centroids);
+            System.arraycopy(weights, 0, newWeights, 0, centroids);
+            means = newMeans;
+            weights = newWeights;
+        }
+        means[centroids] = mean;
+        weights[centroids] = weight;
+        centroids++;
+    }
+
+    /**
+     * The k1 scale function. It maps a quantile into a scale where every centroid takes at most one unit.
+     */
+    private double k(double q) {
+        return compression * Math.asin(2 * Math.min(1, q) - 1) / (2 * Math.PI);
+    }
+
+    /**
+     * Sort by mean two parallel arrays
+     */
+    private static void sort(double[] keys, double[] values, int lo, int hi) {
+        while (hi - lo > 16) {
+            double pivot = keys[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (keys[i] < pivot) i++;
+                while (keys[j] > pivot) j--;
+                if (i <= j) {
+                    swap(keys, values, i++, j--);
+                }
+            }
+            // Recurse into the smaller side
+            if (j - lo < hi - i) {
+                sort(keys, values, lo, j);
+                lo = i;
+            } else {
+                sort(keys, values, i, hi);
+                hi = j;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && keys[j - 1] > keys[j]; j--) {
+                swap(keys, values, j, j - 1);
+            }
+        }
+    }
+
+    private static void swap(double[] keys, double[] values, int i, int j) {
+        double k = keys[i];
+        keys[i] = keys[j];
+        keys[j] = k;
+        double v = values[i];
+        values[i] = values[j];
+        values[j] = v;
+    }
+}
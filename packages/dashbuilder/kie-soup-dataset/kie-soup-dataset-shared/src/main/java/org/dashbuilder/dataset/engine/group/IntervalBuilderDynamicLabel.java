@@ -15,17 +15,20 @@
  */
 package org.dashbuilder.dataset.engine.group;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.dashbuilder.dataset.DataColumn;
 import org.dashbuilder.dataset.engine.DataSetHandler;
 import org.dashbuilder.dataset.group.ColumnGroup;
 import org.dashbuilder.dataset.group.Interval;
+import org.dashbuilder.dataset.impl.LabelColumnValues;
 
 /**
  * Interval builder for label columns which generates one interval per label.
  */
-public class IntervalBuilderDynamicLabel implements IntervalBuilder {
+public class IntervalBuilderDynamicLabel implements MergeableIntervalBuilder {
 
     public IntervalList build(DataSetHandler ctx, ColumnGroup columnGroup) {
         IntervalListLabel intervalList = new IntervalListLabel(columnGroup);
@@ -42,37 +45,85 @@ public class IntervalBuilderDynamicLabel implements IntervalBuilder {
         return intervalList.indexValues(values, null);
     }
 
+    public IntervalList merge(List<IntervalList> partialLists) {
+        // Intervals are sorted by first appearance, so they are merged following the partitions order
+        IntervalListLabel intervalList = new IntervalListLabel(partialLists.get(0).getColumnGroup());
+        for (IntervalList partialList : partialLists) {
+            for (Interval partial : partialList) {
+                Interval interval = intervalList.locateInterval(partial.getName());
+                if (interval == null) {
+                    interval = intervalList.createInterval(partial.getName());
+                }
+                interval.getRows().addAll(partial.getRows());
+            }
+        }
+        return intervalList;
+    }
+
+    /**
+     * Interval list which keeps a hash index of the intervals by label so every value is classified in
+     * constant time. For dictionary encoded columns the label code is used directly, no hashing at all.
+     */
     private class IntervalListLabel extends IntervalList {
 
+        private Map<String, Interval> intervalMap = new HashMap<String, Interval>();
+        private Interval[] intervalByCode = null;
+
         private IntervalListLabel(ColumnGroup columnGroup) {
             super(columnGroup);
         }
 
+        @Override
+        public IntervalList indexValues(List<Object> values, List<Integer> rows) {
+            if (!(values instanceof LabelColumnValues)) {
+                return super.indexValues(values, rows);
+            }
+            LabelColumnValues labels = (LabelColumnValues) values;
+            intervalByCode = new Interval[labels.getDictionarySize()];
+            dictionaryNames = true;
+            if (rows == null) {
+                for (int row = 0; row < labels.size(); row++) {
+                    indexCode(labels, labels.getCode(row), row);
+                }
+            } else {
+                for (Integer row : rows) {
+                    indexCode(labels, labels.getCode(row), row);
+                }
+            }
+            return this;
+        }
+
+        private void indexCode(LabelColumnValues labels, int code, int row) {
+            if (code == LabelColumnValues.NULL_CODE) {
+                indexValue(null, row);
+                return;
+            }
+            Interval interval = intervalByCode[code];
+            if (interval == null) {
+                interval = intervalByCode[code] = createInterval(labels.getDictionary().get(code));
+            }
+            interval.getRows().add(row);
+        }
+
         public void indexValue(Object value, int row) {
             Interval interval = locateInterval(value);
             if (interval == null) {
                 // TODO: create a composite interval when the maxIntervals are reached.
-                String name = (value == null ? null : value.toString());
-                int index = this.size();
-                this.add(interval = new Interval(name, index));
+                interval = createInterval(value == null ? null : value.toString());
             }
             interval.getRows().add(row);
         }
 
+        private Interval createInterval(String name) {
+            Interval interval = new Interval(name, this.size());
+            this.add(interval);
+            intervalMap.put(name, interval);
+            return interval;
+        }
+
         public Interval locateInterval(Object value) {
-            for (Interval interval : this) {
-                if (interval.getName() == value) {
-                    return interval;
-                }
-                if (interval.getName() == null) {
-                    continue;
-                }
-                String name = (value == null ? null : value.toString());
-                if (interval.getName().equals(name)) {
-                    return interval;
-                }
-            }
-            return null;
+            String name = (value == null ? null : value.toString());
+            return intervalMap.get(name);
         }
     }
 }
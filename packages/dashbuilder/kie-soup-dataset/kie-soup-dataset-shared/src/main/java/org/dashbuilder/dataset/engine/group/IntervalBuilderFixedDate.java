@@ -34,7 +34,7 @@ import static org.dashbuilder.dataset.group.DateIntervalType.SECOND;
  * Interval builder for date columns which generates a fixed number of intervals for a given interval size.
  * <p>The only intervals sizes supported are: QUARTER, MONTH, DAY_OF_WEEK, HOUR, MINUTE & SECOND.</p>
  */
-public class IntervalBuilderFixedDate implements IntervalBuilder {
+public class IntervalBuilderFixedDate implements MergeableIntervalBuilder {
 
     public IntervalList build(DataSetHandler ctx, ColumnGroup columnGroup) {
         IntervalList intervalList = _build(columnGroup);
@@ -52,6 +52,18 @@ public class IntervalBuilderFixedDate implements IntervalBuilder {
         return _build(columnGroup);
     }
 
+    public IntervalList merge(List<IntervalList> partialLists) {
+        // All the partial lists contain the same fixed intervals
+        IntervalList intervalList = partialLists.get(0);
+        for (int i = 1; i < partialLists.size(); i++) {
+            IntervalList partialList = partialLists.get(i);
+            for (int j = 0; j < intervalList.size(); j++) {
+                intervalList.get(j).getRows().addAll(partialList.get(j).getRows());
+            }
+        }
+        return intervalList;
+    }
+
     protected IntervalList _build(ColumnGroup columnGroup) {
         IntervalList intervalList = createIntervalList(columnGroup);
 
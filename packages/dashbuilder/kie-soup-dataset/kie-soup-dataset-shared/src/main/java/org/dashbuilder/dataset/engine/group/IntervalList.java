@@ -18,6 +18,7 @@ package org.dashbuilder.dataset.engine.group;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.dashbuilder.dataset.engine.index.DataSetDateRollup;
 import org.dashbuilder.dataset.group.ColumnGroup;
 import org.dashbuilder.dataset.group.Interval;
 
@@ -30,6 +31,8 @@ public abstract class IntervalList extends ArrayList<Interval> {
     protected String intervalType = null;
     protected Object minValue = null;
     protected Object maxValue = null;
+    protected DataSetDateRollup dateRollup = null;
+    protected boolean dictionaryNames = false;
 
     public IntervalList(ColumnGroup columnGroup) {
         super();
@@ -65,6 +68,25 @@ public abstract class IntervalList extends ArrayList<Interval> {
         this.maxValue = maxValue;
     }
 
+    public DataSetDateRollup getDateRollup() {
+        return dateRollup;
+    }
+
+    /**
+     * Set the date rollup the intervals have been built from, so their aggregate values can be got by merging
+     * the partial states of the rollup buckets.
+     */
+    public void setDateRollup(DataSetDateRollup dateRollup) {
+        this.dateRollup = dateRollup;
+    }
+
+    /**
+     * Whether the interval names are the very same instances kept in the dictionary of the column's labels.
+     */
+    public boolean hasDictionaryNames() {
+        return dictionaryNames;
+    }
+
     /**
      * Creates and classify the list of specified values into intervals.
      */
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.group;
+
+import java.util.List;
+
+/**
+ * An interval builder whose intervals can be built over several row partitions in parallel.
+ */
+public interface MergeableIntervalBuilder extends IntervalBuilder {
+
+    /**
+     * Merge the interval lists built over consecutive row partitions.
+     * @param partialLists The interval lists built for every partition, in the same order as the partitions.
+     * @return The same interval list that would have been built over all the rows.
+     */
+    IntervalList merge(List<IntervalList> partialLists);
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.index;
+
+import org.dashbuilder.dataset.engine.index.spi.DataSetIndexEvictionPolicy;
+
+/**
+ * Default eviction policy. It combines the cost of rebuilding an index, how frequently it is reused (LFU) and how
+ * recently it was accessed (LRU), weighted by the memory it takes. Cheap, big, rarely reused and idle indexes
+ * get the lowest scores.
+ */
+public class CostAwareEvictionPolicy implements DataSetIndexEvictionPolicy {
+
+    /**
+     * Time (in milliseconds) it takes for an idle element to lose half of its score.
+     */
+    protected long idleHalfLife = 60000;
+
+    public CostAwareEvictionPolicy() {
+    }
+
+    public CostAwareEvictionPolicy(long idleHalfLife) {
+        this.idleHalfLife = idleHalfLife;
+    }
+
+    public long getIdleHalfLife() {
+        return idleHalfLife;
+    }
+
+    public double getRetentionScore(DataSetIndexElement element, long size, long now) {
+        double cost = element.getBuildTime() + 1d;
+        double frequency = element.getReuseHits() + 1d;
+        long idle = Math.max(0, now - element.getLastAccessTime());
+        double recency = 1d + (double) idle / Math.max(1, idleHalfLife);
+        return cost * frequency / (Math.max(1, size) * recency);
+    }
+}
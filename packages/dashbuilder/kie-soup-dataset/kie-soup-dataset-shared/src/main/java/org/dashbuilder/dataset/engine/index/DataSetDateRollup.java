@@ -0,0 +1,329 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.index;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dashbuilder.dataset.engine.function.MergeableAggregateFunction;
+import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.dashbuilder.dataset.group.DateIntervalType;
+import org.dashbuilder.dataset.impl.DateColumnValues;
+import org.dashbuilder.dataset.impl.MemSizeEstimator;
+
+import static org.dashbuilder.dataset.group.DateIntervalType.DAY;
+import static org.dashbuilder.dataset.group.DateIntervalType.HOUR;
+import static org.dashbuilder.dataset.group.DateIntervalType.MINUTE;
+
+/**
+ * A rollup of a DATE column over the rows of an index node. It keeps the epoch millis of the (non null) dates
+ * sorted in ascending order along with their rows, split into buckets of a base granularity (MINUTE, HOUR or DAY).
+ * <p>The rows of any date range are consecutive, so they are got with a binary search instead of comparing dates
+ * row by row. Besides, the partial states of the mergeable aggregate functions are calculated once per bucket, so
+ * the aggregate values of any range made of whole buckets (i.e. coarser date intervals) are got by merging the
+ * states of its buckets.</p>
+ */
+public class DataSetDateRollup extends DataSetIndexElement {
+
+    /**
+     * The base granularities, from the finest to the coarsest.
+     */
+    public static final List<DateIntervalType> BASE_TYPES = Arrays.asList(MINUTE, HOUR, DAY);
+
+    /**
+     * Min. number of rows per bucket (on average) for a base granularity to be chosen.
+     */
+    public static final int ROWS_PER_BUCKET = 16;
+
+    String columnId;
+    long[] millis;
+    int[] rows;
+    DateIntervalType baseType;
+
+    // Only non empty buckets are kept. Offsets are positions within the sorted arrays, plus the total at the end.
+    int bucketCount = 0;
+    long[] bucketStarts;
+    long[] bucketEnds;
+    int[] bucketOffsets;
+
+    // Partial states of the aggregate functions, by column & function
+    Map<String, Object[]> bucketStates = new HashMap<String, Object[]>();
+
+    // The node the rollup belongs to
+    DataSetIndexNode node = null;
+
+    /**
+     * @param columnId The DATE column
+     * @param values The column values
+     * @param sortedRows The rows of the index node sorted by the column in ascending order
+     */
+    public DataSetDateRollup(String columnId, List values, List<Integer> sortedRows, long buildTime) {
+        super(buildTime);
+        this.columnId = columnId;
+        DateColumnValues dates = values instanceof DateColumnValues ? (DateColumnValues) values : null;
+        int total = sortedRows == null ? values.size() : sortedRows.size();
+        long[] sortedMillis = new long[total];
+        int[] rowArray = new int[total];
+        int n = 0;
+        for (int i = 0; i < total; i++) {
+            int row = sortedRows == null ? i : sortedRows.get(i);
+            if (dates != null) {
+                if (dates.isNull(row)) continue;
+                sortedMillis[n] = dates.getMillis(row);
+            } else {
+                Object value = values.get(row);
+                if (value == null) continue;
+                sortedMillis[n] = ((Date) value).getTime();
+            }
+            if (n > 0 && sortedMillis[n] < sortedMillis[n - 1]) {
+                throw new IllegalArgumentException("Rows not sorted by the date column: " + columnId);
+            }
+            rowArray[n++] = row;
+        }
+        millis = n == total ? sortedMillis : Arrays.copyOf(sortedMillis, n);
+        rows = n == total ? rowArray : Arrays.copyOf(rowArray, n);
+        baseType = calculateBaseType();
+        buildBuckets();
+    }
+
+    public String getColumnId() {
+        return columnId;
+    }
+
+    public DateIntervalType getBaseType() {
+        return baseType;
+    }
+
+    /**
+     * Number of rows with a non null date.
+     */
+    public int getRowCount() {
+        return rows.length;
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    public Date getMinDate() {
+        return millis.length == 0 ? null : new Date(millis[0]);
+    }
+
+    public Date getMaxDate() {
+        return millis.length == 0 ? null : new Date(millis[millis.length - 1]);
+    }
+
+    /**
+     * Get the rows whose date is within the given range, sorted by date.
+     * @param from The range start (inclusive) in epoch millis
+     * @param to The range end (exclusive) in epoch millis
+     */
+    public List<Integer> getRows(long from, long to) {
+        int start = lowerBound(millis, millis.length, from);
+        int end = Math.max(start, lowerBound(millis, millis.length, to));
+        return new RowSlice(start, end);
+    }
+
+    /**
+     * Get the rows whose date is within the given range, in ascending order.
+     * @param from The range start (inclusive) in epoch millis
+     * @param to The range end (exclusive) in epoch millis
+     */
+    public RowSet getRowSet(long from, long to) {
+        int start = lowerBound(millis, millis.length, from);
+        int end = Math.max(start, lowerBound(millis, millis.length, to));
+        int[] block = Arrays.copyOfRange(rows, start, end);
+        Arrays.sort(block);
+        RowSet result = new RowSet();
+        result.addRows(block, block.length);
+        return result.trimToSize();
+    }
+
+    /**
+     * Get the partial state of an aggregate function for the rows within the given range by merging the states of
+     * its buckets. The bucket states are calculated the first time the function is requested.
+     * <p>The function's merge must not modify the second state it gets, as the bucket states are reused.</p>
+     * @param from The range start (inclusive) in epoch millis
+     * @param to The range end (exclusive) in epoch millis
+     * @return The merged state or <tt>null</tt> if the range is not made of whole buckets.
+     */
+    public <S> S accumulate(MergeableAggregateFunction<S> function, String valuesColumnId, List values, long from, long to) {
+        int first = lowerBound(bucketStarts, bucketCount, from);
+        if (first > 0 && bucketEnds[first - 1] > from) {
+            return null;
+        }
+        int last = lowerBound(bucketStarts, bucketCount, to);
+        if (last > 0 && bucketEnds[last - 1] > to) {
+            return null;
+        }
+        Object[] states = getBucketStates(function, valuesColumnId, values);
+        S state = function.accumulate(values, Collections.<Integer>emptyList());
+        for (int i = first; i < last; i++) {
+            state = function.merge(state, (S) states[i]);
+        }
+        return state;
+    }
+
+    protected synchronized Object[] getBucketStates(MergeableAggregateFunction function, String valuesColumnId, List values) {
+        AggregateFunctionType type = function.getType();
+        String key = valuesColumnId + "_" + type;
+        Object[] states = bucketStates.get(key);
+        if (states == null) {
+            states = new Object[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                states[i] = function.accumulate(values, new RowSlice(bucketOffsets[i], bucketOffsets[i + 1]));
+            }
+            bucketStates.put(key, states);
+            if (node != null) {
+                node.updateTreeSize((long) bucketCount * MemSizeEstimator.sizeOfDouble);
+            }
+        }
+        return states;
+    }
+
+    public long getEstimatedSize() {
+        long result = super.getEstimatedSize();
+        result += MemSizeEstimator.sizeOfLongArray(millis.length);
+        result += MemSizeEstimator.sizeOfIntArray(rows.length);
+        result += 2 * MemSizeEstimator.sizeOfLongArray(bucketStarts.length);
+        result += MemSizeEstimator.sizeOfIntArray(bucketOffsets.length);
+        result += (long) bucketStates.size() * bucketCount * MemSizeEstimator.sizeOfDouble;
+        return result;
+    }
+
+    /**
+     * Get the finest base granularity which keeps a minimum number of rows per bucket.
+     */
+    protected DateIntervalType calculateBaseType() {
+        if (millis.length < 2) {
+            return DAY;
+        }
+        long span = millis[millis.length - 1] - millis[0];
+        long maxBuckets = Math.max(1, millis.length / ROWS_PER_BUCKET);
+        for (DateIntervalType type : BASE_TYPES) {
+            if (span / DateIntervalType.getDurationInMillis(type) + 1 <= maxBuckets) {
+                return type;
+            }
+        }
+        return DAY;
+    }
+
+    protected void buildBuckets() {
+        int n = millis.length;
+        int capacity = 16;
+        bucketStarts = new long[capacity];
+        bucketEnds = new long[capacity];
+        bucketOffsets = new int[capacity + 1];
+        int i = 0;
+        while (i < n) {
+            long start = truncate(millis[i]);
+            long end = nextBucket(start);
+            int j = Math.max(i + 1, lowerBound(millis, n, end));
+            if (bucketCount == capacity) {
+                capacity *= 2;
+                bucketStarts = Arrays.copyOf(bucketStarts, capacity);
+                bucketEnds = Arrays.copyOf(bucketEnds, capacity);
+                bucketOffsets = Arrays.copyOf(bucketOffsets, capacity + 1);
+            }
+            bucketStarts[bucketCount] = start;
+            bucketEnds[bucketCount] = Math.max(end, millis[j - 1] + 1);
+            bucketOffsets[bucketCount++] = i;
+            i = j;
+        }
+        bucketStarts = Arrays.copyOf(bucketStarts, bucketCount);
+        bucketEnds = Arrays.copyOf(bucketEnds, bucketCount);
+        bucketOffsets = Arrays.copyOf(bucketOffsets, bucketCount + 1);
+        bucketOffsets[bucketCount] = n;
+    }
+
+    /**
+     * Get the start of the bucket (in local time) the given instant belongs to.
+     */
+    @SuppressWarnings("deprecation")
+    protected long truncate(long time) {
+        long ms = time % 1000;
+        if (ms < 0) ms += 1000;
+        Date d = new Date(time - ms);
+        d.setSeconds(0);
+        if (!MINUTE.equals(baseType)) d.setMinutes(0);
+        if (DAY.equals(baseType)) d.setHours(0);
+        return d.getTime();
+    }
+
+    @SuppressWarnings("deprecation")
+    protected long nextBucket(long start) {
+        long end = start + DateIntervalType.getDurationInMillis(baseType);
+        if (DAY.equals(baseType)) {
+            // Days are not always 24h long (daylight saving time)
+            Date d = new Date(start);
+            d.setDate(d.getDate() + 1);
+            end = d.getTime();
+        }
+        return end > start ? end : start + DateIntervalType.getDurationInMillis(baseType);
+    }
+
+    /**
+     * Get the position of the first element not lower than the given key.
+     */
+    static int lowerBound(long[] array, int length, long key) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (array[mid] < key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * A read only view of a range of the sorted rows.
+     */
+    class RowSlice extends AbstractList<Integer> {
+
+        int from;
+        int to;
+
+        RowSlice(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Integer get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
+            }
+            return rows[from + index];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    public String toString() {
+        StringBuilder out = new StringBuilder(super.toString());
+        out.append(" column=").append(columnId).append(" ").append(baseType).append(" buckets=").append(bucketCount);
+        return out.toString();
+    }
+}
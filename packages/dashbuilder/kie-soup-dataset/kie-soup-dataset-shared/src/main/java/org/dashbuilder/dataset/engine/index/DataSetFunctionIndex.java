@@ -24,9 +24,17 @@ public class DataSetFunctionIndex extends DataSetIndexElement {
 
     Object value = null;
 
+    // Partial state of mergeable functions, so the value can be updated when new rows are appended.
+    Object state = null;
+
     public DataSetFunctionIndex(Object value, long buildTime) {
+        this(value, null, buildTime);
+    }
+
+    public DataSetFunctionIndex(Object value, Object state, long buildTime) {
         super(buildTime);
         this.value = value;
+        this.state = state;
     }
 
     public Object getValue() {
@@ -37,6 +45,14 @@ public class DataSetFunctionIndex extends DataSetIndexElement {
         this.value = value;
     }
 
+    public Object getState() {
+        return state;
+    }
+
+    public void setState(Object state) {
+        this.state = state;
+    }
+
     public long getEstimatedSize() {
         long result = super.getEstimatedSize();
         if (value != null) {
@@ -17,7 +17,9 @@ package org.dashbuilder.dataset.engine.index;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.dashbuilder.dataset.engine.group.IntervalList;
 import org.dashbuilder.dataset.engine.index.visitor.DataSetIndexVisitor;
@@ -31,13 +33,17 @@ public class DataSetGroupIndex extends DataSetIndexNode implements DataSetInterv
 
     // The group index is composed by a set of interval indexes.
     ColumnGroup columnGroup = null;
-    List<DataSetIntervalIndex> intervalIndexList = null;
+    // Copied on write, so concurrent lookups can iterate over the intervals without locking.
+    volatile List<DataSetIntervalIndex> intervalIndexList = null;
     String intervalType = null;
     Object minValue = null;
     Object maxValue = null;
 
+    // The date rollup the intervals have been built from (if any). It belongs to the parent node.
+    DataSetDateRollup dateRollup = null;
+
     // And can (optionally) contains a subset of interval selections.
-    List<DataSetGroupIndex> selectIndexList = null;
+    volatile List<DataSetGroupIndex> selectIndexList = null;
 
     // When the group represents a selection it has a selection key.
     String selectKey = null;
@@ -54,9 +60,12 @@ public class DataSetGroupIndex extends DataSetIndexNode implements DataSetInterv
         intervalType = intervalList.getIntervalType();
         minValue = intervalList.getMinValue();
         maxValue = intervalList.getMaxValue();
+        dateRollup = intervalList.getDateRollup();
+        List<DataSetIntervalIndex> intervalIndexes = new ArrayList<DataSetIntervalIndex>();
         for (Interval interval : intervalList) {
-            intervalIndexList.add(new DataSetIntervalIndex(this, interval));
+            intervalIndexes.add(new DataSetIntervalIndex(this, interval, intervalList.hasDictionaryNames()));
         }
+        intervalIndexList = intervalIndexes;
     }
 
     public DataSetGroupIndex(String selectKey, List<DataSetIntervalIndex> intervalIndexes) {
@@ -67,13 +76,13 @@ public class DataSetGroupIndex extends DataSetIndexNode implements DataSetInterv
         }
     }
 
-    public void addIntervalIndex(DataSetIntervalIndex index) {
+    public synchronized void addIntervalIndex(DataSetIntervalIndex index) {
         intervalType = index.getIntervalType();
         Comparable min = (Comparable) index.getMinValue();
         Comparable max = (Comparable) index.getMaxValue();
         if (minValue == null || ((Comparable) minValue).compareTo(min) > 0) minValue = min;
         if (maxValue == null || ((Comparable) maxValue).compareTo(max) < 0) maxValue = max;
-        intervalIndexList.add(index);
+        intervalIndexList = copyAndAdd(intervalIndexList, index);
     }
 
     public String getIntervalType() {
@@ -88,6 +97,10 @@ public class DataSetGroupIndex extends DataSetIndexNode implements DataSetInterv
         return maxValue;
     }
 
+    public DataSetDateRollup getDateRollup() {
+        return dateRollup;
+    }
+
     public void setIntervalType(String intervalType) {
         this.intervalType = intervalType;
     }
@@ -157,15 +170,17 @@ public class DataSetGroupIndex extends DataSetIndexNode implements DataSetInterv
         return null;
     }
 
-    public DataSetGroupIndex indexSelection(List<Interval> intervalList, List<DataSetIntervalIndex> intervalIndexes) {
-        if (selectIndexList == null) {
-            selectIndexList = new ArrayList<DataSetGroupIndex>();
+    public synchronized DataSetGroupIndex indexSelection(List<Interval> intervalList, List<DataSetIntervalIndex> intervalIndexes) {
+        // The same selection might have been indexed by a concurrent lookup
+        DataSetGroupIndex existing = getSelectionIndex(intervalList);
+        if (existing != null) {
+            return existing;
         }
         String key = buildSelectKey(intervalList);
         DataSetGroupIndex index = new DataSetGroupIndex(key, intervalIndexes);
         index.setParent(this);
         index.setBuildTime(buildTime);
-        selectIndexList.add(index);
+        selectIndexList = copyAndAdd(selectIndexList, index);
         return index;
     }
 
@@ -182,11 +197,36 @@ public class DataSetGroupIndex extends DataSetIndexNode implements DataSetInterv
         if (intervalIndexList == null || intervalIndexList.isEmpty()) {
             return null;
         }
-        List<Integer> results = new ArrayList<Integer>();
+        // Rows are sorted by interval, so they can not be merged into a row set
+        RowList results = new RowList();
         for (DataSetIntervalIndex intervalIndex : intervalIndexList) {
-            results.addAll(intervalIndex.getRows());
+            for (Integer row : intervalIndex.getRows()) {
+                results.addRow(row);
+            }
         }
-        return results;
+        return results.trimToSize();
+    }
+
+    public ColumnGroup getColumnGroup() {
+        return columnGroup;
+    }
+
+    /**
+     * Add a brand new interval at the end of the list. The list is copied on write so concurrent lookups
+     * iterating over the intervals are not affected.
+     */
+    public synchronized void appendIntervalIndex(DataSetIntervalIndex index) {
+        intervalIndexList = copyAndAdd(intervalIndexList, index);
+        indexAdded(index);
+    }
+
+    /**
+     * Removes the nested groups and the interval selections built on top of this group.
+     */
+    @Override
+    public synchronized void removeIndexes() {
+        super.removeIndexes();
+        selectIndexList = null;
     }
 
     public void indexIntervals(Collection<DataSetIntervalIndex> intervalsIdxs) {
@@ -195,7 +235,7 @@ public class DataSetGroupIndex extends DataSetIndexNode implements DataSetInterv
         }
     }
 
-    public void indexInterval(DataSetIntervalIndex intervalIdx) {
+    public synchronized void indexInterval(DataSetIntervalIndex intervalIdx) {
         String intervalName = intervalIdx.getName();
         DataSetIntervalIndex existing = getIntervalIndex(intervalName);
         if (existing == null) {
@@ -209,11 +249,149 @@ public class DataSetGroupIndex extends DataSetIndexNode implements DataSetInterv
                 DataSetIntervalSetIndex indexSet = new DataSetIntervalSetIndex(this, intervalName);
                 indexSet.addIntervalIndex(existing);
                 indexSet.addIntervalIndex(intervalIdx);
-                intervalIndexList.set(i, indexSet);
+                List<DataSetIntervalIndex> result = new ArrayList<DataSetIntervalIndex>(intervalIndexList);
+                result.set(i, indexSet);
+                intervalIndexList = result;
             }
         }
     }
 
+    /**
+     * Move the given rows to the intervals matching their current values, as the label interval builder does
+     * (one interval per distinct value, sorted by first appearance). Intervals left empty are removed, and the
+     * indexes built on top of any modified interval are discarded.
+     * <p>The modified intervals are replaced by brand new ones and the whole list is published at once, so
+     * concurrent lookups see either the old intervals or the new ones.</p>
+     * @param values The values of the grouped column
+     * @param changedRows The rows whose values have been modified
+     */
+    public synchronized void updateLabelIntervals(List values, RowSet changedRows) {
+        Map<String, RowSet> addedRows = new HashMap<String, RowSet>();
+        for (RowSet.RowIterator it = changedRows.rowIterator(); it.hasNext();) {
+            int row = it.nextRow();
+            Object value = values.get(row);
+            String name = value == null ? null : value.toString();
+            RowSet rows = addedRows.get(name);
+            if (rows == null) {
+                addedRows.put(name, rows = new RowSet());
+            }
+            rows.addRow(row);
+        }
+
+        List<DataSetIntervalIndex> result = new ArrayList<DataSetIntervalIndex>();
+        List<DataSetIntervalIndex> removed = new ArrayList<DataSetIntervalIndex>();
+        List<DataSetIntervalIndex> added = new ArrayList<DataSetIntervalIndex>();
+        for (DataSetIntervalIndex index : intervalIndexList) {
+            RowSet rows = toRowSet(index.getRows());
+            RowSet newRows = rows.andNot(changedRows);
+            RowSet intervalAddedRows = addedRows.remove(index.getName());
+            if (intervalAddedRows != null) {
+                newRows = newRows.or(intervalAddedRows);
+            }
+            if (intervalAddedRows == null && newRows.size() == rows.size()) {
+                result.add(index);
+                continue;
+            }
+            removed.add(index);
+            if (!newRows.isEmpty()) {
+                DataSetIntervalIndex newIndex = copyIntervalIndex(index, newRows);
+                result.add(newIndex);
+                added.add(newIndex);
+            }
+        }
+        for (Map.Entry<String, RowSet> entry : addedRows.entrySet()) {
+            DataSetIntervalIndex newIndex = new DataSetIntervalIndex(this, entry.getKey());
+            newIndex.rows = entry.getValue();
+            result.add(newIndex);
+            added.add(newIndex);
+        }
+        result.sort((i1, i2) -> Integer.compare(i1.getRows().get(0), i2.getRows().get(0)));
+        intervalIndexList = result;
+        selectIndexList = null;
+
+        indexesRemoved(removed);
+        for (DataSetIntervalIndex index : added) {
+            indexAdded(index);
+        }
+    }
+
+    /**
+     * Shift the rows of every interval after some rows have been added in front of the grouped column, dropping
+     * the rows evicted, and add the new rows to the intervals matching their values. Intervals are kept sorted by
+     * first appearance, as the label interval builder does.
+     * <p>Every interval is replaced by a brand new one and the whole list is published at once, so concurrent
+     * lookups see either the old intervals or the new ones.</p>
+     * @param values The values of the grouped column
+     * @param rows The number of rows added in front
+     * @param keptRows The number of previous rows kept after the ones added
+     */
+    public synchronized void prependLabelIntervals(List values, int rows, int keptRows) {
+        Map<String, RowSet> addedRows = new HashMap<String, RowSet>();
+        for (int row = 0; row < rows; row++) {
+            Object value = values.get(row);
+            String name = value == null ? null : value.toString();
+            RowSet intervalRows = addedRows.get(name);
+            if (intervalRows == null) {
+                addedRows.put(name, intervalRows = new RowSet());
+            }
+            intervalRows.addRow(row);
+        }
+
+        List<DataSetIntervalIndex> result = new ArrayList<DataSetIntervalIndex>();
+        List<DataSetIntervalIndex> added = new ArrayList<DataSetIntervalIndex>();
+        for (DataSetIntervalIndex index : intervalIndexList) {
+            RowSet newRows = addedRows.remove(index.getName());
+            if (newRows == null) {
+                newRows = new RowSet();
+            }
+            for (RowSet.RowIterator it = toRowSet(index.getRows()).rowIterator(); it.hasNext();) {
+                int row = it.nextRow();
+                if (row < keptRows) {
+                    newRows.addRow(row + rows);
+                }
+            }
+            if (!newRows.isEmpty()) {
+                DataSetIntervalIndex newIndex = copyIntervalIndex(index, newRows);
+                result.add(newIndex);
+                added.add(newIndex);
+            }
+        }
+        for (Map.Entry<String, RowSet> entry : addedRows.entrySet()) {
+            DataSetIntervalIndex newIndex = new DataSetIntervalIndex(this, entry.getKey());
+            newIndex.rows = entry.getValue();
+            result.add(newIndex);
+            added.add(newIndex);
+        }
+        result.sort((i1, i2) -> Integer.compare(i1.getRows().get(0), i2.getRows().get(0)));
+        List<DataSetIntervalIndex> removed = intervalIndexList;
+        intervalIndexList = result;
+        selectIndexList = null;
+
+        indexesRemoved(removed);
+        for (DataSetIntervalIndex index : added) {
+            indexAdded(index);
+        }
+    }
+
+    private DataSetIntervalIndex copyIntervalIndex(DataSetIntervalIndex index, RowSet rows) {
+        DataSetIntervalIndex copy = new DataSetIntervalIndex(this, index.getName());
+        copy.dictionaryName = index.dictionaryName;
+        copy.intervalType = index.intervalType;
+        copy.minValue = index.minValue;
+        copy.maxValue = index.maxValue;
+        copy.rows = rows;
+        return copy;
+    }
+
+    private static RowSet toRowSet(List<Integer> rows) {
+        if (rows instanceof RowSet) {
+            return (RowSet) rows;
+        }
+        RowSet result = new RowSet();
+        result.addAll(rows);
+        return result;
+    }
+
     public void acceptVisitor(DataSetIndexVisitor visitor) {
         super.acceptVisitor(visitor);
 
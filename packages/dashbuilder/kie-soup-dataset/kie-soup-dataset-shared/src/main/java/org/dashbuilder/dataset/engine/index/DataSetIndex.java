@@ -15,6 +15,11 @@
  */
 package org.dashbuilder.dataset.engine.index;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataColumn;
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.engine.index.stats.DataSetIndexStats;
 
@@ -32,5 +37,70 @@ public abstract class DataSetIndex extends DataSetIndexNode {
      * Get the performance stats of this index.
      */
     public abstract DataSetIndexStats getStats();
+
+    /**
+     * Update the indexes after some rows of the data set have been modified in place (either appended or
+     * overwritten). The group indexes on label columns are updated incrementally. Any other index is discarded,
+     * so it gets built again by the next lookup requiring it.
+     * @param rows The rows modified
+     */
+    public synchronized void update(List<Integer> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return;
+        }
+        RowSet changedRows = new RowSet();
+        changedRows.addAll(rows);
+
+        List<DataSetGroupIndex> labelGroupIndexes = getLabelGroupIndexes();
+        for (DataSetGroupIndex groupIndex : labelGroupIndexes) {
+            groupIndex.updateLabelIntervals(getGroupValues(groupIndex), changedRows);
+        }
+        keepOnly(labelGroupIndexes);
+    }
+
+    /**
+     * Update the indexes after some rows have been added in front of the data set, so the existing rows are
+     * shifted and the last ones may have been evicted. The group indexes on label columns are updated
+     * incrementally. Any other index is discarded, so it gets built again by the next lookup requiring it.
+     * @param rows The number of rows added
+     * @param keptRows The number of previous rows kept after the ones added
+     */
+    public synchronized void prepend(int rows, int keptRows) {
+        if (rows <= 0) {
+            return;
+        }
+        List<DataSetGroupIndex> labelGroupIndexes = getLabelGroupIndexes();
+        for (DataSetGroupIndex groupIndex : labelGroupIndexes) {
+            groupIndex.prependLabelIntervals(getGroupValues(groupIndex), rows, keptRows);
+        }
+        keepOnly(labelGroupIndexes);
+    }
+
+    private List<DataSetGroupIndex> getLabelGroupIndexes() {
+        List<DataSetGroupIndex> result = new ArrayList<DataSetGroupIndex>();
+        if (groupIndexes != null) {
+            for (DataSetGroupIndex groupIndex : groupIndexes) {
+                DataColumn column = groupIndex.columnGroup == null ? null : getDataSet().getColumnById(groupIndex.columnGroup.getSourceId());
+                if (column != null && ColumnType.LABEL.equals(column.getColumnType())) {
+                    result.add(groupIndex);
+                }
+            }
+        }
+        return result;
+    }
+
+    private List getGroupValues(DataSetGroupIndex groupIndex) {
+        return getDataSet().getColumnById(groupIndex.columnGroup.getSourceId()).getValues();
+    }
+
+    private void keepOnly(List<DataSetGroupIndex> labelGroupIndexes) {
+        removeIndexes();
+        if (!labelGroupIndexes.isEmpty()) {
+            groupIndexes = labelGroupIndexes;
+            for (DataSetGroupIndex groupIndex : labelGroupIndexes) {
+                indexAdded(groupIndex);
+            }
+        }
+    }
 }
 
@@ -34,6 +34,11 @@ public abstract class DataSetIndexElement {
      */
     int reuseHits = 0;
 
+    /**
+     * Last time (in milliseconds) the indexed element was either created or reused.
+     */
+    long lastAccessTime = System.currentTimeMillis();
+
     DataSetIndexElement(long buildTime) {
         this.buildTime = buildTime;
     }
@@ -52,6 +57,11 @@ public abstract class DataSetIndexElement {
 
     public void reuseHit() {
         this.reuseHits++;
+        this.lastAccessTime = System.currentTimeMillis();
+    }
+
+    public long getLastAccessTime() {
+        return lastAccessTime;
     }
 
     public long getReuseTime() {
@@ -16,6 +16,7 @@
 package org.dashbuilder.dataset.engine.index;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
@@ -35,11 +36,25 @@ import org.dashbuilder.dataset.sort.DataSetSort;
 public abstract class DataSetIndexNode extends DataSetIndexElement {
 
     DataSetIndexNode parent = null;
-    List<Integer> rows = null;
-    List<DataSetGroupIndex> groupIndexes = null;
-    List<DataSetSortIndex> sortIndexes = null;
-    List<DataSetFilterIndex> filterIndexes = null;
-    Map<String, Map<AggregateFunctionType, DataSetFunctionIndex>> functionIndexes = null;
+
+    // Never modified in place but replaced as a whole, so concurrent lookups always read a complete list.
+    volatile List<Integer> rows = null;
+
+    // Child indexes are copied on write, so concurrent lookups can read them without locking.
+    volatile List<DataSetGroupIndex> groupIndexes = null;
+    volatile List<DataSetSortIndex> sortIndexes = null;
+    volatile List<DataSetFilterIndex> filterIndexes = null;
+    volatile Map<String, Map<AggregateFunctionType, DataSetFunctionIndex>> functionIndexes = null;
+    volatile List<DataSetDateRollup> dateRollups = null;
+
+    // Indexes being built
+    List<BuildLock> buildLocks = null;
+
+    // Estimated size of this node plus all the indexes built on top of it (-1 if not calculated yet).
+    long treeSize = -1;
+
+    // Tree sizes are updated from any node up to the root, so they are guarded by a lock of their own.
+    private static final Object SIZE_LOCK = new Object();
 
     public DataSetIndexNode() {
         this(null, null, 0);
@@ -63,12 +78,114 @@ public abstract class DataSetIndexNode extends DataSetIndexElement {
         return rows;
     }
 
+    /**
+     * Add the given rows, just appended to the data set, to the rows of this node. The current rows are left
+     * untouched and replaced by a brand new row set.
+     * @return <tt>false</tt> if the rows of this node are not in ascending order (i.e. sorted) so the new ones
+     * can not be added.
+     */
+    public synchronized boolean appendRows(RowSet newRows) {
+        RowSet rowSet = rows == null ? null : RowSet.valueOf(rows);
+        if (rowSet == null) {
+            return false;
+        }
+        replaceRows(rowSet.or(newRows));
+        return true;
+    }
+
+    /**
+     * Replace the rows of this node and update its tree size accordingly.
+     */
+    protected void replaceRows(List<Integer> newRows) {
+        long oldSize = getRowsSize();
+        rows = newRows;
+        updateTreeSize(getRowsSize() - oldSize);
+    }
+
     public long getEstimatedSize() {
-        long result = super.getEstimatedSize();
+        return super.getEstimatedSize() + getRowsSize();
+    }
+
+    /**
+     * Return the estimated memory (in bytes) consumed by the rows of this node.
+     */
+    public long getRowsSize() {
+        if (rows instanceof RowSet) {
+            return ((RowSet) rows).getEstimatedSize();
+        }
+        if (rows instanceof RowList) {
+            return ((RowList) rows).getEstimatedSize();
+        }
         if (rows != null) {
-            result += rows.size() * MemSizeEstimator.sizeOfInteger;
+            return rows.size() * MemSizeEstimator.sizeOfInteger;
         }
-        return result;
+        return 0;
+    }
+
+    // Tree size
+
+    /**
+     * Get the estimated memory (in bytes) consumed by this node plus all the indexes built on top of it.
+     * <p>It is calculated the first time it is requested and, from then on, it is kept up to date as indexes are
+     * added, modified or removed. No tree walk is needed to get it.</p>
+     */
+    public long getTreeSize() {
+        synchronized (SIZE_LOCK) {
+            if (treeSize < 0) {
+                final long[] size = {0};
+                acceptVisitor(new DataSetIndexVisitor() {
+                    public void visit(DataSetIndexElement element) {
+                        size[0] += element.getEstimatedSize();
+                    }
+                });
+                treeSize = size[0];
+            }
+            return treeSize;
+        }
+    }
+
+    /**
+     * Add the given delta to the tree size of this node and its ancestors (only to those already calculated).
+     */
+    protected void updateTreeSize(long delta) {
+        if (delta == 0) {
+            return;
+        }
+        synchronized (SIZE_LOCK) {
+            for (DataSetIndexNode node = this; node != null; node = node.parent) {
+                if (node.treeSize >= 0) {
+                    node.treeSize += delta;
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the tree size of this node or any of its ancestors has been calculated, so it must be updated.
+     */
+    protected boolean isTreeSizeTracked() {
+        synchronized (SIZE_LOCK) {
+            for (DataSetIndexNode node = this; node != null; node = node.parent) {
+                if (node.treeSize >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Subtract the size of the given indexes (and their sub-indexes), just removed from this node.
+     */
+    protected void indexesRemoved(Collection<? extends DataSetIndexElement> indexes) {
+        if (indexes == null || indexes.isEmpty() || !isTreeSizeTracked()) {
+            return;
+        }
+        long size = 0;
+        for (DataSetIndexElement index : indexes) {
+            size += index instanceof DataSetIndexNode ? ((DataSetIndexNode) index).getTreeSize() : index.getEstimatedSize();
+        }
+        updateTreeSize(-size);
     }
 
     public void acceptVisitor(DataSetIndexVisitor visitor) {
@@ -96,25 +213,185 @@ public abstract class DataSetIndexNode extends DataSetIndexElement {
                 }
             }
         }
+        if (dateRollups != null) {
+            for (DataSetDateRollup rollup : dateRollups) {
+                rollup.acceptVisitor(visitor);
+            }
+        }
+    }
+
+    /**
+     * Get the filter, group and sort indexes built on top of this node.
+     */
+    public List<DataSetIndexNode> getChildIndexes() {
+        List<DataSetIndexNode> result = new ArrayList<DataSetIndexNode>();
+        if (groupIndexes != null) result.addAll(groupIndexes);
+        if (filterIndexes != null) result.addAll(filterIndexes);
+        if (sortIndexes != null) result.addAll(sortIndexes);
+        return result;
+    }
+
+    public List<DataSetGroupIndex> getGroupIndexes() {
+        return groupIndexes == null ? Collections.<DataSetGroupIndex>emptyList() : groupIndexes;
+    }
+
+    public List<DataSetFilterIndex> getFilterIndexes() {
+        return filterIndexes == null ? Collections.<DataSetFilterIndex>emptyList() : filterIndexes;
+    }
+
+    public Map<String, Map<AggregateFunctionType, DataSetFunctionIndex>> getFunctionIndexes() {
+        return functionIndexes == null ? Collections.<String, Map<AggregateFunctionType, DataSetFunctionIndex>>emptyMap() : functionIndexes;
+    }
+
+    /**
+     * Removes a filter, group or sort index (and all its sub-indexes) from this node.
+     * @return <tt>true</tt> if the index was a child of this node.
+     */
+    public synchronized boolean removeIndex(DataSetIndexNode index) {
+        if (groupIndexes != null && groupIndexes.contains(index)) {
+            groupIndexes = copyAndRemove(groupIndexes, index);
+        } else if (filterIndexes != null && filterIndexes.contains(index)) {
+            filterIndexes = copyAndRemove(filterIndexes, index);
+        } else if (sortIndexes != null && sortIndexes.contains(index)) {
+            sortIndexes = copyAndRemove(sortIndexes, index);
+        } else {
+            return false;
+        }
+        indexesRemoved(Collections.singletonList(index));
+        return true;
+    }
+
+    /**
+     * Removes all the indexes (filter, group, sort, aggregate functions and date rollups) built on top of this node.
+     */
+    public synchronized void removeIndexes() {
+        List<DataSetIndexElement> removed = new ArrayList<DataSetIndexElement>(getChildIndexes());
+        for (Map<AggregateFunctionType, DataSetFunctionIndex> indexMap : getFunctionIndexes().values()) {
+            removed.addAll(indexMap.values());
+        }
+        if (dateRollups != null) removed.addAll(dateRollups);
+
+        groupIndexes = null;
+        filterIndexes = null;
+        sortIndexes = null;
+        functionIndexes = null;
+        dateRollups = null;
+        indexesRemoved(removed);
+    }
+
+    public synchronized void removeSortIndexes() {
+        List<DataSetSortIndex> removed = sortIndexes;
+        sortIndexes = null;
+        indexesRemoved(removed);
+    }
+
+    /**
+     * Add the size of the given index, just built on top of this node.
+     */
+    protected void indexAdded(DataSetIndexNode index) {
+        if (isTreeSizeTracked()) {
+            updateTreeSize(index.getTreeSize());
+        }
+    }
+
+    static <T> List<T> copyAndAdd(List<T> list, T element) {
+        List<T> result = list == null ? new ArrayList<T>() : new ArrayList<T>(list);
+        result.add(element);
+        return result;
+    }
+
+    static <T> List<T> copyAndRemove(List<T> list, Object element) {
+        List<T> result = new ArrayList<T>(list);
+        result.remove(element);
+        return result;
+    }
+
+    // Concurrent index builds
+
+    /**
+     * Get the lock to hold while building the index identified by the given key (a column group, filter or sort
+     * operation). Concurrent lookups requesting the same index get the same lock, so they can wait for the
+     * in-flight build to complete and reuse it instead of building it again.
+     * <p>Every call must be followed by a call to {@link #releaseBuildLock(Object)}.</p>
+     */
+    public synchronized Object acquireBuildLock(Object key) {
+        if (buildLocks == null) buildLocks = new ArrayList<BuildLock>();
+
+        for (BuildLock lock : buildLocks) {
+            if (lock.key.equals(key)) {
+                lock.holders++;
+                return lock;
+            }
+        }
+        BuildLock lock = new BuildLock(key);
+        buildLocks.add(lock);
+        return lock;
+    }
+
+    public synchronized void releaseBuildLock(Object lock) {
+        BuildLock buildLock = (BuildLock) lock;
+        if (--buildLock.holders == 0) {
+            buildLocks.remove(buildLock);
+        }
+    }
+
+    static class BuildLock {
+
+        Object key;
+        int holders = 1;
+
+        BuildLock(Object key) {
+            this.key = key;
+        }
     }
 
     // Aggregate function indexes
 
-    public DataSetFunctionIndex indexAggValue(String columnId, AggregateFunctionType type, Object value, long buildTime) {
-        if (functionIndexes == null) {
-            functionIndexes = new HashMap<>();
+    public synchronized DataSetFunctionIndex indexAggValue(String columnId, AggregateFunctionType type, Object value, long buildTime) {
+        return indexAggValue(columnId, type, value, null, buildTime);
+    }
+
+    /**
+     * Index an aggregate value along with the partial state of the function that calculated it.
+     * @param state The state of a mergeable function or <tt>null</tt> if the value can not be updated incrementally.
+     */
+    public synchronized DataSetFunctionIndex indexAggValue(String columnId, AggregateFunctionType type, Object value, Object state, long buildTime) {
+        Map<String, Map<AggregateFunctionType, DataSetFunctionIndex>> result = new HashMap<>();
+        if (functionIndexes != null) {
+            result.putAll(functionIndexes);
         }
 
-        Map<AggregateFunctionType,DataSetFunctionIndex> columnAggFunctions = functionIndexes.get(columnId);
-        if (columnAggFunctions == null) {
-            functionIndexes.put(columnId, columnAggFunctions = new EnumMap<>(AggregateFunctionType.class));
+        Map<AggregateFunctionType,DataSetFunctionIndex> columnAggFunctions = new EnumMap<>(AggregateFunctionType.class);
+        if (result.containsKey(columnId)) {
+            columnAggFunctions.putAll(result.get(columnId));
         }
+        result.put(columnId, columnAggFunctions);
 
-        DataSetFunctionIndex index = new DataSetFunctionIndex(value, buildTime);
-        columnAggFunctions.put(type, index);
+        DataSetFunctionIndex index = new DataSetFunctionIndex(value, state, buildTime);
+        DataSetFunctionIndex replaced = columnAggFunctions.put(type, index);
+        functionIndexes = result;
+        updateTreeSize(index.getEstimatedSize() - (replaced == null ? 0 : replaced.getEstimatedSize()));
         return index;
     }
 
+    public synchronized void removeAggValue(String columnId, AggregateFunctionType type) {
+        if (functionIndexes == null || !functionIndexes.containsKey(columnId)) return;
+
+        Map<String, Map<AggregateFunctionType, DataSetFunctionIndex>> result = new HashMap<>(functionIndexes);
+        Map<AggregateFunctionType,DataSetFunctionIndex> columnAggFunctions = new EnumMap<>(AggregateFunctionType.class);
+        columnAggFunctions.putAll(result.get(columnId));
+        DataSetFunctionIndex removed = columnAggFunctions.remove(type);
+        if (columnAggFunctions.isEmpty()) {
+            result.remove(columnId);
+        } else {
+            result.put(columnId, columnAggFunctions);
+        }
+        functionIndexes = result;
+        if (removed != null) {
+            updateTreeSize(-removed.getEstimatedSize());
+        }
+    }
+
     public Object getAggValue(String columnId, AggregateFunctionType type) {
         if (functionIndexes == null) return null;
 
@@ -128,15 +405,39 @@ public abstract class DataSetIndexNode extends DataSetIndexElement {
         return functionIndex.getValue();
     }
 
-    // TODO: coordinate concurrent index modifications
+    // Date rollups
+
+    public synchronized DataSetDateRollup indexDateRollup(DataSetDateRollup rollup) {
+        rollup.node = this;
+        dateRollups = copyAndAdd(dateRollups, rollup);
+        updateTreeSize(rollup.getEstimatedSize());
+        return rollup;
+    }
+
+    public DataSetDateRollup getDateRollup(String columnId) {
+        if (dateRollups == null) return null;
+
+        for (DataSetDateRollup rollup : dateRollups) {
+            if (rollup.getColumnId().equals(columnId)) {
+                rollup.reuseHit();
+                return rollup;
+            }
+        }
+        return null;
+    }
+
+    public synchronized void removeDateRollups() {
+        List<DataSetDateRollup> removed = dateRollups;
+        dateRollups = null;
+        indexesRemoved(removed);
+    }
 
     // Group indexes
 
-    public DataSetGroupIndex indexGroup(DataSetGroupIndex index) {
-        if (groupIndexes == null) groupIndexes = new ArrayList<DataSetGroupIndex>();
+    public synchronized DataSetGroupIndex indexGroup(DataSetGroupIndex index) {
         index.setParent(this);
-        index.setBuildTime(buildTime);
-        groupIndexes.add(index);
+        groupIndexes = copyAndAdd(groupIndexes, index);
+        indexAdded(index);
         return index;
     }
 
@@ -167,13 +468,12 @@ public abstract class DataSetIndexNode extends DataSetIndexElement {
 
     // Filter indexes
 
-    public DataSetFilterIndex indexFilter(ColumnFilter filter, List<Integer> rows, long buildTime) {
-        if (filterIndexes == null) filterIndexes = new ArrayList<DataSetFilterIndex>();
-
+    public synchronized DataSetFilterIndex indexFilter(ColumnFilter filter, List<Integer> rows, long buildTime) {
         DataSetFilterIndex index = new DataSetFilterIndex(filter, rows);
         index.setParent(this);
         index.setBuildTime(buildTime);
-        filterIndexes.add(index);
+        filterIndexes = copyAndAdd(filterIndexes, index);
+        indexAdded(index);
         return index;
     }
 
@@ -191,25 +491,63 @@ public abstract class DataSetIndexNode extends DataSetIndexElement {
 
     // Sort indexes
 
-    public DataSetSortIndex indexSort(DataSetSort sortOp, List<Integer> sortedRows, long buildTime) {
-        if (sortIndexes == null) sortIndexes = new ArrayList<DataSetSortIndex>();
+    public synchronized DataSetSortIndex indexSort(DataSetSort sortOp, List<Integer> sortedRows, long buildTime) {
+        return indexSort(sortOp, sortedRows, sortedRows.size(), buildTime);
+    }
 
-        DataSetSortIndex index = new DataSetSortIndex(sortOp, sortedRows);
+    /**
+     * Index the first rows of a sort operation. Any existing index containing fewer rows of the same sort
+     * is replaced.
+     * @param sortedRows The sorted rows (or the first of them)
+     * @param rowCount The number of rows sorted
+     */
+    public synchronized DataSetSortIndex indexSort(DataSetSort sortOp, List<Integer> sortedRows, int rowCount, long buildTime) {
+        DataSetSortIndex index = new DataSetSortIndex(sortOp, sortedRows, rowCount);
         index.setParent(this);
         index.setBuildTime(buildTime);
-        sortIndexes.add(index);
+        List<DataSetSortIndex> newIndexes = new ArrayList<DataSetSortIndex>();
+        newIndexes.add(index);
+
+        // Also create an index for the inverted sort (only possible if all the rows are sorted).
+        if (index.isComplete()) {
+            DataSetSort invertedSortOp = sortOp.cloneInstance().invertOrder();
+            List<Integer> invertedRows = new ArrayList<Integer>(sortedRows);
+            Collections.reverse(invertedRows);
+            DataSetSortIndex invertedIndex = new DataSetSortIndex(invertedSortOp, invertedRows);
+            invertedIndex.setParent(this);
+            newIndexes.add(invertedIndex);
+        }
 
-        // Also create an index for the inverted sort.
-        DataSetSort invertedSortOp = sortOp.cloneInstance().invertOrder();
-        List<Integer> invertedRows = new ArrayList<Integer>(sortedRows);
-        Collections.reverse(invertedRows);
-        DataSetSortIndex invertedIndex = new DataSetSortIndex(invertedSortOp, invertedRows);
-        invertedIndex.setParent(this);
-        sortIndexes.add(invertedIndex);
+        List<DataSetSortIndex> newSortIndexes = new ArrayList<DataSetSortIndex>();
+        List<DataSetSortIndex> replaced = new ArrayList<DataSetSortIndex>();
+        if (sortIndexes != null) {
+            for (DataSetSortIndex sortIndex : sortIndexes) {
+                if (!isSameSort(sortIndex, newIndexes)) {
+                    newSortIndexes.add(sortIndex);
+                } else {
+                    replaced.add(sortIndex);
+                }
+            }
+        }
+        newSortIndexes.addAll(newIndexes);
+        sortIndexes = newSortIndexes;
+        indexesRemoved(replaced);
+        for (DataSetSortIndex newIndex : newIndexes) {
+            indexAdded(newIndex);
+        }
 
         return index;
     }
 
+    private static boolean isSameSort(DataSetSortIndex sortIndex, List<DataSetSortIndex> indexes) {
+        for (DataSetSortIndex index : indexes) {
+            if (index.getSortOp().equals(sortIndex.getSortOp())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public DataSetSortIndex getSortIndex(DataSetSort sortOp) {
         if (sortIndexes == null) return null;
 
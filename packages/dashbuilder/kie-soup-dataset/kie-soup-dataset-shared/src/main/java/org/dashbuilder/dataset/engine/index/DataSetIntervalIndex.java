@@ -27,6 +27,7 @@ import org.dashbuilder.dataset.impl.MemSizeEstimator;
 public class DataSetIntervalIndex extends DataSetIndexNode implements DataSetIntervalIndexHolder {
 
     String intervalName = null;
+    boolean dictionaryName = false;
     String intervalType = null;
     Object minValue = null;
     Object maxValue = null;
@@ -37,13 +38,44 @@ public class DataSetIntervalIndex extends DataSetIndexNode implements DataSetInt
     }
 
     public DataSetIntervalIndex(DataSetGroupIndex parent, Interval interval) {
-        super(parent, interval.getRows(), 0);
+        this(parent, interval, false);
+    }
+
+    /**
+     * @param dictionaryName Whether the interval name is taken from the dictionary of the column's labels,
+     * so it does not take any extra memory.
+     */
+    public DataSetIntervalIndex(DataSetGroupIndex parent, Interval interval, boolean dictionaryName) {
+        super(parent, compress(interval.getRows()), 0);
         this.intervalName = interval.getName();
+        this.dictionaryName = dictionaryName;
         intervalType = interval.getType();
         minValue = interval.getMinValue();
         maxValue = interval.getMaxValue();
     }
 
+    /**
+     * Intervals are kept in the index cache, so their rows are compressed when possible. Small intervals
+     * are cheaper as a plain array of rows.
+     */
+    private static List<Integer> compress(List<Integer> rows) {
+        if (rows == null) {
+            return null;
+        }
+        RowSet rowSet = RowSet.valueOf(rows);
+        if (rowSet == null) {
+            return rows;
+        }
+        if (rowSet.getEstimatedSize() < MemSizeEstimator.sizeOfIntArray(rowSet.size())) {
+            return rowSet;
+        }
+        RowList rowList = new RowList(rowSet.size());
+        for (Integer row : rowSet) {
+            rowList.addRow(row);
+        }
+        return rowList;
+    }
+
     public List<DataSetIntervalIndex> getIntervalIndexes() {
         return Arrays.asList(this);
     }
@@ -54,7 +86,7 @@ public class DataSetIntervalIndex extends DataSetIndexNode implements DataSetInt
 
     public long getEstimatedSize() {
         long result = super.getEstimatedSize();
-        if (intervalName != null) {
+        if (intervalName != null && !dictionaryName) {
             result += MemSizeEstimator.sizeOfString(intervalName);
         }
         return result;
@@ -23,7 +23,8 @@ import java.util.List;
  */
 public class DataSetIntervalSetIndex extends DataSetIntervalIndex {
 
-    List<DataSetIntervalIndex> intervalIndexList = new ArrayList<DataSetIntervalIndex>();
+    // Copied on write, so concurrent lookups can iterate over the intervals without locking.
+    volatile List<DataSetIntervalIndex> intervalIndexList = new ArrayList<DataSetIntervalIndex>();
 
     DataSetIntervalSetIndex(DataSetGroupIndex parent, String intervalName) {
         super(parent, intervalName);
@@ -34,13 +35,13 @@ public class DataSetIntervalSetIndex extends DataSetIntervalIndex {
     }
 
 
-    public void addIntervalIndex(DataSetIntervalIndex index) {
+    public synchronized void addIntervalIndex(DataSetIntervalIndex index) {
         intervalType = index.getIntervalType();
         Comparable min = (Comparable) index.getMinValue();
         Comparable max = (Comparable) index.getMaxValue();
         if (minValue == null || ((Comparable) minValue).compareTo(min) > 0) minValue = min;
         if (maxValue == null || ((Comparable) maxValue).compareTo(max) < 0) maxValue = max;
-        intervalIndexList.add(index);
+        intervalIndexList = copyAndAdd(intervalIndexList, index);
     }
 
     public List<Integer> getRows() {
@@ -21,18 +21,51 @@ import org.dashbuilder.dataset.sort.DataSetSort;
 
 /**
  * An index for source data sets.
+ * <p>A sort index might only contain the first rows of the sort (a prefix), if only the first rows were
+ * requested when the sort was done.</p>
  */
 public class DataSetSortIndex extends DataSetIndexNode {
 
     private DataSetSort sortOp;
+    private int rowCount;
 
     public DataSetSortIndex(DataSetSort sortOp, List<Integer> sortedRows) {
+        this(sortOp, sortedRows, sortedRows.size());
+    }
+
+    /**
+     * @param sortedRows The sorted rows (or the first of them)
+     * @param rowCount The number of rows sorted
+     */
+    public DataSetSortIndex(DataSetSort sortOp, List<Integer> sortedRows, int rowCount) {
         super(null, sortedRows, 0);
         this.sortOp = sortOp;
+        this.rowCount = rowCount;
     }
 
     public DataSetSort getSortOp() {
         return sortOp;
     }
-}
 
+    /**
+     * The number of rows sorted (which might be greater than the number of rows kept by the index).
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Check if the index contains all the sorted rows and not just the first ones.
+     */
+    public boolean isComplete() {
+        return rows.size() >= rowCount;
+    }
+
+    /**
+     * Check if the index contains the first rows of the sort.
+     * @param limit The number of rows required or <tt>-1</tt> if all the rows are required.
+     */
+    public boolean containsFirstRows(int limit) {
+        return isComplete() || (limit >= 0 && rows.size() >= limit);
+    }
+}
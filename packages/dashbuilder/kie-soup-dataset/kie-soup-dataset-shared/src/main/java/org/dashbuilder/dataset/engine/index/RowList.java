@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.index;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+
+import org.dashbuilder.dataset.impl.MemSizeEstimator;
+
+/**
+ * A compact list of row numbers backed by an <tt>int[]</tt>.
+ * <p>Rows can only be appended, no boxed instances are kept (they are only created on read).</p>
+ */
+public class RowList extends AbstractList<Integer> {
+
+    protected int[] rows;
+    protected int size = 0;
+
+    public RowList() {
+        this(16);
+    }
+
+    public RowList(int capacity) {
+        rows = new int[Math.max(capacity, 1)];
+    }
+
+    public int getRow(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return rows[index];
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getRow(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean add(Integer row) {
+        addRow(row);
+        return true;
+    }
+
+    public void addRow(int row) {
+        ensureCapacity(size + 1);
+        rows[size++] = row;
+        modCount++;
+    }
+
+    /**
+     * Append the first <tt>length</tt> rows of the given array.
+     */
+    public void addRows(int[] block, int length) {
+        ensureCapacity(size + length);
+        System.arraycopy(block, 0, rows, size, length);
+        size += length;
+        modCount++;
+    }
+
+    /**
+     * Release the unused capacity.
+     */
+    public RowList trimToSize() {
+        if (rows.length > size) {
+            rows = Arrays.copyOf(rows, Math.max(size, 1));
+        }
+        return this;
+    }
+
+    public long getEstimatedSize() {
+        return MemSizeEstimator.sizeOfIntArray(rows.length);
+    }
+
+    protected void ensureCapacity(int capacity) {
+        if (capacity > rows.length) {
+            rows = Arrays.copyOf(rows, Math.max(capacity, rows.length + (rows.length >> 1) + 1));
+        }
+    }
+}
@@ -0,0 +1,643 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.index;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.dashbuilder.dataset.impl.MemSizeEstimator;
+
+/**
+ * A compressed bitmap holding a set of row numbers, in ascending order.
+ * <p>Rows are split into chunks of 65536 rows (by their 16 higher bits). Every chunk is stored either as a sorted
+ * <tt>char[]</tt> (sparse chunks) or as a plain bitmap (dense chunks), like roaring bitmaps do. The set is also
+ * exposed as a sorted <tt>List</tt> so it can be used anywhere a list of rows is expected.</p>
+ */
+public class RowSet extends AbstractList<Integer> {
+
+    /**
+     * Max. number of rows in a sparse chunk. Beyond this limit a bitmap is smaller.
+     */
+    static final int ARRAY_MAX = 4096;
+    static final int BITMAP_WORDS = 65536 / 32;
+
+    protected int[] keys = new int[4];
+    protected Chunk[] chunks = new Chunk[4];
+    protected int chunkCount = 0;
+    protected int size = 0;
+    protected int[] offsets = null;
+
+    /**
+     * Build a row set from a list of rows.
+     * @return A row set or null if the rows are not in strict ascending order.
+     */
+    public static RowSet valueOf(List<Integer> rows) {
+        if (rows instanceof RowSet) {
+            return (RowSet) rows;
+        }
+        RowSet result = new RowSet();
+        int last = -1;
+        for (Integer row : rows) {
+            if (row <= last) {
+                return null;
+            }
+            result.addRow(row);
+            last = row;
+        }
+        return result.trimToSize();
+    }
+
+    /**
+     * Build a row set containing all the rows from 0 to <tt>count</tt> (excluded).
+     */
+    public static RowSet range(int count) {
+        RowSet result = new RowSet();
+        for (int row = 0; row < count; row++) {
+            result.addRow(row);
+        }
+        return result.trimToSize();
+    }
+
+    public boolean containsRow(int row) {
+        int i = indexOfChunk(row >>> 16);
+        return i >= 0 && chunks[i].contains((char) row);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer && containsRow((Integer) o);
+    }
+
+    @Override
+    public boolean add(Integer row) {
+        return addRow(row);
+    }
+
+    public boolean addRow(int row) {
+        if (row < 0) {
+            throw new IllegalArgumentException("Negative row: " + row);
+        }
+        int key = row >>> 16;
+
+        // Rows usually come in ascending order, check the last chunk first.
+        int i = chunkCount - 1;
+        if (i < 0 || keys[i] != key) {
+            i = indexOfChunk(key);
+            if (i < 0) {
+                i = -i - 1;
+                insertChunk(i, key, new ArrayChunk());
+            }
+        }
+        Chunk chunk = chunks[i];
+        int before = chunk.cardinality();
+        chunks[i] = chunk.add((char) row);
+        if (chunks[i].cardinality() == before) {
+            return false;
+        }
+        size++;
+        offsets = null;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Add the first <tt>length</tt> rows of the given array.
+     */
+    public void addRows(int[] block, int length) {
+        for (int i = 0; i < length; i++) {
+            addRow(block[i]);
+        }
+    }
+
+    /**
+     * Release the unused capacity.
+     */
+    public RowSet trimToSize() {
+        if (keys.length > chunkCount) {
+            keys = Arrays.copyOf(keys, Math.max(chunkCount, 1));
+            chunks = Arrays.copyOf(chunks, Math.max(chunkCount, 1));
+        }
+        for (int i = 0; i < chunkCount; i++) {
+            chunks[i] = chunks[i].trim();
+        }
+        return this;
+    }
+
+    public int getRow(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        // Row sets held by the index are read concurrently, so the offsets are only published once complete
+        int[] offsets = this.offsets;
+        if (offsets == null) {
+            offsets = new int[chunkCount];
+            int offset = 0;
+            for (int i = 0; i < chunkCount; i++) {
+                offsets[i] = offset;
+                offset += chunks[i].cardinality();
+            }
+            this.offsets = offsets;
+        }
+        int i = binarySearch(offsets, chunkCount, index);
+        if (i < 0) {
+            i = -i - 2;
+        }
+        return (keys[i] << 16) | chunks[i].select(index - offsets[i]);
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getRow(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return rowIterator();
+    }
+
+    public RowIterator rowIterator() {
+        return new RowIterator();
+    }
+
+    /**
+     * Get the rows at the positions from <tt>fromIndex</tt> (inclusive) to <tt>toIndex</tt> (exclusive) as a new set.
+     * Whole chunks are copied as is, so only the rows of the first and last chunks are read one by one.
+     */
+    public RowSet slice(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size);
+        }
+        RowSet result = new RowSet();
+        int[] buffer = null;
+        int offset = 0;
+        for (int i = 0; i < chunkCount && offset < toIndex; i++) {
+            int cardinality = chunks[i].cardinality();
+            int end = offset + cardinality;
+            if (offset >= fromIndex && end <= toIndex) {
+                result.appendChunk(keys[i], chunks[i].copy());
+            } else if (end > fromIndex) {
+                if (buffer == null || buffer.length < cardinality) {
+                    buffer = new int[cardinality];
+                }
+                chunks[i].fill(buffer, keys[i] << 16);
+                int last = Math.min(toIndex, end) - offset;
+                for (int j = Math.max(fromIndex, offset) - offset; j < last; j++) {
+                    result.addRow(buffer[j]);
+                }
+            }
+            offset = end;
+        }
+        return result.trimToSize();
+    }
+
+    /**
+     * The rows present in both sets.
+     */
+    public RowSet and(RowSet other) {
+        RowSet result = new RowSet();
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendChunk(keys[i], chunks[i].and(other.chunks[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The rows present in any of the two sets.
+     */
+    public RowSet or(RowSet other) {
+        RowSet result = new RowSet();
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount || j < other.chunkCount) {
+            if (j >= other.chunkCount || (i < chunkCount && keys[i] < other.keys[j])) {
+                result.appendChunk(keys[i], chunks[i].copy());
+                i++;
+            } else if (i >= chunkCount || keys[i] > other.keys[j]) {
+                result.appendChunk(other.keys[j], other.chunks[j].copy());
+                j++;
+            } else {
+                result.appendChunk(keys[i], chunks[i].or(other.chunks[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The rows present in this set but not in the other.
+     */
+    public RowSet andNot(RowSet other) {
+        RowSet result = new RowSet();
+        int j = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            while (j < other.chunkCount && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.chunkCount && other.keys[j] == keys[i]) {
+                result.appendChunk(keys[i], chunks[i].andNot(other.chunks[j]));
+            } else {
+                result.appendChunk(keys[i], chunks[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return the estimated memory (in bytes) consumed by the row set.
+     */
+    public long getEstimatedSize() {
+        long result = MemSizeEstimator.sizeOfIntArray(keys.length) + MemSizeEstimator.sizeOfIntArray(chunks.length);
+        for (int i = 0; i < chunkCount; i++) {
+            result += chunks[i].getEstimatedSize();
+        }
+        return result;
+    }
+
+    protected int indexOfChunk(int key) {
+        return binarySearch(keys, chunkCount, key);
+    }
+
+    static int binarySearch(int[] array, int length, int key) {
+        int low = 0;
+        int high = length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (array[mid] < key) {
+                low = mid + 1;
+            } else if (array[mid] > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    static int binarySearch(char[] array, int length, char key) {
+        int low = 0;
+        int high = length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (array[mid] < key) {
+                low = mid + 1;
+            } else if (array[mid] > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    protected void insertChunk(int i, int key, Chunk chunk) {
+        if (chunkCount == keys.length) {
+            keys = Arrays.copyOf(keys, chunkCount * 2);
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, chunkCount - i);
+        System.arraycopy(chunks, i, chunks, i + 1, chunkCount - i);
+        keys[i] = key;
+        chunks[i] = chunk;
+        chunkCount++;
+    }
+
+    protected void appendChunk(int key, Chunk chunk) {
+        int cardinality = chunk.cardinality();
+        if (cardinality > 0) {
+            insertChunk(chunkCount, key, chunk.optimize());
+            size += cardinality;
+        }
+    }
+
+    /**
+     * Iterator over the rows which avoids boxing through {@link #nextRow()}.
+     */
+    public class RowIterator implements Iterator<Integer> {
+
+        private int chunk = 0;
+        private int[] buffer = new int[0];
+        private int bufferSize = 0;
+        private int position = 0;
+
+        public boolean hasNext() {
+            while (position >= bufferSize) {
+                if (chunk >= chunkCount) {
+                    return false;
+                }
+                if (buffer.length < chunks[chunk].cardinality()) {
+                    buffer = new int[chunks[chunk].cardinality()];
+                }
+                bufferSize = chunks[chunk].fill(buffer, keys[chunk] << 16);
+                position = 0;
+                chunk++;
+            }
+            return true;
+        }
+
+        public int nextRow() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return buffer[position++];
+        }
+
+        public Integer next() {
+            return nextRow();
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    // Chunk implementations
+
+    abstract static class Chunk {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char low);
+
+        /**
+         * @return The chunk holding the new value (it can be a different one).
+         */
+        abstract Chunk add(char low);
+
+        abstract int select(int index);
+
+        /**
+         * Write the rows into the given buffer.
+         * @return The number of rows written.
+         */
+        abstract int fill(int[] buffer, int base);
+
+        abstract long getEstimatedSize();
+
+        abstract Chunk copy();
+
+        abstract BitmapChunk toBitmap();
+
+        Chunk trim() {
+            return this;
+        }
+
+        Chunk optimize() {
+            return this;
+        }
+
+        Chunk and(Chunk other) {
+            if (this instanceof ArrayChunk) {
+                return ((ArrayChunk) this).filter(other, true);
+            }
+            if (other instanceof ArrayChunk) {
+                return ((ArrayChunk) other).filter(this, true);
+            }
+            BitmapChunk result = ((BitmapChunk) this).copy();
+            int[] words = ((BitmapChunk) other).words;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result.words[i] &= words[i];
+            }
+            result.count();
+            return result;
+        }
+
+        Chunk or(Chunk other) {
+            BitmapChunk result = toBitmap().copy();
+            int[] words = other.toBitmap().words;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result.words[i] |= words[i];
+            }
+            result.count();
+            return result;
+        }
+
+        Chunk andNot(Chunk other) {
+            if (this instanceof ArrayChunk) {
+                return ((ArrayChunk) this).filter(other, false);
+            }
+            BitmapChunk result = ((BitmapChunk) this).copy();
+            int[] words = other.toBitmap().words;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result.words[i] &= ~words[i];
+            }
+            result.count();
+            return result;
+        }
+    }
+
+    static class ArrayChunk extends Chunk {
+
+        char[] values;
+        int cardinality;
+
+        ArrayChunk() {
+            this(new char[4], 0);
+        }
+
+        ArrayChunk(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        int cardinality() {
+            return cardinality;
+        }
+
+        boolean contains(char low) {
+            return binarySearch(values, cardinality, low) >= 0;
+        }
+
+        Chunk add(char low) {
+            // Ascending insertion is the most common case.
+            int i = cardinality;
+            if (cardinality > 0 && values[cardinality - 1] >= low) {
+                i = binarySearch(values, cardinality, low);
+                if (i >= 0) {
+                    return this;
+                }
+                i = -i - 1;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(low);
+            }
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            }
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = low;
+            cardinality++;
+            return this;
+        }
+
+        int select(int index) {
+            return values[index];
+        }
+
+        int fill(int[] buffer, int base) {
+            for (int i = 0; i < cardinality; i++) {
+                buffer[i] = base | values[i];
+            }
+            return cardinality;
+        }
+
+        long getEstimatedSize() {
+            return 16 + MemSizeEstimator.sizeOfArrayHeader + 2L * values.length;
+        }
+
+        ArrayChunk copy() {
+            return new ArrayChunk(Arrays.copyOf(values, Math.max(cardinality, 1)), cardinality);
+        }
+
+        @Override
+        Chunk trim() {
+            if (values.length > cardinality) {
+                values = Arrays.copyOf(values, Math.max(cardinality, 1));
+            }
+            return this;
+        }
+
+        BitmapChunk toBitmap() {
+            BitmapChunk bitmap = new BitmapChunk();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+
+        /**
+         * Keep the values present (or not present) in the other chunk.
+         */
+        ArrayChunk filter(Chunk other, boolean present) {
+            char[] result = new char[Math.max(cardinality, 1)];
+            int n = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i]) == present) {
+                    result[n++] = values[i];
+                }
+            }
+            return new ArrayChunk(result, n);
+        }
+    }
+
+    static class BitmapChunk extends Chunk {
+
+        int[] words = new int[BITMAP_WORDS];
+        int cardinality = 0;
+
+        int cardinality() {
+            return cardinality;
+        }
+
+        boolean contains(char low) {
+            return (words[low >>> 5] & (1 << (low & 31))) != 0;
+        }
+
+        Chunk add(char low) {
+            int word = low >>> 5;
+            int bit = 1 << (low & 31);
+            if ((words[word] & bit) == 0) {
+                words[word] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        int select(int index) {
+            int remaining = index;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                int bits = Integer.bitCount(words[i]);
+                if (remaining < bits) {
+                    int word = words[i];
+                    for (int b = 0; b < 32; b++) {
+                        if ((word & (1 << b)) != 0 && remaining-- == 0) {
+                            return (i << 5) | b;
+                        }
+                    }
+                }
+                remaining -= bits;
+            }
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + cardinality);
+        }
+
+        int fill(int[] buffer, int base) {
+            int n = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                int word = words[i];
+                while (word != 0) {
+                    int b = Integer.numberOfTrailingZeros(word);
+                    buffer[n++] = base | (i << 5) | b;
+                    word &= word - 1;
+                }
+            }
+            return n;
+        }
+
+        long getEstimatedSize() {
+            return 16 + MemSizeEstimator.sizeOfIntArray(BITMAP_WORDS);
+        }
+
+        BitmapChunk copy() {
+            BitmapChunk other = new BitmapChunk();
+            System.arraycopy(words, 0, other.words, 0, BITMAP_WORDS);
+            other.cardinality = cardinality;
+            return other;
+        }
+
+        BitmapChunk toBitmap() {
+            return this;
+        }
+
+        void count() {
+            cardinality = 0;
+            for (int word : words) {
+                cardinality += Integer.bitCount(word);
+            }
+        }
+
+        @Override
+        Chunk optimize() {
+            if (cardinality > ARRAY_MAX) {
+                return this;
+            }
+            char[] values = new char[Math.max(cardinality, 1)];
+            int[] buffer = new int[cardinality];
+            int n = fill(buffer, 0);
+            for (int i = 0; i < n; i++) {
+                values[i] = (char) buffer[i];
+            }
+            return new ArrayChunk(values, n);
+        }
+    }
+}
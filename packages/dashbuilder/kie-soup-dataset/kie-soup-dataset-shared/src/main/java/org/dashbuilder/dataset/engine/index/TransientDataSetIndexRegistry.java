@@ -15,23 +15,58 @@
  */
 package org.dashbuilder.dataset.engine.index;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.engine.index.spi.DataSetIndexEvictionPolicy;
 import org.dashbuilder.dataset.engine.index.spi.DataSetIndexRegistry;
 import org.dashbuilder.dataset.uuid.UUIDGenerator;
 
+/**
+ * In-memory index registry.
+ *
+ * <p>By default the registry is unbounded. It can be limited by memory size, number of indexes and idle time.
+ * When a limit is exceeded the filter, group and sort indexes built on top of the data sets are dropped (they
+ * are built again by the next lookup requiring them). The data sets registered are never evicted, as the static
+ * and pushed ones could not be got back. The order of eviction is decided by the
+ * {@link DataSetIndexEvictionPolicy}.</p>
+ *
+ * <p>The limits are checked at most once every {@link #getEvictionCheckInterval()} when a data set is retrieved.
+ * The eviction runs under a lock of its own, so it does not block the retrieval of data sets.</p>
+ */
 public class TransientDataSetIndexRegistry implements DataSetIndexRegistry {
 
+    public static final long NO_LIMIT = -1;
+
     protected UUIDGenerator uuidGenerator;
     protected Map<String,DataSetIndex> indexMap = new HashMap<String, DataSetIndex>();
+    protected Map<String,Long> dataSetSizeMap = new HashMap<String, Long>();
+    protected DataSetIndexEvictionPolicy evictionPolicy = new CostAwareEvictionPolicy();
+    protected final Object evictionLock = new Object();
+
+    protected long maxSize = NO_LIMIT;
+    protected long maxEntries = NO_LIMIT;
+    protected long maxIdleTime = NO_LIMIT;
+    protected long evictionCheckInterval = 1000;
+    protected volatile long lastEvictionCheck = 0;
+
+    protected long hitCount = 0;
+    protected long missCount = 0;
+    protected long evictionCount = 0;
+    protected long evictedSize = 0;
 
     public TransientDataSetIndexRegistry(UUIDGenerator uuidGenerator) {
         this.uuidGenerator = uuidGenerator;
     }
 
-    public DataSetIndex put(DataSet dataSet) {
+    public synchronized DataSetIndex put(DataSet dataSet) {
         if (dataSet == null) {
             return null;
         }
@@ -43,19 +78,301 @@ public class TransientDataSetIndexRegistry implements DataSetIndexRegistry {
 
         DataSetIndex dsIndex = new DataSetStaticIndex(dataSet);
         indexMap.put(uuid, dsIndex);
+        dataSetSizeMap.remove(uuid);
         return dsIndex;
     }
 
     public DataSetIndex get(String uuid) {
+        DataSetIndex index = lookup(uuid);
+        if (index != null && isBounded() && System.currentTimeMillis() - lastEvictionCheck >= evictionCheckInterval) {
+            synchronized (evictionLock) {
+                // A concurrent retrieval might have just done it
+                if (System.currentTimeMillis() - lastEvictionCheck >= evictionCheckInterval) {
+                    doEvict();
+                }
+            }
+        }
+        return index;
+    }
+
+    protected synchronized DataSetIndex lookup(String uuid) {
         DataSetIndex index = indexMap.get(uuid);
-        if (index != null) {
-            index.reuseHit();
+        if (index == null) {
+            missCount++;
+            return null;
         }
+        hitCount++;
+        index.reuseHit();
         return index;
     }
 
-    public DataSetIndex remove(String uuid) {
+    public synchronized DataSetIndex remove(String uuid) {
+        dataSetSizeMap.remove(uuid);
         return indexMap.remove(uuid);
     }
-}
 
+    // Eviction
+
+    public boolean isBounded() {
+        return maxSize > 0 || maxEntries > 0 || maxIdleTime > 0;
+    }
+
+    /**
+     * Evict the indexes exceeding the limits set.
+     */
+    public void evict() {
+        synchronized (evictionLock) {
+            doEvict();
+        }
+    }
+
+    /**
+     * Evict the indexes exceeding the limits set. It must be called holding the eviction lock.
+     */
+    protected void doEvict() {
+        long now = System.currentTimeMillis();
+        lastEvictionCheck = now;
+
+        List<IndexCandidate> candidates = getIndexCandidates(now);
+        Set<DataSetIndexNode> evicted = new HashSet<DataSetIndexNode>();
+
+        // Idle indexes
+        if (maxIdleTime > 0) {
+            for (IndexCandidate candidate : candidates) {
+                if (now - candidate.index.getLastAccessTime() > maxIdleTime) {
+                    evictIndex(candidate, evicted);
+                }
+            }
+        }
+        if (maxEntries <= 0 && maxSize <= 0) {
+            return;
+        }
+        Collections.sort(candidates, new Comparator<IndexCandidate>() {
+            public int compare(IndexCandidate o1, IndexCandidate o2) {
+                return Double.compare(o1.score, o2.score);
+            }
+        });
+        // Number of indexes
+        if (maxEntries > 0) {
+            long entries = countEntries(candidates, evicted);
+            for (IndexCandidate candidate : candidates) {
+                if (entries <= maxEntries) break;
+                // The sub-indexes evicted before are no longer attached, so they are not counted twice
+                long indexes = 1 + countSubIndexes(candidate.index);
+                if (evictIndex(candidate, evicted)) {
+                    entries -= indexes;
+                }
+            }
+        }
+        // Memory consumed
+        if (maxSize > 0) {
+            long totalSize = getSize();
+            for (IndexCandidate candidate : candidates) {
+                if (totalSize <= maxSize) break;
+                long size = candidate.index.getTreeSize();
+                if (evictIndex(candidate, evicted)) {
+                    totalSize -= size;
+                }
+            }
+        }
+    }
+
+    /**
+     * Evict an index (along with its sub-indexes) unless it has already been evicted along with an ancestor.
+     * @return true if the index has been evicted.
+     */
+    protected boolean evictIndex(IndexCandidate candidate, Set<DataSetIndexNode> evicted) {
+        if (isEvicted(candidate.index, evicted)) {
+            return false;
+        }
+        long size = candidate.index.getTreeSize();
+        if (candidate.parent.removeIndex(candidate.index)) {
+            evicted.add(candidate.index);
+            evictedSize += size;
+            evictionCount++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Number of eviction candidates attached below the given index (see {@link #collectIndexCandidates}).
+     */
+    protected long countSubIndexes(DataSetIndexNode node) {
+        long count = 0;
+        for (DataSetIndexNode child : node.getChildIndexes()) {
+            count += 1 + countSubIndexes(child);
+        }
+        if (node instanceof DataSetGroupIndex) {
+            for (DataSetIntervalIndex interval : ((DataSetGroupIndex) node).getIntervalIndexes()) {
+                count += countSubIndexes(interval);
+            }
+        }
+        return count;
+    }
+
+    protected long countEntries(List<IndexCandidate> candidates, Set<DataSetIndexNode> evicted) {
+        long entries = 0;
+        for (IndexCandidate candidate : candidates) {
+            if (!isEvicted(candidate.index, evicted)) entries++;
+        }
+        return entries;
+    }
+
+    protected boolean isEvicted(DataSetIndexNode node, Set<DataSetIndexNode> evicted) {
+        for (DataSetIndexNode n = node; n != null; n = n.getParent()) {
+            if (evicted.contains(n)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Estimated size of a registry entry: the data set plus all its indexes.
+     */
+    protected long getEntrySize(String uuid) {
+        DataSetIndex index = indexMap.get(uuid);
+        if (index == null) {
+            return 0;
+        }
+        // Registered data sets do not change, so their size is calculated only once
+        Long dataSetSize = dataSetSizeMap.get(uuid);
+        if (dataSetSize == null) {
+            dataSetSize = index.getDataSet().getEstimatedSize();
+            dataSetSizeMap.put(uuid, dataSetSize);
+        }
+        return dataSetSize + index.getTreeSize();
+    }
+
+    protected List<IndexCandidate> getIndexCandidates(long now) {
+        List<DataSetIndex> indexes;
+        synchronized (this) {
+            indexes = new ArrayList<DataSetIndex>(indexMap.values());
+        }
+        List<IndexCandidate> result = new ArrayList<IndexCandidate>();
+        for (DataSetIndex index : indexes) {
+            collectIndexCandidates(index, now, result);
+        }
+        return result;
+    }
+
+    protected void collectIndexCandidates(DataSetIndexNode node, long now, List<IndexCandidate> result) {
+        for (DataSetIndexNode child : node.getChildIndexes()) {
+            double score = evictionPolicy.getRetentionScore(child, child.getTreeSize(), now);
+            result.add(new IndexCandidate(node, child, score));
+            collectIndexCandidates(child, now, result);
+        }
+        if (node instanceof DataSetGroupIndex) {
+            for (DataSetIntervalIndex interval : ((DataSetGroupIndex) node).getIntervalIndexes()) {
+                collectIndexCandidates(interval, now, result);
+            }
+        }
+    }
+
+    protected static class IndexCandidate {
+
+        DataSetIndexNode parent;
+        DataSetIndexNode index;
+        double score;
+
+        IndexCandidate(DataSetIndexNode parent, DataSetIndexNode index, double score) {
+            this.parent = parent;
+            this.index = index;
+            this.score = score;
+        }
+    }
+
+    // Settings
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @param maxSize Max memory (in bytes) consumed by the data sets and their indexes or {@link #NO_LIMIT}.
+     */
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @param maxEntries Max number of filter, group and sort indexes (including the nested ones) or {@link #NO_LIMIT}.
+     */
+    public void setMaxEntries(long maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    /**
+     * @param maxIdleTime Max time (in milliseconds) an index can remain unused or {@link #NO_LIMIT}.
+     */
+    public void setMaxIdleTime(long maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    public long getEvictionCheckInterval() {
+        return evictionCheckInterval;
+    }
+
+    /**
+     * @param evictionCheckInterval Min time (in milliseconds) between two limit checks on data set retrieval.
+     */
+    public void setEvictionCheckInterval(long evictionCheckInterval) {
+        this.evictionCheckInterval = evictionCheckInterval;
+    }
+
+    public DataSetIndexEvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    public void setEvictionPolicy(DataSetIndexEvictionPolicy evictionPolicy) {
+        this.evictionPolicy = evictionPolicy;
+    }
+
+    // Metrics
+
+    /**
+     * Estimated memory (in bytes) consumed by the data sets registered and their indexes.
+     */
+    public synchronized long getSize() {
+        long size = 0;
+        for (String uuid : indexMap.keySet()) {
+            size += getEntrySize(uuid);
+        }
+        return size;
+    }
+
+    public synchronized int getEntryCount() {
+        return indexMap.size();
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Number of filter, group and sort indexes evicted.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Estimated memory (in bytes) released by the evictions.
+     */
+    public long getEvictedSize() {
+        return evictedSize;
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.index.spi;
+
+import org.dashbuilder.dataset.engine.index.DataSetIndexElement;
+
+/**
+ * Decides which data set indexes are evicted first when the index registry exceeds its limits.
+ */
+public interface DataSetIndexEvictionPolicy {
+
+    /**
+     * Get how valuable is to keep the given index element. The elements with the lowest scores are evicted first.
+     * @param element The index element (either a data set index or any of its sub-indexes).
+     * @param size The estimated memory (in bytes) released if the element is evicted.
+     * @param now The current time in milliseconds.
+     */
+    double getRetentionScore(DataSetIndexElement element, long size, long now);
+}
@@ -85,6 +85,12 @@ public interface DataSetIndexStats {
      */
     long getIndexSize();
 
+    /**
+     * Return the estimated memory (in bytes) consumed by the (compressed) row sets held by the index.
+     * @return The number of bytes
+     */
+    long getRowsSize();
+
     /**
      * Prints a stats summary.
      * @param sep The separator string to insert between every stat.
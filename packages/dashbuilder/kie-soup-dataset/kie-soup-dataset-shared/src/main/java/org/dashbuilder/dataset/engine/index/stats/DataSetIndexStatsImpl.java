@@ -20,6 +20,7 @@ import org.dashbuilder.dataset.engine.index.DataSetFunctionIndex;
 import org.dashbuilder.dataset.engine.index.DataSetGroupIndex;
 import org.dashbuilder.dataset.engine.index.DataSetIndex;
 import org.dashbuilder.dataset.engine.index.DataSetIndexElement;
+import org.dashbuilder.dataset.engine.index.DataSetIndexNode;
 import org.dashbuilder.dataset.engine.index.DataSetSortIndex;
 import org.dashbuilder.dataset.engine.index.visitor.DataSetIndexVisitor;
 
@@ -32,6 +33,7 @@ public class DataSetIndexStatsImpl implements DataSetIndexStats, DataSetIndexVis
     private transient long buildTime = 0;
     private transient long reuseTime = 0;
     private transient long indexSize = 0;
+    private transient long rowsSize = 0;
     private transient int numberOfGroupOps = 0;
     private transient int numberOfFilterOps = 0;
     private transient int numberOfSortOps = 0;
@@ -50,14 +52,17 @@ public class DataSetIndexStatsImpl implements DataSetIndexStats, DataSetIndexVis
         buildTime += element.getBuildTime();
         reuseTime += element.getReuseTime();
         indexSize += element.getEstimatedSize();
+        if (element instanceof DataSetIndexNode) {
+            rowsSize += ((DataSetIndexNode) element).getRowsSize();
+        }
 
         if (longestBuild == null || element.getBuildTime() > longestBuild.getBuildTime()) {
             longestBuild = element;
         }
-        if (shortestBuild == null || element.getBuildTime() > shortestBuild.getBuildTime()) {
+        if (shortestBuild == null || element.getBuildTime() < shortestBuild.getBuildTime()) {
             shortestBuild = element;
         }
-        if (lessReused == null || element.getReuseHits() > lessReused.getReuseHits()) {
+        if (lessReused == null || element.getReuseHits() < lessReused.getReuseHits()) {
             lessReused = element;
         }
         if (mostReused == null || element.getReuseHits() > mostReused.getReuseHits()) {
@@ -80,7 +85,7 @@ public class DataSetIndexStatsImpl implements DataSetIndexStats, DataSetIndexVis
 
     public double getReuseRate() {
         if (buildTime == 0) return 0;
-        return reuseTime/buildTime;
+        return (double) reuseTime / buildTime;
     }
 
     public long getBuildTime() {
@@ -111,6 +116,10 @@ public class DataSetIndexStatsImpl implements DataSetIndexStats, DataSetIndexVis
         return indexSize;
     }
 
+    public long getRowsSize() {
+        return rowsSize;
+    }
+
     public int getNumberOfGroupOps() {
         return numberOfGroupOps;
     }
@@ -134,6 +143,7 @@ public class DataSetIndexStatsImpl implements DataSetIndexStats, DataSetIndexVis
     public String toString(String sep) {
         StringBuilder out = new StringBuilder();
         out.append("Index size=").append(MemSizeFormatter.formatSize(getIndexSize())).append(sep);
+        out.append("Rows size=").append(MemSizeFormatter.formatSize(getRowsSize())).append(sep);
         out.append("Build time=").append(((double) getBuildTime() / 1000000)).append(" (secs)").append(sep);
         out.append("Reuse time=").append(((double) getReuseTime() / 1000000)).append(" (secs)").append(sep);
         out.append("Reuse rate=").append(getReuseRate()).append(sep);
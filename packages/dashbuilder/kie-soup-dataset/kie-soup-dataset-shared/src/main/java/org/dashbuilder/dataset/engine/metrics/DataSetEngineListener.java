@@ -0,0 +1,45 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.metrics;
+
+import org.dashbuilder.dataset.DataSetLookup;
+
+/**
+ * Receives the measures taken by the engine on every lookup.
+ */
+public interface DataSetEngineListener {
+
+    /**
+     * An operation of a lookup has been applied.
+     * @param uuid The data set looked up.
+     * @param op The operation.
+     * @param time The time taken (in nanoseconds).
+     * @param rowsIn The number of rows the operation has been applied to.
+     * @param rowsOut The number of rows resulting (intervals for group operations, values for aggregations).
+     * @param indexHit Whether the operation has been resolved from the data set indexes.
+     */
+    void onOperation(String uuid, DataSetEngineOp op, long time, int rowsIn, int rowsOut, boolean indexHit);
+
+    /**
+     * A lookup has been completed.
+     * @param lookup The lookup (data set, operations and page) executed.
+     * @param time The time taken (in nanoseconds).
+     * @param rowsIn The number of rows of the data set looked up.
+     * @param rowsOut The number of rows of the result.
+     * @param slow Whether the lookup exceeded the slow lookup threshold of the engine.
+     */
+    void onLookup(DataSetLookup lookup, long time, int rowsIn, int rowsOut, boolean slow);
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.metrics;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.dashbuilder.dataset.DataSetLookup;
+
+/**
+ * In-memory accumulation of the engine measures: timers, rows and index hits per operation type plus the
+ * last slow lookups.
+ */
+public class DataSetEngineMetrics implements DataSetEngineListener {
+
+    public static final int DEFAULT_MAX_SLOW_LOOKUPS = 50;
+
+    protected Map<DataSetEngineOp, OpStats> opStatsMap = new EnumMap<DataSetEngineOp, OpStats>(DataSetEngineOp.class);
+    protected OpStats lookupStats = new OpStats();
+    protected LinkedList<SlowLookup> slowLookups = new LinkedList<SlowLookup>();
+    protected int maxSlowLookups = DEFAULT_MAX_SLOW_LOOKUPS;
+    protected long slowLookupCount = 0;
+
+    public DataSetEngineMetrics() {
+        for (DataSetEngineOp op : DataSetEngineOp.values()) {
+            opStatsMap.put(op, new OpStats());
+        }
+    }
+
+    public synchronized void onOperation(String uuid, DataSetEngineOp op, long time, int rowsIn, int rowsOut, boolean indexHit) {
+        opStatsMap.get(op).add(time, rowsIn, rowsOut, indexHit);
+    }
+
+    public synchronized void onLookup(DataSetLookup lookup, long time, int rowsIn, int rowsOut, boolean slow) {
+        lookupStats.add(time, rowsIn, rowsOut, false);
+        if (slow) {
+            slowLookupCount++;
+            slowLookups.addLast(new SlowLookup(lookup, time, rowsIn, rowsOut, System.currentTimeMillis()));
+            while (slowLookups.size() > maxSlowLookups) {
+                slowLookups.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * Get a snapshot of the measures of the given operation type.
+     */
+    public synchronized OpStats getOpStats(DataSetEngineOp op) {
+        return opStatsMap.get(op).copy();
+    }
+
+    /**
+     * Get a snapshot of the measures of the whole lookups.
+     */
+    public synchronized OpStats getLookupStats() {
+        return lookupStats.copy();
+    }
+
+    /**
+     * Get the last slow lookups, the oldest first.
+     */
+    public synchronized List<SlowLookup> getSlowLookups() {
+        return new ArrayList<SlowLookup>(slowLookups);
+    }
+
+    public synchronized long getSlowLookupCount() {
+        return slowLookupCount;
+    }
+
+    public int getMaxSlowLookups() {
+        return maxSlowLookups;
+    }
+
+    /**
+     * @param maxSlowLookups Max number of slow lookups kept.
+     */
+    public synchronized void setMaxSlowLookups(int maxSlowLookups) {
+        this.maxSlowLookups = maxSlowLookups;
+    }
+
+    public synchronized void reset() {
+        for (DataSetEngineOp op : DataSetEngineOp.values()) {
+            opStatsMap.put(op, new OpStats());
+        }
+        lookupStats = new OpStats();
+        slowLookups.clear();
+        slowLookupCount = 0;
+    }
+
+    /**
+     * Accumulated measures of an operation type. Times are in nanoseconds.
+     */
+    public static class OpStats {
+
+        long count = 0;
+        long totalTime = 0;
+        long maxTime = 0;
+        long rowsIn = 0;
+        long rowsOut = 0;
+        long indexHits = 0;
+
+        void add(long time, int rowsIn, int rowsOut, boolean indexHit) {
+            this.count++;
+            this.totalTime += time;
+            this.maxTime = Math.max(maxTime, time);
+            this.rowsIn += rowsIn;
+            this.rowsOut += rowsOut;
+            if (indexHit) {
+                this.indexHits++;
+            }
+        }
+
+        OpStats copy() {
+            OpStats copy = new OpStats();
+            copy.count = count;
+            copy.totalTime = totalTime;
+            copy.maxTime = maxTime;
+            copy.rowsIn = rowsIn;
+            copy.rowsOut = rowsOut;
+            copy.indexHits = indexHits;
+            return copy;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalTime() {
+            return totalTime;
+        }
+
+        public long getMaxTime() {
+            return maxTime;
+        }
+
+        public long getRowsIn() {
+            return rowsIn;
+        }
+
+        public long getRowsOut() {
+            return rowsOut;
+        }
+
+        public long getIndexHits() {
+            return indexHits;
+        }
+
+        public long getIndexMisses() {
+            return count - indexHits;
+        }
+    }
+
+    /**
+     * A lookup that exceeded the slow lookup threshold of the engine.
+     */
+    public static class SlowLookup {
+
+        DataSetLookup lookup;
+        long time;
+        int rowsIn;
+        int rowsOut;
+        long timestamp;
+
+        public SlowLookup(DataSetLookup lookup, long time, int rowsIn, int rowsOut, long timestamp) {
+            this.lookup = lookup;
+            this.time = time;
+            this.rowsIn = rowsIn;
+            this.rowsOut = rowsOut;
+            this.timestamp = timestamp;
+        }
+
+        public DataSetLookup getLookup() {
+            return lookup;
+        }
+
+        /**
+         * The time taken in nanoseconds.
+         */
+        public long getTime() {
+            return time;
+        }
+
+        public int getRowsIn() {
+            return rowsIn;
+        }
+
+        public int getRowsOut() {
+            return rowsOut;
+        }
+
+        /**
+         * When the lookup completed, in milliseconds since the epoch.
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+}
@@ -15,25 +15,41 @@
  */
 package org.dashbuilder.dataset.engine.sort;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import org.dashbuilder.dataset.DataColumn;
 import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.engine.index.RowList;
+import org.dashbuilder.dataset.engine.index.RowSet;
+import org.dashbuilder.dataset.impl.DateColumnValues;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
 import org.dashbuilder.dataset.sort.ColumnSort;
 
 /**
- * A basic sort algorithm takes relies on the default <tt>Collections.sort()</tt> implementation.
+ * The default sort algorithm. It sorts the row numbers as primitive ints with a stable merge sort (rows with the same
+ * values keep their original order, as <tt>Collections.sort()</tt> does). When only the first rows are requested,
+ * a bounded heap is used instead, so that only the top rows get sorted.
+ *
+ * <p>If the first sort column is a number or a date, its values are extracted first into an array of primitive
+ * keys, so most comparisons do not need to access the data set at all.</p>
  */
 public class CollectionsDataSetSort implements DataSetSortAlgorithm {
 
+    /**
+     * Sub-arrays smaller than this are sorted by insertion.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
 
     public List<Integer> sort(DataSet dataSet, List<ColumnSort> columnSortList) {
         return sort(dataSet, null, columnSortList);
     }
 
     public List<Integer> sort(DataSet dataSet, List<Integer> rowNumbers, List<ColumnSort> columnSortList) {
+        return sort(dataSet, rowNumbers, columnSortList, -1);
+    }
+
+    public List<Integer> sort(DataSet dataSet, List<Integer> rowNumbers, List<ColumnSort> columnSortList, int limit) {
 
         // Create the comparator.
         DataSetRowComparator comparator = new DataSetRowComparator();
@@ -43,17 +59,171 @@ public class CollectionsDataSetSort implements DataSetSortAlgorithm {
 
             comparator.criteria(column, columnSort.getOrder());
         }
-        // Create the row number list to sort.
-        List<Integer> rows = new ArrayList<Integer>();
-        if (rowNumbers != null) {
-            rows.addAll(rowNumbers);
+        // Create the row number array to sort.
+        int n = rowNumbers != null ? rowNumbers.size() : dataSet.getRowCount();
+        int[] rows = new int[n];
+        Iterator<Integer> it = rowNumbers == null ? null : rowNumbers.iterator();
+        RowSet.RowIterator rowIt = it instanceof RowSet.RowIterator ? (RowSet.RowIterator) it : null;
+        for (int i=0; i<n; i++) {
+            // Row sets are iterated, as reading them by position means scanning their chunks
+            rows[i] = it == null ? i : (rowIt != null ? rowIt.nextRow() : it.next());
+        }
+        PositionComparator positions = new PositionComparator(rows, comparator);
+
+        // Sort the row positions.
+        int[] sorted;
+        if (limit >= 0 && limit < n) {
+            sorted = topK(positions, n, limit);
         } else {
-            for (int i=0; i<dataSet.getRowCount(); i++) {
-                rows.add(i);
+            sorted = new int[n];
+            for (int i=0; i<n; i++) {
+                sorted[i] = i;
+            }
+            mergeSort(sorted, positions);
+        }
+        RowList result = new RowList(sorted.length);
+        for (int position : sorted) {
+            result.addRow(rows[position]);
+        }
+        return result;
+    }
+
+    /**
+     * Get the first k positions in order. It keeps a max-heap with the k smallest positions found so far.
+     */
+    protected int[] topK(PositionComparator positions, int n, int k) {
+        int[] heap = new int[k];
+        int size = 0;
+        for (int p=0; p<n; p++) {
+            if (size < k) {
+                heap[size] = p;
+                siftUp(heap, size++, positions);
+            }
+            else if (k > 0 && positions.compare(p, heap[0]) < 0) {
+                heap[0] = p;
+                siftDown(heap, size, positions);
+            }
+        }
+        mergeSort(heap, positions);
+        return heap;
+    }
+
+    private static void siftUp(int[] heap, int i, PositionComparator positions) {
+        int p = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (positions.compare(heap[parent], p) >= 0) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = p;
+    }
+
+    private static void siftDown(int[] heap, int size, PositionComparator positions) {
+        int p = heap[0];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && positions.compare(heap[child + 1], heap[child]) > 0) child++;
+            if (positions.compare(p, heap[child]) >= 0) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = p;
+    }
+
+    /**
+     * Stable merge sort of an array of positions.
+     */
+    protected void mergeSort(int[] a, PositionComparator positions) {
+        int[] tmp = new int[a.length];
+        mergeSort(a, tmp, 0, a.length, positions);
+    }
+
+    private static void mergeSort(int[] a, int[] tmp, int from, int to, PositionComparator positions) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i=from+1; i<to; i++) {
+                int p = a[i];
+                int j = i - 1;
+                while (j >= from && positions.compare(a[j], p) > 0) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = p;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(a, tmp, from, mid, positions);
+        mergeSort(a, tmp, mid, to, positions);
+
+        // Already in order
+        if (positions.compare(a[mid - 1], a[mid]) <= 0) return;
+
+        System.arraycopy(a, from, tmp, from, to - from);
+        int i = from, j = mid, k = from;
+        while (i < mid && j < to) {
+            a[k++] = positions.compare(tmp[j], tmp[i]) < 0 ? tmp[j++] : tmp[i++];
+        }
+        while (i < mid) a[k++] = tmp[i++];
+        while (j < to) a[k++] = tmp[j++];
+    }
+
+    /**
+     * Compares positions of the row array to sort. Ties are resolved by position, so the resulting order is
+     * always the same as the one of a stable sort.
+     */
+    protected static class PositionComparator {
+
+        int[] rows;
+        DataSetRowComparator comparator;
+
+        // Primitive keys of the first criteria (if it is a number or a date column)
+        long[] keys = null;
+        int ordering = 1;
+
+        PositionComparator(int[] rows, DataSetRowComparator comparator) {
+            this.rows = rows;
+            this.comparator = comparator;
+            if (!comparator.columns.isEmpty()) {
+                List values = comparator.columns.get(0).getValues();
+                ordering = comparator.orders.get(0).asInt() == -1 ? -1 : 1;
+                if (values instanceof NumberColumnValues) {
+                    NumberColumnValues numbers = (NumberColumnValues) values;
+                    keys = new long[rows.length];
+                    for (int i=0; i<rows.length; i++) {
+                        keys[i] = numbers.isNull(rows[i]) ? Long.MIN_VALUE : sortableBits(numbers.getDouble(rows[i]));
+                    }
+                }
+                else if (values instanceof DateColumnValues) {
+                    DateColumnValues dates = (DateColumnValues) values;
+                    keys = new long[rows.length];
+                    for (int i=0; i<rows.length; i++) {
+                        keys[i] = dates.isNull(rows[i]) ? Long.MIN_VALUE : dates.getMillis(rows[i]);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Map a double into a long that keeps the same order as <tt>Double.compare</tt>. Null values go first.
+         */
+        static long sortableBits(double value) {
+            long bits = Double.doubleToLongBits(value);
+            return bits < 0 ? bits ^ Long.MAX_VALUE : bits;
+        }
+
+        int compare(int p1, int p2) {
+            int comp;
+            if (keys != null) {
+                long k1 = keys[p1];
+                long k2 = keys[p2];
+                comp = k1 < k2 ? -ordering : (k1 == k2 ? comparator.compareRows(rows[p1], rows[p2], 1) : ordering);
+            } else {
+                comp = comparator.compareRows(rows[p1], rows[p2], 0);
             }
+            return comp != 0 ? comp : Integer.compare(p1, p2);
         }
-        // Sort the row numbers.
-        Collections.sort(rows, comparator);
-        return rows;
     }
 }
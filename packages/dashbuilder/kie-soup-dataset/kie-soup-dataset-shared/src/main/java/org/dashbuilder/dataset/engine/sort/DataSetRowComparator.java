@@ -21,6 +21,8 @@ import java.util.List;
 
 import org.dashbuilder.comparator.ComparatorUtils;
 import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.impl.DateColumnValues;
+import org.dashbuilder.dataset.impl.NumberColumnValues;
 import org.dashbuilder.dataset.sort.SortOrder;
 
 /**
@@ -46,15 +48,64 @@ public class DataSetRowComparator implements Comparator<Integer> {
         else if (row1 != null && row2 == null) return 1;
         else if (row1 == null) return 0;
 
-        // Compare the two rows.
-        for (int i=0; i<columns.size(); i++) {
+        return compareRows(row1, row2, 0);
+    }
+
+    /**
+     * Compare two rows starting from the given criteria.
+     * @param from The index of the first criteria to check
+     */
+    public int compareRows(int row1, int row2, int from) {
+        for (int i=from; i<columns.size(); i++) {
             DataColumn column = columns.get(i);
             SortOrder order = orders.get(i);
-            Comparable value1 = (Comparable) column.getValues().get(row1);
-            Comparable value2 = (Comparable) column.getValues().get(row2);
-            int comp = ComparatorUtils.compare(value1, value2, order.asInt());
+            List values = column.getValues();
+            int comp;
+            if (values instanceof NumberColumnValues) {
+                comp = compareNumbers((NumberColumnValues) values, row1, row2, order.asInt());
+            } else if (values instanceof DateColumnValues) {
+                comp = compareDates((DateColumnValues) values, row1, row2, order.asInt());
+            } else {
+                Comparable value1 = (Comparable) values.get(row1);
+                Comparable value2 = (Comparable) values.get(row2);
+                comp = ComparatorUtils.compare(value1, value2, order.asInt());
+            }
             if (comp != 0) return comp;
         }
         return 0;
     }
+
+    /**
+     * Compare the primitive values of a number column (no boxing). Null values go first.
+     */
+    protected int compareNumbers(NumberColumnValues values, int row1, int row2, int ordering) {
+        int comp = compareNulls(values.isNull(row1), values.isNull(row2));
+        if (comp == 2) {
+            comp = Double.compare(values.getDouble(row1), values.getDouble(row2));
+        }
+        return ordering == -1 ? -comp : comp;
+    }
+
+    /**
+     * Compare the primitive values of a date column (no Date instances created). Null values go first.
+     */
+    protected int compareDates(DateColumnValues values, int row1, int row2, int ordering) {
+        int comp = compareNulls(values.isNull(row1), values.isNull(row2));
+        if (comp == 2) {
+            long millis1 = values.getMillis(row1);
+            long millis2 = values.getMillis(row2);
+            comp = millis1 < millis2 ? -1 : (millis1 == millis2 ? 0 : 1);
+        }
+        return ordering == -1 ? -comp : comp;
+    }
+
+    /**
+     * @return The comparison result if any of the values is null or 2 if both are not null.
+     */
+    private int compareNulls(boolean null1, boolean null2) {
+        if (null1 && !null2) return -1;
+        if (!null1 && null2) return 1;
+        if (null1) return 0;
+        return 2;
+    }
 }
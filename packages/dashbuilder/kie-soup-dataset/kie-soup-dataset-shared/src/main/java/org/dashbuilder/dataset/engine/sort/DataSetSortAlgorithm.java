@@ -15,6 +15,7 @@
  */
 package org.dashbuilder.dataset.engine.sort;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.dashbuilder.dataset.DataSet;
@@ -41,4 +42,17 @@ public interface DataSetSortAlgorithm {
      * @return A list of ordered row numbers reflecting the sort results.
      */
     List<Integer> sort(DataSet dataSet, List<Integer> rowNumbers, List<ColumnSort> columnSortList);
+
+    /**
+     * Get the first rows of the specified data set sorted according the sort criteria list specified.
+     * @param dataSet The data set to sort
+     * @param rowNumbers The subset of rows to sort or <tt>null</tt> to sort all the rows.
+     * @param columnSortList The sort operations to apply
+     * @param limit The number of rows to get or <tt>-1</tt> to get all of them
+     * @return A list of (at most <tt>limit</tt>) ordered row numbers reflecting the sort results.
+     */
+    default List<Integer> sort(DataSet dataSet, List<Integer> rowNumbers, List<ColumnSort> columnSortList, int limit) {
+        List<Integer> rows = sort(dataSet, rowNumbers, columnSortList);
+        return limit < 0 || limit >= rows.size() ? rows : new ArrayList<Integer>(rows.subList(0, limit));
+    }
 }
@@ -22,7 +22,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Random;
 
+import org.dashbuilder.dataset.engine.index.RowSet;
+import org.dashbuilder.dataset.group.AggregateFunctionType;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -361,6 +364,81 @@ public class AggregateFunctionsTest {
         assertEquals(3d, result);
     }
 
+    @Test
+    public void testMedianFunctionRows() {
+        var function = new MedianFunction();
+        var random = new Random(7);
+        for (var n = 1; n < 200; n++) {
+            var values = new ArrayList<Double>();
+            var rows = new ArrayList<Integer>();
+            for (var i = 0; i < n; i++) {
+                values.add((double) random.nextInt(50));
+                if (i % 3 != 0) rows.add(i);
+            }
+            var sorted = new ArrayList<Double>();
+            for (var row : rows) sorted.add(values.get(row));
+            Collections.sort(sorted);
+            Object expected = sorted.isEmpty() ? 0d : sorted.size() % 2 == 1 ? sorted.get(sorted.size() / 2)
+                    : function.round((sorted.get(sorted.size() / 2 - 1) + sorted.get(sorted.size() / 2)) / 2d, 2);
+            assertEquals(expected, function.aggregate(values, rows));
+            assertEquals(expected, function.aggregate(values, RowSet.valueOf(rows)));
+        }
+    }
+
+    @Test
+    public void testMedianFunctionNull() {
+        var function = new MedianFunction();
+        var result = function.aggregate(NUMERIC_LIST_WITH_NULL);
+        assertEquals(2d, result);
+
+        result = function.aggregate(NULL_LIST);
+        assertEquals(0d, result);
+    }
+
+    @Test
+    public void testPercentileFunction() {
+        var median = new PercentileFunction(AggregateFunctionType.MEDIAN_APPROX, 0.5);
+        var p99 = new PercentileFunction(AggregateFunctionType.PERCENTILE_99, 0.99);
+        var values = new ArrayList<Double>();
+        for (var i = 0; i < 100000; i++) {
+            values.add((double) ((i * 7919) % 100000));
+        }
+        assertEquals(50000d, (Double) median.aggregate(values), 500d);
+        assertEquals(99000d, (Double) p99.aggregate(values), 100d);
+        assertEquals(2d, median.aggregate(NUMERIC_LIST));
+        assertEquals(0d, median.aggregate(EMPTY_LIST));
+        assertEquals(50000d, (Double) median.aggregate(values, RowSet.range(values.size())), 500d);
+
+        // Merged partial digests
+        var state = median.merge(median.accumulate(values, range(0, 50000)),
+                median.accumulate(values, range(50000, 100000)));
+        assertEquals(50000d, (Double) median.getResult(state), 500d);
+    }
+
+    @Test
+    public void testDistinctApproxFunction() {
+        var function = new DistinctApproxFunction();
+        assertEquals(3d, function.aggregate(STRING_LIST));
+        assertEquals(0d, function.aggregate(EMPTY_LIST));
+
+        var values = new ArrayList<String>();
+        for (var i = 0; i < 200000; i++) {
+            values.add("value" + (i % 100000));
+        }
+        assertEquals(100000d, (Double) function.aggregate(values), 3000d);
+
+        // Merged partial sketches
+        var state = function.merge(function.accumulate(values, range(0, 100000)),
+                function.accumulate(values, range(50000, 200000)));
+        assertEquals(100000d, (Double) function.getResult(state), 3000d);
+    }
+
+    private static List<Integer> range(int from, int to) {
+        var rows = new ArrayList<Integer>();
+        for (var i = from; i < to; i++) rows.add(i);
+        return rows;
+    }
+
     @Test
     public void testJoinFunction() {
         var function = new JoinFunction();
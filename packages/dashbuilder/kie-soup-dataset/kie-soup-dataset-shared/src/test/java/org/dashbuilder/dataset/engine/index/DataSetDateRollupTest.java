@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.index;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Random;
+
+import org.dashbuilder.dataset.engine.function.CountFunction;
+import org.dashbuilder.dataset.engine.function.SumFunction;
+import org.dashbuilder.dataset.group.DateIntervalType;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DataSetDateRollupTest {
+
+    static final int DAYS = 10;
+
+    List<Date> dates = new ArrayList<>();
+    List<Double> amounts = new ArrayList<>();
+    List<Integer> sortedRows = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        // One row per hour (shuffled) plus a null date
+        List<Date> hours = new ArrayList<>();
+        Calendar c = new GregorianCalendar(2022, Calendar.MARCH, 1, 0, 30);
+        for (int i = 0; i < DAYS * 24; i++) {
+            hours.add(c.getTime());
+            c.add(Calendar.HOUR_OF_DAY, 1);
+        }
+        Collections.shuffle(hours, new Random(0));
+        hours.add(7, null);
+        for (int i = 0; i < hours.size(); i++) {
+            dates.add(hours.get(i));
+            amounts.add((double) i);
+            sortedRows.add(i);
+        }
+        sortedRows.sort((r1, r2) -> {
+            Date d1 = dates.get(r1);
+            Date d2 = dates.get(r2);
+            if (d1 == null) return d2 == null ? 0 : -1;
+            return d2 == null ? 1 : d1.compareTo(d2);
+        });
+    }
+
+    @Test
+    public void testBuckets() {
+        DataSetDateRollup rollup = new DataSetDateRollup("date", dates, sortedRows, 0);
+        assertEquals(DAYS * 24, rollup.getRowCount());
+        assertEquals(DateIntervalType.DAY, rollup.getBaseType());
+        assertEquals(DAYS, rollup.getBucketCount());
+        assertEquals(new GregorianCalendar(2022, Calendar.MARCH, 1, 0, 30).getTime(), rollup.getMinDate());
+        assertEquals(new GregorianCalendar(2022, Calendar.MARCH, 10, 23, 30).getTime(), rollup.getMaxDate());
+    }
+
+    @Test
+    public void testGetRows() {
+        DataSetDateRollup rollup = new DataSetDateRollup("date", dates, sortedRows, 0);
+        long from = new GregorianCalendar(2022, Calendar.MARCH, 2, 10, 0).getTime().getTime();
+        long to = new GregorianCalendar(2022, Calendar.MARCH, 3, 10, 0).getTime().getTime();
+
+        List<Integer> rows = rollup.getRows(from, to);
+        assertEquals(24, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            long time = dates.get(rows.get(i)).getTime();
+            assertTrue(time >= from && time < to);
+            if (i > 0) assertTrue(dates.get(rows.get(i - 1)).getTime() < time);
+        }
+        RowSet rowSet = rollup.getRowSet(from, to);
+        assertEquals(24, rowSet.size());
+        assertTrue(rowSet.containsAll(rows));
+        assertEquals(0, rollup.getRows(to, from).size());
+    }
+
+    @Test
+    public void testAccumulate() {
+        DataSetDateRollup rollup = new DataSetDateRollup("date", dates, sortedRows, 0);
+        SumFunction sum = new SumFunction();
+        CountFunction count = new CountFunction();
+        long from = new GregorianCalendar(2022, Calendar.MARCH, 2).getTime().getTime();
+        long to = new GregorianCalendar(2022, Calendar.MARCH, 5).getTime().getTime();
+
+        List<Integer> rows = rollup.getRows(from, to);
+        assertEquals(sum.aggregate(amounts, rows), sum.getResult(rollup.accumulate(sum, "amount", amounts, from, to)));
+        assertEquals(72d, count.getResult(rollup.accumulate(count, "amount", amounts, from, to)));
+
+        // The bucket states are reused
+        assertEquals(sum.aggregate(amounts, rows), sum.getResult(rollup.accumulate(sum, "amount", amounts, from, to)));
+
+        // Ranges not made of whole days
+        assertNull(rollup.accumulate(sum, "amount", amounts, from + 3600000, to));
+        assertNull(rollup.accumulate(sum, "amount", amounts, from, to - 3600000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsortedRows() {
+        Collections.reverse(sortedRows);
+        new DataSetDateRollup("date", dates, sortedRows, 0);
+    }
+}
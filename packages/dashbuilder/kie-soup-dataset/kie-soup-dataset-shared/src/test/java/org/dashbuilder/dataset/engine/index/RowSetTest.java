@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RowSetTest {
+
+    @Test
+    public void testAddAndGet() {
+        RowSet rowSet = new RowSet();
+        rowSet.addRow(3);
+        rowSet.addRow(70000);
+        rowSet.addRow(1);
+        assertFalse(rowSet.addRow(3));
+
+        assertEquals(Arrays.asList(1, 3, 70000), rowSet);
+        assertEquals(70000, rowSet.getRow(2));
+        assertTrue(rowSet.containsRow(70000));
+        assertFalse(rowSet.containsRow(2));
+    }
+
+    @Test
+    public void testValueOf() {
+        assertEquals(Arrays.asList(1, 2, 5), RowSet.valueOf(Arrays.asList(1, 2, 5)));
+        assertNull(RowSet.valueOf(Arrays.asList(5, 2, 1)));
+        assertNull(RowSet.valueOf(Arrays.asList(1, 1)));
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), RowSet.range(5));
+    }
+
+    @Test
+    public void testDenseChunks() {
+        RowSet rowSet = RowSet.range(200000);
+        assertEquals(200000, rowSet.size());
+        assertEquals(150000, rowSet.getRow(150000));
+        assertTrue(rowSet.getEstimatedSize() < 200000L);
+
+        int expected = 0;
+        RowSet.RowIterator it = rowSet.rowIterator();
+        while (it.hasNext()) {
+            assertEquals(expected++, it.nextRow());
+        }
+        assertEquals(200000, expected);
+    }
+
+    @Test
+    public void testSetOperations() {
+        Random random = new Random(7);
+        TreeSet<Integer> a = randomRows(random, 20000, 300000);
+        TreeSet<Integer> b = randomRows(random, 150000, 300000);
+        RowSet setA = RowSet.valueOf(new ArrayList<>(a));
+        RowSet setB = RowSet.valueOf(new ArrayList<>(b));
+
+        TreeSet<Integer> and = new TreeSet<>(a);
+        and.retainAll(b);
+        TreeSet<Integer> or = new TreeSet<>(a);
+        or.addAll(b);
+        TreeSet<Integer> andNot = new TreeSet<>(a);
+        andNot.removeAll(b);
+
+        assertEquals(new ArrayList<>(and), setA.and(setB));
+        assertEquals(new ArrayList<>(and), setB.and(setA));
+        assertEquals(new ArrayList<>(or), setA.or(setB));
+        assertEquals(new ArrayList<>(andNot), setA.andNot(setB));
+        assertEquals(b.size() - and.size(), setB.andNot(setA).size());
+    }
+
+    @Test
+    public void testIteratorOrder() {
+        List<Integer> rows = Arrays.asList(0, 65535, 65536, 131072, 1000000);
+        Iterator<Integer> it = RowSet.valueOf(rows).iterator();
+        for (Integer row : rows) {
+            assertEquals(row, it.next());
+        }
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    public void testSlice() {
+        Random random = new Random(7);
+        List<Integer> rows = new ArrayList<>(randomRows(random, 100000, 500000));
+        RowSet rowSet = RowSet.valueOf(rows);
+        int[] bounds = {0, 1, 4095, 30000, 65536, 70001, 99999, 100000};
+        for (int from : bounds) {
+            for (int to : bounds) {
+                if (from <= to) {
+                    assertEquals(rows.subList(from, to), rowSet.slice(from, to));
+                }
+            }
+        }
+        // Dense chunks
+        assertEquals(RowSet.range(200000).subList(1000, 150000), RowSet.range(200000).slice(1000, 150000));
+    }
+
+    private TreeSet<Integer> randomRows(Random random, int count, int max) {
+        TreeSet<Integer> rows = new TreeSet<>();
+        while (rows.size() < count) {
+            rows.add(random.nextInt(max));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,519 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Pull parser reading a JSON document one token at a time, so large payloads can be consumed without building
+ * the whole {@link JsonValue} tree in memory.
+ * <p>It accepts the same lenient syntax as {@link JsonFactory#parse(String)}: single quoted strings, unquoted object
+ * keys and the <tt>undefined</tt> literal. String and number tokens are decoded within the read buffer and are only
+ * turned into objects when requested through {@link #getString()} or {@link #readValue()}.</p>
+ * <pre>
+ *   JsonReader reader = new JsonReader(json);
+ *   for (JsonToken token = reader.next(); token != JsonToken.END_DOCUMENT; token = reader.next()) {
+ *       ...
+ *   }
+ * </pre>
+ */
+public class JsonReader {
+
+    private static final int INVALID_CHAR = -1;
+
+    private static final String STOPCHARS = ",:]}/\\\"[{;=#";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // Parsing scopes
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int NONEMPTY_OBJECT = 5;
+    private static final int DANGLING_NAME = 6;
+
+    // Powers of ten exactly representable as a double
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private JsonFactory jsonFactory = new JsonFactory();
+
+    private final String source;
+    private final Reader reader;
+    private int sourcePosition = 0;
+
+    private char[] buffer;
+    private int position = 0;
+    private int limit = 0;
+
+    // The current token. Its text is held in buffer[tokenStart, tokenEnd)
+    private JsonToken token = null;
+    private int tokenStart = -1;
+    private int tokenEnd = -1;
+    private double number;
+    private boolean bool;
+
+    private int[] scopes = new int[32];
+    private int depth = 1;
+
+    public JsonReader(String json) {
+        this(json, null, Math.max(Math.min(json.length(), BUFFER_SIZE), 16));
+    }
+
+    public JsonReader(Reader reader) {
+        this(null, reader, BUFFER_SIZE);
+    }
+
+    private JsonReader(String source, Reader reader, int bufferSize) {
+        this.source = source;
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+        this.scopes[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Move to the next token.
+     * @return The token read or {@link JsonToken#END_DOCUMENT} once the top level value has been read.
+     * @throws JsonException If the JSON is not valid.
+     */
+    public JsonToken next() throws JsonException {
+        tokenStart = -1;
+        tokenEnd = -1;
+        int c;
+        switch (scopes[depth - 1]) {
+            case EMPTY_DOCUMENT:
+                scopes[depth - 1] = NONEMPTY_DOCUMENT;
+                c = nextNonWhitespace();
+                if (c == INVALID_CHAR) {
+                    return token = JsonToken.END_DOCUMENT;
+                }
+                return nextValue(c);
+            case EMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    return endScope(JsonToken.END_ARRAY);
+                }
+                scopes[depth - 1] = NONEMPTY_ARRAY;
+                return nextValue(c);
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    return endScope(JsonToken.END_ARRAY);
+                }
+                if (c != ',') {
+                    throw new JsonException("Invalid array: expected , or ]");
+                }
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    return endScope(JsonToken.END_ARRAY);
+                }
+                return nextValue(c);
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                return nextName();
+            case DANGLING_NAME:
+                scopes[depth - 1] = NONEMPTY_OBJECT;
+                return nextValue(nextNonWhitespace());
+            default:
+                return token = JsonToken.END_DOCUMENT;
+        }
+    }
+
+    /**
+     * The last token returned by {@link #next()}.
+     */
+    public JsonToken getToken() {
+        return token;
+    }
+
+    /**
+     * Get the text of the current {@link JsonToken#NAME}, {@link JsonToken#STRING} token or the literal of a number,
+     * boolean or null token.
+     * @return The token text or null for the array and object tokens.
+     */
+    public String getString() {
+        if (tokenStart < 0) {
+            return null;
+        }
+        return new String(buffer, tokenStart, tokenEnd - tokenStart);
+    }
+
+    /**
+     * Check whether the text of the current token is the given one, without creating any string.
+     */
+    public boolean isString(String s) {
+        int length = tokenEnd - tokenStart;
+        if (tokenStart < 0 || length != s.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer[tokenStart + i] != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public double getNumber() throws JsonException {
+        if (token != JsonToken.NUMBER) {
+            throw new JsonException("Expected a number but was " + token);
+        }
+        return number;
+    }
+
+    public boolean getBoolean() throws JsonException {
+        if (token != JsonToken.BOOLEAN) {
+            throw new JsonException("Expected a boolean but was " + token);
+        }
+        return bool;
+    }
+
+    /**
+     * Skip the value starting at the current token, including all its nested values. If the current token is a
+     * name then its value is skipped.
+     */
+    public void skipValue() throws JsonException {
+        if (token == JsonToken.NAME) {
+            next();
+        }
+        if (token == JsonToken.BEGIN_ARRAY || token == JsonToken.BEGIN_OBJECT) {
+            int target = depth - 1;
+            while (depth > target) {
+                next();
+            }
+        }
+    }
+
+    /**
+     * Read the value starting at the current token as a {@link JsonValue} tree. If the current token is a name then
+     * its value is read.
+     */
+    public <T extends JsonValue> T readValue() throws JsonException {
+        switch (token) {
+            case NAME:
+                next();
+                return readValue();
+            case STRING:
+                return (T) jsonFactory.create(getString());
+            case NUMBER:
+                return (T) jsonFactory.create(number);
+            case BOOLEAN:
+                return (T) jsonFactory.create(bool);
+            case NULL:
+                return (T) jsonFactory.createNull();
+            case BEGIN_ARRAY:
+                JsonArray array = jsonFactory.createArray();
+                while (next() != JsonToken.END_ARRAY) {
+                    array.set(array.length(), (JsonValue) readValue());
+                }
+                return (T) array;
+            case BEGIN_OBJECT:
+                JsonObject object = jsonFactory.createObject();
+                while (next() != JsonToken.END_OBJECT) {
+                    String key = getString();
+                    next();
+                    object.put(key, (JsonValue) readValue());
+                }
+                return (T) object;
+            default:
+                throw new JsonException("Expected a value but was " + token);
+        }
+    }
+
+    private JsonToken nextName() throws JsonException {
+        int c = nextNonWhitespace();
+        if (scopes[depth - 1] == NONEMPTY_OBJECT && c != ',' && c != '}') {
+            throw new JsonException("Invalid object: expecting } or ,");
+        }
+        while (c == ',') {
+            c = nextNonWhitespace();
+        }
+        if (c == '}') {
+            return endScope(JsonToken.END_OBJECT);
+        }
+        if (c == '"' || c == '\'') {
+            readString(c);
+        } else if (c != INVALID_CHAR && Character.isLetterOrDigit((char) c)) {
+            tokenStart = position - 1;
+            while ((c = read()) != INVALID_CHAR && Character.isLetterOrDigit((char) c)) {
+                // Unquoted key
+            }
+            if (c != INVALID_CHAR) {
+                position--;
+            }
+            tokenEnd = position;
+        } else {
+            throw new JsonException("Invalid object: ");
+        }
+        if (nextNonWhitespace() != ':') {
+            throw new JsonException("Invalid object: expecting \":\"");
+        }
+        scopes[depth - 1] = DANGLING_NAME;
+        return token = JsonToken.NAME;
+    }
+
+    private JsonToken nextValue(int c) throws JsonException {
+        switch (c) {
+            case '"':
+            case '\'':
+                readString(c);
+                return token = JsonToken.STRING;
+            case '{':
+                push(EMPTY_OBJECT);
+                return token = JsonToken.BEGIN_OBJECT;
+            case '[':
+                push(EMPTY_ARRAY);
+                return token = JsonToken.BEGIN_ARRAY;
+            default:
+                return readLiteral(c);
+        }
+    }
+
+    private JsonToken endScope(JsonToken endToken) {
+        depth--;
+        return token = endToken;
+    }
+
+    private void push(int scope) {
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+        scopes[depth++] = scope;
+    }
+
+    /**
+     * Read a string, decoding its escape sequences in place (the decoded text is never longer than the source).
+     */
+    private void readString(int quote) throws JsonException {
+        tokenStart = position;
+        tokenEnd = position;
+        while (true) {
+            int c = read();
+            if (c == quote) {
+                return;
+            }
+            switch (c) {
+                case INVALID_CHAR:
+                    throw new JsonException("Unterminated string");
+                case '\r':
+                case '\n':
+                    throw new JsonException("Invalid string: unescaped line break");
+                case '\\':
+                    c = read();
+                    switch (c) {
+                        case INVALID_CHAR:
+                            throw new JsonException("Unterminated string");
+                        case 'b':
+                            c = '\b';
+                            break;
+                        case 't':
+                            c = '\t';
+                            break;
+                        case 'n':
+                            c = '\n';
+                            break;
+                        case 'f':
+                            c = '\f';
+                            break;
+                        case 'r':
+                            c = '\r';
+                            break;
+                        case 'u':
+                            c = readUnicode();
+                            break;
+                        default:
+                            break;
+                    }
+                    // Store the unescaped char
+                default:
+                    buffer[tokenEnd++] = (char) c;
+            }
+        }
+    }
+
+    private int readUnicode() throws JsonException {
+        int result = 0;
+        for (int i = 0; i < 4; i++) {
+            int c = read();
+            int digit = Character.digit((char) c, 16);
+            if (c == INVALID_CHAR || digit < 0) {
+                throw new JsonException("Invalid unicode escape sequence");
+            }
+            result = (result << 4) + digit;
+        }
+        return result;
+    }
+
+    private JsonToken readLiteral(int c) throws JsonException {
+        if (c == INVALID_CHAR || STOPCHARS.indexOf((char) c) >= 0) {
+            throw new JsonException("Missing value");
+        }
+        tokenStart = position - 1;
+        while ((c = read()) != INVALID_CHAR) {
+            if (Character.isWhitespace((char) c) || STOPCHARS.indexOf((char) c) >= 0) {
+                position--;
+                break;
+            }
+        }
+        tokenEnd = position;
+
+        if (isString("null") || isString("undefined")) {
+            return token = JsonToken.NULL;
+        }
+        if (isString("true") || isString("false")) {
+            bool = buffer[tokenStart] == 't';
+            return token = JsonToken.BOOLEAN;
+        }
+        char first = buffer[tokenStart];
+        if (first == '-' || Character.isDigit(first)) {
+            number = parseNumber();
+            return token = JsonToken.NUMBER;
+        }
+        throw new JsonException("Invalid literal: \"" + getString() + "\"");
+    }
+
+    /**
+     * Parse the current number literal. Numbers with up to 15 significant digits and a small exponent are exactly
+     * calculated from the buffer chars. Any other literal is delegated to {@link Double#parseDouble(String)}.
+     */
+    private double parseNumber() throws JsonException {
+        int i = tokenStart;
+        boolean negative = buffer[i] == '-';
+        if (negative) {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        int start = i;
+        for (; i < tokenEnd && isDigit(buffer[i]); i++) {
+            mantissa = mantissa * 10 + (buffer[i] - '0');
+            if (mantissa != 0) {
+                digits++;
+            }
+        }
+        boolean hasDigits = i > start;
+        if (i < tokenEnd && buffer[i] == '.') {
+            start = ++i;
+            for (; i < tokenEnd && isDigit(buffer[i]); i++) {
+                mantissa = mantissa * 10 + (buffer[i] - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+                exponent--;
+            }
+            hasDigits &= i > start;
+        }
+        if (hasDigits && i < tokenEnd && (buffer[i] == 'e' || buffer[i] == 'E')) {
+            boolean negativeExp = ++i < tokenEnd && buffer[i] == '-';
+            if (i < tokenEnd && (buffer[i] == '-' || buffer[i] == '+')) {
+                i++;
+            }
+            start = i;
+            int exp = 0;
+            for (; i < tokenEnd && isDigit(buffer[i]) && exp < 1000; i++) {
+                exp = exp * 10 + (buffer[i] - '0');
+            }
+            hasDigits = i > start;
+            exponent += negativeExp ? -exp : exp;
+        }
+        if (!hasDigits || i != tokenEnd || digits > MAX_EXACT_DIGITS || exponent < -22 || exponent > 22) {
+            return parseNumberLiteral();
+        }
+        double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        return negative ? -value : value;
+    }
+
+    private double parseNumberLiteral() throws JsonException {
+        String literal = getString();
+        try {
+            return Double.parseDouble(literal);
+        } catch (NumberFormatException e) {
+            throw new JsonException("Invalid number literal: " + literal);
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private int nextNonWhitespace() {
+        while (true) {
+            int c = read();
+            if (c == INVALID_CHAR || !Character.isWhitespace((char) c)) {
+                return c;
+            }
+        }
+    }
+
+    private int read() {
+        if (position == limit && !fill()) {
+            return INVALID_CHAR;
+        }
+        return buffer[position++];
+    }
+
+    /**
+     * Read more chars into the buffer, keeping the text of the token being read (if any).
+     * @return false if the end of the input has been reached.
+     */
+    private boolean fill() throws JsonException {
+        int keep = tokenStart >= 0 ? tokenStart : position;
+        if (keep > 0) {
+            System.arraycopy(buffer, keep, buffer, 0, limit - keep);
+            limit -= keep;
+            position -= keep;
+            if (tokenStart >= 0) {
+                tokenStart -= keep;
+                tokenEnd -= keep;
+            }
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int n = read(buffer, limit, buffer.length - limit);
+        if (n <= 0) {
+            return false;
+        }
+        limit += n;
+        return true;
+    }
+
+    private int read(char[] dest, int offset, int length) throws JsonException {
+        if (source != null) {
+            int n = Math.min(length, source.length() - sourcePosition);
+            source.getChars(sourcePosition, sourcePosition + n, dest, offset);
+            sourcePosition += n;
+            return n;
+        }
+        try {
+            int n;
+            do {
+                n = reader.read(dest, offset, length);
+            } while (n == 0);
+            return n;
+        } catch (IOException e) {
+            throw new JsonException(e);
+        }
+    }
+}
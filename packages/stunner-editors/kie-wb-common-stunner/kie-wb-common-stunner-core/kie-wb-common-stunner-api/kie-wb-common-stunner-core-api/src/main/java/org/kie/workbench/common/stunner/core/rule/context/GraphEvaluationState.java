@@ -17,6 +17,7 @@
 package org.kie.workbench.common.stunner.core.rule.context;
 
 import java.util.Collection;
+import java.util.OptionalInt;
 
 import org.kie.workbench.common.stunner.core.graph.Edge;
 import org.kie.workbench.common.stunner.core.graph.Element;
@@ -42,6 +43,14 @@ public interface GraphEvaluationState {
     interface CardinalityState {
 
         Iterable<Node> nodes();
+
+        /**
+         * Returns the number of nodes that contain the given label, or empty if the label
+         * occurrences are not tracked and the nodes must be iterated instead.
+         */
+        default OptionalInt count(final String label) {
+            return OptionalInt.empty();
+        }
     }
 
     interface ConnectorCardinalityState {
@@ -54,7 +54,7 @@ public class QueueGraphExecutionContext extends AbstractGraphCommandExecutionCon
         this(definitionManager,
              factoryManager,
              ruleManager,
-             new RuleEvaluationContextBuilder.StatefulGraphContextBuilder(graphIndex.getGraph()),
+             new RuleEvaluationContextBuilder.StatefulGraphContextBuilder(graphIndex),
              graphIndex,
              ruleSet);
     }
@@ -49,7 +49,7 @@ public class ContextualGraphCommandExecutionContext extends AbstractGraphCommand
         this(definitionManager,
              factoryManager,
              ruleManager,
-             new RuleEvaluationContextBuilder.StatefulGraphContextBuilder(graphIndex.getGraph()),
+             new RuleEvaluationContextBuilder.StatefulGraphContextBuilder(graphIndex),
              graphIndex,
              ruleSet);
     }
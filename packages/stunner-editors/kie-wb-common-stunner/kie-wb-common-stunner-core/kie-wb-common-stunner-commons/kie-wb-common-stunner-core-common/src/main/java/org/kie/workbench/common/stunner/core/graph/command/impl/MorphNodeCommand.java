@@ -30,6 +30,7 @@ import org.kie.workbench.common.stunner.core.graph.Node;
 import org.kie.workbench.common.stunner.core.graph.command.GraphCommandExecutionContext;
 import org.kie.workbench.common.stunner.core.graph.command.GraphCommandResultBuilder;
 import org.kie.workbench.common.stunner.core.graph.content.definition.Definition;
+import org.kie.workbench.common.stunner.core.graph.processing.index.MutableIndex;
 import org.kie.workbench.common.stunner.core.rule.RuleViolation;
 
 /**
@@ -105,6 +106,11 @@ public final class MorphNodeCommand extends AbstractGraphCommand {
         for (String label : labels) {
             candidate.getLabels().add(label);
         }
+        // Keep the label occurrences of the graph index up to date.
+        final MutableIndex<Node, Edge> index = getMutableIndex(context);
+        if (candidate.equals(index.getNode(candidate.getUUID()))) {
+            index.addNode(candidate);
+        }
         return results;
     }
 
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.index.bounds;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * A static R-tree of rectangular bounds, bulk loaded using the Sort-Tile-Recursive (STR) algorithm.
+ * <p>
+ * Point, rectangle and nearest queries only visit the tree nodes whose bounds match the query, so they take
+ * logarithmic time on the number of entries (plus the number of entries matched) instead of
+ * checking all of them. The tree is immutable, it has to be built again once the bounds change.
+ * @param <T> The type of the indexed values.
+ */
+public class BoundsRTree<T> {
+
+    static final int MAX_ENTRIES = 16;
+
+    private final TreeNode<T> root;
+    private final int size;
+
+    private BoundsRTree(final TreeNode<T> root,
+                        final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Builds a tree for the given values.
+     * @param values The values to index.
+     * @param boundsProvider Provides the bounds of each value as {ulX, ulY, lrX, lrY}.
+     */
+    public static <T> BoundsRTree<T> build(final List<T> values,
+                                           final Function<T, double[]> boundsProvider) {
+        if (values.isEmpty()) {
+            return new BoundsRTree<>(null,
+                                     0);
+        }
+        List<TreeNode<T>> level = new ArrayList<>(values.size());
+        for (T value : values) {
+            level.add(new TreeNode<>(boundsProvider.apply(value),
+                                   value,
+                                   null));
+        }
+        do {
+            level = pack(level);
+        } while (level.size() > 1);
+        return new BoundsRTree<>(level.get(0),
+                                 values.size());
+    }
+
+    /**
+     * Groups the given nodes into parent nodes of up to {@link #MAX_ENTRIES} children. The nodes are sorted by
+     * the x coordinate of their center and split into vertical slices, then each slice is sorted by the y
+     * coordinate and split into the parent nodes.
+     */
+    private static <T> List<TreeNode<T>> pack(final List<TreeNode<T>> nodes) {
+        final int parentCount = (nodes.size() + MAX_ENTRIES - 1) / MAX_ENTRIES;
+        final int sliceCount = (int) Math.ceil(Math.sqrt(parentCount));
+        final int sliceSize = sliceCount * MAX_ENTRIES;
+        final List<TreeNode<T>> sorted = new ArrayList<>(nodes);
+        sorted.sort(Comparator.comparingDouble(n -> n.bounds[0] + n.bounds[2]));
+        final List<TreeNode<T>> parents = new ArrayList<>(parentCount);
+        for (int i = 0; i < sorted.size(); i += sliceSize) {
+            final List<TreeNode<T>> slice = new ArrayList<>(sorted.subList(i,
+                                                                         Math.min(i + sliceSize,
+                                                                                  sorted.size())));
+            slice.sort(Comparator.comparingDouble(n -> n.bounds[1] + n.bounds[3]));
+            for (int j = 0; j < slice.size(); j += MAX_ENTRIES) {
+                final List<TreeNode<T>> children = new ArrayList<>(slice.subList(j,
+                                                                              Math.min(j + MAX_ENTRIES,
+                                                                                       slice.size())));
+                parents.add(new TreeNode<>(union(children),
+                                         null,
+                                         children));
+            }
+        }
+        return parents;
+    }
+
+    private static <T> double[] union(final List<TreeNode<T>> nodes) {
+        final double[] result = new double[]{Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+        for (TreeNode<T> node : nodes) {
+            result[0] = Math.min(result[0],
+                                 node.bounds[0]);
+            result[1] = Math.min(result[1],
+                                 node.bounds[1]);
+            result[2] = Math.max(result[2],
+                                 node.bounds[2]);
+            result[3] = Math.max(result[3],
+                                 node.bounds[3]);
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return The bounds containing all the entries, as {ulX, ulY, lrX, lrY}, or <code>null</code> if empty.
+     */
+    public double[] getBounds() {
+        return null != root ? root.bounds.clone() : null;
+    }
+
+    /**
+     * @return The values whose bounds contain the given point (bounds inclusive).
+     */
+    public List<T> getAt(final double x,
+                         final double y) {
+        return getIn(x,
+                     y,
+                     0,
+                     0);
+    }
+
+    /**
+     * @return The values whose bounds intersect the given rectangle (bounds inclusive).
+     */
+    public List<T> getIn(final double x,
+                         final double y,
+                         final double width,
+                         final double height) {
+        if (null == root) {
+            return Collections.emptyList();
+        }
+        final List<T> result = new ArrayList<>();
+        search(root,
+               x,
+               y,
+               x + width,
+               y + height,
+               result);
+        return result;
+    }
+
+    private void search(final TreeNode<T> node,
+                        final double ulX,
+                        final double ulY,
+                        final double lrX,
+                        final double lrY,
+                        final List<T> result) {
+        if (!node.intersects(ulX,
+                             ulY,
+                             lrX,
+                             lrY)) {
+            return;
+        }
+        if (node.isEntry()) {
+            result.add(node.value);
+            return;
+        }
+        for (TreeNode<T> child : node.children) {
+            search(child,
+                   ulX,
+                   ulY,
+                   lrX,
+                   lrY,
+                   result);
+        }
+    }
+
+    /**
+     * @return The value whose bounds are the nearest ones to the given point (at distance 0 if they contain it),
+     * or <code>null</code> if empty.
+     */
+    public T getNearest(final double x,
+                        final double y) {
+        if (null == root) {
+            return null;
+        }
+        final PriorityQueue<Candidate<T>> queue = new PriorityQueue<>(Comparator.comparingDouble(c -> c.distance));
+        queue.add(new Candidate<>(root,
+                                  0));
+        while (!queue.isEmpty()) {
+            final TreeNode<T> node = queue.poll().node;
+            if (node.isEntry()) {
+                return node.value;
+            }
+            for (TreeNode<T> child : node.children) {
+                queue.add(new Candidate<>(child,
+                                          child.distanceTo(x,
+                                                           y)));
+            }
+        }
+        return null;
+    }
+
+    private static class Candidate<T> {
+
+        private final TreeNode<T> node;
+        private final double distance;
+
+        private Candidate(final TreeNode<T> node,
+                          final double distance) {
+            this.node = node;
+            this.distance = distance;
+        }
+    }
+
+    private static class TreeNode<T> {
+
+        private final double[] bounds;
+        private final T value;
+        private final List<TreeNode<T>> children;
+
+        private TreeNode(final double[] bounds,
+                         final T value,
+                         final List<TreeNode<T>> children) {
+            this.bounds = bounds;
+            this.value = value;
+            this.children = children;
+        }
+
+        private boolean isEntry() {
+            return null == children;
+        }
+
+        private boolean intersects(final double ulX,
+                                   final double ulY,
+                                   final double lrX,
+                                   final double lrY) {
+            return bounds[0] <= lrX && ulX <= bounds[2] &&
+                    bounds[1] <= lrY && ulY <= bounds[3];
+        }
+
+        private double distanceTo(final double x,
+                                  final double y) {
+            final double dx = Math.max(0,
+                                       Math.max(bounds[0] - x,
+                                                x - bounds[2]));
+            final double dy = Math.max(0,
+                                       Math.max(bounds[1] - y,
+                                                y - bounds[3]));
+            return dx * dx + dy * dy;
+        }
+    }
+}
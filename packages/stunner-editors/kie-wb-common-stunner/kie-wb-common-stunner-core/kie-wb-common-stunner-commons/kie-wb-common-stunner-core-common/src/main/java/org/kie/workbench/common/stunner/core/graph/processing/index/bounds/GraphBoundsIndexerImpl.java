@@ -16,6 +16,9 @@
 
 package org.kie.workbench.common.stunner.core.graph.processing.index.bounds;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,6 +44,7 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     ChildrenTraverseProcessor childrenTraverseProcessor;
     private Graph<View, Node<View, Edge>> graph;
     private String rootUUID = null;
+    private NodeBoundsIndex index = null;
 
     @Inject
     public GraphBoundsIndexerImpl(final ChildrenTraverseProcessor childrenTraverseProcessor) {
@@ -50,6 +54,7 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     @Override
     public GraphBoundsIndexerImpl build(final Graph<View, Node<View, Edge>> graph) {
         this.graph = graph;
+        this.index = null;
         return this;
     }
 
@@ -102,65 +107,131 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     @Override
     public double[] getTrimmedBounds() {
         final double[] result = new double[]{Double.MAX_VALUE, Double.MAX_VALUE, 0, 0};
+        final double[] bounds = getIndex().getTrimmedBounds();
+        if (null != bounds) {
+            result[0] = bounds[0];
+            result[1] = bounds[1];
+            result[2] = Math.max(result[2],
+                                 bounds[2]);
+            result[3] = Math.max(result[3],
+                                 bounds[3]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the node at the given point. If several nodes contain the point, the last one in
+     * the children traversal order is returned, so the children win over their parents.
+     */
+    @SuppressWarnings("unchecked")
+    public Node<View<?>, Edge> findElementAt(final double x,
+                                             final double y) {
+        final NodeBoundsIndex index = getIndex();
+        IndexedNode result = index.root;
+        for (IndexedNode candidate : index.tree.getAt(x,
+                                                      y)) {
+            if (null == result || candidate.order > result.order) {
+                result = candidate;
+            }
+        }
+        return null != result ? (Node) result.node : null;
+    }
+
+    /**
+     * Returns the nodes whose absolute bounds intersect the given area, in the children traversal order.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Node<View<?>, Edge>> findElementsIn(final double x,
+                                                    final double y,
+                                                    final double width,
+                                                    final double height) {
+        final List<IndexedNode> candidates = new ArrayList<>(getIndex().tree.getIn(x,
+                                                                                   y,
+                                                                                   width,
+                                                                                   height));
+        candidates.sort(Comparator.comparingInt(candidate -> candidate.order));
+        final List<Node<View<?>, Edge>> result = new ArrayList<>(candidates.size());
+        candidates.forEach(candidate -> result.add((Node) candidate.node));
+        return result;
+    }
+
+    /**
+     * Returns the node whose absolute bounds are the nearest ones to the given point.
+     */
+    @SuppressWarnings("unchecked")
+    public Node<View<?>, Edge> findNearestElement(final double x,
+                                                  final double y) {
+        final IndexedNode result = getIndex().tree.getNearest(x,
+                                                              y);
+        return null != result ? (Node) result.node : null;
+    }
+
+    /**
+     * Indexes the absolute bounds of the graph nodes with a single traversal. The index is built on
+     * the first query after building the indexer, and it's reused until the indexer is built again.
+     */
+    private NodeBoundsIndex getIndex() {
+        if (null == index) {
+            index = buildIndex();
+        }
+        return index;
+    }
+
+    private NodeBoundsIndex buildIndex() {
+        final List<IndexedNode> nodes = new ArrayList<>();
+        final IndexedNode[] root = new IndexedNode[1];
+        final int[] order = new int[1];
+        final double[] rootBounds = new double[]{Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
         childrenTraverseProcessor
-                .setRootUUID(this.rootUUID)
+                .setRootUUID(null)
                 .traverse(graph,
                           new GraphBoundIndexerTraverseCallback(new NodeBoundsTraverseCallback() {
 
                               @Override
-                              public void onNodeTraverse(final Node<View, Edge> node,
+                              public void onNodeTraverse(final List<Node<View, Edge>> parents,
+                                                         final Node<View, Edge> node,
                                                          final double parentX,
                                                          final double parentY) {
-                                  final String uuid = node.getUUID();
-                                  final boolean isRoot = null != GraphBoundsIndexerImpl.this.rootUUID
-                                          && GraphBoundsIndexerImpl.this.rootUUID.equals(uuid);
-                                  if (!isRoot) {
-                                      final double[] absCoords = getNodeAbsoluteCoordinates(node,
-                                                                                            parentX,
-                                                                                            parentY);
-                                      final double x = absCoords[0];
-                                      final double y = absCoords[1];
-                                      final double w = absCoords[2];
-                                      final double h = absCoords[3];
-                                      if (x < result[0]) {
-                                          result[0] = x;
-                                      }
-                                      if (y < result[1]) {
-                                          result[1] = y;
-                                      }
-                                      if (w > result[2]) {
-                                          result[2] = w;
-                                      }
-                                      if (h > result[3]) {
-                                          result[3] = h;
-                                      }
+                                  if (isRoot(node)) {
+                                      root[0] = new IndexedNode(node,
+                                                                order[0]++,
+                                                                null);
+                                      return;
+                                  }
+                                  final IndexedNode indexedNode = new IndexedNode(node,
+                                                                                  order[0]++,
+                                                                                  getNodeAbsoluteCoordinates(node,
+                                                                                                             parentX,
+                                                                                                             parentY));
+                                  nodes.add(indexedNode);
+                                  if (null != rootUUID && parents.stream().anyMatch(GraphBoundsIndexerImpl.this::isRoot)) {
+                                      final double[] bounds = indexedNode.bounds;
+                                      rootBounds[0] = Math.min(rootBounds[0],
+                                                               bounds[0]);
+                                      rootBounds[1] = Math.min(rootBounds[1],
+                                                               bounds[1]);
+                                      rootBounds[2] = Math.max(rootBounds[2],
+                                                               bounds[2]);
+                                      rootBounds[3] = Math.max(rootBounds[3],
+                                                               bounds[3]);
                                   }
                               }
                           }));
-        return result;
+        final BoundsRTree<IndexedNode> tree = BoundsRTree.build(nodes,
+                                                                indexedNode -> indexedNode.bounds);
+        final double[] trimmedBounds;
+        if (null == rootUUID) {
+            trimmedBounds = tree.getBounds();
+        } else {
+            trimmedBounds = rootBounds[0] <= rootBounds[2] ? rootBounds : null;
+        }
+        return new NodeBoundsIndex(tree,
+                                   root[0],
+                                   trimmedBounds);
     }
 
-    @SuppressWarnings("unchecked")
-    public Node<View<?>, Edge> findElementAt(final double x,
-                                             final double y) {
-        final Node[] result = new Node[1];
-        childrenTraverseProcessor.traverse(graph,
-                                           new GraphBoundIndexerTraverseCallback(new NodeBoundsTraverseCallback() {
-
-                                               @Override
-                                               public void onNodeTraverse(final Node<View, Edge> node,
-                                                                          final double parentX,
-                                                                          final double parentY) {
-                                                   if (isNodeAt(node,
-                                                                parentX,
-                                                                parentY,
-                                                                x,
-                                                                y)) {
-                                                       result[0] = node;
-                                                   }
-                                               }
-                                           }));
-        return result[0];
+    private boolean isRoot(final Node node) {
+        return null != rootUUID && rootUUID.equals(node.getUUID());
     }
 
     private Point2D getNodeCoordinates(final Node node) {
@@ -188,31 +259,10 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
         return new double[]{ulX, ulY, lrX, lrY};
     }
 
-    private boolean isNodeAt(final Node node,
-                             final double parentX,
-                             final double parentY,
-                             final double mouseX,
-                             final double mouseY) {
-        if (null != rootUUID && node.getUUID().equals(rootUUID)) {
-            return true;
-        }
-        final double[] absoluteCoords = getNodeAbsoluteCoordinates(node,
-                                                                   parentX,
-                                                                   parentY);
-        final double ulX = absoluteCoords[0];
-        final double ulY = absoluteCoords[1];
-        final double lrX = absoluteCoords[2];
-        final double lrY = absoluteCoords[3];
-        if (mouseX >= ulX && mouseX <= lrX &&
-                mouseY >= ulY && mouseY <= lrY) {
-            return true;
-        }
-        return false;
-    }
-
     @Override
     public GraphBoundsIndexer setRootUUID(final String uuid) {
         this.rootUUID = uuid;
+        this.index = null;
         return this;
     }
 
@@ -220,16 +270,52 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     public void destroy() {
         this.graph = null;
         this.rootUUID = null;
+        this.index = null;
         this.childrenTraverseProcessor = null;
     }
 
     private abstract class NodeBoundsTraverseCallback {
 
-        public abstract void onNodeTraverse(final Node<View, Edge> node,
+        public abstract void onNodeTraverse(final List<Node<View, Edge>> parents,
+                                            final Node<View, Edge> node,
                                             final double parentX,
                                             final double parentY);
     }
 
+    private static class IndexedNode {
+
+        private final Node node;
+        private final int order;
+        private final double[] bounds;
+
+        private IndexedNode(final Node node,
+                            final int order,
+                            final double[] bounds) {
+            this.node = node;
+            this.order = order;
+            this.bounds = bounds;
+        }
+    }
+
+    private static class NodeBoundsIndex {
+
+        private final BoundsRTree<IndexedNode> tree;
+        private final IndexedNode root;
+        private final double[] trimmedBounds;
+
+        private NodeBoundsIndex(final BoundsRTree<IndexedNode> tree,
+                                final IndexedNode root,
+                                final double[] trimmedBounds) {
+            this.tree = tree;
+            this.root = root;
+            this.trimmedBounds = trimmedBounds;
+        }
+
+        private double[] getTrimmedBounds() {
+            return trimmedBounds;
+        }
+    }
+
     private class GraphBoundIndexerTraverseCallback extends AbstractChildrenTraverseCallback<Node<View, Edge>, Edge<Child, Node>> {
 
         private final NodeBoundsTraverseCallback callback;
@@ -267,7 +353,8 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
                     }
                 });
             }
-            callback.onNodeTraverse(node,
+            callback.onNodeTraverse(parents.orElse(Collections.emptyList()),
+                                    node,
                                     parentLocation[0],
                                     parentLocation[1]);
         }
@@ -16,19 +16,26 @@
 
 package org.kie.workbench.common.stunner.core.graph.processing.index.map;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.kie.workbench.common.stunner.core.graph.Edge;
 import org.kie.workbench.common.stunner.core.graph.Element;
 import org.kie.workbench.common.stunner.core.graph.Graph;
 import org.kie.workbench.common.stunner.core.graph.Node;
 import org.kie.workbench.common.stunner.core.graph.processing.index.MutableIndex;
+import org.kie.workbench.common.stunner.core.graph.util.GraphUtils;
 
 public class MapIndex implements MutableIndex<Node, Edge> {
 
     final Graph<?, Node> graph;
     final Map<String, Node> nodes;
     final Map<String, Edge> edges;
+    // The labels each node had when indexed, and the number of indexed nodes for each label.
+    private final Map<String, Set<String>> nodeLabels;
+    private final Map<String, Integer> labelsCount;
 
     public MapIndex(final Graph<?, Node> graph,
                     final Map<String, Node> nodes,
@@ -36,6 +43,9 @@ public class MapIndex implements MutableIndex<Node, Edge> {
         this.graph = graph;
         this.nodes = nodes;
         this.edges = edges;
+        this.nodeLabels = new HashMap<>();
+        this.labelsCount = new HashMap<>();
+        indexLabels();
     }
 
     @Override
@@ -62,16 +72,31 @@ public class MapIndex implements MutableIndex<Node, Edge> {
         return edges.get(uuid);
     }
 
+    /**
+     * Returns the number of indexed nodes that contain the given label.
+     */
+    public int getLabelCount(final String label) {
+        final Integer count = labelsCount.get(label);
+        return null != count ? count : 0;
+    }
+
+    public int getNodeCount() {
+        return nodes.size();
+    }
+
     @Override
     public MutableIndex<Node, Edge> addNode(final Node node) {
         nodes.put(node.getUUID(),
                   node);
+        unindexLabels(node.getUUID());
+        indexLabels(node);
         return this;
     }
 
     @Override
     public MutableIndex<Node, Edge> removeNode(final Node node) {
         nodes.remove(node.getUUID());
+        unindexLabels(node.getUUID());
         return this;
     }
 
@@ -92,5 +117,31 @@ public class MapIndex implements MutableIndex<Node, Edge> {
     public void clear() {
         nodes.clear();
         edges.clear();
+        nodeLabels.clear();
+        labelsCount.clear();
+    }
+
+    void indexLabels() {
+        nodeLabels.clear();
+        labelsCount.clear();
+        nodes.values().forEach(this::indexLabels);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void indexLabels(final Node node) {
+        final Set<String> labels = new HashSet<>(GraphUtils.getLabels(node));
+        nodeLabels.put(node.getUUID(),
+                       labels);
+        labels.forEach(label -> labelsCount.merge(label,
+                                                  1,
+                                                  Integer::sum));
+    }
+
+    private void unindexLabels(final String uuid) {
+        final Set<String> labels = nodeLabels.remove(uuid);
+        if (null != labels) {
+            labels.forEach(label -> labelsCount.computeIfPresent(label,
+                                                                 (key, count) -> count > 1 ? count - 1 : null));
+        }
     }
 }
@@ -65,6 +65,7 @@ public class MapIndexBuilder implements GraphIndexBuilder<MapIndex> {
             current.nodes.putAll(nodes);
             current.edges.clear();
             current.edges.putAll(edges);
+            current.indexLabels();
             return current;
         }
     }
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.workbench.common.stunner.core.graph.util;
+
+import java.util.List;
+
+import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.command.impl.UpdateElementPositionCommand;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Child;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Dock;
+import org.kie.workbench.common.stunner.core.graph.content.view.Connection;
+import org.kie.workbench.common.stunner.core.graph.content.view.ControlPoint;
+import org.kie.workbench.common.stunner.core.graph.content.view.Point2D;
+import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnector;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.index.MutableIndex;
+import org.kie.workbench.common.stunner.core.graph.processing.index.map.MapIndexBuilder;
+import org.kie.workbench.common.stunner.core.rule.RuleViolations;
+import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolations;
+import org.kie.workbench.common.stunner.core.rule.violations.DockingRuleViolation;
+import org.kie.workbench.common.stunner.core.rule.violations.RuleViolationImpl;
+import org.kie.workbench.common.stunner.core.util.UUID;
+
+/**
+ * Builds a graph from trusted, already validated, input by filling the graph and its index directly,
+ * instead of executing a graph command for each element.
+ * <p>
+ * The resulting graph is the same as the one built by the equivalent
+ * <code>AddNodeCommand</code>, <code>AddChildNodeCommand</code>, <code>AddDockedNodeCommand</code>,
+ * <code>UpdateElementPositionCommand</code> and <code>AddConnectorCommand</code> executions,
+ * but no rules are evaluated. Once all the elements are added, {@link #validate()} checks
+ * the graph structure in a single pass.
+ */
+public class GraphBulkLoader {
+
+    private final Graph<?, Node> graph;
+    private final MutableIndex<Node, Edge> index;
+    private final DefaultRuleViolations violations;
+
+    public GraphBulkLoader(final Graph<?, Node> graph) {
+        this(graph,
+             new MapIndexBuilder().build(graph));
+    }
+
+    public GraphBulkLoader(final Graph<?, Node> graph,
+                           final MutableIndex<Node, Edge> index) {
+        this.graph = graph;
+        this.index = index;
+        this.violations = new DefaultRuleViolations();
+    }
+
+    public Graph<?, Node> getGraph() {
+        return graph;
+    }
+
+    public MutableIndex<Node, Edge> getIndex() {
+        return index;
+    }
+
+    public GraphBulkLoader clear() {
+        graph.clear();
+        index.clear();
+        violations.clear();
+        return this;
+    }
+
+    public GraphBulkLoader addNode(final Node node) {
+        graph.addNode(node);
+        index.addNode(node);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public GraphBulkLoader addChildNode(final Node parent,
+                                        final Node candidate) {
+        addNode(candidate);
+        final Edge<Child, Node> edge = new EdgeImpl<>(UUID.uuid());
+        edge.setContent(new Child());
+        addEdge(parent,
+                edge,
+                candidate);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public GraphBulkLoader addDockedNode(final Node parent,
+                                         final Node candidate) {
+        // As the docking command does, do not dock a candidate that is already the target of some connector.
+        if (GraphUtils.hasTargetConnections(candidate)) {
+            violations.addViolation(new DockingRuleViolation(parent.getUUID(),
+                                                             candidate.getUUID()));
+            return this;
+        }
+        addNode(candidate);
+        final Edge<Dock, Node> edge = new EdgeImpl<>(UUID.uuid());
+        edge.setContent(new Dock());
+        addEdge(parent,
+                edge,
+                candidate);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public GraphBulkLoader setPosition(final Node<? extends View<?>, ?> node,
+                                       final Point2D location) {
+        node.getContent().setBounds(UpdateElementPositionCommand.computeCandidateBounds(node,
+                                                                                        location));
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public GraphBulkLoader addConnector(final Node source,
+                                        final Edge<? extends View<?>, Node> edge,
+                                        final Connection sourceConnection,
+                                        final List<ControlPoint> controlPoints,
+                                        final Node target,
+                                        final Connection targetConnection) {
+        addEdge(source,
+                edge,
+                target);
+        final ViewConnector<?> content = (ViewConnector<?>) edge.getContent();
+        content.setSourceConnection(sourceConnection);
+        if (!controlPoints.isEmpty()) {
+            content.setControlPoints(controlPoints.toArray(new ControlPoint[0]));
+        }
+        content.setTargetConnection(targetConnection);
+        return this;
+    }
+
+    /**
+     * Checks that every edge in the graph connects nodes that have been added to the graph.
+     * @return The violations found, along with the ones found while adding the elements.
+     */
+    @SuppressWarnings("unchecked")
+    public RuleViolations validate() {
+        final DefaultRuleViolations result = new DefaultRuleViolations().addViolations(violations);
+        for (final Node node : graph.nodes()) {
+            for (final Edge edge : (List<Edge>) node.getOutEdges()) {
+                if (!isInGraph(edge.getTargetNode())) {
+                    result.addViolation(new RuleViolationImpl("The target node of [" + edge.getUUID() + "] is not present in the graph"));
+                }
+            }
+            for (final Edge edge : (List<Edge>) node.getInEdges()) {
+                if (!isInGraph(edge.getSourceNode())) {
+                    result.addViolation(new RuleViolationImpl("The source node of [" + edge.getUUID() + "] is not present in the graph"));
+                }
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addEdge(final Node source,
+                         final Edge edge,
+                         final Node target) {
+        edge.setSourceNode(source);
+        edge.setTargetNode(target);
+        source.getOutEdges().add(edge);
+        target.getInEdges().add(edge);
+        index.addEdge(edge);
+    }
+
+    private boolean isInGraph(final Node node) {
+        return null != node && node == graph.getNode(node.getUUID());
+    }
+}
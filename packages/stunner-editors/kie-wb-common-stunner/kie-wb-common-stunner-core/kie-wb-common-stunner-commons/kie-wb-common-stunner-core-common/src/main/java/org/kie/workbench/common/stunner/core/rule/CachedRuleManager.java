@@ -16,10 +16,13 @@
 
 package org.kie.workbench.common.stunner.core.rule;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
@@ -29,7 +32,17 @@ import javax.enterprise.inject.Typed;
 import javax.inject.Inject;
 
 import org.kie.workbench.common.stunner.core.registry.rule.RuleHandlerRegistry;
-
+import org.kie.workbench.common.stunner.core.rule.context.ConnectionContext;
+import org.kie.workbench.common.stunner.core.rule.context.ContainmentContext;
+import org.kie.workbench.common.stunner.core.rule.context.DockingContext;
+import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolations;
+
+/**
+ * A rule manager that caches the rules that apply for each context type, and the results
+ * for the containment, connection and docking domain contexts. These results only depend on
+ * the roles given by the context, so they are kept until the rule set changes. Any other
+ * context, like the graph ones or the cardinality ones, is always evaluated.
+ */
 @Dependent
 @Typed(CachedRuleManager.class)
 public class CachedRuleManager implements RuleManager {
@@ -64,8 +77,14 @@ public class CachedRuleManager implements RuleManager {
     @Override
     public RuleViolations evaluate(final RuleSet ruleSet,
                                    final RuleEvaluationContext context) {
-        return ruleManager.evaluate(ruleSet,
-                                    context);
+        final List<Object> key = getEvaluationKey(context);
+        if (null == key) {
+            return ruleManager.evaluate(ruleSet,
+                                        context);
+        }
+        return getCachedContextRules(ruleSet).getViolations(ruleSet,
+                                                            context,
+                                                            key);
     }
 
     @PreDestroy
@@ -76,22 +95,75 @@ public class CachedRuleManager implements RuleManager {
 
     private Collection<Rule> getRulesByContext(final RuleSet ruleSet,
                                                final RuleEvaluationContext context) {
+        return getCachedContextRules(ruleSet).getRulesByContext(ruleSet,
+                                                                context);
+    }
+
+    private CachedContextRules getCachedContextRules(final RuleSet ruleSet) {
         CachedContextRules crs = cachedContextRules.get(ruleSet.getName());
         if (null == crs) {
-            crs = new CachedContextRules();
+            crs = new CachedContextRules(ruleSet);
             cachedContextRules.put(ruleSet.getName(),
                                    crs);
+        } else if (crs.ruleSet != ruleSet) {
+            // The rule set has changed, so none of the cached rules or results are valid anymore.
+            crs.clear();
+            crs.ruleSet = ruleSet;
         }
-        return crs.getRulesByContext(ruleSet,
-                                     context);
+        return crs;
+    }
+
+    private static List<Object> getEvaluationKey(final RuleEvaluationContext context) {
+        final Class<? extends RuleEvaluationContext> type = context.getType();
+        if (ContainmentContext.class.equals(type)) {
+            final ContainmentContext containmentContext = (ContainmentContext) context;
+            return Arrays.asList(type,
+                                 copyOf(containmentContext.getParentRoles()),
+                                 copyOf(containmentContext.getCandidateRoles()));
+        } else if (ConnectionContext.class.equals(type)) {
+            final ConnectionContext connectionContext = (ConnectionContext) context;
+            return Arrays.asList(type,
+                                 connectionContext.getConnectorRole(),
+                                 connectionContext.getSourceRoles().map(CachedRuleManager::copyOf).orElse(null),
+                                 connectionContext.getTargetRoles().map(CachedRuleManager::copyOf).orElse(null));
+        } else if (DockingContext.class.equals(type)) {
+            final DockingContext dockingContext = (DockingContext) context;
+            return Arrays.asList(type,
+                                 copyOf(dockingContext.getParentRoles()),
+                                 copyOf(dockingContext.getCandidateRoles()));
+        }
+        return null;
+    }
+
+    private static Set<String> copyOf(final Set<String> roles) {
+        // The given roles can be the labels of an element, which can change later on.
+        return null != roles ? new HashSet<>(roles) : null;
     }
 
     private class CachedContextRules {
 
         private final Map<Class<? extends RuleEvaluationContext>, List<Rule>> rulesByContent;
+        private final Map<List<Object>, RuleViolations> violationsByRoles;
+        private RuleSet ruleSet;
 
-        public CachedContextRules() {
+        public CachedContextRules(final RuleSet ruleSet) {
             this.rulesByContent = new HashMap<>(15);
+            this.violationsByRoles = new HashMap<>();
+            this.ruleSet = ruleSet;
+        }
+
+        public RuleViolations getViolations(final RuleSet ruleSet,
+                                            final RuleEvaluationContext context,
+                                            final List<Object> key) {
+            RuleViolations violations = violationsByRoles.get(key);
+            if (null == violations) {
+                violations = ruleManager.evaluate(ruleSet,
+                                                  context);
+                violationsByRoles.put(key,
+                                      violations);
+            }
+            // Callers are free to add violations into the resulting instance.
+            return new DefaultRuleViolations().addViolations(violations);
         }
 
         public Collection<Rule> getRulesByContext(final RuleSet ruleSet,
@@ -117,6 +189,7 @@ public class CachedRuleManager implements RuleManager {
 
         public void clear() {
             rulesByContent.clear();
+            violationsByRoles.clear();
         }
 
         private boolean accepts(final Collection<RuleEvaluationHandler> handlers,
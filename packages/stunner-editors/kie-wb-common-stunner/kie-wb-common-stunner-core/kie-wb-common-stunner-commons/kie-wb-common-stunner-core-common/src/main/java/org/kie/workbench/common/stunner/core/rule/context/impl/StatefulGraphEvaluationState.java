@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.OptionalInt;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -33,6 +34,9 @@ import org.kie.workbench.common.stunner.core.graph.Graph;
 import org.kie.workbench.common.stunner.core.graph.Node;
 import org.kie.workbench.common.stunner.core.graph.content.definition.Definition;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.processing.index.Index;
+import org.kie.workbench.common.stunner.core.graph.processing.index.map.MapIndex;
+import org.kie.workbench.common.stunner.core.graph.store.GraphNodeStore;
 import org.kie.workbench.common.stunner.core.graph.util.GraphUtils;
 import org.kie.workbench.common.stunner.core.rule.context.NodeContainmentContext;
 
@@ -43,9 +47,26 @@ public class StatefulGraphEvaluationState extends AbstractGraphEvaluationState {
     private final StatefulConnectionState connection;
     private final StatefulContainmentState containment;
     private final StatefulDockingState docking;
+    private final MapIndex index;
 
     public StatefulGraphEvaluationState(final Graph<?, ? extends Node> graph) {
+        this(graph,
+             null);
+    }
+
+    /**
+     * Uses the label occurrences of the given graph index, if tracked, for counting the nodes
+     * instead of iterating over the whole graph.
+     */
+    public StatefulGraphEvaluationState(final Index<?, ?> index) {
+        this(index.getGraph(),
+             index instanceof MapIndex ? (MapIndex) index : null);
+    }
+
+    private StatefulGraphEvaluationState(final Graph<?, ? extends Node> graph,
+                                         final MapIndex index) {
         super(graph);
+        this.index = index;
         this.cardinality = new StatefulCardinalityState();
         this.connectorCardinality = new StatefulConnectorCardinalityState();
         this.connection = new StatefulConnectionState();
@@ -60,6 +81,7 @@ public class StatefulGraphEvaluationState extends AbstractGraphEvaluationState {
                                  final StatefulContainmentState containment,
                                  final StatefulDockingState docking) {
         super(graph);
+        this.index = null;
         this.cardinality = cardinality;
         this.connectorCardinality = connectorCardinality;
         this.connection = connection;
@@ -133,6 +155,34 @@ public class StatefulGraphEvaluationState extends AbstractGraphEvaluationState {
                                                           this::appendAddedNodes));
         }
 
+        @Override
+        @SuppressWarnings("unchecked")
+        public OptionalInt count(final String label) {
+            if (!isIndexed()) {
+                return OptionalInt.empty();
+            }
+            int count = index.getLabelCount(label);
+            for (final Element<? extends View<?>> element : getDeletedElements()) {
+                final Node node = index.getNode(element.getUUID());
+                if (null != node && GraphUtils.getLabels(node).contains(label)) {
+                    count--;
+                }
+            }
+            for (final Element<? extends View<?>> element : getAddedElements()) {
+                if (null != element.asNode() && GraphUtils.getLabels(element).contains(label)) {
+                    count++;
+                }
+            }
+            return OptionalInt.of(count);
+        }
+
+        private boolean isIndexed() {
+            final Iterable<? extends Node> nodes = null != index && index.getGraph() == getGraph() ?
+                    getGraph().nodes() :
+                    null;
+            return nodes instanceof GraphNodeStore && ((GraphNodeStore) nodes).size() == index.getNodeCount();
+        }
+
         private Collection<Node> appendAddedNodes(final Collection<Node> nodes) {
             getAddedElements().stream()
                     .filter(e -> Objects.nonNull(e.asNode()))
@@ -21,6 +21,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -147,6 +148,12 @@ public class ElementCardinalityEvaluationHandler implements RuleEvaluationHandle
     Map<String, Integer> countLabels(final GraphEvaluationState state,
                                      final Set<String> roleFilter) {
         final GraphEvaluationState.CardinalityState cardinalityState = state.getCardinalityState();
+        if (null != roleFilter) {
+            final Map<String, Integer> indexedCount = countIndexedLabels(cardinalityState, roleFilter);
+            if (null != indexedCount) {
+                return indexedCount;
+            }
+        }
 
         final Iterable<Node> nodes = cardinalityState.nodes();
         final Map<String, Integer> labelsCount = new HashMap<>();
@@ -154,4 +161,20 @@ public class ElementCardinalityEvaluationHandler implements RuleEvaluationHandle
                 .forEach(node -> GraphUtils.computeLabelsCount(node, labelsCount, roleFilter));
         return labelsCount;
     }
+
+    private static Map<String, Integer> countIndexedLabels(final GraphEvaluationState.CardinalityState cardinalityState,
+                                                           final Set<String> roleFilter) {
+        final Map<String, Integer> labelsCount = new HashMap<>();
+        for (final String role : roleFilter) {
+            final OptionalInt count = cardinalityState.count(role);
+            if (!count.isPresent()) {
+                return null;
+            }
+            if (count.getAsInt() > 0) {
+                labelsCount.put(role,
+                                count.getAsInt());
+            }
+        }
+        return labelsCount;
+    }
 }
@@ -113,6 +113,7 @@ public class MorphNodeCommandTest extends AbstractGraphCommandTest {
         assertEquals(2, labels.size());
         assertTrue(labels.contains(NEW_DEFINITION_ID));
         assertTrue(labels.contains(NEW_DEFINITION_LABEL));
+        verify(graphIndex).addNode(eq(candidate));
     }
 
     @Test
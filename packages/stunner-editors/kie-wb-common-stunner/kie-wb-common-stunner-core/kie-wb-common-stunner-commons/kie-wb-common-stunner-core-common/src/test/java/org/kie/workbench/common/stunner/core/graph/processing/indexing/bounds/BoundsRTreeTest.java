@@ -0,0 +1,160 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.indexing.bounds;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.stunner.core.graph.processing.index.bounds.BoundsRTree;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BoundsRTreeTest {
+
+    private List<double[]> boxes;
+    private BoundsRTree<double[]> tree;
+
+    @Before
+    public void setup() {
+        final Random random = new Random(11);
+        boxes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            final double x = random.nextInt(2000);
+            final double y = random.nextInt(2000);
+            boxes.add(new double[]{x, y, x + 10 + random.nextInt(100), y + 10 + random.nextInt(80)});
+        }
+        tree = BoundsRTree.build(boxes,
+                                 box -> box);
+    }
+
+    @Test
+    public void testGetAt() {
+        for (int x = 0; x < 2200; x += 37) {
+            for (int y = 0; y < 2200; y += 41) {
+                final List<double[]> expected = new ArrayList<>();
+                for (double[] box : boxes) {
+                    if (x >= box[0] && x <= box[2] && y >= box[1] && y <= box[3]) {
+                        expected.add(box);
+                    }
+                }
+                final List<double[]> result = tree.getAt(x,
+                                                         y);
+                assertEquals(expected.size(),
+                             result.size());
+                assertTrue(result.containsAll(expected));
+            }
+        }
+    }
+
+    @Test
+    public void testGetIn() {
+        final List<double[]> result = tree.getIn(500,
+                                                 500,
+                                                 300,
+                                                 200);
+        int expected = 0;
+        for (double[] box : boxes) {
+            if (box[0] <= 800 && box[2] >= 500 && box[1] <= 700 && box[3] >= 500) {
+                expected++;
+                assertTrue(result.contains(box));
+            }
+        }
+        assertEquals(expected,
+                     result.size());
+        assertEquals(1000,
+                     tree.getIn(-1,
+                                -1,
+                                3000,
+                                3000).size());
+    }
+
+    @Test
+    public void testGetNearest() {
+        final double[] nearest = tree.getNearest(5000,
+                                                 -300);
+        double distance = Double.MAX_VALUE;
+        for (double[] box : boxes) {
+            distance = Math.min(distance,
+                                distance(box,
+                                         5000,
+                                         -300));
+        }
+        assertEquals(distance,
+                     distance(nearest,
+                              5000,
+                              -300),
+                     0.001);
+        final double[] box = boxes.get(0);
+        assertEquals(0,
+                     distance(tree.getNearest(box[0],
+                                              box[1]),
+                              box[0],
+                              box[1]),
+                     0.001);
+    }
+
+    @Test
+    public void testGetBounds() {
+        final double[] expected = new double[]{Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+        for (double[] box : boxes) {
+            expected[0] = Math.min(expected[0],
+                                   box[0]);
+            expected[1] = Math.min(expected[1],
+                                   box[1]);
+            expected[2] = Math.max(expected[2],
+                                   box[2]);
+            expected[3] = Math.max(expected[3],
+                                   box[3]);
+        }
+        assertArrayEquals(expected,
+                          tree.getBounds(),
+                          0.001);
+        assertEquals(1000,
+                     tree.size());
+    }
+
+    @Test
+    public void testEmpty() {
+        final BoundsRTree<double[]> empty = BoundsRTree.build(Collections.emptyList(),
+                                                              box -> box);
+        assertTrue(empty.isEmpty());
+        assertNull(empty.getBounds());
+        assertNull(empty.getNearest(0,
+                                    0));
+        assertTrue(empty.getAt(0,
+                               0).isEmpty());
+    }
+
+    private static double distance(final double[] box,
+                                   final double x,
+                                   final double y) {
+        final double dx = Math.max(0,
+                                   Math.max(box[0] - x,
+                                            x - box[2]));
+        final double dy = Math.max(0,
+                                   Math.max(box[1] - y,
+                                            y - box[3]));
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -16,13 +16,17 @@
 
 package org.kie.workbench.common.stunner.core.graph.processing.indexing.bounds;
 
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.kie.workbench.common.stunner.core.TestingGraphInstanceBuilder;
 import org.kie.workbench.common.stunner.core.TestingGraphMockHandler;
 import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
 import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.impl.GraphImpl;
 import org.kie.workbench.common.stunner.core.graph.content.view.Point2D;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
 import org.kie.workbench.common.stunner.core.graph.processing.index.bounds.GraphBoundsIndexerImpl;
@@ -35,6 +39,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class GraphBoundsIndexerImplTest {
@@ -127,4 +132,49 @@ public class GraphBoundsIndexerImplTest {
                      size[1],
                      0.001);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindElementsIn() {
+        Point2D position = GraphUtils.getPosition((View) graphInstanceParent.startNode.getContent());
+        double[] size = GraphUtils.getNodeSize((View) graphInstanceParent.startNode.getContent());
+        List<Node<View<?>, Edge>> nodes = graphBoundsIndexerImpl.findElementsIn(position.getX(),
+                                                                                position.getY(),
+                                                                                size[0],
+                                                                                size[1]);
+        assertEquals(4,
+                     nodes.size());
+        assertEquals(graphInstanceParent.parentNode,
+                     nodes.get(0));
+        assertTrue(nodes.contains(graphInstanceParent.startNode));
+        assertTrue(nodes.contains(graphInstanceParent.intermNode));
+        assertTrue(nodes.contains(graphInstanceParent.endNode));
+        assertEquals(nodes.get(3),
+                     graphBoundsIndexerImpl.getAt(position.getX(),
+                                                  position.getY()));
+        assertTrue(graphBoundsIndexerImpl.findElementsIn(position.getX() + 400,
+                                                         position.getY() + 400,
+                                                         size[0],
+                                                         size[1]).isEmpty());
+    }
+
+    @Test
+    public void testFindNearestElement() {
+        assertNotNull(graphBoundsIndexerImpl.findNearestElement(1000,
+                                                                1000));
+        graphBoundsIndexerImpl.build((Graph) GraphImpl.build("empty"));
+        assertNull(graphBoundsIndexerImpl.findNearestElement(1000,
+                                                             1000));
+        assertNull(graphBoundsIndexerImpl.getAt(0,
+                                                0));
+    }
+
+    @Test
+    public void testGetAtRoot() {
+        Point2D position = GraphUtils.getPosition((View) graphInstanceParent.startNode.getContent());
+        graphBoundsIndexerImpl.setRootUUID(graphInstanceParent.parentNode.getUUID());
+        Node<View<?>, Edge> node = graphBoundsIndexerImpl.getAt(position.getX() + 400,
+                                                                position.getY() + 400);
+        assertEquals(graphInstanceParent.parentNode,
+                     node);
+    }
+}
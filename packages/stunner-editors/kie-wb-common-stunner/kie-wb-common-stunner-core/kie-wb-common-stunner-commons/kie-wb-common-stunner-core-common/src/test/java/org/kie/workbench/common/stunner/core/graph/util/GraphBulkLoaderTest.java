@@ -0,0 +1,191 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.workbench.common.stunner.core.graph.util;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.content.Bounds;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Child;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Dock;
+import org.kie.workbench.common.stunner.core.graph.content.view.ControlPoint;
+import org.kie.workbench.common.stunner.core.graph.content.view.MagnetConnection;
+import org.kie.workbench.common.stunner.core.graph.content.view.Point2D;
+import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnector;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnectorImpl;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.GraphImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
+import org.kie.workbench.common.stunner.core.graph.store.GraphNodeStoreImpl;
+import org.kie.workbench.common.stunner.core.rule.RuleViolation;
+import org.kie.workbench.common.stunner.core.rule.RuleViolations;
+import org.kie.workbench.common.stunner.core.rule.violations.DockingRuleViolation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GraphBulkLoaderTest {
+
+    private Graph<?, Node> graph;
+    private GraphBulkLoader tested;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        graph = new GraphImpl<>("graph1",
+                                new GraphNodeStoreImpl());
+        tested = new GraphBulkLoader(graph);
+    }
+
+    @Test
+    public void testAddNode() {
+        final Node root = newNode("root");
+        tested.addNode(root);
+        assertSame(root, graph.getNode("root"));
+        assertSame(root, tested.getIndex().getNode("root"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAddChildNode() {
+        final Node parent = newNode("parent");
+        final Node child = newNode("child");
+        tested.addNode(parent)
+                .addChildNode(parent, child);
+        assertSame(child, graph.getNode("child"));
+        assertEquals(1, parent.getOutEdges().size());
+        assertEquals(1, child.getInEdges().size());
+        final Edge edge = (Edge) parent.getOutEdges().get(0);
+        assertTrue(edge.getContent() instanceof Child);
+        assertSame(parent, edge.getSourceNode());
+        assertSame(child, edge.getTargetNode());
+        assertSame(edge, child.getInEdges().get(0));
+        assertSame(edge, tested.getIndex().getEdge(edge.getUUID()));
+        assertFalse(tested.validate().violations().iterator().hasNext());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAddDockedNode() {
+        final Node parent = newNode("parent");
+        final Node docked = newNode("docked");
+        tested.addNode(parent)
+                .addDockedNode(parent, docked);
+        assertSame(docked, graph.getNode("docked"));
+        final Edge edge = (Edge) docked.getInEdges().get(0);
+        assertTrue(edge.getContent() instanceof Dock);
+        assertSame(parent, edge.getSourceNode());
+        assertFalse(tested.validate().violations().iterator().hasNext());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAddDockedNodeAlreadyConnected() {
+        final Node parent = newNode("parent");
+        final Node source = newNode("source");
+        final Node docked = newNode("docked");
+        tested.addNode(parent)
+                .addNode(source)
+                .addNode(docked)
+                .addConnector(source, newConnector("edge1"), null, Collections.emptyList(), docked, null)
+                .addDockedNode(parent, docked);
+        assertTrue(parent.getOutEdges().isEmpty());
+        assertEquals(1, docked.getInEdges().size());
+        final RuleViolation violation = tested.validate().violations().iterator().next();
+        assertTrue(violation instanceof DockingRuleViolation);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSetPosition() {
+        final Node<View<?>, Edge> node = newNode("node1");
+        tested.addNode(node)
+                .setPosition(node, Point2D.create(50, 60));
+        final Bounds bounds = node.getContent().getBounds();
+        assertEquals(50d, bounds.getUpperLeft().getX(), 0d);
+        assertEquals(60d, bounds.getUpperLeft().getY(), 0d);
+        assertEquals(150d, bounds.getLowerRight().getX(), 0d);
+        assertEquals(110d, bounds.getLowerRight().getY(), 0d);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAddConnector() {
+        final Node source = newNode("source");
+        final Node target = newNode("target");
+        final Edge<ViewConnector<?>, Node> edge = newConnector("edge1");
+        final MagnetConnection sourceConnection = MagnetConnection.Builder.atCenter(source);
+        final MagnetConnection targetConnection = MagnetConnection.Builder.atCenter(target);
+        final ControlPoint controlPoint = ControlPoint.build(5, 5);
+        tested.addNode(source)
+                .addNode(target)
+                .addConnector(source, edge, sourceConnection, Collections.singletonList(controlPoint), target, targetConnection);
+        assertSame(source, edge.getSourceNode());
+        assertSame(target, edge.getTargetNode());
+        assertSame(edge, source.getOutEdges().get(0));
+        assertSame(edge, target.getInEdges().get(0));
+        assertSame(sourceConnection, edge.getContent().getSourceConnection().get());
+        assertSame(targetConnection, edge.getContent().getTargetConnection().get());
+        assertEquals(1, edge.getContent().getControlPoints().length);
+        assertSame(controlPoint, edge.getContent().getControlPoints()[0]);
+        assertSame(edge, tested.getIndex().getEdge("edge1"));
+        assertFalse(tested.validate().violations().iterator().hasNext());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testValidateMissingNodes() {
+        final Node source = newNode("source");
+        final Node target = newNode("target");
+        tested.addNode(source)
+                .addConnector(source, newConnector("edge1"), null, Collections.emptyList(), target, null);
+        final RuleViolations violations = tested.validate();
+        assertTrue(violations.violations().iterator().hasNext());
+    }
+
+    @Test
+    public void testClear() {
+        final Node root = newNode("root");
+        tested.addNode(root)
+                .clear();
+        assertFalse(graph.nodes().iterator().hasNext());
+        assertEquals(null, tested.getIndex().getNode("root"));
+    }
+
+    private static Node<View<?>, Edge> newNode(final String uuid) {
+        final Node<View<?>, Edge> node = new NodeImpl<>(uuid);
+        node.setContent(new ViewImpl<>(new Object(),
+                                       Bounds.create(0, 0, 100, 50)));
+        return node;
+    }
+
+    private static Edge<ViewConnector<?>, Node> newConnector(final String uuid) {
+        final Edge<ViewConnector<?>, Node> edge = new EdgeImpl<>(uuid);
+        edge.setContent(new ViewConnectorImpl<>(new Object(),
+                                                Bounds.create()));
+        return edge;
+    }
+}
@@ -106,7 +106,7 @@ public class CachedRuleManagerTest {
         tested.evaluate(ruleSet,
                         containmentContext);
         verify(ruleSet, times(1)).getRules();
-        verify(containmentHandler, times(2)).evaluate(eq(containmentRule),
+        verify(containmentHandler, times(1)).evaluate(eq(containmentRule),
                                                       eq(containmentContext));
         verify(connectionHandler, never()).evaluate(any(CanConnect.class),
                                                     any(ConnectionContext.class));
@@ -119,9 +119,41 @@ public class CachedRuleManagerTest {
         tested.evaluate(ruleSet,
                         connectionContext);
         verify(ruleSet, times(1)).getRules();
-        verify(connectionHandler, times(2)).evaluate(eq(connectionRule),
+        verify(connectionHandler, times(1)).evaluate(eq(connectionRule),
                                                      eq(connectionContext));
         verify(containmentHandler, never()).evaluate(any(CanContain.class),
                                                      any(ContainmentContext.class));
     }
+
+    @Test
+    public void testEvaluateContainmentContextForOtherRoles() {
+        ContainmentContext otherContext = RuleEvaluationContextBuilder.DomainContexts.containment(Collections.singleton("role1"),
+                                                                                                 Collections.singleton("role2"));
+        tested.evaluate(ruleSet,
+                        containmentContext);
+        tested.evaluate(ruleSet,
+                        otherContext);
+        tested.evaluate(ruleSet,
+                        RuleEvaluationContextBuilder.DomainContexts.containment(Collections.singleton("role1"),
+                                                                                Collections.singleton("role2")));
+        verify(containmentHandler, times(1)).evaluate(eq(containmentRule),
+                                                      eq(containmentContext));
+        verify(containmentHandler, times(1)).evaluate(eq(containmentRule),
+                                                      eq(otherContext));
+    }
+
+    @Test
+    public void testEvaluateContainmentContextOnRuleSetChange() {
+        RuleSet otherRuleSet = mock(RuleSet.class);
+        when(otherRuleSet.getName()).thenReturn("testRuleSet");
+        when(otherRuleSet.getRules()).thenReturn(Arrays.asList(containmentRule, connectionRule));
+        tested.evaluate(ruleSet,
+                        containmentContext);
+        tested.evaluate(otherRuleSet,
+                        containmentContext);
+        verify(ruleSet, times(1)).getRules();
+        verify(otherRuleSet, times(1)).getRules();
+        verify(containmentHandler, times(2)).evaluate(eq(containmentRule),
+                                                      eq(containmentContext));
+    }
 }
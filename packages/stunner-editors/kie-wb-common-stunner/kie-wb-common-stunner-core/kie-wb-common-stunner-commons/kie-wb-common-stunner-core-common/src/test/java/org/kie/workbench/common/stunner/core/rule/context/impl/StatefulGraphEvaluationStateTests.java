@@ -31,9 +31,12 @@ import org.kie.workbench.common.stunner.core.graph.Node;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
 import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
 import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.index.map.MapIndex;
+import org.kie.workbench.common.stunner.core.graph.processing.index.map.MapIndexBuilder;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
@@ -76,6 +79,32 @@ public class StatefulGraphEvaluationStateTests {
         assertTrue(nodes.contains(someNewNode));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCardinalityStateCount() {
+        MapIndex index = new MapIndexBuilder().build(graphInstance.graph);
+        tested = new StatefulGraphEvaluationState(index);
+        StatefulGraphEvaluationState.StatefulCardinalityState cardinalityState = tested.getCardinalityState();
+        assertEquals(6, cardinalityState.count("all").getAsInt());
+        assertEquals(1, cardinalityState.count("nodeALabel").getAsInt());
+        NodeImpl someNewNode = new NodeImpl<>("someNewNodeUUID");
+        someNewNode.getLabels().add("all");
+        cardinalityState.add(someNewNode);
+        cardinalityState.delete(graphInstance.nodeA);
+        assertEquals(6, cardinalityState.count("all").getAsInt());
+        assertEquals(0, cardinalityState.count("nodeALabel").getAsInt());
+        assertEquals(0, cardinalityState.count("someOtherLabel").getAsInt());
+        index.removeNode(graphInstance.startNode);
+        assertFalse(cardinalityState.count("all").isPresent());
+        index.addNode(graphInstance.startNode);
+        assertEquals(1, cardinalityState.count("startNodeLabel").getAsInt());
+    }
+
+    @Test
+    public void testCardinalityStateCountNotIndexed() {
+        assertFalse(tested.getCardinalityState().count("all").isPresent());
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void testConnectorCardinalityState() {
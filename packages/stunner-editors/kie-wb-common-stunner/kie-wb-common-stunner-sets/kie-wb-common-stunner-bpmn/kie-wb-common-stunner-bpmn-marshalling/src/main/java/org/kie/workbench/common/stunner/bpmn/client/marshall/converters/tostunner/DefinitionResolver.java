@@ -21,7 +21,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -37,8 +36,8 @@ import org.eclipse.bpmn2.RootElement;
 import org.eclipse.bpmn2.Signal;
 import org.eclipse.bpmn2.di.BPMNDiagram;
 import org.eclipse.bpmn2.di.BPMNEdge;
-import org.eclipse.bpmn2.di.BPMNPlane;
 import org.eclipse.bpmn2.di.BPMNShape;
+import org.eclipse.dd.di.DiagramElement;
 import org.eclipse.emf.ecore.util.FeatureMap;
 import org.kie.workbench.common.stunner.bpmn.client.marshall.MarshallingRequest.Mode;
 import org.kie.workbench.common.stunner.bpmn.workitem.WorkItemDefinition;
@@ -74,6 +73,8 @@ public class DefinitionResolver {
     private final double resolutionFactor;
     private final boolean jbpm;
     private final Mode mode;
+    private final Map<String, BPMNShape> shapes = new HashMap<>();
+    private final Map<String, BPMNEdge> edges = new HashMap<>();
 
     public DefinitionResolver(
             Definitions definitions,
@@ -90,6 +91,7 @@ public class DefinitionResolver {
         this.jbpm = jbpm;
         this.mode = mode;
         this.definitionsId = calculateUniqueDefinitionsId(definitions);
+        indexDiagramElements();
     }
 
     public DefinitionResolver(Definitions definitions,
@@ -216,38 +218,34 @@ public class DefinitionResolver {
     }
 
     public BPMNShape getShape(String elementId) {
-        return definitions.getDiagrams().stream()
-                .map(BPMNDiagram::getPlane)
-                .map(plane -> getShape(plane, elementId))
-                .filter(Objects::nonNull)
-                .findFirst().orElse(null);
-    }
-
-    private static BPMNShape getShape(BPMNPlane plane, String elementId) {
-        return plane.getPlaneElement().stream()
-                .filter(dia -> dia instanceof BPMNShape)
-                .map(shape -> (BPMNShape) shape)
-                .filter(shape -> shape.getBpmnElement().getId().equals(elementId))
-                .findFirst().orElse(null);
+        return shapes.get(elementId);
     }
 
     public BPMNEdge getEdge(String elementId) {
-        return definitions.getDiagrams().stream()
-                .map(BPMNDiagram::getPlane)
-                .map(plane -> getEdge(plane, elementId))
-                .filter(Objects::nonNull)
-                .findFirst().orElse(null);
+        return edges.get(elementId);
     }
 
-    private static BPMNEdge getEdge(BPMNPlane plane, String elementId) {
-        return plane.getPlaneElement().stream()
-                .filter(dia -> dia instanceof BPMNEdge)
-                .map(edge -> (BPMNEdge) edge)
-                .filter(edge -> edge.getBpmnElement() != null)
-                .filter(edge -> edge.getBpmnElement().getId() != null)
-                .filter(edge -> edge.getBpmnElement().getId().equals(elementId))
-
-                .findFirst().orElse(null);
+    /**
+     * Indexes the shapes and edges of all diagram planes by the id of their BPMN element,
+     * so each lookup does not go through all the plane elements.
+     */
+    private void indexDiagramElements() {
+        // The first shape or edge found for an element id wins, as it did when looking them up one by one.
+        for (BPMNDiagram bpmnDiagram : definitions.getDiagrams()) {
+            for (DiagramElement element : bpmnDiagram.getPlane().getPlaneElement()) {
+                if (element instanceof BPMNShape) {
+                    final BPMNShape shape = (BPMNShape) element;
+                    if (shape.getBpmnElement() != null && shape.getBpmnElement().getId() != null) {
+                        shapes.putIfAbsent(shape.getBpmnElement().getId(), shape);
+                    }
+                } else if (element instanceof BPMNEdge) {
+                    final BPMNEdge edge = (BPMNEdge) element;
+                    if (edge.getBpmnElement() != null && edge.getBpmnElement().getId() != null) {
+                        edges.putIfAbsent(edge.getBpmnElement().getId(), edge);
+                    }
+                }
+            }
+        }
     }
 
     static double calculateResolutionFactor(final BPMNDiagram diagram) {
@@ -17,6 +17,7 @@
 package org.kie.workbench.common.stunner.bpmn.client.marshall.converters.tostunner;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.HashSet;
@@ -45,9 +46,12 @@ import org.kie.workbench.common.stunner.core.graph.content.view.Connection;
 import org.kie.workbench.common.stunner.core.graph.content.view.ControlPoint;
 import org.kie.workbench.common.stunner.core.graph.content.view.Point2D;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.processing.index.MutableIndex;
 import org.kie.workbench.common.stunner.core.graph.processing.index.map.MapIndexBuilder;
+import org.kie.workbench.common.stunner.core.graph.util.GraphBulkLoader;
 import org.kie.workbench.common.stunner.core.rule.RuleManager;
 import org.kie.workbench.common.stunner.core.rule.RuleViolation;
+import org.kie.workbench.common.stunner.core.rule.RuleViolations;
 
 /**
  * A wrapper for graph command execution,
@@ -69,6 +73,10 @@ import org.kie.workbench.common.stunner.core.rule.RuleViolation;
  * once all the conversions have took place: it traverses the entire directed graph described by the `BPMNNode`s
  * starting from the "root node", which represents the root of the diagram, and visiting
  * the parent/child relations in each BPMNNode and the `BPMNEdge` they may contain.
+ * <p>
+ * When building the graph by using {@link GraphBuilder#load(BpmnNode)}, instead of issuing commands,
+ * the elements are added straight into the graph and its index by a {@link GraphBulkLoader},
+ * and the resulting graph is validated once at the end.
  */
 public class GraphBuilder {
 
@@ -76,6 +84,8 @@ public class GraphBuilder {
     private final GraphCommandFactory commandFactory;
     private final GraphCommandManager commandManager;
     private final Graph<DefinitionSet, Node> graph;
+    private final MutableIndex<Node, Edge> index;
+    private GraphBulkLoader bulkLoader;
 
     public GraphBuilder(
             Graph<DefinitionSet, Node> graph,
@@ -85,10 +95,11 @@ public class GraphBuilder {
             GraphCommandFactory commandFactory,
             GraphCommandManager commandManager) {
         this.graph = graph;
+        this.index = new MapIndexBuilder().build(graph);
         this.executionContext = new DirectGraphCommandExecutionContext(
                 definitionManager,
                 typedFactoryManager.untyped(),
-                new MapIndexBuilder().build(graph));
+                index);
         this.commandFactory = commandFactory;
         this.commandManager = commandManager;
     }
@@ -102,6 +113,22 @@ public class GraphBuilder {
         buildGraph(root);
     }
 
+    /**
+     * Clears the graph and then walks the graph root, adding
+     * the resulting elements straight into the graph, with no commands involved.
+     * @return The violations found when validating the resulting graph.
+     */
+    public RuleViolations load(BpmnNode root) {
+        bulkLoader = new GraphBulkLoader(graph, index);
+        try {
+            bulkLoader.clear();
+            buildGraph(root);
+            return bulkLoader.validate();
+        } finally {
+            bulkLoader = null;
+        }
+    }
+
     /**
      * Starting from the given root node,
      * it walks the graph breadth-first and issues
@@ -146,6 +173,10 @@ public class GraphBuilder {
     }
 
     private void addDockedNode(Node parent, Node candidate) {
+        if (null != bulkLoader) {
+            bulkLoader.addDockedNode(parent, candidate);
+            return;
+        }
         AddDockedNodeCommand addNodeCommand = commandFactory.addDockedNode(parent, candidate);
         execute(addNodeCommand);
     }
@@ -175,6 +206,10 @@ public class GraphBuilder {
     }
 
     private void addChildNode(Node<? extends View, ?> parent, Node<? extends View, ?> child) {
+        if (null != bulkLoader) {
+            bulkLoader.addChildNode(parent, child);
+            return;
+        }
         AddChildNodeCommand addChildNodeCommand = commandFactory.addChildNode(parent, child);
         execute(addChildNodeCommand);
     }
@@ -196,13 +231,22 @@ public class GraphBuilder {
         updatePosition(node, coords);
     }
 
+    @SuppressWarnings("unchecked")
     private void updatePosition(Node node, Point2D position) {
+        if (null != bulkLoader) {
+            bulkLoader.setPosition(node, position);
+            return;
+        }
         UpdateElementPositionCommand updateElementPositionCommand =
                 commandFactory.updatePosition(node, position);
         execute(updateElementPositionCommand);
     }
 
     private void addNode(Node node) {
+        if (null != bulkLoader) {
+            bulkLoader.addNode(node);
+            return;
+        }
         AddNodeCommand addNodeCommand = commandFactory.addNode(node);
         execute(addNodeCommand);
     }
@@ -215,6 +259,14 @@ public class GraphBuilder {
             List<Point2D> controlPoints,
             Node target,
             Connection targetConnection) {
+        if (null != bulkLoader) {
+            final List<ControlPoint> cps = new ArrayList<>(controlPoints.size());
+            for (Point2D controlPoint : controlPoints) {
+                cps.add(ControlPoint.build(controlPoint));
+            }
+            bulkLoader.addConnector(source, edge, sourceConnection, cps, target, targetConnection);
+            return;
+        }
         final DeferredCompositeCommand.Builder<GraphCommandExecutionContext, RuleViolation> commandBuilder =
                 new DeferredCompositeCommand.Builder<>();
         addConnector(commandBuilder, source, edge, sourceConnection);
@@ -133,8 +133,8 @@ public class BPMNClientMarshalling {
 
         // the root node contains all the information
         // needed to build the entire graph (including parent/child relationships)
-        // thus, we can now walk the graph to issue all the commands
-        // to draw it on our canvas
+        // thus, we can now walk the graph to add all the elements
+        // straight into the graph, and validate it once at the end
         final Diagram<Graph<DefinitionSet, Node>, Metadata> diagram =
                 typedFactoryManager.newDiagram(
                         definitionResolver.getDefinitionsId(),
@@ -149,7 +149,9 @@ public class BPMNClientMarshalling {
                         ruleManager,
                         commandFactory,
                         commandManager);
-        graphBuilder.render(diagramRoot);
+        graphBuilder.load(diagramRoot)
+                .violations()
+                .forEach(violation -> LOGGER.log(Level.WARNING, violation.getMessage()));
 
         return graph;
     }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2023 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.workbench.common.stunner.bpmn.client.marshall.converters.tostunner;
+
+import java.util.Collections;
+import java.util.logging.Logger;
+
+import org.eclipse.bpmn2.Definitions;
+import org.eclipse.bpmn2.Process;
+import org.eclipse.bpmn2.SequenceFlow;
+import org.eclipse.bpmn2.Task;
+import org.eclipse.bpmn2.di.BPMNDiagram;
+import org.eclipse.bpmn2.di.BPMNEdge;
+import org.eclipse.bpmn2.di.BPMNPlane;
+import org.eclipse.bpmn2.di.BPMNShape;
+
+import static org.kie.workbench.common.stunner.bpmn.client.marshall.converters.fromstunner.Factories.bpmn2;
+import static org.kie.workbench.common.stunner.bpmn.client.marshall.converters.fromstunner.Factories.di;
+
+/**
+ * Times the shape and edge lookups, the way the node and edge converters do them, for a large generated process.
+ * <p>
+ * It is not part of the unit tests, as its figures depend on the machine. Run it through its <code>main</code> method.
+ */
+public class DefinitionResolverBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(DefinitionResolverBenchmark.class.getName());
+
+    private static final int TASKS = 3000;
+
+    private Definitions definitions;
+
+    public static void main(String[] args) {
+        DefinitionResolverBenchmark benchmark = new DefinitionResolverBenchmark();
+        benchmark.setUp();
+        benchmark.resolveLargeProcess();
+    }
+
+    private void setUp() {
+        definitions = bpmn2.createDefinitions();
+        Process process = bpmn2.createProcess();
+        definitions.getRootElements().add(process);
+        BPMNDiagram bpmnDiagram = di.createBPMNDiagram();
+        BPMNPlane bpmnPlane = di.createBPMNPlane();
+        bpmnDiagram.setPlane(bpmnPlane);
+        definitions.getDiagrams().add(bpmnDiagram);
+
+        Task previous = null;
+        for (int i = 0; i < TASKS; i++) {
+            Task task = bpmn2.createTask();
+            task.setId("task" + i);
+            process.getFlowElements().add(task);
+            BPMNShape shape = di.createBPMNShape();
+            shape.setBpmnElement(task);
+            bpmnPlane.getPlaneElement().add(shape);
+            if (null != previous) {
+                SequenceFlow sequenceFlow = bpmn2.createSequenceFlow();
+                sequenceFlow.setId("flow" + i);
+                sequenceFlow.setSourceRef(previous);
+                sequenceFlow.setTargetRef(task);
+                process.getFlowElements().add(sequenceFlow);
+                BPMNEdge edge = di.createBPMNEdge();
+                edge.setBpmnElement(sequenceFlow);
+                bpmnPlane.getPlaneElement().add(edge);
+            }
+            previous = task;
+        }
+    }
+
+    private void resolveLargeProcess() {
+        long start = System.currentTimeMillis();
+        DefinitionResolver definitionResolver = new DefinitionResolver(definitions, Collections.emptyList());
+        for (int i = 0; i < TASKS; i++) {
+            definitionResolver.getShape("task" + i);
+            if (i > 0) {
+                // Sequence flows are looked up as shapes first, then as edges.
+                definitionResolver.getShape("flow" + i);
+                definitionResolver.getEdge("flow" + i);
+            }
+        }
+        LOGGER.info("Resolved the shapes and edges of " + TASKS + " tasks in " + (System.currentTimeMillis() - start) + "ms");
+    }
+}
@@ -45,6 +45,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -115,7 +116,9 @@ public class DefinitionResolverTest {
         when(shape.getBpmnElement()).thenReturn(bpmnElement);
         when(bpmnElement.getId()).thenReturn(ID);
         planeElements.add(shape);
+        definitionResolver = new DefinitionResolver(definitions, Collections.emptyList());
         assertEquals(shape, definitionResolver.getShape(ID));
+        assertNull(definitionResolver.getEdge(ID));
     }
 
     @Test
@@ -125,7 +128,26 @@ public class DefinitionResolverTest {
         when(edge.getBpmnElement()).thenReturn(bpmnElement);
         when(bpmnElement.getId()).thenReturn(ID);
         planeElements.add(edge);
+        definitionResolver = new DefinitionResolver(definitions, Collections.emptyList());
         assertEquals(edge, definitionResolver.getEdge(ID));
+        assertNull(definitionResolver.getShape(ID));
+    }
+
+    @Test
+    public void testGetShapeFirstFound() {
+        BPMNShape shape = mock(BPMNShape.class);
+        BaseElement bpmnElement = mock(BaseElement.class);
+        when(shape.getBpmnElement()).thenReturn(bpmnElement);
+        when(bpmnElement.getId()).thenReturn(ID);
+        planeElements.add(shape);
+
+        BPMNShape duplicatedShape = mock(BPMNShape.class);
+        when(duplicatedShape.getBpmnElement()).thenReturn(bpmnElement);
+        planeElements.add(duplicatedShape);
+
+        definitionResolver = new DefinitionResolver(definitions, Collections.emptyList());
+        assertEquals(shape, definitionResolver.getShape(ID));
+        assertNull(definitionResolver.getShape("OTHER_ID"));
     }
 
     @Test